@@ -21,18 +21,22 @@ package org.apache.airavata.compute.task;
 
 import java.io.*;
 import java.util.*;
+import java.util.stream.Collectors;
 import org.apache.airavata.compute.util.JobSubmissionOutput;
+import org.apache.airavata.config.ServerSettings;
 import org.apache.airavata.interfaces.AgentAdaptor;
+import org.apache.airavata.interfaces.CommandOutput;
 import org.apache.airavata.model.commons.proto.ErrorModel;
 import org.apache.airavata.model.job.proto.JobModel;
 import org.apache.airavata.model.status.proto.*;
 import org.apache.airavata.model.workspace.proto.GatewayUsageReportingCommand;
 import org.apache.airavata.server.CountMonitor;
+import org.apache.airavata.task.DbTaskResult;
 import org.apache.airavata.task.TaskContext;
 import org.apache.airavata.task.TaskDef;
 import org.apache.airavata.task.TaskHelper;
+import org.apache.airavata.task.TaskHelperImpl;
 import org.apache.airavata.util.AiravataUtils;
-import org.apache.airavata.task.DbTaskResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -44,6 +48,10 @@ public class DefaultJobSubmissionTask extends JobSubmissionTask {
 
     private static final String DEFAULT_JOB_ID = "DEFAULT_JOB_ID";
 
+    // A job array member waiting for its group runs again after the window plus this, even if it was
+    // not resumed, so a group lost with a restarted executor does not hold its members back
+    private static final long JOB_ARRAY_RECHECK_GRACE_MS = 60 * 1000;
+
     @Override
     public DbTaskResult onRun(TaskHelper taskHelper, TaskContext taskContext) {
 
@@ -73,9 +81,46 @@ public class DefaultJobSubmissionTask extends JobSubmissionTask {
                 return onSuccess("A job is already available for task " + getTaskId());
             }
 
-            saveAndPublishProcessStatus(ProcessState.PROCESS_STATE_EXECUTING);
+            JobManagerConfiguration jobManagerConfiguration =
+                    JobFactory.getJobManagerConfiguration(getTaskContext().getResourceJobManager());
+            JobArraySupport arraySupport =
+                    ServerSettings.isJobArrayEnabled() ? jobManagerConfiguration.getJobArraySupport() : null;
+            JobArrayBatcher.Outcome arrayOutcome = null;
+            if (arraySupport != null) {
+                if (JobArrayBatcher.shared().isEnrolled(getTaskId())) {
+                    return awaitJobArray();
+                }
+                arrayOutcome = JobArrayBatcher.shared().takeOutcome(getTaskId());
+            }
+
+            if (arrayOutcome == null) {
+                saveAndPublishProcessStatus(ProcessState.PROCESS_STATE_EXECUTING);
+            }
             GroovyMapData mapData = new GroovyMapBuilder(getTaskContext()).build();
 
+            if (arraySupport != null && arrayOutcome == null) {
+                JobArraySupport.Marker marker = readJobArrayMarker(adaptor, mapData.getWorkingDirectory());
+                if (marker == null) {
+                    return enrollInJobArray(adaptor, jobManagerConfiguration, arraySupport, mapData);
+                }
+                arrayOutcome = reconcileJobArray(
+                        adaptor, arraySupport, marker, getTaskContext().getComputeResourceLoginUserName());
+                if (arrayOutcome == null) {
+                    return onFail(
+                            "Job of task " + getTaskId() + " may have been submitted in job array "
+                                    + marker.getArrayName() + ", whose job id was not recorded; not submitting again",
+                            false,
+                            null);
+                }
+            }
+
+            if (arrayOutcome != null && arrayOutcome.getElementJobId() != null) {
+                jobId = arrayOutcome.getElementJobId();
+                recordJobArrayElement(adaptor, jobManagerConfiguration, mapData, jobId);
+                reportUsage(mapData, jobId);
+                return onSuccess("Submitted job to compute resource as job array element " + jobId);
+            }
+
             JobSubmissionOutput submissionOutput = submitBatchJob(adaptor, mapData, mapData.getWorkingDirectory());
 
             JobModel jobModel = JobModel.newBuilder()
@@ -213,43 +258,7 @@ public class DefaultJobSubmissionTask extends JobSubmissionTask {
 
             } else {
                 // usage reporting as the last step of job submission task
-                try {
-                    mapData.setJobId(jobId);
-                    boolean reportingAvailable = getRegistryServiceClient()
-                            .isGatewayUsageReportingAvailable(getGatewayId(), taskContext.getComputeResourceId());
-
-                    if (reportingAvailable) {
-                        GatewayUsageReportingCommand reportingCommand = getRegistryServiceClient()
-                                .getGatewayReportingCommand(getGatewayId(), taskContext.getComputeResourceId());
-
-                        String parsedCommand = mapData.loadFromString(reportingCommand.getCommand());
-                        logger.debug("Parsed usage reporting command {}", parsedCommand);
-
-                        Process commandSubmit = Runtime.getRuntime().exec(parsedCommand);
-
-                        BufferedReader reader =
-                                new BufferedReader(new InputStreamReader(commandSubmit.getInputStream()));
-                        StringBuffer output = new StringBuffer();
-
-                        String line;
-                        while ((line = reader.readLine()) != null) {
-                            output.append(line);
-                            output.append("\n");
-                        }
-
-                        logger.info("Usage reporting output " + output.toString());
-                        commandSubmit.waitFor();
-                        logger.info("Usage reporting completed");
-
-                    } else {
-                        logger.info(
-                                "No usage reporting found for gateway {} and compute resource id {}",
-                                getGatewayId(),
-                                taskContext.getComputeResourceId());
-                    }
-                } catch (Exception e) {
-                    logger.error("Usage reporting failed but continuing. ", e);
-                }
+                reportUsage(mapData, jobId);
                 return onSuccess("Submitted job to compute resource");
             }
 
@@ -276,6 +285,239 @@ public class DefaultJobSubmissionTask extends JobSubmissionTask {
         }
     }
 
+    /**
+     * Write the job script to the working directory and enroll it in the job array group of the jobs that share
+     * this resource, login and scheduler directives, then suspend until the group has been submitted.
+     */
+    private DbTaskResult enrollInJobArray(
+            AgentAdaptor adaptor,
+            JobManagerConfiguration jobManagerConfiguration,
+            JobArraySupport arraySupport,
+            GroovyMapData mapData)
+            throws Exception {
+        String script = mapData.loadFromFile(jobManagerConfiguration.getJobDescriptionTemplateName());
+        logger.info("Generated job submission script : " + script);
+        String workingDirectory = mapData.getWorkingDirectory();
+        String scriptPath = writeScript(adaptor, jobManagerConfiguration, script, workingDirectory);
+
+        String groupKey = String.join(
+                "\n",
+                getTaskContext().getComputeResourceId(),
+                getTaskContext().getComputeResourceLoginUserName(),
+                String.valueOf(getTaskContext().getComputeResourceCredentialToken()),
+                getTaskContext()
+                        .getResourceJobManager()
+                        .getResourceJobManagerType()
+                        .name(),
+                String.join("\n", arraySupport.sharedDirectives(script)));
+        JobArrayBatcher.Member member = new JobArrayBatcher.Member(
+                getTaskId(),
+                new JobArraySupport.Element(
+                        workingDirectory, scriptPath, mapData.getStdoutFile(), mapData.getStderrFile()));
+        String gatewayId = getTaskContext().getGatewayId();
+        String computeId = getTaskContext().getComputeResourceId();
+        String token = getTaskContext().getComputeResourceCredentialToken();
+        String loginUserName = getTaskContext().getComputeResourceLoginUserName();
+        JobArrayBatcher.Dispatcher dispatcher = members -> {
+            // The run that opened the group has handed its adaptor back by now, so the dispatch leases its own
+            try (TaskHelperImpl dispatchHelper = new TaskHelperImpl()) {
+                AgentAdaptor dispatchAdaptor = dispatchHelper
+                        .getAdaptorSupport()
+                        .fetchAdaptor(gatewayId, computeId, token, loginUserName);
+                return submitJobArray(dispatchAdaptor, jobManagerConfiguration, arraySupport, script, mapData, members);
+            }
+        };
+        JobArrayBatcher.shared()
+                .enroll(
+                        groupKey,
+                        member,
+                        dispatcher,
+                        ServerSettings.getJobArrayWindowMs(),
+                        ServerSettings.getJobArrayMaxSize());
+        logger.info(
+                "Job script of process " + getProcessId() + " written to " + scriptPath + ", waiting for job array");
+        return awaitJobArray();
+    }
+
+    private DbTaskResult awaitJobArray() {
+        return DbTaskResult.suspended(
+                "Waiting for the job array of task " + getTaskId() + " to be submitted",
+                System.currentTimeMillis() + ServerSettings.getJobArrayWindowMs() + JOB_ARRAY_RECHECK_GRACE_MS);
+    }
+
+    /**
+     * Submit the job scripts of {@code members} as one job array, with the scheduler directives of this task's
+     * script, and return the job id of each element. Every member's marker names the array before it is
+     * submitted and carries its job id once the scheduler has accepted it.
+     */
+    private List<String> submitJobArray(
+            AgentAdaptor adaptor,
+            JobManagerConfiguration jobManagerConfiguration,
+            JobArraySupport arraySupport,
+            String script,
+            GroovyMapData mapData,
+            List<JobArrayBatcher.Member> members)
+            throws Exception {
+        String arrayName = mapData.getJobName() + "_array";
+        String workingDirectory = mapData.getWorkingDirectory();
+        List<JobArraySupport.Element> elements =
+                members.stream().map(JobArrayBatcher.Member::getElement).collect(Collectors.toList());
+        String dispatcher = arraySupport.dispatcherScript(script, arrayName, workingDirectory, elements);
+
+        for (String command : JobArraySupport.markerCommands(arrayName, null, elements)) {
+            CommandOutput markerOutput = adaptor.executeCommand(command, null);
+            if (markerOutput.getExitCode() != 0) {
+                throw new Exception("Failed to mark the members of job array " + arrayName + " : "
+                        + markerOutput.getStdError());
+            }
+        }
+        JobSubmissionOutput submissionOutput =
+                submitScript(adaptor, jobManagerConfiguration, dispatcher, workingDirectory, arrayName);
+        String arrayJobId = submissionOutput.getJobId();
+        if (submissionOutput.isJobSubmissionFailed() || arrayJobId == null || arrayJobId.isEmpty()) {
+            if (arrayJobId != null && !arrayJobId.isEmpty()) {
+                // The members fall back to individual submission, so the array must not run as well
+                cancelJob(adaptor, arrayJobId);
+            }
+            throw new Exception("Job array submission did not return a job id. Exit code : "
+                    + submissionOutput.getExitCode() + ", stdout : " + submissionOutput.getStdOut() + ", stderr : "
+                    + submissionOutput.getStdErr());
+        }
+
+        logger.info(
+                "Submitted job array " + arrayJobId + " of " + members.size() + " jobs from process " + getProcessId());
+        for (String command : JobArraySupport.markerCommands(arrayName, arrayJobId, elements)) {
+            CommandOutput markerOutput = adaptor.executeCommand(command, null);
+            if (markerOutput.getExitCode() != 0) {
+                // Members still find the array by name if they resume after a restart
+                logger.warn("Failed to record job id " + arrayJobId + " in the markers of job array " + arrayName
+                        + " : " + markerOutput.getStdError());
+            }
+        }
+        List<String> elementJobIds = new ArrayList<>(members.size());
+        for (int index = 1; index <= members.size(); index++) {
+            elementJobIds.add(arraySupport.elementJobId(arrayJobId, index));
+        }
+        return elementJobIds;
+    }
+
+    /**
+     * Save the job of this task as the job array element {@code elementJobId} and verify it with the scheduler,
+     * as an individually submitted job is.
+     */
+    private void recordJobArrayElement(
+            AgentAdaptor adaptor,
+            JobManagerConfiguration jobManagerConfiguration,
+            GroovyMapData mapData,
+            String elementJobId)
+            throws Exception {
+        JobModel jobModel = JobModel.newBuilder()
+                .setProcessId(getProcessId())
+                .setWorkingDir(mapData.getWorkingDirectory())
+                .setCreationTime(AiravataUtils.getCurrentTimestamp().getTime())
+                .setTaskId(getTaskId())
+                .setJobName(mapData.getJobName())
+                .setJobDescription(mapData.loadFromFile(jobManagerConfiguration.getJobDescriptionTemplateName()))
+                .setJobId(elementJobId)
+                .build();
+        saveJobModel(jobModel);
+
+        JobStatus jobStatus = JobStatus.newBuilder()
+                .setJobState(JobState.SUBMITTED)
+                .setReason("Successfully Submitted as a job array element to "
+                        + getComputeResourceDescription().getHostName())
+                .setTimeOfStateChange(AiravataUtils.getCurrentTimestamp().getTime())
+                .build();
+        saveAndPublishJobStatus(jobModel.toBuilder()
+                .clearJobStatuses()
+                .addJobStatuses(jobStatus)
+                .build());
+        logger.info("Job of process " + getProcessId() + " submitted as job array element " + elementJobId);
+
+        if (verifyJobSubmissionByJobId(adaptor, elementJobId)) {
+            JobStatus queuedStatus = JobStatus.newBuilder()
+                    .setJobState(JobState.QUEUED)
+                    .setReason("Verification step succeeded")
+                    .setTimeOfStateChange(AiravataUtils.getCurrentTimestamp().getTime())
+                    .build();
+            saveAndPublishJobStatus(jobModel.toBuilder()
+                    .clearJobStatuses()
+                    .addJobStatuses(queuedStatus)
+                    .build());
+        }
+    }
+
+    /**
+     * What to do for a task whose run ended after its group marked it but before it was resumed, e.g. with a
+     * restarted executor: run as the marked array element, submit individually if the array never reached the
+     * scheduler, or null if the array may have been queued but its job id is unknown.
+     */
+    private JobArrayBatcher.Outcome reconcileJobArray(
+            AgentAdaptor adaptor, JobArraySupport arraySupport, JobArraySupport.Marker marker, String loginUserName) {
+        if (marker.getArrayJobId() != null) {
+            return JobArrayBatcher.Outcome.element(
+                    arraySupport.elementJobId(marker.getArrayJobId(), marker.getIndex()));
+        }
+        if (verifyJobSubmission(adaptor, marker.getArrayName(), loginUserName) != null) {
+            return null;
+        }
+        logger.info("Job array " + marker.getArrayName() + " of task " + getTaskId()
+                + " was not submitted; submitting the job individually");
+        return JobArrayBatcher.Outcome.RELEASED;
+    }
+
+    /** The job array marker left in {@code workingDirectory} by an earlier run's group, or null if there is none. */
+    private JobArraySupport.Marker readJobArrayMarker(AgentAdaptor adaptor, String workingDirectory) {
+        try {
+            CommandOutput output = adaptor.executeCommand(JobArraySupport.readMarkerCommand(workingDirectory), null);
+            return output.getExitCode() == 0 ? JobArraySupport.parseMarker(output.getStdOut()) : null;
+        } catch (Exception e) {
+            logger.warn("Error while reading the job array marker in " + workingDirectory, e);
+            return null;
+        }
+    }
+
+    private void reportUsage(GroovyMapData mapData, String jobId) {
+        try {
+            mapData.setJobId(jobId);
+            boolean reportingAvailable = getRegistryServiceClient()
+                    .isGatewayUsageReportingAvailable(
+                            getGatewayId(), getTaskContext().getComputeResourceId());
+
+            if (reportingAvailable) {
+                GatewayUsageReportingCommand reportingCommand = getRegistryServiceClient()
+                        .getGatewayReportingCommand(
+                                getGatewayId(), getTaskContext().getComputeResourceId());
+
+                String parsedCommand = mapData.loadFromString(reportingCommand.getCommand());
+                logger.debug("Parsed usage reporting command {}", parsedCommand);
+
+                Process commandSubmit = Runtime.getRuntime().exec(parsedCommand);
+
+                BufferedReader reader = new BufferedReader(new InputStreamReader(commandSubmit.getInputStream()));
+                StringBuffer output = new StringBuffer();
+
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    output.append(line);
+                    output.append("\n");
+                }
+
+                logger.info("Usage reporting output " + output.toString());
+                commandSubmit.waitFor();
+                logger.info("Usage reporting completed");
+
+            } else {
+                logger.info(
+                        "No usage reporting found for gateway {} and compute resource id {}",
+                        getGatewayId(),
+                        getTaskContext().getComputeResourceId());
+            }
+        } catch (Exception e) {
+            logger.error("Usage reporting failed but continuing. ", e);
+        }
+    }
+
     private boolean verifyJobSubmissionByJobId(AgentAdaptor agentAdaptor, String jobID) {
         JobStatus status = null;
 
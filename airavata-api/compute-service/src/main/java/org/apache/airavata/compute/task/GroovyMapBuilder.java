@@ -19,8 +19,6 @@
 */
 package org.apache.airavata.compute.task;
 
-import groovy.text.GStringTemplateEngine;
-import groovy.text.TemplateEngine;
 import java.io.File;
 import java.io.IOException;
 import java.text.SimpleDateFormat;
@@ -427,10 +425,9 @@ public class GroovyMapBuilder {
     }
 
     static String parseCommands(String value, GroovyMapData bindMap) {
-        TemplateEngine templateEngine = new GStringTemplateEngine();
         try {
-            return templateEngine
-                    .createTemplate(value)
+            return JobScriptTemplates.shared()
+                    .compile(value)
                     .make(bindMap.toImmutableMap())
                     .toString();
         } catch (ClassNotFoundException | IOException e) {
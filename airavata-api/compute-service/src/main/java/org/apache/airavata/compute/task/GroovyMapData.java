@@ -20,16 +20,12 @@
 package org.apache.airavata.compute.task;
 
 import groovy.lang.Writable;
-import groovy.text.GStringTemplateEngine;
-import groovy.text.TemplateEngine;
 import java.lang.reflect.Field;
 import java.net.URL;
-import java.nio.charset.Charset;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.apache.airavata.config.ApplicationSettings;
-import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -561,10 +557,9 @@ public class GroovyMapData {
     }
 
     public String loadFromString(String templateStr) throws Exception {
-        TemplateEngine engine = new GStringTemplateEngine();
         Writable make;
         try {
-            make = engine.createTemplate(templateStr).make(toImmutableMap());
+            make = JobScriptTemplates.shared().compile(templateStr).make(toImmutableMap());
             // String intermediateOut = make.toString();
             // make = engine.createTemplate(intermediateOut).make(toImmutableMap()); // Parsing through the map to
             // resolve parameters in the map values (AIRAVATA-3391)
@@ -588,7 +583,7 @@ public class GroovyMapData {
         }
 
         try {
-            String templateStr = IOUtils.toString(templateUrl.openStream(), Charset.defaultCharset());
+            String templateStr = JobScriptTemplates.shared().read(templateUrl);
             return loadFromString(templateStr);
         } catch (Exception e) {
             throw new Exception(
@@ -19,8 +19,6 @@
 */
 package org.apache.airavata.compute.task;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -35,6 +33,13 @@ public class HTCondorOutputParser implements OutputParser {
     public static final String STATUS = "status";
     public static final String JOBID = "jobId";
 
+    private static final Pattern SUBMITTED =
+            Pattern.compile("\\d+ job\\(s\\) submitted to cluster (?<" + JOBID + ">\\d+)");
+    private static final Pattern FAILED = Pattern.compile("failed");
+    // condor_q columns: ID OWNER SUBMITTED(date time) RUN_TIME ST PRI SIZE CMD, where ID is <cluster>.<proc>
+    private static final int NAME_COLUMN = 2;
+    private static final int STATE_COLUMN = 5;
+
     /**
      * This can be used to parseSingleJob the result of a job submission to get the JobID
      * @param rawOutput
@@ -44,8 +49,7 @@ public class HTCondorOutputParser implements OutputParser {
         log.info(rawOutput);
         if (rawOutput != null && !rawOutput.isEmpty()) {
 
-            Pattern pattern = Pattern.compile("\\d+ job\\(s\\) submitted to cluster (?<" + JOBID + ">\\d+)");
-            Matcher matcher = pattern.matcher(rawOutput);
+            Matcher matcher = SUBMITTED.matcher(rawOutput);
 
             if (matcher.find()) {
                 return matcher.group(JOBID);
@@ -60,9 +64,7 @@ public class HTCondorOutputParser implements OutputParser {
      * @return true if job submission has been failed, false otherwise.
      */
     public boolean isJobSubmissionFailed(String rawOutput) {
-        Pattern pattern = Pattern.compile("failed");
-        Matcher matcher = pattern.matcher(rawOutput);
-        return matcher.find();
+        return FAILED.matcher(rawOutput).find();
     }
 
     /**
@@ -73,18 +75,21 @@ public class HTCondorOutputParser implements OutputParser {
     public JobStatus parseJobStatus(String jobID, String rawOutput) throws Exception {
         log.info(rawOutput);
         if (rawOutput != null && !rawOutput.isEmpty()) {
-            Pattern pattern = Pattern.compile(
-                    "\\s+" + jobID + ".\\d+(?=\\s+\\S+\\s+\\S+\\s+\\S+\\s+\\S+\\s+(?<" + STATUS + ">\\w+))");
-            Matcher matcher = pattern.matcher(rawOutput);
-
-            if (matcher.find()) {
-                if (matcher.group(STATUS).equals("E")) {
-                    log.info("parsing the job status returned : " + STATUS);
-                    return JobStatus.newBuilder().setJobState(JobState.FAILED).build();
+            OutputLines lines = new OutputLines(rawOutput);
+            while (lines.next()) {
+                String id = lines.column(0);
+                String status = lines.column(STATE_COLUMN);
+                if (status != null && isProcOf(id, jobID)) {
+                    if (status.equals("E")) {
+                        log.info("parsing the job status returned : " + STATUS);
+                        return JobStatus.newBuilder()
+                                .setJobState(JobState.FAILED)
+                                .build();
+                    }
+                    return JobStatus.newBuilder()
+                            .setJobState(JobUtil.getJobState(status))
+                            .build();
                 }
-                return JobStatus.newBuilder()
-                        .setJobState(JobUtil.getJobState(matcher.group(STATUS)))
-                        .build();
             }
         }
         return null;
@@ -97,79 +102,60 @@ public class HTCondorOutputParser implements OutputParser {
      */
     public void parseJobStatuses(String userName, Map<String, JobStatus> statusMap, String rawOutput) throws Exception {
         log.debug(rawOutput);
-
-        String[] info = rawOutput.split("\n");
-        String lastString = info[info.length - 1];
-
-        if (lastString.contains("ID") || lastString.contains("OWNER")) {
+        // keys are <job id>,<owner>: every job of an owner takes the state of the owner's first listed job
+        Map<String, String> states =
+                OutputLines.statesByJobName(rawOutput, statusMap.keySet(), Integer.MAX_VALUE, STATE_COLUMN, 1);
+        if (states.isEmpty()) {
             log.info("There are no jobs with this username ... ");
-            return;
         }
-
         for (String jobID : statusMap.keySet()) {
-            String jobId = jobID.split(",")[0];
-            String ownerName = jobID.split(",")[1];
-            boolean found = false;
-
-            for (int i = 1; i < info.length; i++) {
-                if (info[i].contains(ownerName)) {
-                    // now starts processing this line
-                    log.info(info[i]);
-                    String correctLine = info[i];
-                    String[] columns = correctLine.split(" ");
-                    List<String> columnList = new ArrayList<String>();
-                    for (String s : columns) {
-                        if (!"".equals(s)) {
-                            columnList.add(s);
-                        }
-                    }
-                    if ("E".equals(columnList.get(4))) {
-                        columnList.set(4, "Er");
-                    }
-                    try {
-                        statusMap.put(
-                                jobID,
-                                JobStatus.newBuilder()
-                                        .setJobState(JobState.valueOf(columnList.get(4)))
-                                        .build());
-                    } catch (IndexOutOfBoundsException e) {
-                        statusMap.put(
-                                jobID,
-                                JobStatus.newBuilder()
-                                        .setJobState(JobState.valueOf("U"))
-                                        .build());
-                    }
-                    found = true;
-                    break;
-                }
-            }
-            if (!found) {
-                log.error("Couldn't find the status of the Job with Owner: " + ownerName + "Job Id: " + jobId);
+            if (states.containsKey(jobID)) {
+                String state = states.get(jobID);
+                statusMap.put(
+                        jobID,
+                        JobStatus.newBuilder()
+                                .setJobState(
+                                        JobUtil.getJobState(state == null ? "U" : "E".equals(state) ? "Er" : state))
+                                .build());
+            } else {
+                log.error("Couldn't find the status of the Job with Owner: " + jobID.split(",")[1] + "Job Id: "
+                        + jobID.split(",")[0]);
             }
         }
     }
 
     @Override
     public String parseJobId(String jobName, String rawOutput) throws Exception {
-        String regJobId = "jobId";
         if (jobName == null) {
             return null;
         } else if (jobName.length() > JOB_NAME_OUTPUT_LENGTH) {
             jobName = jobName.substring(0, JOB_NAME_OUTPUT_LENGTH);
         }
-        Pattern pattern = Pattern.compile(
-                "(?=(?<" + regJobId + ">\\d+)\\s+\\w+\\s+" + jobName + ")"); // regex - look ahead and match
         if (rawOutput != null) {
-            Matcher matcher = pattern.matcher(rawOutput);
-            if (matcher.find()) {
-                return matcher.group(regJobId);
-            } else {
+            String jobId = OutputLines.jobIdByName(rawOutput, NAME_COLUMN, jobName);
+            if (jobId == null) {
                 log.error("No match is found for JobName");
-                return null;
             }
+            return jobId;
         } else {
             log.error("Error: RawOutput shouldn't be null");
             return null;
         }
     }
+
+    /** Whether the condor_q id {@code id} is {@code <clusterId>.<proc>}. */
+    private static boolean isProcOf(String id, String clusterId) {
+        if (id == null
+                || id.length() <= clusterId.length() + 1
+                || !id.startsWith(clusterId)
+                || id.charAt(clusterId.length()) != '.') {
+            return false;
+        }
+        for (int i = clusterId.length() + 1; i < id.length(); i++) {
+            if (!Character.isDigit(id.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
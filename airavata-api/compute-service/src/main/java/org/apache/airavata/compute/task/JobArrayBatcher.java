@@ -0,0 +1,193 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.compute.task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.apache.airavata.server.CountMonitor;
+import org.apache.airavata.task.SuspendedTasks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Gathers homogeneous job submissions into job arrays. A job-submission task whose job could run as an
+ * array element enrolls under a group key (its compute resource, login and shared scheduler directives)
+ * and suspends. When the group's window closes, or the group is full, the group is submitted once by the
+ * dispatcher of its first member; every member is then resumed through {@link SuspendedTasks} with its
+ * element job id, and records, verifies and reports its job on the executor like an individual
+ * submission. A group of one, or one whose array submission failed, is released and its members submit
+ * their jobs individually when they resume.
+ *
+ * <p>Groups are kept in memory. The dispatcher leaves a {@link JobArraySupport.Marker} in the working
+ * directory of every member before it submits, so a task that resumes after an executor restart, and
+ * finds itself neither enrolled nor released, reconciles with the array it was submitted in instead of
+ * submitting its job again.
+ */
+final class JobArrayBatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobArrayBatcher.class);
+    private static final CountMonitor jobArrayCounter = new CountMonitor("job_array_member_count", "outcome");
+
+    private static final JobArrayBatcher shared = new JobArrayBatcher(Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "job-array-batcher");
+        thread.setDaemon(true);
+        return thread;
+    }));
+
+    /** What a member's group left for it: the job array element it runs as, or a release. */
+    static final class Outcome {
+        static final Outcome RELEASED = new Outcome(null); // submit the job individually
+
+        private final String elementJobId;
+
+        private Outcome(String elementJobId) {
+            this.elementJobId = elementJobId;
+        }
+
+        static Outcome element(String elementJobId) {
+            return new Outcome(elementJobId);
+        }
+
+        /** Job id of the member's array element, or null if the member was released. */
+        String getElementJobId() {
+            return elementJobId;
+        }
+    }
+
+    /** Submits the array for a closed group and returns the element job ids, in member order. */
+    @FunctionalInterface
+    interface Dispatcher {
+        List<String> submit(List<Member> members) throws Exception;
+    }
+
+    static final class Member {
+        private final String taskId;
+        private final JobArraySupport.Element element;
+
+        Member(String taskId, JobArraySupport.Element element) {
+            this.taskId = taskId;
+            this.element = element;
+        }
+
+        String getTaskId() {
+            return taskId;
+        }
+
+        JobArraySupport.Element getElement() {
+            return element;
+        }
+    }
+
+    private static final class Group {
+        private final Dispatcher dispatcher;
+        private final List<Member> members = new ArrayList<>();
+
+        private Group(Dispatcher dispatcher) {
+            this.dispatcher = dispatcher;
+        }
+    }
+
+    private final ScheduledExecutorService scheduler;
+    private final ConcurrentHashMap<String, Group> openGroups = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Member> enrolled = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Outcome> outcomes = new ConcurrentHashMap<>();
+
+    JobArrayBatcher(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    static JobArrayBatcher shared() {
+        return shared;
+    }
+
+    /**
+     * Add {@code member} to the open group of {@code groupKey}, opening one that closes after
+     * {@code windowMs} if there is none. {@code dispatcher} is used if this member opens the group.
+     */
+    void enroll(String groupKey, Member member, Dispatcher dispatcher, long windowMs, int maxSize) {
+        enrolled.put(member.taskId, member);
+        Group[] full = new Group[1];
+        openGroups.compute(groupKey, (key, group) -> {
+            if (group == null) {
+                Group opened = new Group(dispatcher);
+                scheduler.schedule(() -> close(key, opened), windowMs, TimeUnit.MILLISECONDS);
+                group = opened;
+            }
+            group.members.add(member);
+            if (group.members.size() >= maxSize) {
+                full[0] = group;
+                return null;
+            }
+            return group;
+        });
+        if (full[0] != null) {
+            scheduler.execute(() -> dispatch(full[0]));
+        }
+    }
+
+    /** Whether {@code taskId} is waiting in a group that has not been submitted yet. */
+    boolean isEnrolled(String taskId) {
+        return enrolled.containsKey(taskId);
+    }
+
+    /** The outcome left for {@code taskId} by its group, if any; it is handed out once. */
+    Outcome takeOutcome(String taskId) {
+        return outcomes.remove(taskId);
+    }
+
+    private void close(String groupKey, Group group) {
+        if (openGroups.remove(groupKey, group)) {
+            dispatch(group);
+        }
+    }
+
+    private void dispatch(Group group) {
+        List<Member> members = group.members;
+        if (members.size() == 1) {
+            finish(members.get(0), Outcome.RELEASED);
+            return;
+        }
+
+        List<String> elementJobIds;
+        try {
+            elementJobIds = group.dispatcher.submit(members);
+        } catch (Exception e) {
+            logger.error("Job array submission of {} jobs failed; submitting them individually", members.size(), e);
+            members.forEach(member -> finish(member, Outcome.RELEASED));
+            return;
+        }
+
+        for (int i = 0; i < members.size(); i++) {
+            finish(members.get(i), Outcome.element(elementJobIds.get(i)));
+        }
+    }
+
+    private void finish(Member member, Outcome outcome) {
+        // The outcome is in place before the member leaves the enrolled set, so a resumed run sees one or the other
+        outcomes.put(member.taskId, outcome);
+        enrolled.remove(member.taskId);
+        jobArrayCounter.inc(outcome.elementJobId != null ? "element" : "released");
+        SuspendedTasks.resume(member.taskId);
+    }
+}
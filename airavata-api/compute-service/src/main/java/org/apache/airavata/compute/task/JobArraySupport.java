@@ -0,0 +1,303 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.compute.task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * How a batch scheduler runs many homogeneous jobs as one job array: the directive syntax that asks for
+ * the array, the environment variable carrying the element index, and the job id each element gets.
+ * Job managers without arrays return {@code null} from {@link JobManagerConfiguration#getJobArraySupport()}.
+ *
+ * <p>Elements keep the job script rendered for their own process. The array is submitted as a dispatcher
+ * script that carries the scheduler directives shared by all elements and runs the script of element
+ * {@code i} from that element's working directory.
+ */
+public final class JobArraySupport {
+
+    public static final JobArraySupport SLURM = new JobArraySupport(
+            "#SBATCH",
+            Set.of("-J", "--job-name", "-o", "--output", "-e", "--error", "-D", "--chdir", "-a", "--array"),
+            "SLURM_ARRAY_TASK_ID",
+            (jobName, size, logDirectory) -> List.of(
+                    "#SBATCH -J " + jobName,
+                    "#SBATCH --array=1-" + size,
+                    "#SBATCH -o " + logDirectory + jobName + "-%A_%a.out",
+                    "#SBATCH -e " + logDirectory + jobName + "-%A_%a.err"),
+            (arrayJobId, index) -> arrayJobId + "_" + index);
+
+    // Torque syntax, which is what the PBS job template targets
+    public static final JobArraySupport PBS = new JobArraySupport(
+            "#PBS",
+            Set.of("-N", "-o", "-e", "-d", "-t"),
+            "PBS_ARRAYID",
+            (jobName, size, logDirectory) -> List.of(
+                    "#PBS -N " + jobName, "#PBS -t 1-" + size, "#PBS -o " + logDirectory, "#PBS -e " + logDirectory),
+            (arrayJobId, index) -> arrayJobId.contains("[]")
+                    ? arrayJobId.replace("[]", "[" + index + "]")
+                    : arrayJobId + "[" + index + "]");
+
+    public static final JobArraySupport LSF = new JobArraySupport(
+            "#BSUB",
+            Set.of("-J", "-o", "-e", "-oo", "-eo", "-cwd"),
+            "LSB_JOBINDEX",
+            (jobName, size, logDirectory) -> List.of(
+                    "#BSUB -J \"" + jobName + "[1-" + size + "]\"",
+                    "#BSUB -o " + logDirectory + jobName + ".%J.%I.out",
+                    "#BSUB -e " + logDirectory + jobName + ".%J.%I.err"),
+            (arrayJobId, index) -> arrayJobId + "[" + index + "]");
+
+    private static final String DEFAULT_SHELL = "/bin/bash";
+
+    /** File in an element's working directory naming the job array the element was submitted in. */
+    static final String MARKER_FILE = ".airavata_job_array";
+
+    // Elements per marker command, so one command stays well below the remote shell's argument limit
+    private static final int MARKERS_PER_COMMAND = 200;
+
+    /** Directives that turn a dispatcher script into an array of {@code size} elements. */
+    @FunctionalInterface
+    interface ArrayDirectives {
+        List<String> of(String jobName, int size, String logDirectory);
+    }
+
+    @FunctionalInterface
+    interface ElementJobId {
+        String of(String arrayJobId, int index);
+    }
+
+    /** One array element: the job script of a process, already written to its working directory. */
+    public static final class Element {
+        private final String workingDirectory;
+        private final String scriptPath;
+        private final String stdoutFile;
+        private final String stderrFile;
+
+        public Element(String workingDirectory, String scriptPath, String stdoutFile, String stderrFile) {
+            this.workingDirectory = workingDirectory;
+            this.scriptPath = scriptPath;
+            this.stdoutFile = stdoutFile;
+            this.stderrFile = stderrFile;
+        }
+    }
+
+    /** The job array an element was submitted in, as read back from its {@link #MARKER_FILE}. */
+    public static final class Marker {
+        private final String arrayName;
+        private final int index;
+        private final String arrayJobId;
+
+        Marker(String arrayName, int index, String arrayJobId) {
+            this.arrayName = arrayName;
+            this.index = index;
+            this.arrayJobId = arrayJobId;
+        }
+
+        public String getArrayName() {
+            return arrayName;
+        }
+
+        /** 1-based index of the element in its array. */
+        public int getIndex() {
+            return index;
+        }
+
+        /** Job id of the array, or null if the marker was written before the scheduler accepted it. */
+        public String getArrayJobId() {
+            return arrayJobId;
+        }
+    }
+
+    private final String directivePrefix;
+    private final Set<String> perJobOptions;
+    private final String indexVariable;
+    private final ArrayDirectives arrayDirectives;
+    private final ElementJobId elementJobId;
+
+    JobArraySupport(
+            String directivePrefix,
+            Set<String> perJobOptions,
+            String indexVariable,
+            ArrayDirectives arrayDirectives,
+            ElementJobId elementJobId) {
+        this.directivePrefix = directivePrefix;
+        this.perJobOptions = perJobOptions;
+        this.indexVariable = indexVariable;
+        this.arrayDirectives = arrayDirectives;
+        this.elementJobId = elementJobId;
+    }
+
+    /**
+     * The scheduler directives of {@code script} that are not specific to one job (its name, output files
+     * and working directory), in script order. Jobs with equal shared directives request the same queue,
+     * resources, wall time and account, so they can run as elements of one array. Only the leading comment
+     * block is read, as that is all the scheduler reads.
+     */
+    public List<String> sharedDirectives(String script) {
+        List<String> directives = new ArrayList<>();
+        for (String line : script.split("\\r?\\n")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (!trimmed.startsWith("#")) {
+                break;
+            }
+            if (isDirective(trimmed) && !perJobOptions.contains(option(trimmed))) {
+                directives.add(trimmed);
+            }
+        }
+        return directives;
+    }
+
+    /**
+     * The script submitted for the array: the interpreter line and shared directives of {@code leaderScript},
+     * the array directives, and a dispatch on the element index that runs the script of element {@code i}
+     * (1-based, in list order) in its working directory with its own standard output and error files.
+     * Scheduler logs of the dispatcher itself go to {@code logDirectory}.
+     */
+    public String dispatcherScript(String leaderScript, String jobName, String logDirectory, List<Element> elements) {
+        String shell = interpreter(leaderScript);
+        String logDir = logDirectory.endsWith("/") ? logDirectory : logDirectory + "/";
+
+        StringBuilder script = new StringBuilder("#!").append(shell).append('\n');
+        for (String directive : sharedDirectives(leaderScript)) {
+            script.append(directive).append('\n');
+        }
+        for (String directive : arrayDirectives.of(jobName, elements.size(), logDir)) {
+            script.append(directive).append('\n');
+        }
+        script.append('\n').append("case \"$").append(indexVariable).append("\" in\n");
+        for (int i = 0; i < elements.size(); i++) {
+            Element element = elements.get(i);
+            script.append("  ")
+                    .append(i + 1)
+                    .append(") cd ")
+                    .append(quote(element.workingDirectory))
+                    .append(" && exec ")
+                    .append(shell)
+                    .append(' ')
+                    .append(quote(element.scriptPath));
+            if (element.stdoutFile != null && !element.stdoutFile.isEmpty()) {
+                script.append(" > ").append(quote(element.stdoutFile));
+            }
+            if (element.stderrFile != null && !element.stderrFile.isEmpty()) {
+                script.append(" 2> ").append(quote(element.stderrFile));
+            }
+            script.append(" ;;\n");
+        }
+        script.append("  *) echo \"No job array element $")
+                .append(indexVariable)
+                .append("\" >&2; exit 1 ;;\n")
+                .append("esac\n");
+        return script.toString();
+    }
+
+    /** The job id the scheduler gives element {@code index} (1-based) of the array {@code arrayJobId}. */
+    public String elementJobId(String arrayJobId, int index) {
+        return elementJobId.of(arrayJobId, index);
+    }
+
+    /**
+     * Commands that write the {@link #MARKER_FILE} of every element of the array {@code arrayName}.
+     * {@code arrayJobId} is null for the markers written before the array is submitted.
+     */
+    public static List<String> markerCommands(String arrayName, String arrayJobId, List<Element> elements) {
+        List<String> commands = new ArrayList<>();
+        StringBuilder command = new StringBuilder();
+        for (int i = 0; i < elements.size(); i++) {
+            if (i > 0 && i % MARKERS_PER_COMMAND == 0) {
+                commands.add(command.toString());
+                command.setLength(0);
+            }
+            command.append(command.length() == 0 ? "" : " && ")
+                    .append("printf '%s\\n' ")
+                    .append(quote(arrayName))
+                    .append(' ')
+                    .append(i + 1);
+            if (arrayJobId != null) {
+                command.append(' ').append(quote(arrayJobId));
+            }
+            command.append(" > ").append(quote(markerPath(elements.get(i).workingDirectory)));
+        }
+        if (command.length() > 0) {
+            commands.add(command.toString());
+        }
+        return commands;
+    }
+
+    /** Command that prints the {@link #MARKER_FILE} of the element run from {@code workingDirectory}. */
+    public static String readMarkerCommand(String workingDirectory) {
+        return "cat " + quote(markerPath(workingDirectory));
+    }
+
+    /** The marker printed by {@link #readMarkerCommand}, or null if there is none. */
+    public static Marker parseMarker(String output) {
+        if (output == null) {
+            return null;
+        }
+        String[] lines = output.trim().split("\\r?\\n");
+        if (lines.length < 2 || lines[0].isBlank()) {
+            return null;
+        }
+        try {
+            String arrayJobId = lines.length > 2 && !lines[2].isBlank() ? lines[2].trim() : null;
+            return new Marker(lines[0].trim(), Integer.parseInt(lines[1].trim()), arrayJobId);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String markerPath(String workingDirectory) {
+        return (workingDirectory.endsWith("/") ? workingDirectory : workingDirectory + "/") + MARKER_FILE;
+    }
+
+    private boolean isDirective(String line) {
+        return line.startsWith(directivePrefix)
+                && line.length() > directivePrefix.length()
+                && Character.isWhitespace(line.charAt(directivePrefix.length()));
+    }
+
+    private String option(String directive) {
+        String rest = directive.substring(directivePrefix.length()).trim();
+        int end = 0;
+        while (end < rest.length() && !Character.isWhitespace(rest.charAt(end)) && rest.charAt(end) != '=') {
+            end++;
+        }
+        return rest.substring(0, end);
+    }
+
+    private static String interpreter(String script) {
+        if (script.startsWith("#!")) {
+            int end = script.indexOf('\n');
+            String shell = (end < 0 ? script.substring(2) : script.substring(2, end)).trim();
+            if (!shell.isEmpty()) {
+                return shell;
+            }
+        }
+        return DEFAULT_SHELL;
+    }
+
+    private static String quote(String value) {
+        return "'" + value.replace("'", "'\\''") + "'";
+    }
+}
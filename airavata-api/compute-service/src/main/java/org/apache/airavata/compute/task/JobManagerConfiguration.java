@@ -31,4 +31,11 @@ public interface JobManagerConfiguration extends org.apache.airavata.interfaces.
      * Get the output parser for this job manager type.
      */
     public OutputParser getParser();
+
+    /**
+     * How this job manager submits job arrays, or {@code null} if jobs are always submitted one by one.
+     */
+    default JobArraySupport getJobArraySupport() {
+        return null;
+    }
 }
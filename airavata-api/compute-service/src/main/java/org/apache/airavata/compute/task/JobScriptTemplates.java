@@ -0,0 +1,185 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.compute.task;
+
+import groovy.text.GStringTemplateEngine;
+import groovy.text.Template;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.airavata.config.ServerSettings;
+import org.apache.airavata.server.CountMonitor;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Bounded cache of compiled job-script and command templates.
+ *
+ * <p>Compiling a {@link GStringTemplateEngine} template generates new Groovy classes, which costs
+ * tens of milliseconds and Metaspace on every job submission. Compiled templates are keyed by the
+ * SHA-256 of their text, so the same job manager template or module command is compiled once however
+ * many jobs render it; a template file that changes on disk hashes differently and is recompiled. The
+ * least recently used template is dropped (and its classes become unloadable) beyond the capacity.
+ *
+ * <p>A compiled {@link Template} is safe to render concurrently: every {@code make} binds a clone of
+ * the template closure.
+ */
+final class JobScriptTemplates {
+
+    private static final CountMonitor lookupCounter = new CountMonitor("job_template_cache_count", "result");
+
+    private static final JobScriptTemplates SHARED = new JobScriptTemplates(ServerSettings.getJobTemplateCacheSize());
+
+    private final int capacity;
+    private final Map<String, Entry> compiled = new ConcurrentHashMap<>();
+    private final Map<String, TemplateFile> files = new ConcurrentHashMap<>();
+    private final AtomicLong clock = new AtomicLong();
+
+    JobScriptTemplates(int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    static JobScriptTemplates shared() {
+        return SHARED;
+    }
+
+    /** The compiled form of {@code text}, compiling it only if no thread has done so already. */
+    Template compile(String text) throws ClassNotFoundException, IOException {
+        String key = digest(text);
+        Entry entry = compiled.get(key);
+        if (entry != null) {
+            lookupCounter.inc("hit");
+        } else {
+            // Stamped before it is visible, so eviction never takes the new entry for the least recently used
+            Entry created = new Entry(clock.incrementAndGet());
+            entry = compiled.putIfAbsent(key, created);
+            if (entry == null) {
+                lookupCounter.inc("miss");
+                entry = created;
+                try {
+                    created.template.complete(new GStringTemplateEngine().createTemplate(text));
+                } catch (ClassNotFoundException | IOException | RuntimeException e) {
+                    compiled.remove(key, created);
+                    created.template.completeExceptionally(e);
+                    throw e;
+                }
+                evictBeyondCapacity();
+            } else {
+                lookupCounter.inc("hit");
+            }
+        }
+        entry.lastUsed = clock.incrementAndGet();
+        try {
+            return entry.template.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ClassNotFoundException cnf) {
+                throw cnf;
+            } else if (cause instanceof IOException io) {
+                throw io;
+            } else if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Text of a template file. Files on disk are re-read when their modification time or size
+     * changes; classpath resources cannot change while the server runs and are read once.
+     */
+    String read(URL templateUrl) throws IOException {
+        String location = templateUrl.toExternalForm();
+        long stamp = stamp(templateUrl);
+        TemplateFile cached = files.get(location);
+        if (cached != null && stamp >= 0 && cached.stamp == stamp) {
+            return cached.text;
+        }
+        String text = IOUtils.toString(templateUrl, Charset.defaultCharset());
+        if (stamp >= 0) {
+            files.put(location, new TemplateFile(stamp, text));
+        }
+        return text;
+    }
+
+    int size() {
+        return compiled.size();
+    }
+
+    private void evictBeyondCapacity() {
+        while (compiled.size() > capacity) {
+            String oldest = null;
+            long oldestUse = Long.MAX_VALUE;
+            for (Map.Entry<String, Entry> e : compiled.entrySet()) {
+                Entry entry = e.getValue();
+                if (entry.template.isDone() && entry.lastUsed < oldestUse) {
+                    oldest = e.getKey();
+                    oldestUse = entry.lastUsed;
+                }
+            }
+            if (oldest == null) {
+                return;
+            }
+            compiled.remove(oldest);
+        }
+    }
+
+    private static long stamp(URL url) {
+        if (!"file".equals(url.getProtocol())) {
+            return 0;
+        }
+        try {
+            File file = new File(url.toURI());
+            return file.lastModified() * 31 + file.length();
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private static String digest(String text) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class Entry {
+        final CompletableFuture<Template> template = new CompletableFuture<>();
+        volatile long lastUsed;
+
+        Entry(long lastUsed) {
+            this.lastUsed = lastUsed;
+        }
+    }
+
+    private record TemplateFile(long stamp, String text) {}
+}
@@ -0,0 +1,506 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.compute.task;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.apache.airavata.interfaces.AgentAdaptor;
+import org.apache.airavata.interfaces.CommandOutput;
+import org.apache.airavata.model.status.proto.JobState;
+import org.apache.airavata.model.status.proto.JobStatus;
+import org.apache.airavata.server.CountMonitor;
+import org.apache.airavata.task.TaskHelperImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cluster-wide job status poller, one per {@link Credential}. Every poll interval it asks
+ * the scheduler about all tracked jobs at once — a single {@code squeue -j id1,id2,...} on SLURM and a
+ * single {@code sacct ... -j id1,id2,...} for the jobs that have left the queue — instead of every
+ * {@link MonitoringTask} running its own pair of commands. Each observation is folded into the job's
+ * lifecycle and fanned out to the watches registered for it: running jobs notify their ACTIVE
+ * listener once, and terminal states complete the watch's future.
+ *
+ * <p>Terminal state is read from {@code sacct} (which retains finished jobs), with the job
+ * disappearing from the queue treated as a completion signal when the accounting record is not yet
+ * available. Non-SLURM job managers have no batched monitor command, so their tracked jobs are still
+ * queried one by one, but from this single loop.
+ *
+ * <p>Each poll leases the credential's adaptor from the shared cache for its own duration, so the
+ * cache can neither probe nor destroy it mid-command and a replaced adaptor is picked up by the next
+ * poll. A poller is stopped and dropped as soon as its last job reaches a terminal state or its last
+ * watch is cancelled; the next watch for the credential starts a new one.
+ */
+public class JobStatusPoller {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobStatusPoller.class);
+    private static final CountMonitor pollCommandCounter = new CountMonitor("job_status_poll_command_count", "kind");
+
+    static final long POLL_INTERVAL_MS = 5000;
+    // A node/boot failure is only treated as terminal once the job has stayed out of the scheduler
+    // for this many consecutive polls: slurm requeues such failures, and the requeued run re-appears
+    // in the queue, so we ride out a short grace window rather than failing the experiment on a
+    // transient infrastructure hiccup.
+    static final int INFRA_FAIL_GRACE_POLLS = 6; // ~30s at POLL_INTERVAL_MS
+    // Keeps a batched command line well under ARG_MAX even with long job ids
+    private static final int MAX_IDS_PER_COMMAND = 200;
+
+    private static final ConcurrentHashMap<Credential, JobStatusPoller> pollers = new ConcurrentHashMap<>();
+    private static final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2, r -> {
+        Thread thread = new Thread(r, "job-status-poller");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** The credential jobs are polled with: the adaptor of one gateway's login on a compute resource. */
+    public record Credential(String gatewayId, String computeResourceId, String authToken, String loginUserName) {
+        @Override
+        public String toString() {
+            return computeResourceId + "/" + loginUserName + " (gateway " + gatewayId + ")"; // never the token
+        }
+    }
+
+    private final Credential credential;
+    private final ConcurrentHashMap<String, TrackedJob> trackedJobs = new ConcurrentHashMap<>();
+    // The most recently registered job manager; all jobs of a compute resource share it
+    private volatile JobManagerConfiguration jobManagerConfiguration;
+    private volatile ScheduledFuture<?> schedule;
+
+    JobStatusPoller(Credential credential) {
+        this.credential = credential;
+    }
+
+    /**
+     * Start tracking {@code jobId} on the shared poller of {@code credential}, starting the poller if
+     * the credential has none. {@code onActive} runs once when the job is first seen running; the
+     * returned watch completes with the job's terminal state (COMPLETE, CANCELED or FAILED).
+     */
+    public static Watch watch(
+            Credential credential,
+            String jobId,
+            JobManagerConfiguration jobManagerConfiguration,
+            Consumer<JobState> onActive) {
+        // Registering under the map's lock for the credential means a poller that is being stopped
+        // for want of jobs (see retireIfIdle) is never handed a new one.
+        Watch[] registered = new Watch[1];
+        pollers.compute(credential, (key, current) -> {
+            JobStatusPoller poller = current != null ? current : start(key);
+            registered[0] = poller.track(jobId, jobManagerConfiguration, onActive);
+            return poller;
+        });
+        return registered[0];
+    }
+
+    private static JobStatusPoller start(Credential credential) {
+        JobStatusPoller poller = new JobStatusPoller(credential);
+        poller.schedule = scheduler.scheduleWithFixedDelay(
+                poller::pollSafely, POLL_INTERVAL_MS, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        return poller;
+    }
+
+    /** Track {@code jobId} on this poller; package-private so tests can use a poller without the timer. */
+    Watch track(String jobId, JobManagerConfiguration jobManagerConfiguration, Consumer<JobState> onActive) {
+        this.jobManagerConfiguration = jobManagerConfiguration;
+        Watch watch = new Watch(jobId, onActive);
+        trackedJobs.compute(jobId, (id, tracked) -> {
+            TrackedJob job = tracked != null ? tracked : new TrackedJob(id);
+            job.watches.add(watch);
+            return job;
+        });
+        logger.info("Tracking job {} on {} ({} job(s) tracked)", jobId, credential, trackedJobs.size());
+        return watch;
+    }
+
+    int trackedJobCount() {
+        return trackedJobs.size();
+    }
+
+    /** The running poller of {@code credential}, or null if it has none. */
+    static JobStatusPoller pollerFor(Credential credential) {
+        return pollers.get(credential);
+    }
+
+    private void pollSafely() {
+        if (trackedJobs.isEmpty()) {
+            return;
+        }
+        try (TaskHelperImpl helper = new TaskHelperImpl()) {
+            AgentAdaptor adaptor = helper.getAdaptorSupport()
+                    .fetchAdaptor(
+                            credential.gatewayId(),
+                            credential.computeResourceId(),
+                            credential.authToken(),
+                            credential.loginUserName());
+            pollOnce(adaptor);
+        } catch (Exception e) {
+            logger.warn("Job status poll failed for {}", credential, e);
+        }
+    }
+
+    /** One poll of every tracked job with {@code adaptor}; package-private so tests can drive it without the timer. */
+    void pollOnce(AgentAdaptor adaptor) {
+        if (trackedJobs.isEmpty()) {
+            return;
+        }
+        List<String> jobIds = new ArrayList<>(trackedJobs.keySet());
+        Map<String, JobLifecycle> observed = observeJobs(adaptor, jobManagerConfiguration, jobIds);
+        for (String jobId : jobIds) {
+            TrackedJob job = trackedJobs.get(jobId);
+            if (job != null) {
+                job.observe(observed.getOrDefault(jobId, JobLifecycle.IN_QUEUE));
+            }
+        }
+    }
+
+    /** Where a job currently sits in its lifecycle, as observed from the scheduler + accounting. */
+    enum JobLifecycle {
+        RUNNING, // executing on the resource
+        IN_QUEUE, // pending / requeued / in transition — still within the lifecycle
+        COMPLETED, // finished successfully
+        CANCELED, // cancelled
+        FAILED, // genuine terminal failure (FAILED / TIMEOUT / OUT_OF_MEMORY / DEADLINE)
+        INFRA_FAILURE // NODE_FAIL / BOOT_FAIL — slurm requeues these, so not necessarily terminal
+    }
+
+    /**
+     * Observe where each job is in its lifecycle. Prefers the live scheduler view: a job that is still
+     * queued or running — including one slurm has requeued after a node failure — is still in its
+     * lifecycle and must keep being tracked. Only once a job has left the scheduler do we read the
+     * terminal verdict from {@code sacct} (which retains finished jobs), so a transient NODE_FAIL that
+     * slurm requeues does not abort the experiment.
+     */
+    static Map<String, JobLifecycle> observeJobs(
+            AgentAdaptor adaptor, JobManagerConfiguration jobManagerConfiguration, List<String> jobIds) {
+        Map<String, JobLifecycle> observed = new HashMap<>();
+        Map<String, JobState> live = queueStates(adaptor, jobManagerConfiguration, jobIds);
+
+        List<String> leftQueue = new ArrayList<>();
+        for (String jobId : jobIds) {
+            JobState state = live.get(jobId);
+            if (state == null || state == JobState.JOB_STATE_UNKNOWN) {
+                leftQueue.add(jobId);
+            } else {
+                observed.put(jobId, fromQueueState(state));
+            }
+        }
+        if (leftQueue.isEmpty()) {
+            return observed;
+        }
+
+        // Jobs no longer in the scheduler queue: read the terminal verdict from accounting.
+        for (List<String> batch : batches(leftQueue)) {
+            try {
+                // --duplicates returns every accounting record for an id. slurm reuses job ids across
+                // controller restarts (e.g. a devstack reset), so an id can carry stale records from prior
+                // sessions; take the State of the most-recently-SUBMITTED record (Submit is ISO-8601, so it
+                // sorts chronologically) — otherwise an old CANCELLED/COMPLETED record can masquerade as
+                // this job's state.
+                pollCommandCounter.inc("accounting");
+                CommandOutput out = adaptor.executeCommand(
+                        "sacct -X -n -P -o JobID,State,Submit --duplicates -j " + String.join(",", batch), null);
+                Map<String, String> states = latestStatesBySubmit(out.getStdOut());
+                for (String jobId : batch) {
+                    String state = states.get(jobId);
+                    if (state == null || state.isEmpty()) {
+                        // Gone from the queue with no accounting record => it left the queue cleanly.
+                        logger.info("Job {} no longer visible in scheduler queue; treating as completed", jobId);
+                        observed.put(jobId, JobLifecycle.COMPLETED);
+                    } else {
+                        observed.put(jobId, fromAccountingState(state));
+                    }
+                }
+            } catch (Exception e) {
+                // transient error: keep tracking rather than abort (absent ids default to IN_QUEUE)
+                logger.warn("sacct poll failed for jobs {}: {}", batch, e.getMessage());
+            }
+        }
+        return observed;
+    }
+
+    /** Live scheduler state of each job still in the queue; failed or absent jobs are left out. */
+    private static Map<String, JobState> queueStates(
+            AgentAdaptor adaptor, JobManagerConfiguration jobManagerConfiguration, List<String> jobIds) {
+        Map<String, JobState> states = new HashMap<>();
+        if (jobManagerConfiguration instanceof SlurmJobConfiguration) {
+            for (List<String> batch : batches(jobIds)) {
+                try {
+                    pollCommandCounter.inc("queue");
+                    // -r lists pending job array elements one per row as <array id>_<index>, the id they
+                    // are tracked under, instead of collapsing them into a <array id>_[range] row
+                    CommandOutput out = adaptor.executeCommand(
+                            jobManagerConfiguration
+                                            .getMonitorCommand(String.join(",", batch))
+                                            .getRawCommand()
+                                    + " -r",
+                            null);
+                    states.putAll(parseQueueStates(out.getStdOut(), batch));
+                } catch (Exception e) {
+                    logger.warn("Scheduler queue poll failed for jobs {}: {}", batch, e.getMessage());
+                }
+            }
+            return states;
+        }
+
+        for (String jobId : jobIds) {
+            try {
+                pollCommandCounter.inc("queue");
+                CommandOutput out = adaptor.executeCommand(
+                        jobManagerConfiguration.getMonitorCommand(jobId).getRawCommand(), null);
+                JobStatus status = jobManagerConfiguration.getParser().parseJobStatus(jobId, out.getStdOut());
+                if (status != null) {
+                    states.put(jobId, status.getJobState());
+                }
+            } catch (Exception e) {
+                logger.warn("Scheduler queue poll failed for job {}: {}", jobId, e.getMessage());
+            }
+        }
+        return states;
+    }
+
+    /**
+     * States from a batched {@code squeue} listing, whose rows are {@code JOBID PARTITION NAME USER ST ...}.
+     * Rows are matched on the whole job id column, so one id being a prefix of another cannot mix them up.
+     */
+    static Map<String, JobState> parseQueueStates(String stdout, Collection<String> jobIds) {
+        Map<String, JobState> states = new HashMap<>();
+        if (stdout == null) {
+            return states;
+        }
+        Set<String> wanted = jobIds instanceof Set ? (Set<String>) jobIds : new HashSet<>(jobIds);
+        OutputLines lines = new OutputLines(stdout);
+        while (lines.next()) {
+            String jobId = lines.column(0);
+            if (jobId != null && wanted.contains(jobId)) {
+                String state = lines.column(4);
+                if (state != null) {
+                    states.put(jobId, JobUtil.getJobState(state));
+                }
+            }
+        }
+        return states;
+    }
+
+    /**
+     * Per job id, the State of the most-recently-submitted record among the {@code JobID|State|Submit}
+     * lines sacct emits for (possibly reused) job ids. Submit is ISO-8601, so a lexical comparison of
+     * the Submit column is chronological.
+     */
+    static Map<String, String> latestStatesBySubmit(String stdout) {
+        Map<String, String> states = new HashMap<>();
+        Map<String, String> submits = new HashMap<>();
+        if (stdout == null) {
+            return states;
+        }
+        for (String line : stdout.split("\\r?\\n")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            String[] parts = trimmed.split("\\|");
+            if (parts.length < 3) {
+                continue;
+            }
+            String jobId = parts[0].trim();
+            String state = parts[1].trim();
+            String submit = parts[2].trim();
+            String bestSubmit = submits.get(jobId);
+            if (bestSubmit == null || submit.compareTo(bestSubmit) > 0) {
+                states.put(jobId, state);
+                submits.put(jobId, submit);
+            }
+        }
+        return states;
+    }
+
+    private static JobLifecycle fromQueueState(JobState state) {
+        if (state == JobState.ACTIVE) {
+            return JobLifecycle.RUNNING;
+        }
+        if (state == JobState.COMPLETE) {
+            return JobLifecycle.COMPLETED;
+        }
+        if (state == JobState.CANCELED) {
+            return JobLifecycle.CANCELED;
+        }
+        if (state == JobState.FAILED) {
+            return JobLifecycle.FAILED;
+        }
+        return JobLifecycle.IN_QUEUE; // SUBMITTED / QUEUED / in transition
+    }
+
+    private static JobLifecycle fromAccountingState(String state) {
+        // sacct may suffix cancellations as "CANCELLED by <uid>"
+        if (state.startsWith("CANCELLED")) {
+            return JobLifecycle.CANCELED;
+        }
+        switch (state) {
+            case "COMPLETED":
+                return JobLifecycle.COMPLETED;
+            case "RUNNING":
+            case "COMPLETING":
+                return JobLifecycle.RUNNING; // accounting lag behind the scheduler
+            case "PENDING":
+            case "REQUEUED":
+            case "RESIZING":
+            case "SUSPENDED":
+            case "CONFIGURING":
+                return JobLifecycle.IN_QUEUE;
+            case "NODE_FAIL":
+            case "BOOT_FAIL":
+                return JobLifecycle.INFRA_FAILURE; // slurm requeues these — not necessarily terminal
+            default:
+                // FAILED, TIMEOUT, OUT_OF_MEMORY, DEADLINE, or anything else genuinely terminal.
+                return JobLifecycle.FAILED;
+        }
+    }
+
+    private static List<List<String>> batches(List<String> jobIds) {
+        List<List<String>> batches = new ArrayList<>();
+        for (int i = 0; i < jobIds.size(); i += MAX_IDS_PER_COMMAND) {
+            batches.add(jobIds.subList(i, Math.min(jobIds.size(), i + MAX_IDS_PER_COMMAND)));
+        }
+        return batches;
+    }
+
+    private void finish(TrackedJob job, JobState terminal) {
+        trackedJobs.remove(job.jobId, job);
+        logger.info("Job {} on {} reached terminal state {}", job.jobId, credential, terminal);
+        for (Watch watch : job.watches) {
+            watch.terminal.complete(terminal);
+        }
+        retireIfIdle();
+    }
+
+    private void unwatch(Watch watch) {
+        trackedJobs.computeIfPresent(watch.jobId, (id, job) -> {
+            job.watches.remove(watch);
+            return job.watches.isEmpty() ? null : job;
+        });
+        retireIfIdle();
+    }
+
+    /** Stop the poller and drop it from the shared map once it has no job left to track. */
+    private void retireIfIdle() {
+        pollers.computeIfPresent(credential, (key, poller) -> {
+            if (poller != this || !trackedJobs.isEmpty()) {
+                return poller;
+            }
+            if (schedule != null) {
+                schedule.cancel(false);
+            }
+            logger.info("No jobs left to track on {}; stopping its poller", credential);
+            return null;
+        });
+    }
+
+    /** Lifecycle state carried across polls for one job; only the poll thread calls observe. */
+    private final class TrackedJob {
+        private final String jobId;
+        private final List<Watch> watches = new CopyOnWriteArrayList<>();
+        // Consecutive observations of an infra failure (NODE_FAIL/BOOT_FAIL) with the job no longer
+        // in the scheduler. Slurm requeues such jobs, so the requeued run re-appears in the queue
+        // (resetting this) and we keep tracking it; only a sustained absence is treated as failure.
+        private int infraFailStreak = 0;
+
+        private TrackedJob(String jobId) {
+            this.jobId = jobId;
+        }
+
+        private void observe(JobLifecycle lifecycle) {
+            switch (lifecycle) {
+                case RUNNING:
+                    // Job is running on the resource: notify each watch once so the Job Submission
+                    // stage advances past QUEUED to ACTIVE while it executes.
+                    for (Watch watch : watches) {
+                        watch.notifyActive();
+                    }
+                    infraFailStreak = 0;
+                    break;
+                case IN_QUEUE:
+                    // Pending / requeued / in transition: still within the job's lifecycle.
+                    infraFailStreak = 0;
+                    break;
+                case COMPLETED:
+                    finish(this, JobState.COMPLETE);
+                    break;
+                case CANCELED:
+                    finish(this, JobState.CANCELED);
+                    break;
+                case FAILED:
+                    finish(this, JobState.FAILED);
+                    break;
+                case INFRA_FAILURE:
+                    if (++infraFailStreak >= INFRA_FAIL_GRACE_POLLS) {
+                        finish(this, JobState.FAILED);
+                    }
+                    break;
+            }
+        }
+    }
+
+    /** One registration for a job; completes with the job's terminal state. */
+    public final class Watch {
+        private final String jobId;
+        private final Consumer<JobState> onActive;
+        private final CompletableFuture<JobState> terminal = new CompletableFuture<>();
+        private boolean activeNotified = false;
+
+        private Watch(String jobId, Consumer<JobState> onActive) {
+            this.jobId = jobId;
+            this.onActive = onActive;
+        }
+
+        private void notifyActive() {
+            if (activeNotified) {
+                return;
+            }
+            activeNotified = true;
+            try {
+                onActive.accept(JobState.ACTIVE);
+            } catch (Exception e) {
+                logger.warn("ACTIVE listener failed for job {}", jobId, e);
+            }
+        }
+
+        /** Terminal state of the job, completed by the poller. */
+        public CompletableFuture<JobState> terminalState() {
+            return terminal;
+        }
+
+        /** Stop tracking the job for this watch; the job is dropped once nothing else watches it. */
+        public void cancel() {
+            unwatch(this);
+            terminal.cancel(false);
+        }
+    }
+}
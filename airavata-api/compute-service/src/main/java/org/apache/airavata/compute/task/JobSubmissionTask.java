@@ -19,20 +19,23 @@
 */
 package org.apache.airavata.compute.task;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
 import org.apache.airavata.compute.util.JobSubmissionOutput;
 import org.apache.airavata.config.ServerSettings;
 import org.apache.airavata.interfaces.AgentAdaptor;
 import org.apache.airavata.interfaces.AgentException;
 import org.apache.airavata.interfaces.CommandOutput;
+import org.apache.airavata.interfaces.FileMetadata;
 import org.apache.airavata.interfaces.RawCommandInfo;
 import org.apache.airavata.model.appcatalog.computeresource.proto.ResourceJobManager;
 import org.apache.airavata.model.job.proto.JobModel;
 import org.apache.airavata.model.status.proto.JobStatus;
 import org.apache.airavata.task.AiravataTask;
 import org.apache.airavata.util.AiravataUtils;
-import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,6 +43,9 @@ public abstract class JobSubmissionTask extends AiravataTask {
 
     private static final Logger logger = LoggerFactory.getLogger(JobSubmissionTask.class);
 
+    // The remote shell receives the whole inline submission as one argument, which Linux caps at 128 KiB
+    static final int MAX_INLINE_SCRIPT_BYTES = 64 * 1024;
+
     @SuppressWarnings("WeakerAccess")
     protected JobSubmissionOutput submitBatchJob(
             AgentAdaptor agentAdaptor, GroovyMapData groovyMapData, String workingDirectory) throws Exception {
@@ -49,28 +55,44 @@ public abstract class JobSubmissionTask extends AiravataTask {
         String scriptAsString = groovyMapData.loadFromFile(jobManagerConfiguration.getJobDescriptionTemplateName());
         logger.info("Generated job submission script : " + scriptAsString);
 
-        int number = new SecureRandom().nextInt();
-        number = (number < 0 ? -number : number);
-        File tempJobFile = new File(
-                getLocalDataDir(), "job_" + Integer.toString(number) + jobManagerConfiguration.getScriptExtension());
-
-        FileUtils.writeStringToFile(tempJobFile, scriptAsString);
-        logger.info("Job submission file for process " + getProcessId() + " was created at : "
-                + tempJobFile.getAbsolutePath());
+        return submitScript(
+                agentAdaptor, jobManagerConfiguration, scriptAsString, workingDirectory, groovyMapData.getJobName());
+    }
 
-        logger.info("Copying file form " + tempJobFile.getAbsolutePath() + " to remote path " + workingDirectory
-                + " of compute resource " + getTaskContext().getComputeResourceId());
-        agentAdaptor.uploadFile(tempJobFile.getAbsolutePath(), workingDirectory);
+    /**
+     * Writes {@code scriptAsString} to a new script file in {@code workingDirectory} and submits it. The output of
+     * the submit command is also recorded in the file {@code jobName} of the working directory.
+     */
+    protected JobSubmissionOutput submitScript(
+            AgentAdaptor agentAdaptor,
+            JobManagerConfiguration jobManagerConfiguration,
+            String scriptAsString,
+            String workingDirectory,
+            String jobName)
+            throws Exception {
+        String scriptName = newScriptName(jobManagerConfiguration);
+        String remoteScriptPath = remotePath(workingDirectory, scriptName);
 
-        RawCommandInfo submitCommand =
-                jobManagerConfiguration.getSubmitCommand(workingDirectory, tempJobFile.getPath());
+        RawCommandInfo submitCommand = jobManagerConfiguration.getSubmitCommand(workingDirectory, scriptName);
 
         logger.info("Submit command for process id " + getProcessId() + " : " + submitCommand.getRawCommand());
         logger.debug("Working directory for process id " + getProcessId() + " : " + workingDirectory);
 
+        String recordingFile = remotePath(workingDirectory, jobName);
+        String recordedCommand = submitCommand.getCommand() + " | tee " + recordingFile;
+        String remoteCommand;
+        if (isInlineScript(scriptAsString)) {
+            // Write the script and submit it in one remote invocation instead of an upload plus a submit
+            logger.info("Submitting job script of process " + getProcessId() + " inline to " + remoteScriptPath);
+            remoteCommand = inlineSubmission(scriptAsString, remoteScriptPath, recordedCommand);
+        } else {
+            uploadScript(agentAdaptor, scriptAsString, scriptName, remoteScriptPath);
+            remoteCommand = recordedCommand;
+        }
+
         CommandOutput commandOutput =
-                submitCommandWithRecording(submitCommand, agentAdaptor, groovyMapData, workingDirectory);
-        logger.info("Job " + groovyMapData.getJobName() + " submitted to compute resource");
+                submitCommandWithRecording(remoteCommand, agentAdaptor, recordingFile, workingDirectory);
+        logger.info("Job " + jobName + " submitted to compute resource");
         logger.info("Submission stdout: " + commandOutput.getStdOut() + ", stderr: " + commandOutput.getStdError());
 
         JobSubmissionOutput jsoutput = new JobSubmissionOutput();
@@ -96,33 +118,94 @@ public abstract class JobSubmissionTask extends AiravataTask {
     }
 
     /**
-     * This will write the standard output of the command to a file inside the working directory of the process and
-     * if the agent does not receive the output through first invocation, it retries by looking into the output file.
+     * Writes {@code scriptAsString} to a new script file in {@code workingDirectory} without submitting it.
+     *
+     * @return remote path of the script
+     */
+    protected String writeScript(
+            AgentAdaptor agentAdaptor,
+            JobManagerConfiguration jobManagerConfiguration,
+            String scriptAsString,
+            String workingDirectory)
+            throws Exception {
+        String scriptName = newScriptName(jobManagerConfiguration);
+        String remoteScriptPath = remotePath(workingDirectory, scriptName);
+        if (isInlineScript(scriptAsString)) {
+            CommandOutput commandOutput = agentAdaptor.executeCommand(
+                    inlineSubmission(scriptAsString, remoteScriptPath, "true"), workingDirectory);
+            if (commandOutput.getExitCode() != 0) {
+                throw new AgentException(
+                        "Failed to write job script " + remoteScriptPath + " : " + commandOutput.getStdError());
+            }
+        } else {
+            uploadScript(agentAdaptor, scriptAsString, scriptName, remoteScriptPath);
+        }
+        return remoteScriptPath;
+    }
+
+    private void uploadScript(AgentAdaptor agentAdaptor, String scriptAsString, String scriptName, String remotePath)
+            throws Exception {
+        logger.info("Copying job script of process " + getProcessId() + " to remote path " + remotePath
+                + " of compute resource " + getTaskContext().getComputeResourceId());
+        byte[] script = scriptAsString.getBytes(Charset.defaultCharset());
+        FileMetadata metadata = new FileMetadata();
+        metadata.setName(scriptName);
+        metadata.setSize(script.length);
+        agentAdaptor.uploadFile(new ByteArrayInputStream(script), metadata, remotePath);
+    }
+
+    private static boolean isInlineScript(String scriptAsString) {
+        return ServerSettings.isJobSubmissionInlineScript()
+                && scriptAsString.getBytes(StandardCharsets.UTF_8).length <= MAX_INLINE_SCRIPT_BYTES;
+    }
+
+    private static String newScriptName(JobManagerConfiguration jobManagerConfiguration) {
+        int number = new SecureRandom().nextInt();
+        number = (number < 0 ? -number : number);
+        return "job_" + Integer.toString(number) + jobManagerConfiguration.getScriptExtension();
+    }
+
+    private static String remotePath(String workingDirectory, String fileName) {
+        return (workingDirectory.endsWith(File.separator) ? workingDirectory : workingDirectory + File.separator)
+                + fileName;
+    }
+
+    /**
+     * Builds one shell command that writes {@code script} to {@code remoteScriptPath} from a quoted here-document
+     * (no expansion inside the script) and, if that succeeded, runs {@code submitCommand}.
+     */
+    static String inlineSubmission(String script, String remoteScriptPath, String submitCommand) {
+        String marker;
+        do {
+            marker = "AIRAVATA_JOB_SCRIPT_" + Long.toHexString(new SecureRandom().nextLong() & Long.MAX_VALUE);
+        } while (script.contains(marker));
+        return "cat > " + remoteScriptPath + " <<'" + marker + "' && " + submitCommand + "\n"
+                + script + (script.endsWith("\n") ? "" : "\n")
+                + marker + "\n";
+    }
+
+    /**
+     * Runs the submit command, which writes its standard output to a file inside the working directory of the
+     * process, and if the agent does not receive the output through first invocation, it retries by looking into
+     * the output file.
      *
-     * @param submitCommand    command to submit
+     * @param modifiedCommand  submit command, already piped to the recording file
      * @param agentAdaptor     agent adaptor to communicate with compute resource
-     * @param groovyMapData    metadata object of the job
+     * @param recordingFile    file the submit command's output is piped to
      * @param workingDirectory working directory for the process
      * @return {@link CommandOutput} of the submitted command
      * @throws AgentException if agent failed to communicate with the compute host
      */
     private CommandOutput submitCommandWithRecording(
-            RawCommandInfo submitCommand,
-            AgentAdaptor agentAdaptor,
-            GroovyMapData groovyMapData,
-            String workingDirectory)
+            String modifiedCommand, AgentAdaptor agentAdaptor, String recordingFile, String workingDirectory)
             throws AgentException {
 
-        String modifiedCommand = submitCommand.getCommand() + " | tee " + getJobCommandRecordingFile(groovyMapData);
-        logger.info("Modified the submit command to support recording : " + modifiedCommand);
-
         CommandOutput commandOutput = agentAdaptor.executeCommand(modifiedCommand, workingDirectory);
 
         if (commandOutput.getStdOut() == null || "".equals(commandOutput.getStdOut())) {
-            logger.warn("command submission returned empty response so reading recording file at "
-                    + getJobCommandRecordingFile(groovyMapData));
-            CommandOutput recordingFileReadCommandOutput = agentAdaptor.executeCommand(
-                    "cat " + getJobCommandRecordingFile(groovyMapData), groovyMapData.getWorkingDirectory());
+            logger.warn("command submission returned empty response so reading recording file at " + recordingFile);
+            CommandOutput recordingFileReadCommandOutput =
+                    agentAdaptor.executeCommand("cat " + recordingFile, workingDirectory);
             if (recordingFileReadCommandOutput.getStdOut() != null
                     && !"".equals(recordingFileReadCommandOutput.getStdOut())) {
                 logger.info("Received non empty output form recording file : "
@@ -136,13 +219,6 @@ public abstract class JobSubmissionTask extends AiravataTask {
         }
     }
 
-    private String getJobCommandRecordingFile(GroovyMapData mapData) {
-        return (mapData.getWorkingDirectory().endsWith(File.separator)
-                        ? mapData.getWorkingDirectory()
-                        : mapData.getWorkingDirectory() + File.separator)
-                + mapData.getJobName();
-    }
-
     @SuppressWarnings("WeakerAccess")
     public File getLocalDataDir() {
         String outputPath = ServerSettings.getLocalDataLocation();
@@ -27,7 +27,7 @@ public class JobUtil {
     private static final Logger log = LoggerFactory.getLogger(JobUtil.class);
 
     public static JobState getJobState(String status) {
-        log.info("parsing the job status returned : " + status);
+        log.debug("parsing the job status returned : {}", status);
         if (status != null) {
             if ("C".equals(status)
                     || "CD".equals(status)
@@ -92,6 +92,11 @@ public class LSFJobConfiguration implements JobManagerConfiguration {
         return parser;
     }
 
+    @Override
+    public JobArraySupport getJobArraySupport() {
+        return JobArraySupport.LSF;
+    }
+
     public void setParser(OutputParser parser) {
         this.parser = parser;
     }
@@ -19,12 +19,7 @@
 */
 package org.apache.airavata.compute.task;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import org.apache.airavata.model.status.proto.JobState;
 import org.apache.airavata.model.status.proto.JobStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,11 +27,18 @@ import org.slf4j.LoggerFactory;
 public class LSFOutputParser implements OutputParser {
     private static final Logger logger = LoggerFactory.getLogger(LSFOutputParser.class);
 
+    // bjobs columns: JOBID USER STAT QUEUE FROM_HOST EXEC_HOST JOB_NAME SUBMIT_TIME, where EXEC_HOST is
+    // blank while a job is pending, so the job name is not at a fixed column
+    private static final int JOB_NAME_OUTPUT_LENGTH = 8;
+    private static final int STATE_COLUMN = 2;
+
     @Override
     public String parseJobSubmission(String rawOutput) throws Exception {
         logger.debug(rawOutput);
-        if (rawOutput.indexOf("<") >= 0) {
-            return rawOutput.substring(rawOutput.indexOf("<") + 1, rawOutput.indexOf(">"));
+        int start = rawOutput.indexOf('<');
+        int end = start < 0 ? -1 : rawOutput.indexOf('>', start);
+        if (end > start) {
+            return rawOutput.substring(start + 1, end);
         } else {
             return null;
         }
@@ -49,7 +51,6 @@ public class LSFOutputParser implements OutputParser {
 
     @Override
     public JobStatus parseJobStatus(String jobID, String rawOutput) throws Exception {
-        boolean jobFount = false;
         logger.debug(rawOutput);
         // todo this is not used anymore
         return null;
@@ -58,61 +59,31 @@ public class LSFOutputParser implements OutputParser {
     @Override
     public void parseJobStatuses(String userName, Map<String, JobStatus> statusMap, String rawOutput) throws Exception {
         logger.debug(rawOutput);
-
-        String[] info = rawOutput.split("\n");
-        //        int lastStop = 0;
+        Map<String, String> states =
+                OutputLines.statesByJobName(rawOutput, statusMap.keySet(), JOB_NAME_OUTPUT_LENGTH, STATE_COLUMN, 0);
         for (String jobID : statusMap.keySet()) {
-            String jobName = jobID.split(",")[1];
-            boolean found = false;
-            for (int i = 0; i < info.length; i++) {
-                if (info[i].contains(jobName.substring(0, 8))) {
-                    // now starts processing this line
-                    logger.info(info[i]);
-                    String correctLine = info[i];
-                    String[] columns = correctLine.split(" ");
-                    List<String> columnList = new ArrayList<String>();
-                    for (String s : columns) {
-                        if (!"".equals(s)) {
-                            columnList.add(s);
-                        }
-                    }
-                    //                    lastStop = i + 1;
-                    try {
-                        statusMap.put(
-                                jobID,
-                                JobStatus.newBuilder()
-                                        .setJobState(JobState.valueOf(columnList.get(2)))
-                                        .build());
-                    } catch (IndexOutOfBoundsException e) {
-                        statusMap.put(
-                                jobID,
-                                JobStatus.newBuilder()
-                                        .setJobState(JobState.valueOf("U"))
-                                        .build());
-                    }
-                    found = true;
-                    break;
-                }
-            }
-            if (!found)
-                logger.error("Couldn't find the status of the Job with JobName: " + jobName + "Job Id: "
+            if (states.containsKey(jobID)) {
+                String state = states.get(jobID);
+                statusMap.put(
+                        jobID,
+                        JobStatus.newBuilder()
+                                .setJobState(JobUtil.getJobState(state != null ? state : "U"))
+                                .build());
+            } else {
+                logger.error("Couldn't find the status of the Job with JobName: " + jobID.split(",")[1] + "Job Id: "
                         + jobID.split(",")[0]);
+            }
         }
     }
 
     @Override
     public String parseJobId(String jobName, String rawOutput) throws Exception {
-        String regJobId = "jobId";
-        Pattern pattern = Pattern.compile(
-                "(?=(?<" + regJobId + ">\\d+)\\s+\\w+\\s+" + jobName + ")"); // regex - look ahead and match
         if (rawOutput != null) {
-            Matcher matcher = pattern.matcher(rawOutput);
-            if (matcher.find()) {
-                return matcher.group(regJobId);
-            } else {
+            String jobId = OutputLines.jobIdByName(rawOutput, -1, jobName);
+            if (jobId == null) {
                 logger.error("No match is found for JobName");
-                return null;
             }
+            return jobId;
         } else {
             logger.error("Error: RawOutput shouldn't be null");
             return null;
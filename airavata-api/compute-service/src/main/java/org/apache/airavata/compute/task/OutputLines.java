@@ -0,0 +1,222 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.compute.task;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Line-by-line cursor over scheduler command output. Lines and their whitespace-separated columns are read in
+ * place from the {@link CharSequence}, so scanning a listing of thousands of jobs does not split it into line
+ * and column arrays; only the columns a parser asks for are copied out.
+ */
+final class OutputLines {
+
+    private final CharSequence text;
+    private final int length;
+    private int lineStart;
+    private int lineEnd;
+    private int next;
+
+    OutputLines(CharSequence text) {
+        this.text = text == null ? "" : text;
+        this.length = this.text.length();
+    }
+
+    /** Move to the next line; {@code false} once the output is exhausted. A trailing line break ends no line. */
+    boolean next() {
+        if (next >= length) {
+            return false;
+        }
+        lineStart = next;
+        int end = lineStart;
+        while (end < length && text.charAt(end) != '\n') {
+            end++;
+        }
+        next = end + 1;
+        lineEnd = end > lineStart && text.charAt(end - 1) == '\r' ? end - 1 : end;
+        return true;
+    }
+
+    /** The current line, without its line break. */
+    String line() {
+        return text.subSequence(lineStart, lineEnd).toString();
+    }
+
+    boolean isBlank() {
+        return columnStart(0) < 0;
+    }
+
+    /** Whether the current line contains {@code value}. */
+    boolean contains(String value) {
+        int last = lineEnd - value.length();
+        for (int i = lineStart; i <= last; i++) {
+            if (regionMatches(i, value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Whether the current line starts with {@code prefix} once leading whitespace is skipped. */
+    boolean startsWith(String prefix) {
+        int start = columnStart(0);
+        return start >= 0 && start + prefix.length() <= lineEnd && regionMatches(start, prefix);
+    }
+
+    /** The zero-based whitespace-separated {@code column} of the current line, or {@code null} if it is shorter. */
+    String column(int column) {
+        int start = columnStart(column);
+        return start < 0 ? null : text.subSequence(start, columnEnd(start)).toString();
+    }
+
+    /** Whether {@code column} of the current line is exactly {@code value}. */
+    boolean columnEquals(int column, String value) {
+        int start = columnStart(column);
+        return start >= 0 && columnEnd(start) - start == value.length() && regionMatches(start, value);
+    }
+
+    /** Whether {@code column} of the current line starts with {@code prefix}. */
+    boolean columnStartsWith(int column, String prefix) {
+        int start = columnStart(column);
+        return start >= 0 && columnEnd(start) - start >= prefix.length() && regionMatches(start, prefix);
+    }
+
+    /** The text after the first {@code separator} of the current line with surrounding whitespace removed. */
+    String valueAfter(char separator) {
+        int start = lineStart;
+        while (start < lineEnd && text.charAt(start) != separator) {
+            start++;
+        }
+        if (start == lineEnd) {
+            return null;
+        }
+        start++;
+        int end = lineEnd;
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        return text.subSequence(start, end).toString();
+    }
+
+    /**
+     * The job id in the first column of the first line of {@code output} whose {@code nameColumn} starts with
+     * {@code jobName}, or that contains {@code jobName} anywhere if {@code nameColumn} is negative. Returns
+     * {@code null} if there is none. Header lines are skipped by requiring the job id to start with a digit.
+     */
+    static String jobIdByName(CharSequence output, int nameColumn, String jobName) {
+        OutputLines lines = new OutputLines(output);
+        while (lines.next()) {
+            if (nameColumn < 0 ? lines.contains(jobName) : lines.columnStartsWith(nameColumn, jobName)) {
+                String jobId = lines.column(0);
+                if (Character.isDigit(jobId.charAt(0))) {
+                    return jobId;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the {@code stateColumn} of the job listing {@code output} for job keys of the form {@code jobId,name}.
+     * A key is matched by the first line, from line {@code firstLine} on, with a column starting with the key's name
+     * cut to {@code nameLength} characters (schedulers truncate long job names). Keys of lines without a state column
+     * map to {@code null}; keys without a line are left out. Each line is scanned once, whatever the number of keys.
+     */
+    static Map<String, String> statesByJobName(
+            CharSequence output, Collection<String> jobKeys, int nameLength, int stateColumn, int firstLine) {
+        Map<String, List<String>> keysByName = new HashMap<>();
+        for (String jobKey : jobKeys) {
+            int comma = jobKey.indexOf(',');
+            String name = comma < 0 ? jobKey : jobKey.substring(comma + 1);
+            keysByName
+                    .computeIfAbsent(
+                            name.length() > nameLength ? name.substring(0, nameLength) : name, n -> new ArrayList<>(1))
+                    .add(jobKey);
+        }
+
+        Map<String, String> states = new HashMap<>();
+        OutputLines lines = new OutputLines(output);
+        for (int lineNumber = 0; !keysByName.isEmpty() && lines.next(); lineNumber++) {
+            if (lineNumber < firstLine) {
+                continue;
+            }
+            for (int start = lines.columnStart(0); start >= 0; start = lines.nextColumnStart(start)) {
+                int end = lines.columnEnd(start);
+                List<String> keys = keysByName.remove(lines.text
+                        .subSequence(start, end - start > nameLength ? start + nameLength : end)
+                        .toString());
+                if (keys != null) {
+                    String state = lines.column(stateColumn);
+                    for (String key : keys) {
+                        states.put(key, state);
+                    }
+                    break;
+                }
+            }
+        }
+        return states;
+    }
+
+    private int columnStart(int column) {
+        int start = lineStart;
+        while (start < lineEnd && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        for (int i = 0; i < column && start < lineEnd; i++) {
+            start = nextColumnStart(start);
+            if (start < 0) {
+                return -1;
+            }
+        }
+        return start < lineEnd ? start : -1;
+    }
+
+    private int nextColumnStart(int start) {
+        int position = columnEnd(start);
+        while (position < lineEnd && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+        return position < lineEnd ? position : -1;
+    }
+
+    private int columnEnd(int start) {
+        int end = start;
+        while (end < lineEnd && !Character.isWhitespace(text.charAt(end))) {
+            end++;
+        }
+        return end;
+    }
+
+    private boolean regionMatches(int offset, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (text.charAt(offset + i) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
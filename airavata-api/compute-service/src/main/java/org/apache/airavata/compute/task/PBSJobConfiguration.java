@@ -91,6 +91,11 @@ public class PBSJobConfiguration implements JobManagerConfiguration {
         return parser;
     }
 
+    @Override
+    public JobArraySupport getJobArraySupport() {
+        return JobArraySupport.PBS;
+    }
+
     public void setParser(OutputParser parser) {
         this.parser = parser;
     }
@@ -19,11 +19,7 @@
 */
 package org.apache.airavata.compute.task;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import org.apache.airavata.model.status.proto.JobStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,16 +27,19 @@ import org.slf4j.LoggerFactory;
 public class PBSOutputParser implements OutputParser {
     private static final Logger log = LoggerFactory.getLogger(PBSOutputParser.class);
 
+    private static final String JOB_ID_PREFIX = "Job Id:";
+    private static final String JOB_NAME_PREFIX = "Job_Name";
+    private static final String JOB_STATE_PREFIX = "job_state";
+    // qstat -u columns: Job ID, Username, Queue, Jobname, SessID, NDS, TSK, Memory, Time, S, Time
+    private static final int JOB_NAME_OUTPUT_LENGTH = 8;
+    private static final int STATE_COLUMN = 9;
+
     public String parseJobSubmission(String rawOutput) {
         log.debug(rawOutput);
-        String jobId = rawOutput;
-        if (!rawOutput.isEmpty() && rawOutput.contains("\n")) {
-            String[] split = rawOutput.split("\n");
-            if (split.length != 0) {
-                jobId = split[0];
-            }
-        }
-        return jobId; // In PBS stdout is going to be directly the jobID
+        int lineEnd = rawOutput.indexOf('\n');
+        return lineEnd < 0
+                ? rawOutput
+                : rawOutput.substring(0, lineEnd); // In PBS stdout is going to be directly the jobID
     }
 
     @Override
@@ -49,32 +48,18 @@ public class PBSOutputParser implements OutputParser {
     }
 
     public JobStatus parseJobStatus(String jobID, String rawOutput) {
-        boolean jobFount = false;
         log.debug(rawOutput);
-        String[] info = rawOutput.split("\n");
-        String[] line = null;
-        int index = 0;
-        for (String anInfo : info) {
-            index++;
-            if (anInfo.contains("Job Id:")) {
-                if (anInfo.contains(jobID)) {
-                    jobFount = true;
-                    break;
-                }
-            }
-        }
-        if (jobFount) {
-            for (int i = index; i < info.length; i++) {
-                String anInfo = info[i];
-                if (anInfo.contains("=")) {
-                    line = anInfo.split("=", 2);
-                    if (line.length != 0) {
-                        if (line[0].contains("job_state")) {
-                            return JobStatus.newBuilder()
-                                    .setJobState(JobUtil.getJobState(line[1].replaceAll(" ", "")))
-                                    .build();
-                        }
-                    }
+        OutputLines lines = new OutputLines(rawOutput);
+        boolean jobFound = false;
+        while (lines.next()) {
+            if (!jobFound) {
+                jobFound = lines.startsWith(JOB_ID_PREFIX) && lines.contains(jobID);
+            } else if (lines.startsWith(JOB_STATE_PREFIX)) {
+                String state = lines.valueAfter('=');
+                if (state != null) {
+                    return JobStatus.newBuilder()
+                            .setJobState(JobUtil.getJobState(state.replace(" ", "")))
+                            .build();
                 }
             }
         }
@@ -83,44 +68,20 @@ public class PBSOutputParser implements OutputParser {
 
     public void parseJobStatuses(String userName, Map<String, JobStatus> statusMap, String rawOutput) {
         log.debug(rawOutput);
-        String[] info = rawOutput.split("\n");
-        //        int lastStop = 0;
+        Map<String, String> states =
+                OutputLines.statesByJobName(rawOutput, statusMap.keySet(), JOB_NAME_OUTPUT_LENGTH, STATE_COLUMN, 0);
         for (String jobID : statusMap.keySet()) {
-            String jobName = jobID.split(",")[1];
-            boolean found = false;
-            for (int i = 0; i < info.length; i++) {
-                if (info[i].contains(jobName.substring(0, 8))) {
-                    // now starts processing this line
-                    log.info(info[i]);
-                    String correctLine = info[i];
-                    String[] columns = correctLine.split(" ");
-                    List<String> columnList = new ArrayList<String>();
-                    for (String s : columns) {
-                        if (!"".equals(s)) {
-                            columnList.add(s);
-                        }
-                    }
-                    //                    lastStop = i + 1;
-                    try {
-                        statusMap.put(
-                                jobID,
-                                JobStatus.newBuilder()
-                                        .setJobState(JobUtil.getJobState(columnList.get(9)))
-                                        .build());
-                    } catch (IndexOutOfBoundsException e) {
-                        statusMap.put(
-                                jobID,
-                                JobStatus.newBuilder()
-                                        .setJobState(JobUtil.getJobState("U"))
-                                        .build());
-                    }
-                    found = true;
-                    break;
-                }
-            }
-            if (!found)
-                log.error("Couldn't find the status of the Job with JobName: " + jobName + "Job Id: "
+            if (states.containsKey(jobID)) {
+                String state = states.get(jobID);
+                statusMap.put(
+                        jobID,
+                        JobStatus.newBuilder()
+                                .setJobState(JobUtil.getJobState(state != null ? state : "U"))
+                                .build());
+            } else {
+                log.error("Couldn't find the status of the Job with JobName: " + jobID.split(",")[1] + "Job Id: "
                         + jobID.split(",")[0]);
+            }
         }
     }
 
@@ -130,16 +91,20 @@ public class PBSOutputParser implements OutputParser {
         Job Id: 2080802.gordon-fe2.local
             Job_Name = A312402627
         */
-        String regJobId = "jobId";
-        Pattern pattern = Pattern.compile("(?<" + regJobId + ">[^\\s]*)\\s*.* " + jobName);
         if (rawOutput != null) {
-            Matcher matcher = pattern.matcher(rawOutput);
-            if (matcher.find()) {
-                return matcher.group(regJobId);
-            } else {
-                log.error("No match is found for JobName");
-                return null;
+            OutputLines lines = new OutputLines(rawOutput);
+            String jobId = null;
+            while (lines.next()) {
+                if (lines.startsWith(JOB_ID_PREFIX)) {
+                    jobId = lines.valueAfter(':');
+                } else if (jobId != null
+                        && lines.startsWith(JOB_NAME_PREFIX)
+                        && jobName.equals(lines.valueAfter('='))) {
+                    return jobId;
+                }
             }
+            log.error("No match is found for JobName");
+            return null;
         } else {
             log.error("Error: RawOutput shouldn't be null");
             return null;
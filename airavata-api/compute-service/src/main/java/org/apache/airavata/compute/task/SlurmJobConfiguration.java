@@ -91,6 +91,11 @@ public class SlurmJobConfiguration implements JobManagerConfiguration {
         return parser;
     }
 
+    @Override
+    public JobArraySupport getJobArraySupport() {
+        return JobArraySupport.SLURM;
+    }
+
     public void setParser(OutputParser parser) {
         this.parser = parser;
     }
@@ -19,12 +19,9 @@
 */
 package org.apache.airavata.compute.task;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import org.apache.airavata.model.status.proto.JobState;
 import org.apache.airavata.model.status.proto.JobStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,6 +32,13 @@ public class SlurmOutputParser implements OutputParser {
     public static final String STATUS = "status";
     public static final String JOBID = "jobId";
 
+    private static final Pattern SUBMITTED = Pattern.compile("Submitted batch job (?<" + JOBID + ">[^\\s]*)");
+    private static final Pattern FAILED = Pattern.compile("FAILED");
+
+    // squeue columns: JOBID PARTITION NAME USER ST TIME NODES NODELIST(REASON)
+    private static final int NAME_COLUMN = 2;
+    private static final int STATE_COLUMN = 4;
+
     /**
      * This can be used to parseSingleJob the outpu of sbatch and extrac the jobID from the content
      *
@@ -43,8 +47,7 @@ public class SlurmOutputParser implements OutputParser {
      */
     public String parseJobSubmission(String rawOutput) throws Exception {
         log.info(rawOutput);
-        Pattern pattern = Pattern.compile("Submitted batch job (?<" + JOBID + ">[^\\s]*)");
-        Matcher matcher = pattern.matcher(rawOutput);
+        Matcher matcher = SUBMITTED.matcher(rawOutput);
         if (matcher.find()) {
             return matcher.group(JOBID);
         }
@@ -53,89 +56,60 @@ public class SlurmOutputParser implements OutputParser {
 
     @Override
     public boolean isJobSubmissionFailed(String rawOutput) {
-        Pattern pattern = Pattern.compile("FAILED");
-        Matcher matcher = pattern.matcher(rawOutput);
-        return matcher.find();
+        return FAILED.matcher(rawOutput).find();
     }
 
     public JobStatus parseJobStatus(String jobID, String rawOutput) throws Exception {
         log.info(rawOutput);
-        Pattern pattern = Pattern.compile(jobID + "(?=\\s+\\S+\\s+\\S+\\s+\\S+\\s+(?<" + STATUS + ">\\w+))");
-        Matcher matcher = pattern.matcher(rawOutput);
-        if (matcher.find()) {
-            return JobStatus.newBuilder()
-                    .setJobState(JobUtil.getJobState(matcher.group(STATUS)))
-                    .build();
+        OutputLines lines = new OutputLines(rawOutput);
+        while (lines.next()) {
+            if (lines.columnEquals(0, jobID)) {
+                String status = lines.column(STATE_COLUMN);
+                if (status != null) {
+                    return JobStatus.newBuilder()
+                            .setJobState(JobUtil.getJobState(status))
+                            .build();
+                }
+            }
         }
         return null;
     }
 
     public void parseJobStatuses(String userName, Map<String, JobStatus> statusMap, String rawOutput) throws Exception {
         log.debug(rawOutput);
-        String[] info = rawOutput.split("\n");
-        String lastString = info[info.length - 1];
-        if (lastString.contains("JOBID") || lastString.contains("PARTITION")) {
+        Map<String, String> states =
+                OutputLines.statesByJobName(rawOutput, statusMap.keySet(), JOB_NAME_OUTPUT_LENGTH, STATE_COLUMN, 0);
+        if (states.isEmpty()) {
             log.info("There are no jobs with this username ... ");
-            return;
         }
-        //        int lastStop = 0;
         for (String jobID : statusMap.keySet()) {
-            String jobId = jobID.split(",")[0];
-            String jobName = jobID.split(",")[1];
-            boolean found = false;
-            for (int i = 0; i < info.length; i++) {
-                if (info[i].contains(jobName.substring(0, 8))) {
-                    // now starts processing this line
-                    log.info(info[i]);
-                    String correctLine = info[i];
-                    String[] columns = correctLine.split(" ");
-                    List<String> columnList = new ArrayList<String>();
-                    for (String s : columns) {
-                        if (!"".equals(s)) {
-                            columnList.add(s);
-                        }
-                    }
-                    try {
-                        statusMap.put(
-                                jobID,
-                                JobStatus.newBuilder()
-                                        .setJobState(JobState.valueOf(columnList.get(4)))
-                                        .build());
-                    } catch (IndexOutOfBoundsException e) {
-                        statusMap.put(
-                                jobID,
-                                JobStatus.newBuilder()
-                                        .setJobState(JobState.valueOf("U"))
-                                        .build());
-                    }
-                    found = true;
-                    break;
-                }
-            }
-            if (!found) {
-                log.error("Couldn't find the status of the Job with JobName: " + jobName + "Job Id: " + jobId);
+            if (states.containsKey(jobID)) {
+                String state = states.get(jobID);
+                statusMap.put(
+                        jobID,
+                        JobStatus.newBuilder()
+                                .setJobState(JobUtil.getJobState(state != null ? state : "U"))
+                                .build());
+            } else {
+                log.error("Couldn't find the status of the Job with JobName: " + jobID.substring(jobID.indexOf(',') + 1)
+                        + "Job Id: " + jobID.split(",")[0]);
             }
         }
     }
 
     @Override
     public String parseJobId(String jobName, String rawOutput) throws Exception {
-        String regJobId = "jobId";
         if (jobName == null) {
             return null;
         } else if (jobName.length() > JOB_NAME_OUTPUT_LENGTH) {
             jobName = jobName.substring(0, JOB_NAME_OUTPUT_LENGTH);
         }
-        Pattern pattern = Pattern.compile(
-                "(?=(?<" + regJobId + ">\\d+)\\s+\\w+\\s+" + jobName + ")"); // regex - look ahead and match
         if (rawOutput != null) {
-            Matcher matcher = pattern.matcher(rawOutput);
-            if (matcher.find()) {
-                return matcher.group(regJobId);
-            } else {
+            String jobId = OutputLines.jobIdByName(rawOutput, NAME_COLUMN, jobName);
+            if (jobId == null) {
                 log.error("No match is found for JobName");
-                return null;
             }
+            return jobId;
         } else {
             log.error("Error: RawOutput shouldn't be null");
             return null;
@@ -20,9 +20,9 @@
 package org.apache.airavata.compute.task;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.apache.airavata.model.status.proto.JobState;
 import org.apache.airavata.model.status.proto.JobStatus;
@@ -33,12 +33,23 @@ public class UGEOutputParser implements OutputParser {
     private static final Logger log = LoggerFactory.getLogger(PBSOutputParser.class);
     public static final String JOB_ID = "jobId";
 
+    private static final Pattern REJECTING = Pattern.compile("Rejecting");
+    private static final String JOB_NUMBER_PREFIX = "job_number:";
+    // qstat columns: job-ID prior name user state submit/start at queue slots ja-task-ID
+    private static final int JOB_NAME_OUTPUT_LENGTH = 10;
+    private static final int NAME_COLUMN = 2;
+    private static final int STATE_COLUMN = 4;
+
     public String parseJobSubmission(String rawOutput) {
         log.debug(rawOutput);
         if (rawOutput != null && !rawOutput.isEmpty() && !isJobSubmissionFailed(rawOutput)) {
-            String[] info = rawOutput.split("\n");
-            String lastLine = info[info.length - 1];
-            return lastLine.split(" ")[2]; // In PBS stdout is going to be directly the jobID
+            // "Your job <id> (<name>) has been submitted" is the last line
+            OutputLines lines = new OutputLines(rawOutput);
+            String jobId = null;
+            while (lines.next()) {
+                jobId = lines.column(2);
+            }
+            return jobId; // In PBS stdout is going to be directly the jobID
         } else {
             return "";
         }
@@ -46,49 +57,47 @@ public class UGEOutputParser implements OutputParser {
 
     @Override
     public boolean isJobSubmissionFailed(String rawOutput) {
-        Pattern pattern = Pattern.compile("Rejecting");
-        Matcher matcher = pattern.matcher(rawOutput);
-        return matcher.find();
+        return REJECTING.matcher(rawOutput).find();
     }
 
     public JobStatus parseJobStatus(String jobID, String rawOutput) {
-        Pattern pattern = Pattern.compile("job_number:[\\s]+" + jobID);
-        Matcher matcher = pattern.matcher(rawOutput);
-        if (matcher.find()) {
-            return JobStatus.newBuilder().setJobState(JobState.QUEUED).build(); // fixme; return correct status.
+        OutputLines lines = new OutputLines(rawOutput);
+        while (lines.next()) {
+            if (lines.startsWith(JOB_NUMBER_PREFIX) && jobID.equals(lines.valueAfter(':'))) {
+                return JobStatus.newBuilder().setJobState(JobState.QUEUED).build(); // fixme; return correct status.
+            }
         }
         return JobStatus.newBuilder().setJobState(JobState.JOB_STATE_UNKNOWN).build();
     }
 
     public void parseJobStatuses(String userName, Map<String, JobStatus> statusMap, String rawOutput) {
         log.debug(rawOutput);
-        String[] info = rawOutput.split("\n");
-        int lastStop = 0;
+        // qstat shows job ids without the cell suffix, so keys are matched on the part before the first dot
+        Map<String, List<String>> keysByJobNumber = new HashMap<>();
         for (String jobID : statusMap.keySet()) {
-            for (int i = lastStop; i < info.length; i++) {
-                if (jobID.split(",")[0].contains(info[i].split(" ")[0]) && !"".equals(info[i].split(" ")[0])) {
-                    // now starts processing this line
-                    log.info(info[i]);
-                    String correctLine = info[i];
-                    String[] columns = correctLine.split(" ");
-                    List<String> columnList = new ArrayList<String>();
-                    for (String s : columns) {
-                        if (!"".equals(s)) {
-                            columnList.add(s);
-                        }
-                    }
-                    lastStop = i + 1;
-                    if ("E".equals(columnList.get(4))) {
-                        // There is another status with the same letter E other than error status
-                        // to avoid that we make a small tweek to the job status
-                        columnList.set(4, "Er");
-                    }
+            keysByJobNumber
+                    .computeIfAbsent(jobNumber(jobID.split(",")[0]), n -> new ArrayList<>(1))
+                    .add(jobID);
+        }
+        OutputLines lines = new OutputLines(rawOutput);
+        while (!keysByJobNumber.isEmpty() && lines.next()) {
+            String jobNumber = lines.column(0);
+            String state = lines.column(STATE_COLUMN);
+            List<String> keys =
+                    jobNumber == null || state == null ? null : keysByJobNumber.remove(jobNumber(jobNumber));
+            if (keys != null) {
+                log.info(lines.line());
+                if ("E".equals(state)) {
+                    // There is another status with the same letter E other than error status
+                    // to avoid that we make a small tweek to the job status
+                    state = "Er";
+                }
+                for (String jobID : keys) {
                     statusMap.put(
                             jobID,
                             JobStatus.newBuilder()
-                                    .setJobState(JobState.valueOf(columnList.get(4)))
+                                    .setJobState(JobUtil.getJobState(state))
                                     .build());
-                    break;
                 }
             }
         }
@@ -96,14 +105,14 @@ public class UGEOutputParser implements OutputParser {
 
     @Override
     public String parseJobId(String jobName, String rawOutput) throws Exception {
-        if (jobName.length() > 10) {
-            jobName = jobName.substring(0, 10);
-        }
-        Pattern pattern = Pattern.compile("(?<" + JOB_ID + ">\\S+)\\s+\\S+\\s+(" + jobName + ")");
-        Matcher matcher = pattern.matcher(rawOutput);
-        if (matcher.find()) {
-            return matcher.group(JOB_ID);
+        if (jobName.length() > JOB_NAME_OUTPUT_LENGTH) {
+            jobName = jobName.substring(0, JOB_NAME_OUTPUT_LENGTH);
         }
-        return null;
+        return OutputLines.jobIdByName(rawOutput, NAME_COLUMN, jobName);
+    }
+
+    private static String jobNumber(String jobId) {
+        int dot = jobId.indexOf('.');
+        return dot < 0 ? jobId : jobId.substring(0, dot);
     }
 }
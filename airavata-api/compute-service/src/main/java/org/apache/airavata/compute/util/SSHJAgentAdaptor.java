@@ -132,6 +132,20 @@ public class SSHJAgentAdaptor implements AgentAdaptor {
         }
     }
 
+    @Override
+    public boolean isHealthy() {
+        if (sshConnection == null) {
+            return false;
+        }
+        try {
+            // A no-op exec goes through the pool, so it also replaces connections the server has dropped
+            return Integer.valueOf(0).equals(executeCommand("true", null).getExitCode());
+        } catch (AgentException e) {
+            logger.warn("Health check failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
     @Override
     public CommandOutput executeCommand(String command, String workingDirectory) throws AgentException {
         SSHSession session = null;
@@ -385,6 +399,126 @@ public class SSHJAgentAdaptor implements AgentAdaptor {
         }
     }
 
+    @Override
+    public boolean supportsRangedTransfer() {
+        return true;
+    }
+
+    @Override
+    public void prepareRangedUpload(String remoteFile) throws AgentException {
+        withSftp(sftp -> sftp.create(remoteFile));
+    }
+
+    @Override
+    public void uploadFileRange(String localFile, String remoteFile, long offset, long length) throws AgentException {
+        withSftp(sftp -> sftp.uploadRange(localFile, remoteFile, offset, length));
+    }
+
+    @Override
+    public void downloadFileRange(String remoteFile, String localFile, long offset, long length) throws AgentException {
+        withSftp(sftp -> sftp.downloadRange(remoteFile, localFile, offset, length));
+    }
+
+    @Override
+    public InputStream openFileRange(String remoteFile, long offset, long length) throws AgentException {
+        SFTPSession sftpClient = null;
+        try {
+            sftpClient = sshConnection.newSFTPClient();
+            return new SessionInputStream(sftpClient.openRange(remoteFile, offset, length), sftpClient);
+        } catch (Exception e) {
+            if (sftpClient != null) {
+                if (isConnectionException(e)) {
+                    sftpClient.setErrored(true);
+                }
+                try {
+                    sftpClient.close();
+                } catch (IOException ignored) {
+                }
+            }
+            throw new AgentException(e);
+        }
+    }
+
+    @Override
+    public long uploadStream(InputStream localInStream, String remoteFile) throws AgentException {
+        long[] written = new long[1];
+        withSftp(sftp -> written[0] = sftp.upload(localInStream, remoteFile));
+        return written[0];
+    }
+
+    /**
+     * Keeps the SFTP session of an {@link #openFileRange} stream checked out until the reader closes it,
+     * and flags the session as broken if a read fails on the connection.
+     */
+    private static final class SessionInputStream extends FilterInputStream {
+
+        private final SFTPSession session;
+
+        private SessionInputStream(InputStream in, SFTPSession session) {
+            super(in);
+            this.session = session;
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                return super.read();
+            } catch (IOException e) {
+                throw markErrored(e);
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            try {
+                return super.read(b, off, len);
+            } catch (IOException e) {
+                throw markErrored(e);
+            }
+        }
+
+        private IOException markErrored(IOException e) {
+            if (isConnectionException(e)) {
+                session.setErrored(true);
+            }
+            return e;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                session.close();
+            }
+        }
+    }
+
+    private interface SftpOperation {
+        void run(SFTPSession sftp) throws IOException;
+    }
+
+    private void withSftp(SftpOperation operation) throws AgentException {
+        SFTPSession sftpClient = null;
+        try {
+            sftpClient = sshConnection.newSFTPClient();
+            operation.run(sftpClient);
+        } catch (Exception e) {
+            if (sftpClient != null && isConnectionException(e)) {
+                sftpClient.setErrored(true);
+            }
+            throw new AgentException(e);
+
+        } finally {
+            if (sftpClient != null) {
+                try {
+                    sftpClient.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
     @Override
     public List<String> listDirectory(String path) throws AgentException {
         SFTPSession sftpClient = null;
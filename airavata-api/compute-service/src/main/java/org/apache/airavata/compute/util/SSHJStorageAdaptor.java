@@ -29,6 +29,7 @@ import net.schmizz.sshj.sftp.FileMode;
 import net.schmizz.sshj.sftp.RemoteResourceInfo;
 import net.schmizz.sshj.sftp.SFTPClient;
 import net.schmizz.sshj.transport.verification.PromiscuousVerifier;
+import org.apache.airavata.credential.ssh.SFTPRangeTransfer;
 import org.apache.airavata.interfaces.AgentException;
 import org.apache.airavata.interfaces.CommandOutput;
 import org.apache.airavata.interfaces.FileMetadata;
@@ -287,6 +288,42 @@ public class SSHJStorageAdaptor implements StorageResourceAdaptor {
         }
     }
 
+    @Override
+    public boolean supportsRangedTransfer() {
+        return true;
+    }
+
+    @Override
+    public void prepareRangedUpload(String remoteFile) throws AgentException {
+        try (SFTPClient sftp = openSftp()) {
+            SFTPRangeTransfer.create(sftp, remoteFile);
+        } catch (Exception e) {
+            throw new AgentException("Failed to create file: " + remoteFile, e);
+        }
+    }
+
+    @Override
+    public void uploadFileRange(String localFile, String remoteFile, long offset, long length) throws AgentException {
+        try (SFTPClient sftp = openSftp()) {
+            SFTPRangeTransfer.upload(sftp, localFile, remoteFile, offset, length);
+        } catch (Exception e) {
+            throw new AgentException(
+                    "Failed to upload range [" + offset + ", " + (offset + length) + ") of " + localFile + " -> "
+                            + remoteFile,
+                    e);
+        }
+    }
+
+    @Override
+    public void downloadFileRange(String remoteFile, String localFile, long offset, long length) throws AgentException {
+        try (SFTPClient sftp = openSftp()) {
+            SFTPRangeTransfer.download(sftp, remoteFile, localFile, offset, length);
+        } catch (Exception e) {
+            throw new AgentException(
+                    "Failed to download range [" + offset + ", " + (offset + length) + ") of " + remoteFile, e);
+        }
+    }
+
     @Override
     public CommandOutput executeCommand(String command, String workingDirectory) throws AgentException {
         throw new AgentException("Command execution not supported on storage resources");
@@ -0,0 +1,120 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.compute.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class JobArrayBatcherTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final JobArrayBatcher batcher = new JobArrayBatcher(scheduler);
+
+    @AfterEach
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void membersOfAGroupAreSubmittedAsOneArray() throws Exception {
+        AtomicInteger submissions = new AtomicInteger();
+        JobArrayBatcher.Dispatcher dispatcher = members -> {
+            submissions.incrementAndGet();
+            List<String> ids = new ArrayList<>();
+            for (int i = 1; i <= members.size(); i++) {
+                ids.add(JobArraySupport.SLURM.elementJobId("900", i));
+            }
+            return ids;
+        };
+
+        for (int i = 1; i <= 3; i++) {
+            batcher.enroll("sweep", member("task-" + i), dispatcher, 100, 1000);
+        }
+        assertTrue(batcher.isEnrolled("task-2"));
+
+        assertEquals(
+                Map.of("task-1", "900_1", "task-2", "900_2", "task-3", "900_3"),
+                elementJobIds("task-1", "task-2", "task-3"));
+        assertEquals(1, submissions.get());
+        assertFalse(batcher.isEnrolled("task-2"));
+        assertNull(batcher.takeOutcome("task-2"), "an outcome is handed out once");
+    }
+
+    @Test
+    public void fullGroupIsSubmittedWithoutWaitingForTheWindow() throws Exception {
+        JobArrayBatcher.Dispatcher dispatcher = members -> List.of("1_1", "1_2");
+
+        batcher.enroll("sweep", member("task-1"), dispatcher, TimeUnit.HOURS.toMillis(1), 2);
+        batcher.enroll("sweep", member("task-2"), dispatcher, TimeUnit.HOURS.toMillis(1), 2);
+
+        assertEquals(Map.of("task-1", "1_1", "task-2", "1_2"), elementJobIds("task-1", "task-2"));
+    }
+
+    @Test
+    public void loneOrUnsubmittableMembersAreReleased() throws Exception {
+        batcher.enroll("alone", member("task-1"), members -> List.of("1_1"), 50, 1000);
+        JobArrayBatcher.Dispatcher failing = members -> {
+            throw new Exception("sbatch: error: Batch job submission failed");
+        };
+        batcher.enroll("sweep", member("task-2"), failing, 50, 1000);
+        batcher.enroll("sweep", member("task-3"), failing, 50, 1000);
+
+        for (String taskId : List.of("task-1", "task-2", "task-3")) {
+            assertSame(JobArrayBatcher.Outcome.RELEASED, awaitOutcome(taskId), taskId);
+            assertNull(batcher.takeOutcome(taskId), "an outcome is handed out once");
+        }
+    }
+
+    private static JobArrayBatcher.Member member(String taskId) {
+        return new JobArrayBatcher.Member(
+                taskId, new JobArraySupport.Element("/scratch/" + taskId, "job.slurm", null, null));
+    }
+
+    private Map<String, String> elementJobIds(String... taskIds) throws InterruptedException {
+        Map<String, String> elementJobIds = new HashMap<>();
+        for (String taskId : taskIds) {
+            JobArrayBatcher.Outcome outcome = awaitOutcome(taskId);
+            elementJobIds.put(taskId, outcome == null ? null : outcome.getElementJobId());
+        }
+        return elementJobIds;
+    }
+
+    private JobArrayBatcher.Outcome awaitOutcome(String taskId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (batcher.isEnrolled(taskId) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        return batcher.takeOutcome(taskId);
+    }
+}
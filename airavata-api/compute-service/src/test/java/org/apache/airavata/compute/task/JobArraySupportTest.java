@@ -0,0 +1,156 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.compute.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class JobArraySupportTest {
+
+    private static String slurmScript(String jobName, String wallTime, String workingDirectory) {
+        return "#!/bin/sh\n\n"
+                + "# SLURM job submission script generated by Apache Airavata\n"
+                + "#SBATCH -p shared\n"
+                + "#SBATCH -N 1\n"
+                + "#SBATCH -t " + wallTime + "\n"
+                + "#SBATCH -J " + jobName + "\n"
+                + "#SBATCH -o " + workingDirectory + "/" + jobName + ".stdout\n"
+                + "#SBATCH -e " + workingDirectory + "/" + jobName + ".stderr\n"
+                + "#SBATCH --mail-type=ALL\n\n"
+                + "cd " + workingDirectory + "\n"
+                + "#SBATCH --exclusive\n"
+                + "echo \"ran " + jobName + " in $(pwd)\"\n"
+                + "echo \"error of " + jobName + "\" >&2\n";
+    }
+
+    @Test
+    public void sharedDirectivesLeaveOutWhatNamesOneJob() {
+        List<String> shared = JobArraySupport.SLURM.sharedDirectives(slurmScript("A1", "00:30:00", "/scratch/p1"));
+
+        assertEquals(
+                List.of("#SBATCH -p shared", "#SBATCH -N 1", "#SBATCH -t 00:30:00", "#SBATCH --mail-type=ALL"), shared);
+    }
+
+    @Test
+    public void jobsDifferingOnlyInNameAndFilesShareTheirDirectives() {
+        List<String> first = JobArraySupport.SLURM.sharedDirectives(slurmScript("A1", "00:30:00", "/scratch/p1"));
+        List<String> second = JobArraySupport.SLURM.sharedDirectives(slurmScript("A2", "00:30:00", "/scratch/p2"));
+        List<String> longer = JobArraySupport.SLURM.sharedDirectives(slurmScript("A3", "01:00:00", "/scratch/p3"));
+
+        assertEquals(first, second);
+        assertNotEquals(first, longer);
+    }
+
+    @Test
+    public void dispatcherRunsTheScriptOfTheSelectedElement(@TempDir Path dir) throws Exception {
+        assumeTrue(new File("/bin/sh").canExecute(), "no POSIX shell");
+        List<JobArraySupport.Element> elements = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            Path workingDirectory = Files.createDirectories(dir.resolve("process-" + i));
+            Path script = workingDirectory.resolve("job_" + i + ".slurm");
+            Files.writeString(script, slurmScript("A" + i, "00:30:00", workingDirectory.toString()));
+            elements.add(new JobArraySupport.Element(
+                    workingDirectory.toString(),
+                    script.toString(),
+                    workingDirectory.resolve("A" + i + ".stdout").toString(),
+                    workingDirectory.resolve("A" + i + ".stderr").toString()));
+        }
+        String leader = slurmScript("A1", "00:30:00", dir.resolve("process-1").toString());
+
+        String dispatcher = JobArraySupport.SLURM.dispatcherScript(leader, "A1_array", dir.toString(), elements);
+
+        assertTrue(dispatcher.startsWith("#!/bin/sh\n#SBATCH -p shared\n"), dispatcher);
+        assertTrue(dispatcher.contains("#SBATCH -J A1_array\n#SBATCH --array=1-3\n"), dispatcher);
+        assertTrue(dispatcher.contains("#SBATCH -o " + dir + "/A1_array-%A_%a.out\n"), dispatcher);
+        assertFalse(dispatcher.contains("#SBATCH -J A1\n"), dispatcher);
+
+        Path dispatcherFile = dir.resolve("A1_array.slurm");
+        Files.writeString(dispatcherFile, dispatcher);
+        ProcessBuilder element = new ProcessBuilder("/bin/sh", dispatcherFile.toString());
+        element.environment().put("SLURM_ARRAY_TASK_ID", "2");
+        assertEquals(0, element.start().waitFor());
+
+        Path second = dir.resolve("process-2");
+        assertEquals("ran A2 in " + second + "\n", Files.readString(second.resolve("A2.stdout")));
+        assertEquals("error of A2\n", Files.readString(second.resolve("A2.stderr")));
+        assertFalse(Files.exists(dir.resolve("process-1").resolve("A1.stdout")));
+
+        element.environment().put("SLURM_ARRAY_TASK_ID", "4");
+        assertNotEquals(0, element.start().waitFor(), "an index outside the array fails");
+    }
+
+    @Test
+    public void markersNameTheArrayBeforeAndAfterSubmission(@TempDir Path dir) throws Exception {
+        assumeTrue(new File("/bin/sh").canExecute(), "no POSIX shell");
+        List<JobArraySupport.Element> elements = new ArrayList<>();
+        for (int i = 1; i <= 250; i++) {
+            Path workingDirectory = Files.createDirectories(dir.resolve("process " + i));
+            elements.add(new JobArraySupport.Element(workingDirectory.toString(), "job.slurm", null, null));
+        }
+        String secondDirectory = dir.resolve("process 2").toString();
+
+        List<String> pending = JobArraySupport.markerCommands("A1_array", null, elements);
+        assertEquals(2, pending.size(), "markers are written in bounded commands");
+        for (String command : pending) {
+            assertEquals(0, run(command).waitFor(), command);
+        }
+        JobArraySupport.Marker marker = readMarker(secondDirectory);
+        assertEquals("A1_array", marker.getArrayName());
+        assertEquals(2, marker.getIndex());
+        assertNull(marker.getArrayJobId());
+
+        for (String command : JobArraySupport.markerCommands("A1_array", "4711", elements)) {
+            assertEquals(0, run(command).waitFor(), command);
+        }
+        assertEquals("4711", readMarker(secondDirectory).getArrayJobId());
+        assertEquals(250, readMarker(dir.resolve("process 250").toString()).getIndex());
+
+        assertNull(readMarker(dir.toString()), "a directory without a marker has none");
+    }
+
+    @Test
+    public void elementJobIdsFollowTheSchedulerSyntax() {
+        assertEquals("4711_3", JobArraySupport.SLURM.elementJobId("4711", 3));
+        assertEquals("4711[3].pbs01", JobArraySupport.PBS.elementJobId("4711[].pbs01", 3));
+        assertEquals("4711[3]", JobArraySupport.LSF.elementJobId("4711", 3));
+    }
+
+    private static Process run(String command) throws Exception {
+        return new ProcessBuilder("/bin/sh", "-c", command).start();
+    }
+
+    private static JobArraySupport.Marker readMarker(String workingDirectory) throws Exception {
+        Process cat = run(JobArraySupport.readMarkerCommand(workingDirectory));
+        String output = new String(cat.getInputStream().readAllBytes());
+        return cat.waitFor() == 0 ? JobArraySupport.parseMarker(output) : null;
+    }
+}
@@ -0,0 +1,160 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.compute.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import groovy.text.Template;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class JobScriptTemplatesTest {
+
+    // Surefire runs in target/test-classes; the shipped templates live in the server module.
+    private static final Path TEMPLATE_DIR =
+            Path.of(System.getProperty("basedir", ".")).resolve("../../airavata-server/src/main/resources/templates");
+
+    @Test
+    public void sameTextIsCompiledOnce() throws Exception {
+        JobScriptTemplates templates = new JobScriptTemplates(16);
+        Template first = templates.compile("module load ${jobName}");
+        Template second = templates.compile("module load ${jobName}");
+
+        assertSame(first, second);
+        assertEquals(1, templates.size());
+        assertEquals("module load a", second.make(Map.of("jobName", "a")).toString());
+    }
+
+    @Test
+    public void compiledTemplateRendersConcurrently() throws Exception {
+        JobScriptTemplates templates = new JobScriptTemplates(16);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<String>> renders = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String name = "job-" + i;
+                renders.add(pool.submit(() -> templates
+                        .compile("#SBATCH -J ${jobName}<% out.print '\\n' %>")
+                        .make(Map.of("jobName", name))
+                        .toString()));
+            }
+            for (int i = 0; i < renders.size(); i++) {
+                assertEquals("#SBATCH -J job-" + i + "\n", renders.get(i).get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, templates.size());
+    }
+
+    @Test
+    public void leastRecentlyUsedTemplateIsDropped() throws Exception {
+        JobScriptTemplates templates = new JobScriptTemplates(2);
+        Template a = templates.compile("a ${x}");
+        Template b = templates.compile("b ${x}");
+        templates.compile("a ${x}");
+        Template c = templates.compile("c ${x}");
+
+        assertEquals(2, templates.size());
+        assertSame(c, templates.compile("c ${x}"), "the new template is kept");
+        assertSame(a, templates.compile("a ${x}"));
+        assertNotSame(b, templates.compile("b ${x}"), "the least recently used template was dropped");
+    }
+
+    @Test
+    public void changedTemplateFileIsReread(@TempDir Path dir) throws Exception {
+        JobScriptTemplates templates = new JobScriptTemplates(16);
+        Path file = dir.resolve("SLURM_Groovy.template");
+        Files.writeString(file, "#SBATCH -J ${jobName}", Charset.defaultCharset());
+        String before = templates.read(file.toUri().toURL());
+
+        Files.writeString(file, "#SBATCH --job-name=${jobName}", Charset.defaultCharset());
+        Files.setLastModifiedTime(
+                file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 2000));
+        String after = templates.read(file.toUri().toURL());
+
+        assertEquals("#SBATCH -J ${jobName}", before);
+        assertEquals("#SBATCH --job-name=${jobName}", after);
+        assertNotSame(templates.compile(before), templates.compile(after));
+    }
+
+    @Test
+    public void shippedJobManagerTemplatesAreCompiledOnce() throws Exception {
+        assumeTrue(Files.isDirectory(TEMPLATE_DIR), "job manager templates not found");
+        Map<?, ?> binding = sampleJob().toImmutableMap();
+        JobScriptTemplates shared = new JobScriptTemplates(16);
+
+        for (String manager : List.of("SLURM", "PBS", "LSF", "UGE", "HTCONDOR")) {
+            String text = Files.readString(TEMPLATE_DIR.resolve(manager + "_Groovy.template"));
+            String expected = new JobScriptTemplates(1).compile(text).make(binding).toString();
+            Template compiled = shared.compile(text);
+
+            for (int i = 0; i < 3; i++) {
+                Template cached = shared.compile(text);
+                assertSame(compiled, cached, manager);
+                assertEquals(expected, cached.make(binding).toString(), manager);
+            }
+        }
+        assertEquals(5, shared.size());
+    }
+
+    private static GroovyMapData sampleJob() {
+        GroovyMapData data = new GroovyMapData()
+                .setShellName("/bin/bash")
+                .setJobName("A123456")
+                .setQueueName("normal")
+                .setNodes(2)
+                .setCpuCount(48)
+                .setProcessPerNode(24)
+                .setUsedMem(4096)
+                .setMaxWallTime("01:00:00")
+                .setAccountString("TG-ABC123")
+                .setStdoutFile("/scratch/A123456/stdout")
+                .setStderrFile("/scratch/A123456/stderr")
+                .setWorkingDirectory("/scratch/A123456")
+                .setInputDir("/scratch/A123456")
+                .setOutputDir("/scratch/A123456")
+                .setExecutablePath("/apps/gromacs/bin/gmx")
+                .setJobSubmitterCommand("mpirun")
+                .setInputs(List.of("-s", "topol.tpr"))
+                .setInputsAll(List.of("-s", "topol.tpr"))
+                .setInputFiles(List.of("topol.tpr"))
+                .setExports(List.of("OMP_NUM_THREADS=1"))
+                .setModuleCommands(List.of("module load gromacs"))
+                .setPreJobCommands(List.of("echo start"))
+                .setPostJobCommands(List.of("echo done"));
+        data.setQueueSpecificMacros(List.of());
+        return data;
+    }
+}
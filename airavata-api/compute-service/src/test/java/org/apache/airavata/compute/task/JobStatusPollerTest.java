@@ -0,0 +1,209 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.compute.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.apache.airavata.interfaces.AgentAdaptor;
+import org.apache.airavata.interfaces.CommandOutput;
+import org.apache.airavata.model.appcatalog.computeresource.proto.JobManagerCommand;
+import org.apache.airavata.model.status.proto.JobState;
+import org.junit.jupiter.api.Test;
+
+public class JobStatusPollerTest {
+
+    private static final JobStatusPoller.Credential CREDENTIAL =
+            new JobStatusPoller.Credential("gateway", "cluster", "token", "alice");
+
+    private static final String SQUEUE_HEADER =
+            "JOBID PARTITION     NAME     USER ST       TIME  NODES NODELIST(REASON)\n";
+
+    private final JobManagerConfiguration slurm = new SlurmJobConfiguration(
+            "SLURM_Groovy.template",
+            ".slurm",
+            "/usr/bin",
+            Map.of(JobManagerCommand.JOB_MONITORING.getNumber(), "squeue"),
+            new SlurmOutputParser());
+
+    @Test
+    public void pollsAllTrackedJobsWithOneBatchedCommand() throws Exception {
+        AgentAdaptor adaptor = mock(AgentAdaptor.class);
+        when(adaptor.executeCommand(startsWith("/usr/bin/squeue -j "), any()))
+                .thenReturn(output(SQUEUE_HEADER
+                        + "  101    normal    job-a    alice  R       0:10      1 c1\n"
+                        + "  102    normal    job-b    alice PD       0:00      1 (Priority)\n"));
+
+        JobStatusPoller poller = new JobStatusPoller(CREDENTIAL);
+        List<JobState> active = new CopyOnWriteArrayList<>();
+        JobStatusPoller.Watch first = poller.track("101", slurm, active::add);
+        JobStatusPoller.Watch second = poller.track("102", slurm, active::add);
+
+        poller.pollOnce(adaptor);
+        poller.pollOnce(adaptor);
+
+        verify(adaptor, times(2)).executeCommand(startsWith("/usr/bin/squeue -j "), any());
+        verify(adaptor, times(0)).executeCommand(startsWith("sacct"), any());
+        assertEquals(List.of(JobState.ACTIVE), active, "ACTIVE is reported once, for the running job only");
+        assertFalse(first.terminalState().isDone());
+        assertFalse(second.terminalState().isDone());
+    }
+
+    @Test
+    public void jobsThatLeftTheQueueAreResolvedFromOneAccountingQuery() throws Exception {
+        AgentAdaptor adaptor = mock(AgentAdaptor.class);
+        when(adaptor.executeCommand(startsWith("/usr/bin/squeue -j "), any())).thenReturn(output(SQUEUE_HEADER));
+        when(adaptor.executeCommand(startsWith("sacct "), any()))
+                .thenReturn(output("201|COMPLETED|2026-01-02T10:00:00\n"
+                        + "202|CANCELLED by 1000|2026-01-02T10:00:00\n"
+                        + "202|COMPLETED|2025-06-01T10:00:00\n"
+                        + "203|TIMEOUT|2026-01-02T10:00:00\n"));
+
+        JobStatusPoller poller = new JobStatusPoller(CREDENTIAL);
+        JobStatusPoller.Watch completed = poller.track("201", slurm, state -> {});
+        JobStatusPoller.Watch canceled = poller.track("202", slurm, state -> {});
+        JobStatusPoller.Watch failed = poller.track("203", slurm, state -> {});
+        JobStatusPoller.Watch vanished = poller.track("204", slurm, state -> {});
+
+        poller.pollOnce(adaptor);
+
+        verify(adaptor, times(1)).executeCommand(startsWith("sacct "), any());
+        assertEquals(JobState.COMPLETE, completed.terminalState().getNow(null));
+        assertEquals(JobState.CANCELED, canceled.terminalState().getNow(null), "the newest record wins");
+        assertEquals(JobState.FAILED, failed.terminalState().getNow(null));
+        assertEquals(JobState.COMPLETE, vanished.terminalState().getNow(null));
+        assertEquals(0, poller.trackedJobCount());
+    }
+
+    @Test
+    public void nodeFailureIsTerminalOnlyAfterTheGraceWindow() throws Exception {
+        AgentAdaptor adaptor = mock(AgentAdaptor.class);
+        when(adaptor.executeCommand(startsWith("/usr/bin/squeue -j "), any())).thenReturn(output(SQUEUE_HEADER));
+        when(adaptor.executeCommand(startsWith("sacct "), any()))
+                .thenReturn(output("301|NODE_FAIL|2026-01-02T10:00:00\n"));
+
+        JobStatusPoller poller = new JobStatusPoller(CREDENTIAL);
+        JobStatusPoller.Watch watch = poller.track("301", slurm, state -> {});
+
+        for (int i = 1; i < JobStatusPoller.INFRA_FAIL_GRACE_POLLS; i++) {
+            poller.pollOnce(adaptor);
+            assertFalse(watch.terminalState().isDone());
+        }
+        poller.pollOnce(adaptor);
+        assertEquals(JobState.FAILED, watch.terminalState().getNow(null));
+    }
+
+    @Test
+    public void queueRowsMatchWholeJobIds() {
+        Map<String, JobState> states = JobStatusPoller.parseQueueStates(
+                SQUEUE_HEADER + " 112 normal job alice R 0:01 1 c1\n", List.of("12", "112"));
+        assertEquals(Map.of("112", JobState.ACTIVE), states);
+    }
+
+    @Test
+    public void cancelledWatchStopsTracking() {
+        JobStatusPoller poller = new JobStatusPoller(CREDENTIAL);
+        JobStatusPoller.Watch watch = poller.track("401", slurm, state -> {});
+        watch.cancel();
+        assertTrue(watch.terminalState().isCancelled());
+        assertEquals(0, poller.trackedJobCount());
+    }
+
+    @Test
+    public void pollerIsDroppedOnceItsLastJobIsTerminal() throws Exception {
+        JobStatusPoller.Credential credential = new JobStatusPoller.Credential("gateway", "cluster", "token", "bob");
+        AgentAdaptor adaptor = mock(AgentAdaptor.class);
+        when(adaptor.executeCommand(startsWith("/usr/bin/squeue -j "), any())).thenReturn(output(SQUEUE_HEADER));
+        when(adaptor.executeCommand(startsWith("sacct "), any()))
+                .thenReturn(output("501|COMPLETED|2026-01-02T10:00:00\n"));
+
+        JobStatusPoller.Watch watch = JobStatusPoller.watch(credential, "501", slurm, state -> {});
+        JobStatusPoller poller = JobStatusPoller.pollerFor(credential);
+        assertNotNull(poller);
+
+        poller.pollOnce(adaptor);
+
+        assertEquals(JobState.COMPLETE, watch.terminalState().getNow(null));
+        assertNull(JobStatusPoller.pollerFor(credential));
+        JobStatusPoller.Watch next = JobStatusPoller.watch(credential, "502", slurm, state -> {});
+        assertNotSame(poller, JobStatusPoller.pollerFor(credential), "a new watch starts a new poller");
+        next.cancel();
+    }
+
+    @Test
+    public void pollerIsDroppedOnceItsLastWatchIsCancelled() {
+        JobStatusPoller.Credential credential = new JobStatusPoller.Credential("gateway", "cluster", "token", "carol");
+        JobStatusPoller.Watch first = JobStatusPoller.watch(credential, "601", slurm, state -> {});
+        JobStatusPoller.Watch second = JobStatusPoller.watch(credential, "602", slurm, state -> {});
+        JobStatusPoller poller = JobStatusPoller.pollerFor(credential);
+
+        first.cancel();
+        assertSame(poller, JobStatusPoller.pollerFor(credential));
+        second.cancel();
+        assertNull(JobStatusPoller.pollerFor(credential));
+    }
+
+    @Test
+    public void credentialsOfOtherGatewaysGetTheirOwnPoller() {
+        JobStatusPoller.Credential one = new JobStatusPoller.Credential("gateway-a", "cluster", "token-a", "dave");
+        JobStatusPoller.Credential other = new JobStatusPoller.Credential("gateway-b", "cluster", "token-b", "dave");
+        JobStatusPoller.Watch first = JobStatusPoller.watch(one, "701", slurm, state -> {});
+        JobStatusPoller.Watch second = JobStatusPoller.watch(other, "702", slurm, state -> {});
+
+        assertNotSame(JobStatusPoller.pollerFor(one), JobStatusPoller.pollerFor(other));
+        assertFalse(other.toString().contains("token-b"), "the token is never logged");
+
+        first.cancel();
+        second.cancel();
+    }
+
+    private static CommandOutput output(String stdout) {
+        return new CommandOutput() {
+            @Override
+            public String getStdOut() {
+                return stdout;
+            }
+
+            @Override
+            public String getStdError() {
+                return "";
+            }
+
+            @Override
+            public Integer getExitCode() {
+                return 0;
+            }
+        };
+    }
+}
@@ -0,0 +1,87 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.compute.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class JobSubmissionTaskTest {
+
+    private static final String SCRIPT = "#!/bin/bash\n"
+            + "#SBATCH -J A123456\n"
+            + "export OUT=\"$HOME/out\" NOW=`date`\n"
+            + "echo 'single' \"double\" \\$escaped\n"
+            + "cat <<EOF\nnested here-document\nEOF\n";
+
+    @Test
+    public void inlineSubmissionWritesTheScriptAndSubmitsItInOneCommand(@TempDir Path dir) throws Exception {
+        Path script = dir.resolve("job_1.slurm");
+        Path recording = dir.resolve("A123456");
+        String command =
+                JobSubmissionTask.inlineSubmission(SCRIPT, script.toString(), "cat " + script + " | tee " + recording);
+
+        Result result = sh(command, dir);
+
+        assertEquals(0, result.exitCode);
+        assertEquals(SCRIPT, Files.readString(script));
+        assertEquals(SCRIPT, result.stdout, "the submit command sees the complete script");
+        assertEquals(SCRIPT, Files.readString(recording));
+    }
+
+    @Test
+    public void submitCommandDoesNotRunWhenTheScriptCannotBeWritten(@TempDir Path dir) throws Exception {
+        String command = JobSubmissionTask.inlineSubmission(
+                SCRIPT, dir.resolve("missing/job_1.slurm").toString(), "echo submitted");
+
+        Result result = sh(command, dir);
+
+        assertNotEquals(0, result.exitCode);
+        assertFalse(result.stdout.contains("submitted"));
+    }
+
+    @Test
+    public void scriptWithoutTrailingNewlineIsWrittenWithOne(@TempDir Path dir) throws Exception {
+        Path script = dir.resolve("job_2.pbs");
+        String command = JobSubmissionTask.inlineSubmission("echo last line", script.toString(), "true");
+
+        assertEquals(0, sh(command, dir).exitCode);
+        assertEquals("echo last line\n", Files.readString(script));
+    }
+
+    private record Result(int exitCode, String stdout) {}
+
+    private static Result sh(String command, Path dir) throws Exception {
+        assumeTrue(new File("/bin/sh").canExecute(), "no POSIX shell");
+        Process process = new ProcessBuilder("/bin/sh", "-c", "cd " + dir + "; " + command)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        String stdout = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        return new Result(process.waitFor(), stdout);
+    }
+}
@@ -0,0 +1,192 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.compute.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.apache.airavata.model.status.proto.JobState;
+import org.apache.airavata.model.status.proto.JobStatus;
+import org.junit.jupiter.api.Test;
+
+public class OutputParsersTest {
+
+    private static final String SQUEUE_HEADER =
+            "             JOBID PARTITION     NAME     USER ST       TIME  NODES NODELIST(REASON)\n";
+
+    private static String squeue(int jobs) {
+        StringBuilder out = new StringBuilder(SQUEUE_HEADER);
+        for (int i = 0; i < jobs; i++) {
+            out.append(String.format(
+                    "%18d    shared A%07d    alice %2s    1:%02d:07      1 %s\n",
+                    100000 + i, i, i % 3 == 0 ? "PD" : "R", i % 60, i % 3 == 0 ? "(Priority)" : "node" + i % 97));
+        }
+        return out.toString();
+    }
+
+    @Test
+    public void slurmStatusIsReadForTheExactJobId() throws Exception {
+        SlurmOutputParser parser = new SlurmOutputParser();
+        String out = SQUEUE_HEADER
+                + "            123456    shared A1234567    alice  R       0:07      1 node1\n"
+                + "           1234567    shared A7654321    alice PD       0:00      1 (Priority)\n"
+                + "          4711_[4]    shared A0000001    alice PD       0:00      1 (Priority)\n";
+
+        assertEquals("123456", parser.parseJobSubmission("Submitted batch job 123456\n"));
+        assertEquals(JobState.ACTIVE, parser.parseJobStatus("123456", out).getJobState());
+        assertEquals(JobState.QUEUED, parser.parseJobStatus("1234567", out).getJobState());
+        assertEquals(JobState.QUEUED, parser.parseJobStatus("4711_[4]", out).getJobState());
+        assertNull(parser.parseJobStatus("12345", out), "a prefix of a listed id is a different job");
+        assertEquals("1234567", parser.parseJobId("A76543210", out));
+    }
+
+    @Test
+    public void pbsStatusAndJobIdAreReadFromQstatAttributes() throws Exception {
+        PBSOutputParser parser = new PBSOutputParser();
+        String full = "Job Id: 2080801[3].gordon-fe2.local\n"
+                + "    Job_Name = A312402626\n"
+                + "    job_state = Q\n"
+                + "Job Id: 2080802.gordon-fe2.local\n"
+                + "    Job_Name = A312402627\n"
+                + "    job_state = R\n";
+
+        assertEquals("2080802.gordon-fe2.local", parser.parseJobSubmission("2080802.gordon-fe2.local\n"));
+        assertEquals(
+                JobState.ACTIVE,
+                parser.parseJobStatus("2080802.gordon-fe2.local", full).getJobState());
+        assertEquals(
+                JobState.QUEUED,
+                parser.parseJobStatus("2080801[3].gordon-fe2.local", full).getJobState());
+        assertEquals("2080802.gordon-fe2.local", parser.parseJobId("A312402627", full));
+        assertNull(parser.parseJobId("A3124026", full));
+    }
+
+    @Test
+    public void lsfStatusesAreMatchedByJobNameWhateverTheColumn() throws Exception {
+        LSFOutputParser parser = new LSFOutputParser();
+        String out = "JOBID   USER    STAT  QUEUE      FROM_HOST   EXEC_HOST   JOB_NAME   SUBMIT_TIME\n"
+                + "3141    alice   RUN   normal     login1      node12      A12345678  Oct 18 10:00\n"
+                + "3142    alice   PEND  normal     login1                  A87654321  Oct 18 10:01\n";
+        Map<String, JobStatus> statuses = new HashMap<>();
+        statuses.put("3141,A12345678", null);
+        statuses.put("3142,A87654321", null);
+        statuses.put("3143,A00000000", null);
+
+        parser.parseJobStatuses("alice", statuses, out);
+
+        assertEquals("3141", parser.parseJobSubmission("Job <3141> is submitted to queue <normal>."));
+        assertEquals(JobState.ACTIVE, statuses.get("3141,A12345678").getJobState());
+        assertEquals(JobState.QUEUED, statuses.get("3142,A87654321").getJobState());
+        assertNull(statuses.get("3143,A00000000"));
+        assertEquals("3142", parser.parseJobId("A87654321", out));
+    }
+
+    @Test
+    public void ugeAndHtCondorOutputsAreParsed() throws Exception {
+        UGEOutputParser uge = new UGEOutputParser();
+        String qstat = "job-ID  prior   name       user  state submit/start at     queue  slots ja-task-ID\n"
+                + "-------------------------------------------------------------------------------------\n"
+                + "   9001 0.55500 A123456789 alice r     10/18/2026 10:00:00 all.q@node1  1\n";
+        assertEquals("9001", uge.parseJobSubmission("Your job 9001 (\"A123456789\") has been submitted\n"));
+        assertEquals(
+                JobState.QUEUED,
+                uge.parseJobStatus("9001", "job_number:                 9001\n").getJobState());
+        assertEquals(
+                JobState.JOB_STATE_UNKNOWN,
+                uge.parseJobStatus("900", "job_number:                 9001\n").getJobState());
+        assertEquals("9001", uge.parseJobId("A1234567890", qstat));
+        Map<String, JobStatus> statuses = new HashMap<>();
+        statuses.put("9001.cell,A123456789", null);
+        uge.parseJobStatuses("alice", statuses, qstat);
+        assertEquals(JobState.ACTIVE, statuses.get("9001.cell,A123456789").getJobState());
+
+        HTCondorOutputParser condor = new HTCondorOutputParser();
+        String condorQ = " ID      OWNER            SUBMITTED     RUN_TIME ST PRI SIZE CMD\n"
+                + " 77.0    alice          10/18 10:00   0+00:00:05 R  0    0.0  job.sh\n";
+        assertEquals("77", condor.parseJobSubmission("1 job(s) submitted to cluster 77.\n"));
+        assertEquals(JobState.ACTIVE, condor.parseJobStatus("77", condorQ).getJobState());
+        assertNull(condor.parseJobStatus("7", condorQ));
+    }
+
+    @Test
+    public void bulkQueueListingsResolveEveryJob() throws Exception {
+        int jobs = 30;
+        String out = squeue(jobs);
+        List<String> ids = new ArrayList<>();
+        Map<String, JobStatus> statuses = new HashMap<>();
+        for (int i = 0; i < jobs; i++) {
+            ids.add(String.valueOf(100000 + i));
+            statuses.put((100000 + i) + ",A" + String.format("%07d", i) + "x", null);
+        }
+
+        Map<String, JobState> states = JobStatusPoller.parseQueueStates(out, ids);
+        new SlurmOutputParser().parseJobStatuses("alice", statuses, out);
+
+        assertEquals(jobs, states.size());
+        for (int i = 0; i < jobs; i++) {
+            JobState expected = i % 3 == 0 ? JobState.QUEUED : JobState.ACTIVE;
+            assertEquals(expected, states.get(String.valueOf(100000 + i)), "job " + i);
+            JobStatus status = statuses.get((100000 + i) + ",A" + String.format("%07d", i) + "x");
+            assertEquals(expected, status == null ? null : status.getJobState(), "job " + i);
+        }
+    }
+
+    @Test
+    public void malformedOutputNeverThrows() throws Exception {
+        List<OutputParser> parsers = List.of(
+                new SlurmOutputParser(),
+                new PBSOutputParser(),
+                new LSFOutputParser(),
+                new UGEOutputParser(),
+                new HTCondorOutputParser());
+        List<String> seeds = List.of(
+                squeue(20),
+                "Job Id: 2080802.host\n    Job_Name = A312402627\n    job_state = R\n",
+                "Job <3141> is submitted to queue <normal>.\n3141 alice RUN normal login1 node12 A12345678\n",
+                "Your job 9001 (\"A123456789\") has been submitted\njob_number: 9001\n",
+                " ID OWNER SUBMITTED RUN_TIME ST\n 77.0 alice 10/18 10:00 0+00:00:05 R 0\n");
+        String alphabet = " \t\r\n\n0123456789AaRPDQE_.[]<>=:-|()";
+        Random random = new Random(20261018L);
+
+        for (int round = 0; round < 2000; round++) {
+            StringBuilder out = new StringBuilder(seeds.get(random.nextInt(seeds.size())));
+            out.setLength(random.nextInt(out.length() + 1));
+            for (int i = random.nextInt(40); i > 0; i--) {
+                out.insert(random.nextInt(out.length() + 1), alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String text = out.toString();
+            for (OutputParser parser : parsers) {
+                Map<String, JobStatus> statuses = new HashMap<>();
+                statuses.put("3141,A12345678", null);
+                statuses.put("77,alice", null);
+                parser.parseJobSubmission(text);
+                parser.isJobSubmissionFailed(text);
+                parser.parseJobStatus("3141", text);
+                parser.parseJobStatuses("alice", statuses, text);
+                parser.parseJobId("A12345678", text);
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.compute.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Random;
+import org.apache.airavata.credential.ssh.SSHConnectionServiceImpl;
+import org.apache.airavata.interfaces.SSHConnectionService.SSHConnection;
+import org.apache.sshd.common.file.virtualfs.VirtualFileSystemFactory;
+import org.apache.sshd.server.SshServer;
+import org.apache.sshd.server.keyprovider.SimpleGeneratorHostKeyProvider;
+import org.apache.sshd.sftp.server.SftpSubsystemFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Ranged downloads and uploads of {@link SSHJAgentAdaptor} against an in-process SSHD.
+ */
+public class SSHJAgentAdaptorRangeTransferTest {
+
+    private Path sftpRootDir;
+    private SshServer sshd;
+    private SSHJAgentAdaptor adaptor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        sftpRootDir = Files.createTempDirectory("sftp-root-");
+        sftpRootDir.toFile().deleteOnExit();
+
+        sshd = SshServer.setUpDefaultServer();
+        sshd.setHost("localhost");
+        sshd.setPort(0);
+        sshd.setKeyPairProvider(new SimpleGeneratorHostKeyProvider());
+        sshd.setSubsystemFactories(Collections.singletonList(new SftpSubsystemFactory.Builder().build()));
+        sshd.setFileSystemFactory(new VirtualFileSystemFactory(sftpRootDir));
+        sshd.setPasswordAuthenticator((username, password, session) -> true);
+        sshd.start();
+
+        // The adaptor only connects with keys; log it in with a password instead
+        adaptor = new SSHJAgentAdaptor(new SSHConnectionServiceImpl() {
+            @Override
+            public SSHConnection connect(
+                    String host, int port, String username, String publicKey, String privateKey, String passphrase)
+                    throws IOException {
+                return connectWithPassword(host, port, username, "secret");
+            }
+        });
+        adaptor.init("testuser", "localhost", sshd.getPort(), "unused-key", "unused-key", null);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (adaptor != null) {
+            adaptor.destroy();
+        }
+        if (sshd != null && !sshd.isClosed()) {
+            sshd.stop(true);
+        }
+    }
+
+    @Test
+    public void rangesLandAtTheirOwnOffsets() throws Exception {
+        byte[] content = new byte[3 * 1024 * 1024 + 17];
+        new Random(42).nextBytes(content);
+        Files.write(sftpRootDir.resolve("source.bin"), content);
+        Path local = Files.createTempFile("ranged-", ".bin");
+        local.toFile().deleteOnExit();
+        assertTrue(adaptor.supportsRangedTransfer());
+
+        // Ranges are moved out of order to make sure each one lands at its own offset
+        long half = content.length / 2;
+        adaptor.downloadFileRange("source.bin", local.toString(), half, content.length - half);
+        adaptor.downloadFileRange("source.bin", local.toString(), 0, half);
+        assertArrayEquals(content, Files.readAllBytes(local));
+
+        adaptor.prepareRangedUpload("copy.bin");
+        adaptor.uploadFileRange(local.toString(), "copy.bin", half, content.length - half);
+        adaptor.uploadFileRange(local.toString(), "copy.bin", 0, half);
+        assertArrayEquals(content, Files.readAllBytes(sftpRootDir.resolve("copy.bin")));
+    }
+}
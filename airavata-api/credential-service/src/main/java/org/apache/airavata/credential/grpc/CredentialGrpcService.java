@@ -91,7 +91,8 @@ public class CredentialGrpcService extends CredentialServiceGrpc.CredentialServi
         try {
             RequestContext ctx = GrpcRequestContext.current();
             var summaryType = SummaryType.valueOf(request.getType().name());
-            var summaries = credentialService.getAllCredentialSummaries(ctx, summaryType);
+            var summaries = credentialService.getAllCredentialSummaries(
+                    ctx, summaryType, request.getLimit(), request.getOffset());
             observer.onNext(GetAllCredentialSummariesResponse.newBuilder()
                     .addAllCredentialSummaries(summaries)
                     .build());
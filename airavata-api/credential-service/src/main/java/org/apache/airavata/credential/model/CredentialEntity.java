@@ -21,9 +21,16 @@ package org.apache.airavata.credential.model;
 
 import jakarta.persistence.*;
 import java.sql.Timestamp;
+import org.apache.airavata.model.credential.store.proto.SummaryType;
 
+/**
+ * A stored credential. The secret material lives only in the encrypted {@code CREDENTIAL} blob; the
+ * non-secret summary fields are kept in plain, indexed columns so listings never decrypt.
+ */
 @Entity
-@Table(name = "CREDENTIALS")
+@Table(
+        name = "CREDENTIALS",
+        indexes = @Index(name = "IDX_CREDENTIALS_SUMMARY", columnList = "GATEWAY_ID, CREDENTIAL_TYPE, PORTAL_USER_ID"))
 @IdClass(CredentialPK.class)
 public class CredentialEntity {
 
@@ -39,9 +46,16 @@ public class CredentialEntity {
     @Column(name = "CREDENTIAL", nullable = false, columnDefinition = "MEDIUMBLOB")
     private byte[] credential;
 
+    @Column(name = "CREDENTIAL_TYPE")
+    @Enumerated(EnumType.STRING)
+    private SummaryType credentialType;
+
     @Column(name = "PORTAL_USER_ID", length = 256, nullable = false)
     private String portalUserId;
 
+    @Column(name = "PUBLIC_KEY", length = 4096)
+    private String publicKey;
+
     @Column(name = "TIME_PERSISTED")
     private Timestamp timePersisted;
 
@@ -72,6 +86,14 @@ public class CredentialEntity {
         this.credential = credential;
     }
 
+    public SummaryType getCredentialType() {
+        return credentialType;
+    }
+
+    public void setCredentialType(SummaryType credentialType) {
+        this.credentialType = credentialType;
+    }
+
     public String getPortalUserId() {
         return portalUserId;
     }
@@ -80,6 +102,14 @@ public class CredentialEntity {
         this.portalUserId = portalUserId;
     }
 
+    public String getPublicKey() {
+        return publicKey;
+    }
+
+    public void setPublicKey(String publicKey) {
+        this.publicKey = publicKey;
+    }
+
     public Timestamp getTimePersisted() {
         return timePersisted;
     }
@@ -19,11 +19,17 @@
 */
 package org.apache.airavata.credential.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.apache.airavata.credential.model.CredentialEntity;
 import org.apache.airavata.credential.model.CredentialPK;
+import org.apache.airavata.credential.model.CredentialSummaryRow;
+import org.apache.airavata.model.credential.store.proto.SummaryType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface CredentialRepository extends JpaRepository<CredentialEntity, CredentialPK> {
     List<CredentialEntity> findByGatewayId(String gatewayId);
@@ -31,4 +37,38 @@ public interface CredentialRepository extends JpaRepository<CredentialEntity, Cr
     List<CredentialEntity> findByGatewayIdAndTokenIdIn(String gatewayId, List<String> tokenIds);
 
     Optional<CredentialEntity> findByTokenId(String tokenId);
+
+    /** Rows written before the summary columns existed; they are backfilled on first listing. */
+    boolean existsByGatewayIdAndCredentialTypeIsNull(String gatewayId);
+
+    List<CredentialEntity> findByGatewayIdAndCredentialTypeIsNull(String gatewayId);
+
+    @Query("""
+            SELECT new org.apache.airavata.credential.model.CredentialSummaryRow(
+                c.gatewayId, c.tokenId, c.credentialType, c.portalUserId, c.publicKey, c.description, c.timePersisted)
+            FROM CredentialEntity c
+            WHERE c.gatewayId = :gatewayId
+              AND c.credentialType = :type
+              AND c.tokenId IN :tokenIds
+            ORDER BY c.timePersisted DESC, c.tokenId
+            """)
+    List<CredentialSummaryRow> findSummaries(
+            @Param("gatewayId") String gatewayId,
+            @Param("type") SummaryType type,
+            @Param("tokenIds") Collection<String> tokenIds,
+            Pageable pageable);
+
+    @Query("""
+            SELECT new org.apache.airavata.credential.model.CredentialSummaryRow(
+                c.gatewayId, c.tokenId, c.credentialType, c.portalUserId, c.publicKey, c.description, c.timePersisted)
+            FROM CredentialEntity c
+            WHERE c.gatewayId = :gatewayId
+              AND c.credentialType = :type
+              AND (:portalUserId IS NULL OR c.portalUserId = :portalUserId)
+            ORDER BY c.timePersisted DESC, c.tokenId
+            """)
+    List<CredentialSummaryRow> findSummariesForGateway(
+            @Param("gatewayId") String gatewayId,
+            @Param("type") SummaryType type,
+            @Param("portalUserId") String portalUserId);
 }
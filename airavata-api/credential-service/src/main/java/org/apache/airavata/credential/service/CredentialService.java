@@ -150,8 +150,8 @@ public class CredentialService {
         }
     }
 
-    public List<CredentialSummary> getAllCredentialSummaries(RequestContext ctx, SummaryType type)
-            throws ServiceException {
+    public List<CredentialSummary> getAllCredentialSummaries(
+            RequestContext ctx, SummaryType type, int limit, int offset) throws ServiceException {
         String gatewayId = ctx.getGatewayId();
         String userName = ctx.getUserId();
         try {
@@ -165,7 +165,7 @@ public class CredentialService {
             List<String> accessibleTokenIds =
                     sharingHandler.searchEntityIds(gatewayId, userName + "@" + gatewayId, filters, 0, -1);
             List<CredentialSummary> credentialSummaries =
-                    credentialHandler.getAllCredentialSummaries(type, accessibleTokenIds, gatewayId);
+                    credentialHandler.getAllCredentialSummaries(type, accessibleTokenIds, gatewayId, limit, offset);
             logger.debug("Airavata successfully retrieved credential summaries of type " + type + " GatewayId: "
                     + gatewayId);
             return credentialSummaries;
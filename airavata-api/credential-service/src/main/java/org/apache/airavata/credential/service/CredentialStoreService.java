@@ -22,12 +22,13 @@ package org.apache.airavata.credential.service;
 import java.sql.Timestamp;
 import java.util.*;
 import java.util.function.Function;
-import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import org.apache.airavata.credential.model.CredentialEntity;
 import org.apache.airavata.credential.model.CredentialPK;
+import org.apache.airavata.credential.model.CredentialSummaryRow;
 import org.apache.airavata.credential.repository.CredentialRepository;
 import org.apache.airavata.credential.repository.CredentialStoreException;
+import org.apache.airavata.credential.repository.OffsetPageRequest;
 import org.apache.airavata.credential.util.CredentialEncryptionUtil;
 import org.apache.airavata.credential.util.TokenGenerator;
 import org.apache.airavata.credential.util.Utility;
@@ -37,6 +38,7 @@ import org.apache.airavata.model.credential.store.proto.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -139,14 +141,21 @@ public class CredentialStoreService implements CredentialProvider {
         }
     }
 
+    /**
+     * Lists the summaries of the given type among {@code accessibleTokenIds}, newest first. Reads only
+     * the plaintext summary columns; a non-positive {@code limit} returns every match.
+     */
     public List<CredentialSummary> getAllCredentialSummaries(
-            SummaryType type, List<String> accessibleTokenIds, String gatewayId) throws CredentialStoreException {
+            SummaryType type, List<String> accessibleTokenIds, String gatewayId, int limit, int offset)
+            throws CredentialStoreException {
         try {
-            List<StoredCredential> credentials = getAllAccessibleCredentialsPerGateway(gatewayId, accessibleTokenIds);
-            StoredCredential.CredentialCase targetCase = summaryTypeToCredentialCase(type);
-            return credentials.stream()
-                    .filter(c -> c.getCredentialCase() == targetCase)
-                    .map(this::convertToCredentialSummary)
+            if (accessibleTokenIds == null || accessibleTokenIds.isEmpty()) {
+                return Collections.emptyList();
+            }
+            backfillSummaryColumns(gatewayId);
+            Pageable page = limit > 0 ? new OffsetPageRequest(Math.max(offset, 0), limit) : Pageable.unpaged();
+            return credentialRepository.findSummaries(gatewayId, type, accessibleTokenIds, page).stream()
+                    .map(CredentialStoreService::toCredentialSummary)
                     .collect(Collectors.toList());
         } catch (Exception e) {
             final String msg = "Error occurred while retrieving " + type + " credential Summary for tokens - "
@@ -156,19 +165,6 @@ public class CredentialStoreService implements CredentialProvider {
         }
     }
 
-    private StoredCredential.CredentialCase summaryTypeToCredentialCase(SummaryType type) {
-        switch (type) {
-            case SSH:
-                return StoredCredential.CredentialCase.SSH_CREDENTIAL;
-            case PASSWD:
-                return StoredCredential.CredentialCase.PASSWORD_CREDENTIAL;
-            case CERT:
-                return StoredCredential.CredentialCase.CERTIFICATE_CREDENTIAL;
-            default:
-                throw new RuntimeException("Summary Type " + type + " is not supported.");
-        }
-    }
-
     private CredentialSummary convertToCredentialSummary(StoredCredential stored) {
         switch (stored.getCredentialCase()) {
             case SSH_CREDENTIAL: {
@@ -214,6 +210,27 @@ public class CredentialStoreService implements CredentialProvider {
         }
     }
 
+    private static CredentialSummary toCredentialSummary(CredentialSummaryRow row) {
+        CredentialSummary.Builder builder = CredentialSummary.newBuilder()
+                .setType(row.credentialType())
+                .setUsername(row.portalUserId())
+                .setToken(row.tokenId())
+                .setPersistedTime(
+                        row.timePersisted() != null ? row.timePersisted().getTime() : 0);
+        if (row.credentialType() == SummaryType.CERT) {
+            // FIXME: need to get gatewayId for CertificateCredentials
+            return builder.setGatewayId("").build();
+        }
+        builder.setGatewayId(row.gatewayId());
+        if (row.publicKey() != null) {
+            builder.setPublicKey(row.publicKey());
+        }
+        if (row.description() != null && !row.description().isEmpty()) {
+            builder.setDescription(row.description());
+        }
+        return builder.build();
+    }
+
     public CertificateCredential getCertificateCredential(String tokenId, String gatewayId)
             throws CredentialStoreException {
         return getTypedCredential(
@@ -237,7 +254,7 @@ public class CredentialStoreService implements CredentialProvider {
     public List<CredentialSummary> getAllCredentialSummaryForGateway(SummaryType type, String gatewayId)
             throws CredentialStoreException {
         if (type.equals(SummaryType.SSH)) {
-            return collectSshSummaries(gatewayId, ssh -> true);
+            return collectSummaries(gatewayId, SummaryType.SSH, null);
         } else {
             log.info("Summary type {} not supported for gateway id - {}", type, gatewayId);
             return Collections.emptyList();
@@ -247,7 +264,7 @@ public class CredentialStoreService implements CredentialProvider {
     public List<CredentialSummary> getAllCredentialSummaryForUserInGateway(
             SummaryType type, String gatewayId, String userId) throws CredentialStoreException {
         if (type.equals(SummaryType.SSH)) {
-            return collectSshSummaries(gatewayId, ssh -> userId.equals(ssh.getUsername()));
+            return collectSummaries(gatewayId, SummaryType.SSH, userId);
         } else {
             log.info("Summary type {} not supported for user id - {} and gateway id - {}", type, userId, gatewayId);
             return Collections.emptyList();
@@ -257,15 +274,10 @@ public class CredentialStoreService implements CredentialProvider {
     public Map<String, String> getAllPWDCredentialsForGateway(String gatewayId) throws CredentialStoreException {
         Map<String, String> pwdCredMap = new HashMap<>();
         try {
-            List<StoredCredential> allCredentials = getAllCredentialsPerGateway(gatewayId);
-            if (allCredentials != null && !allCredentials.isEmpty()) {
-                for (StoredCredential stored : allCredentials) {
-                    if (stored.getCredentialCase() == StoredCredential.CredentialCase.PASSWORD_CREDENTIAL) {
-                        var pwdCred = stored.getPasswordCredential();
-                        pwdCredMap.put(
-                                pwdCred.getToken(), pwdCred.getDescription().isEmpty() ? "" : pwdCred.getDescription());
-                    }
-                }
+            backfillSummaryColumns(gatewayId);
+            for (CredentialSummaryRow row :
+                    credentialRepository.findSummariesForGateway(gatewayId, SummaryType.PASSWD, null)) {
+                pwdCredMap.put(row.tokenId(), row.description() != null ? row.description() : "");
             }
         } catch (Exception e) {
             log.error("Error occurred while retrieving credentials", e);
@@ -296,6 +308,8 @@ public class CredentialStoreService implements CredentialProvider {
         entity.setPortalUserId(CredentialEncryptionUtil.getPortalUserName(stored));
         entity.setTimePersisted(new Timestamp(System.currentTimeMillis()));
         entity.setDescription(CredentialEncryptionUtil.getDescription(stored));
+        entity.setCredentialType(CredentialEncryptionUtil.getSummaryType(stored));
+        entity.setPublicKey(CredentialEncryptionUtil.getPublicKey(stored));
 
         credentialRepository.save(entity);
     }
@@ -339,24 +353,46 @@ public class CredentialStoreService implements CredentialProvider {
         }
     }
 
-    private List<CredentialSummary> collectSshSummaries(String gatewayId, Predicate<SSHCredential> filter)
+    private List<CredentialSummary> collectSummaries(String gatewayId, SummaryType type, String portalUserId)
             throws CredentialStoreException {
-        List<CredentialSummary> summaryList = new ArrayList<>();
         try {
-            List<StoredCredential> allCredentials = getAllCredentialsPerGateway(gatewayId);
-            if (allCredentials != null && !allCredentials.isEmpty()) {
-                for (StoredCredential stored : allCredentials) {
-                    if (stored.getCredentialCase() == StoredCredential.CredentialCase.SSH_CREDENTIAL
-                            && filter.test(stored.getSshCredential())) {
-                        summaryList.add(convertToCredentialSummary(stored));
-                    }
-                }
-            }
+            backfillSummaryColumns(gatewayId);
+            return credentialRepository.findSummariesForGateway(gatewayId, type, portalUserId).stream()
+                    .map(CredentialStoreService::toCredentialSummary)
+                    .collect(Collectors.toList());
         } catch (Exception e) {
             log.error("Error occurred while retrieving credential Summary", e);
             throw new CredentialStoreException("Error occurred while retrieving credential Summary");
         }
-        return summaryList;
+    }
+
+    /**
+     * Fills the summary columns of rows stored before they existed (see the
+     * V6__Credential_summary_columns migration). This is the only listing path that decrypts, and
+     * it runs once per gateway: every row it reads gets a non-null type, SUMMARY_TYPE_UNKNOWN if it
+     * cannot be decrypted, so afterwards the existence probe finds nothing.
+     */
+    private void backfillSummaryColumns(String gatewayId) {
+        if (!credentialRepository.existsByGatewayIdAndCredentialTypeIsNull(gatewayId)) {
+            return;
+        }
+        List<CredentialEntity> legacy = credentialRepository.findByGatewayIdAndCredentialTypeIsNull(gatewayId);
+        for (CredentialEntity entity : legacy) {
+            try {
+                StoredCredential stored = toStoredCredential(entity);
+                entity.setCredentialType(CredentialEncryptionUtil.getSummaryType(stored));
+                entity.setPublicKey(CredentialEncryptionUtil.getPublicKey(stored));
+            } catch (RuntimeException e) {
+                log.warn(
+                        "Could not read credential for token - {} and gateway id - {}; it will not be listed",
+                        entity.getTokenId(),
+                        gatewayId,
+                        e);
+                entity.setCredentialType(SummaryType.SUMMARY_TYPE_UNKNOWN);
+            }
+        }
+        credentialRepository.saveAll(legacy);
+        log.info("Backfilled credential summary columns for {} credentials of gateway {}", legacy.size(), gatewayId);
     }
 
     private boolean deleteCredential(String tokenId, String gatewayId, String label) throws CredentialStoreException {
@@ -375,22 +411,6 @@ public class CredentialStoreService implements CredentialProvider {
         }
     }
 
-    private List<StoredCredential> getAllCredentialsPerGateway(String gatewayId) throws CredentialStoreException {
-        return credentialRepository.findByGatewayId(gatewayId).stream()
-                .map(this::toStoredCredential)
-                .collect(Collectors.toList());
-    }
-
-    private List<StoredCredential> getAllAccessibleCredentialsPerGateway(
-            String gatewayId, List<String> accessibleTokenIds) throws CredentialStoreException {
-        if (accessibleTokenIds == null || accessibleTokenIds.isEmpty()) {
-            return Collections.emptyList();
-        }
-        return credentialRepository.findByGatewayIdAndTokenIdIn(gatewayId, accessibleTokenIds).stream()
-                .map(this::toStoredCredential)
-                .collect(Collectors.toList());
-    }
-
     private StoredCredential toStoredCredential(CredentialEntity entity) {
         try {
             StoredCredential stored = encryptionUtil.convertByteArrayToCredential(entity.getCredential());
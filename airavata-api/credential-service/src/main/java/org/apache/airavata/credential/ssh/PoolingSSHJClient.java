@@ -19,23 +19,30 @@
 */
 package org.apache.airavata.credential.ssh;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
 import java.io.IOException;
-import java.util.*;
-import java.util.concurrent.*;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
-import java.util.stream.Collectors;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import net.schmizz.sshj.Config;
 import net.schmizz.sshj.SSHClient;
-import net.schmizz.sshj.common.DisconnectReason;
 import net.schmizz.sshj.connection.ConnectionException;
 import net.schmizz.sshj.sftp.RemoteFile;
 import net.schmizz.sshj.sftp.SFTPClient;
-import net.schmizz.sshj.transport.DisconnectListener;
 import net.schmizz.sshj.transport.TransportException;
 import net.schmizz.sshj.transport.verification.HostKeyVerifier;
 import net.schmizz.sshj.userauth.UserAuthException;
 import net.schmizz.sshj.userauth.method.AuthMethod;
+import org.apache.airavata.server.CountMonitor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -44,13 +51,46 @@ import org.slf4j.LoggerFactory;
  * This pool is MaxSessions per connection aware and thread safe. It is intelligent to decide the number of connections
  * that it should create and number of sessions should be used in each created connection to avoid possible connection
  * refusals from the server side.
+ *
+ * <p>Each pooled connection carries an atomic session counter, so leasing a session is a lock-free scan for the
+ * least-loaded connection with a free channel slot followed by a compare-and-set on its counter. Only opening a new
+ * connection is gated, by a small per-pool handshake semaphore so a burst cannot storm the server with concurrent
+ * handshakes. Connections are pre-warmed in the background up to the target pool size, and one spare is warmed
+ * whenever every open connection is saturated. Connection and session counts are exported per host.
  */
 public class PoolingSSHJClient extends SSHClient {
 
     private static final Logger logger = LoggerFactory.getLogger(PoolingSSHJClient.class);
 
-    private final ReadWriteLock lock = new ReentrantReadWriteLock();
-    private final Map<SSHClientWrapper, SSHClientInfo> clientInfoMap = new HashMap<>();
+    // Session counter value of a connection that has been taken out of the pool and accepts no more leases
+    private static final int RETIRED = -1;
+    private static final int MAX_CONCURRENT_HANDSHAKES = 4;
+
+    private static final CountMonitor leaseCounter = new CountMonitor("ssh_pool_session_lease_count", "host");
+    private static final CountMonitor connectCounter = new CountMonitor("ssh_pool_connection_open_count", "host");
+    private static final CountMonitor connectFailureCounter =
+            new CountMonitor("ssh_pool_connection_failure_count", "host");
+    private static final ConcurrentHashMap<String, HostStats> hostStats = new ConcurrentHashMap<>();
+
+    private static final ScheduledExecutorService poolMonitoringService =
+            Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "SSH-Pool-Monitor");
+                thread.setDaemon(true);
+                return thread;
+            });
+    private static final ExecutorService warmingService = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "SSH-Pool-Warmer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final List<PooledConnection> connections = new CopyOnWriteArrayList<>();
+    private final AtomicInteger connectionIds = new AtomicInteger();
+    private final AtomicInteger warmingConnections = new AtomicInteger();
+    private final Semaphore handshakePermits = new Semaphore(MAX_CONCURRENT_HANDSHAKES);
+    private final AtomicBoolean maxSessionsFetched = new AtomicBoolean();
+    private final ScheduledFuture<?> staleConnectionSweep;
+    private volatile boolean closed = false;
 
     private HostKeyVerifier hostKeyVerifier;
     private String username;
@@ -58,8 +98,10 @@ public class PoolingSSHJClient extends SSHClient {
     private Config config;
     private String host;
     private int port;
+    private HostStats stats;
 
-    private int maxSessionsForConnection = 10;
+    private volatile int maxSessionsForConnection = 10;
+    private volatile int targetPoolSize = 1;
     private long maxConnectionIdleTimeMS = 10 * 60 * 1000;
 
     public void addHostKeyVerifier(HostKeyVerifier verifier) {
@@ -75,37 +117,135 @@ public class PoolingSSHJClient extends SSHClient {
         this.config = config;
         this.host = host;
         this.port = port;
+        this.stats = HostStats.of(host, port);
 
-        ScheduledExecutorService poolMonitoringService = Executors.newSingleThreadScheduledExecutor(r -> {
-            Thread thread = new Thread(r, "SSH-Pool-Monitor-" + host + "-" + port);
-            thread.setDaemon(true);
-            return thread;
-        });
-
-        poolMonitoringService.scheduleWithFixedDelay(
-                new Runnable() {
-                    @Override
-                    public void run() {
-                        removeStaleConnections();
-                    }
-                },
-                10,
-                maxConnectionIdleTimeMS * 2,
-                TimeUnit.MILLISECONDS);
+        this.staleConnectionSweep = poolMonitoringService.scheduleWithFixedDelay(
+                this::removeStaleConnections, 10, maxConnectionIdleTimeMS * 2, TimeUnit.MILLISECONDS);
     }
 
     ////////////////// client specific operations ///////
 
-    private SSHClientWrapper newClientWithSessionValidation() throws IOException {
-        SSHClientWrapper newClient = createNewSSHClient();
-        SSHClientInfo info = new SSHClientInfo(1, System.currentTimeMillis(), clientInfoMap.size());
-        clientInfoMap.put(newClient, info);
+    private PooledConnection leaseConnection() throws IOException {
+        if (closed) {
+            throw new IOException("SSH connection pool for " + host + " is closed");
+        }
+        leaseCounter.inc(stats.key);
+
+        while (true) {
+            PooledConnection leased = tryLeaseExisting();
+            if (leased != null) {
+                return leased;
+            }
+
+            // Every open connection is saturated; open one more, re-checking once a handshake slot is ours since
+            // a connection opened or a session released while we waited may already have a free slot
+            acquireHandshakePermit();
+            try {
+                leased = tryLeaseExisting();
+                if (leased != null) {
+                    return leased;
+                }
+                logger.debug(
+                        "All {} connection(s) to host {} are at {} sessions. Creating a new connection",
+                        connections.size(),
+                        host,
+                        maxSessionsForConnection);
+                PooledConnection connection = openConnection(1);
+                warmIfSaturated();
+                return connection;
+            } finally {
+                handshakePermits.release();
+            }
+        }
+    }
+
+    /** Lock-free: CAS a session slot on the least-loaded usable connection, or null if none has one free. */
+    private PooledConnection tryLeaseExisting() {
+        while (true) {
+            PooledConnection best = null;
+            int bestCount = Integer.MAX_VALUE;
+            int max = maxSessionsForConnection;
+            for (PooledConnection connection : connections) {
+                int count = connection.sessions.get();
+                if (count == RETIRED) {
+                    continue;
+                }
+                if (!connection.isUsable()) {
+                    logger.warn(
+                            "Connection {} for host {} is not connected or not authenticated. Removing it",
+                            connection.id,
+                            host);
+                    discard(connection, true);
+                    continue;
+                }
+                if (count < max && count < bestCount) {
+                    best = connection;
+                    bestCount = count;
+                }
+            }
+            if (best == null) {
+                return null;
+            }
+            if (best.sessions.compareAndSet(bestCount, bestCount + 1)) {
+                best.lastAccessedTime = System.currentTimeMillis();
+                stats.activeSessions.incrementAndGet();
+                logger.debug("Reusing connection {} with {} session(s) for host {}", best.id, bestCount + 1, host);
+                if (bestCount + 1 == max) {
+                    warmIfSaturated();
+                }
+                return best;
+            }
+            // Lost the race for that slot; rescan with fresh counts
+        }
+    }
+
+    private void acquireHandshakePermit() throws IOException {
+        try {
+            handshakePermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting to open a connection to " + host, e);
+        }
+    }
+
+    /** Open, authenticate and publish a new pooled connection holding {@code initialSessions} leases. */
+    private PooledConnection openConnection(int initialSessions) throws IOException {
+        SSHClientWrapper client;
+        try {
+            client = createNewSSHClient();
+        } catch (IOException e) {
+            connectFailureCounter.inc(stats.key);
+            throw e;
+        }
+        connectCounter.inc(stats.key);
 
         /* if this is the very first connection that is created to the compute host, fetch the MaxSessions
          * value form SSHD config file in order to tune the pool
          */
+        if (maxSessionsFetched.compareAndSet(false, true)) {
+            fetchMaxSessions(client);
+        }
+
+        PooledConnection connection = new PooledConnection(client, connectionIds.incrementAndGet(), initialSessions);
+        // The transport may already have dropped; the disconnect listener then found nothing to remove
+        client.getConnection().getTransport().setDisconnectListener((reason, message) -> {
+            logger.warn("Connection disconnected " + message + " due to " + reason.name());
+            discard(connection, false);
+        });
+        connections.add(connection);
+        stats.connections.incrementAndGet();
+        stats.activeSessions.addAndGet(initialSessions);
+        if (closed) {
+            discard(connection, true);
+            stats.activeSessions.addAndGet(-initialSessions);
+            throw new IOException("SSH connection pool for " + host + " is closed");
+        }
+        return connection;
+    }
+
+    private void fetchMaxSessions(SSHClientWrapper client) {
         logger.info("Fetching max sessions for the connection of " + host);
-        try (SFTPClient sftpClient = newClient.newSFTPClient()) {
+        try (SFTPClient sftpClient = client.newSFTPClient()) {
             RemoteFile remoteFile = sftpClient.open("/etc/ssh/sshd_config");
             byte[] readContent = new byte[(int) remoteFile.length()];
             remoteFile.read(0, readContent, 0, readContent.length);
@@ -127,145 +267,102 @@ public class PoolingSSHJClient extends SSHClient {
                 }
             }
         } catch (Exception e) {
-            logger.warn("Failed to fetch max session count for " + host + ". Continuing with default value 1. "
-                    + e.getMessage());
+            logger.warn("Failed to fetch max session count for " + host + ". Continuing with default value "
+                    + maxSessionsForConnection + ". " + e.getMessage());
         }
-        return newClient;
     }
 
-    private SSHClientWrapper leaseSSHClient() throws Exception {
-        lock.writeLock().lock();
-
-        try {
-            if (clientInfoMap.isEmpty()) {
-                return newClientWithSessionValidation();
-
-            } else {
-
-                Optional<Map.Entry<SSHClientWrapper, SSHClientInfo>> minEntryOp = clientInfoMap.entrySet().stream()
-                        .min(Comparator.comparing(entry -> entry.getValue().sessionCount));
-                if (minEntryOp.isPresent()) {
-                    Map.Entry<SSHClientWrapper, SSHClientInfo> minEntry = minEntryOp.get();
-                    // use the connection with least amount of sessions created.
-
-                    logger.debug(
-                            "Session count for selected connection {} is {}. Threshold {} for host {}",
-                            minEntry.getValue().getClientId(),
-                            minEntry.getValue().getSessionCount(),
-                            maxSessionsForConnection,
-                            host);
-                    if (minEntry.getValue().getSessionCount() >= maxSessionsForConnection) {
-                        // if it exceeds the maximum session count, create a new connection
-                        logger.debug(
-                                "Connection with least amount of sessions exceeds the threshold. So creating a new connection. "
-                                        + "Current connection count {} for host {}",
-                                clientInfoMap.size(),
-                                host);
-                        return newClientWithSessionValidation();
-
-                    } else {
-                        // otherwise reuse the same connetion
-                        logger.debug(
-                                "Reusing the same connection {} as it doesn't exceed the threshold for host {}",
-                                minEntry.getValue().getClientId(),
-                                host);
-                        minEntry.getValue().setSessionCount(minEntry.getValue().getSessionCount() + 1);
-                        minEntry.getValue().setLastAccessedTime(System.currentTimeMillis());
-
-                        SSHClientWrapper sshClient = minEntry.getKey();
-
-                        if (!sshClient.isConnected() || !sshClient.isAuthenticated() || sshClient.isErrored()) {
-                            logger.warn(
-                                    "Client for host {} is not connected or not authenticated. Creating a new client",
-                                    host);
-                            removeDisconnectedClients(sshClient, true);
-                            return newClientWithSessionValidation();
-                        } else {
-                            return sshClient;
-                        }
-                    }
-                } else {
-                    throw new Exception("Failed to find a connection in the pool for host " + host);
-                }
+    /** Warm connections in the background until the pool reaches its target size. */
+    private void ensureTargetSize() {
+        while (!closed) {
+            int pending = warmingConnections.get();
+            if (liveConnectionCount() + pending >= targetPoolSize) {
+                return;
+            }
+            if (warmingConnections.compareAndSet(pending, pending + 1)) {
+                warmingService.execute(this::warmConnection);
             }
-
-        } finally {
-            lock.writeLock().unlock();
         }
     }
 
-    private void removeDisconnectedClients(SSHClientWrapper client, boolean doDisconnect) {
-        lock.writeLock().lock();
-
-        if (doDisconnect) {
-            try {
-                client.disconnect();
-            } catch (Exception e) {
-                log.warn("Errored while disconnecting the client " + e.getMessage());
-                // Ignore
+    /** Warm one spare connection when no open connection has a free session slot left. */
+    private void warmIfSaturated() {
+        int max = maxSessionsForConnection;
+        for (PooledConnection connection : connections) {
+            int count = connection.sessions.get();
+            if (count != RETIRED && count < max) {
+                return;
             }
         }
+        if (!closed && warmingConnections.compareAndSet(0, 1)) {
+            warmingService.execute(this::warmConnection);
+        }
+    }
 
+    private void warmConnection() {
         try {
-            if (clientInfoMap.containsKey(client)) {
-                logger.debug(
-                        "Removing the disconnected connection {} for host {}",
-                        clientInfoMap.get(client).getClientId(),
-                        host);
-                clientInfoMap.remove(client);
+            acquireHandshakePermit();
+            try {
+                openConnection(0);
+                logger.debug("Pre-warmed a connection for host {}", host);
+            } finally {
+                handshakePermits.release();
             }
-
+        } catch (Exception e) {
+            logger.warn("Failed to pre-warm a connection for host {}: {}", host, e.getMessage());
         } finally {
-            lock.writeLock().unlock();
+            warmingConnections.decrementAndGet();
         }
     }
 
-    private void untrackClosedSessions(SSHClientWrapper client, int sessionId) {
-        lock.writeLock().lock();
-
-        try {
-            if (clientInfoMap.containsKey(client)) {
-                logger.debug(
-                        "Removing the session for connection {} for host {}",
-                        clientInfoMap.get(client).getClientId(),
-                        host);
-                SSHClientInfo sshClientInfo = clientInfoMap.get(client);
-                sshClientInfo.setSessionCount(sshClientInfo.getSessionCount() - 1);
+    private int liveConnectionCount() {
+        int live = 0;
+        for (PooledConnection connection : connections) {
+            if (connection.sessions.get() != RETIRED) {
+                live++;
             }
-
-        } finally {
-            lock.writeLock().unlock();
         }
+        return live;
     }
 
-    private void removeStaleConnections() {
-        List<Map.Entry<SSHClientWrapper, SSHClientInfo>> entriesTobeRemoved;
-        lock.writeLock().lock();
-        logger.info("Current active connections for  {} @ {} : {} are {}", username, host, port, clientInfoMap.size());
-        try {
-            entriesTobeRemoved = clientInfoMap.entrySet().stream()
-                    .filter(entry -> ((entry.getValue().getSessionCount() == 0)
-                            && (entry.getValue().getLastAccessedTime() + maxConnectionIdleTimeMS
-                                    < System.currentTimeMillis())))
-                    .collect(Collectors.toList());
-            entriesTobeRemoved.forEach(entry -> {
-                logger.info(
-                        "Removing connection {} due to inactivity for host {}",
-                        entry.getValue().getClientId(),
-                        host);
-                clientInfoMap.remove(entry.getKey());
-            });
-        } finally {
-            lock.writeLock().unlock();
-        }
+    private void releaseSession(PooledConnection connection) {
+        connection.lastAccessedTime = System.currentTimeMillis();
+        // A retired connection keeps RETIRED; its in-flight sessions just close with it
+        connection.sessions.getAndUpdate(count -> count > 0 ? count - 1 : count);
+        stats.activeSessions.decrementAndGet();
+    }
 
-        entriesTobeRemoved.forEach(entry -> {
+    private void discard(PooledConnection connection, boolean doDisconnect) {
+        // In-flight sessions stay counted in the host gauge until they close
+        connection.sessions.set(RETIRED);
+        if (connections.remove(connection)) {
+            logger.debug("Removing the disconnected connection {} for host {}", connection.id, host);
+            stats.connections.decrementAndGet();
+        }
+        if (doDisconnect) {
             try {
-                entry.getKey().disconnect();
-            } catch (IOException e) {
-                logger.warn("Failed to disconnect connection {} for host {}", entry.getValue().clientId, host);
+                connection.client.disconnect();
+            } catch (Exception e) {
+                logger.warn("Errored while disconnecting the client " + e.getMessage());
+                // Ignore
             }
-        });
+        }
+    }
+
+    private void removeStaleConnections() {
+        logger.info("Current active connections for  {} @ {} : {} are {}", username, host, port, liveConnectionCount());
+        long now = System.currentTimeMillis();
+        for (PooledConnection connection : connections) {
+            if (liveConnectionCount() <= targetPoolSize) {
+                return;
+            }
+            // Only a connection with no sessions can be retired, and the CAS keeps a concurrent lease from racing in
+            if (connection.lastAccessedTime + maxConnectionIdleTimeMS < now
+                    && connection.sessions.compareAndSet(0, RETIRED)) {
+                logger.info("Removing connection {} due to inactivity for host {}", connection.id, host);
+                discard(connection, true);
+            }
+        }
     }
 
     private SSHClientWrapper createNewSSHClient() throws IOException {
@@ -277,129 +374,133 @@ public class PoolingSSHJClient extends SSHClient {
             sshClient = new SSHClientWrapper();
         }
 
-        sshClient.getConnection().getTransport().setDisconnectListener(new DisconnectListener() {
-            @Override
-            public void notifyDisconnect(DisconnectReason reason, String message) {
-                logger.warn("Connection disconnected " + message + " due to " + reason.name());
-                removeDisconnectedClients(sshClient, false);
-            }
-        });
-
         if (hostKeyVerifier != null) {
             sshClient.addHostKeyVerifier(hostKeyVerifier);
         }
 
-        sshClient.connect(host, port);
+        try {
+            sshClient.connect(host, port);
 
-        sshClient.getConnection().getKeepAlive().setKeepAliveInterval(5); // send keep alive signal every 5sec
+            sshClient.getConnection().getKeepAlive().setKeepAliveInterval(5); // send keep alive signal every 5sec
 
-        if (authMethods != null) {
-            sshClient.auth(username, authMethods);
+            if (authMethods != null) {
+                sshClient.auth(username, authMethods);
+            }
+        } catch (IOException e) {
+            sshClient.close();
+            throw e;
         }
 
         return sshClient;
     }
 
-    public SessionWrapper startSessionWrapper() throws Exception {
-
-        final SSHClientWrapper sshClient = leaseSSHClient();
-
+    /** Lease a session slot, prepare the channel with it and hand the slot back if that fails. */
+    private <T> T withLease(ChannelOpener<T> opener) throws Exception {
+        PooledConnection connection = leaseConnection();
+        ensureTargetSize();
+        AtomicBoolean released = new AtomicBoolean();
+        // Wrappers may be closed more than once; the slot is returned exactly once
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                releaseSession(connection);
+            }
+        };
         try {
-            return new SessionWrapper(
-                    sshClient.startSession(), (id) -> untrackClosedSessions(sshClient, id), sshClient);
-
+            return opener.open(connection.client, release);
         } catch (Exception e) {
-            if (sshClient != null) {
-                // If it is a ConnectionExceptions, explicitly invalidate the client
-                if (e instanceof ConnectionException) {
-                    sshClient.setErrored(true);
-                }
-
-                untrackClosedSessions(sshClient, -1);
+            // If it is a ConnectionExceptions, explicitly invalidate the client
+            if (e instanceof ConnectionException) {
+                connection.client.setErrored(true);
             }
+            release.run();
             throw e;
         }
     }
 
-    public SCPFileTransferWrapper newSCPFileTransferWrapper() throws Exception {
-
-        final SSHClientWrapper sshClient = leaseSSHClient();
-
-        try {
-            return new SCPFileTransferWrapper(
-                    sshClient.newSCPFileTransfer(), (id) -> untrackClosedSessions(sshClient, id), sshClient);
-
-        } catch (Exception e) {
-
-            if (sshClient != null) {
-                // If it is a ConnectionExceptions, explicitly invalidate the client
-                if (e instanceof ConnectionException) {
-                    sshClient.setErrored(true);
-                }
+    public SessionWrapper startSessionWrapper() throws Exception {
+        return withLease((client, release) -> new SessionWrapper(client.startSession(), (id) -> release.run(), client));
+    }
 
-                untrackClosedSessions(sshClient, -1);
-            }
-            throw e;
-        }
+    public SCPFileTransferWrapper newSCPFileTransferWrapper() throws Exception {
+        return withLease((client, release) ->
+                new SCPFileTransferWrapper(client.newSCPFileTransfer(), (id) -> release.run(), client));
     }
 
     public SFTPClientWrapper newSFTPClientWrapper() throws Exception {
+        return withLease(
+                (client, release) -> new SFTPClientWrapper(client.newSFTPClient(), (id) -> release.run(), client));
+    }
 
-        final SSHClientWrapper sshClient = leaseSSHClient();
-
-        try {
-            return new SFTPClientWrapper(
-                    sshClient.newSFTPClient(), (id) -> untrackClosedSessions(sshClient, id), sshClient);
-        } catch (Exception e) {
-
-            if (sshClient != null) {
-                // If it is a ConnectionExceptions, explicitly invalidate the client
-                if (e instanceof ConnectionException) {
-                    sshClient.setErrored(true);
-                }
+    /** True until the pool is disconnected; pooled connections are replaced on demand. */
+    @Override
+    public boolean isConnected() {
+        return !closed;
+    }
 
-                untrackClosedSessions(sshClient, -1);
-            }
-            throw e;
+    /** Close every pooled connection and stop maintaining the pool. */
+    @Override
+    public void disconnect() throws IOException {
+        closed = true;
+        staleConnectionSweep.cancel(false);
+        for (PooledConnection connection : connections) {
+            discard(connection, true);
         }
     }
 
-    public class SSHClientInfo {
-
-        private int sessionCount;
-        private long lastAccessedTime;
-        private int clientId;
+    /** Number of open connections in the pool. */
+    public int getConnectionCount() {
+        return liveConnectionCount();
+    }
 
-        public SSHClientInfo(int sessionCount, long lastAccessedTime, int clientId) {
-            this.sessionCount = sessionCount;
-            this.lastAccessedTime = lastAccessedTime;
-            this.clientId = clientId;
+    /** Number of sessions currently leased across the pool's connections. */
+    public int getActiveSessionCount() {
+        int active = 0;
+        for (PooledConnection connection : connections) {
+            active += Math.max(0, connection.sessions.get());
         }
+        return active;
+    }
 
-        public int getSessionCount() {
-            return sessionCount;
-        }
+    @FunctionalInterface
+    private interface ChannelOpener<T> {
+        T open(SSHClientWrapper client, Runnable release) throws Exception;
+    }
 
-        public SSHClientInfo setSessionCount(int sessionCount) {
-            this.sessionCount = sessionCount;
-            return this;
-        }
+    private static final class PooledConnection {
+        private final SSHClientWrapper client;
+        private final int id;
+        private final AtomicInteger sessions;
+        private volatile long lastAccessedTime = System.currentTimeMillis();
 
-        public long getLastAccessedTime() {
-            return lastAccessedTime;
+        private PooledConnection(SSHClientWrapper client, int id, int initialSessions) {
+            this.client = client;
+            this.id = id;
+            this.sessions = new AtomicInteger(initialSessions);
         }
 
-        public SSHClientInfo setLastAccessedTime(long lastAccessedTime) {
-            this.lastAccessedTime = lastAccessedTime;
-            return this;
+        private boolean isUsable() {
+            return client.isConnected() && client.isAuthenticated() && !client.isErrored();
         }
+    }
 
-        public int getClientId() {
-            return clientId;
+    /** Connection and session gauges shared by every pool to the same host. */
+    private static final class HostStats {
+        private final String key;
+        private final AtomicInteger connections = new AtomicInteger();
+        private final AtomicInteger activeSessions = new AtomicInteger();
+
+        private HostStats(String key) {
+            this.key = key;
+            Gauge.builder("ssh_pool_connections", connections, AtomicInteger::doubleValue)
+                    .tag("host", key)
+                    .register(Metrics.globalRegistry);
+            Gauge.builder("ssh_pool_active_sessions", activeSessions, AtomicInteger::doubleValue)
+                    .tag("host", key)
+                    .register(Metrics.globalRegistry);
         }
 
-        public void setClientId(int clientId) {
-            this.clientId = clientId;
+        private static HostStats of(String host, int port) {
+            return hostStats.computeIfAbsent(host + ":" + port, HostStats::new);
         }
     }
 
@@ -436,6 +537,7 @@ public class PoolingSSHJClient extends SSHClient {
 
     public PoolingSSHJClient setHost(String host) {
         this.host = host;
+        this.stats = HostStats.of(host, port);
         return this;
     }
 
@@ -445,6 +547,7 @@ public class PoolingSSHJClient extends SSHClient {
 
     public PoolingSSHJClient setPort(int port) {
         this.port = port;
+        this.stats = HostStats.of(host, port);
         return this;
     }
 
@@ -457,7 +560,13 @@ public class PoolingSSHJClient extends SSHClient {
         return this;
     }
 
-    public Map<SSHClientWrapper, SSHClientInfo> getClientInfoMap() {
-        return clientInfoMap;
+    public int getTargetPoolSize() {
+        return targetPoolSize;
+    }
+
+    /** Number of connections kept open and pre-warmed in the background once the pool is first used. */
+    public PoolingSSHJClient setTargetPoolSize(int targetPoolSize) {
+        this.targetPoolSize = targetPoolSize;
+        return this;
     }
 }
@@ -0,0 +1,191 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.credential.ssh;
+
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.EnumSet;
+import net.schmizz.sshj.sftp.OpenMode;
+import net.schmizz.sshj.sftp.RemoteFile;
+import net.schmizz.sshj.sftp.SFTPClient;
+
+/**
+ * Ranged SFTP reads and writes between a remote file and the same byte range of a local file. Each
+ * range is pipelined with several outstanding SFTP requests, and disjoint ranges can run on separate
+ * SFTP sessions at once.
+ */
+public final class SFTPRangeTransfer {
+
+    private static final int CHUNK_SIZE = 32 * 1024;
+    private static final int MAX_UNCONFIRMED = 16;
+
+    private SFTPRangeTransfer() {}
+
+    public static void download(SFTPClient sftp, String remotePath, String localPath, long offset, long length)
+            throws IOException {
+        try (RemoteFile remote = sftp.open(remotePath, EnumSet.of(OpenMode.READ));
+                InputStream in = remote.new ReadAheadRemoteFileInputStream(MAX_UNCONFIRMED, offset, length);
+                RandomAccessFile local = new RandomAccessFile(localPath, "rw")) {
+            local.seek(offset);
+            byte[] buf = new byte[CHUNK_SIZE];
+            long remaining = length;
+            while (remaining > 0) {
+                int n = in.read(buf, 0, (int) Math.min(buf.length, remaining));
+                if (n < 0) {
+                    throw new EOFException("Remote file " + remotePath + " ended " + remaining
+                            + " bytes before the end of range [" + offset + ", " + (offset + length) + ")");
+                }
+                local.write(buf, 0, n);
+                remaining -= n;
+            }
+        }
+    }
+
+    public static void upload(SFTPClient sftp, String localPath, String remotePath, long offset, long length)
+            throws IOException {
+        try (RandomAccessFile local = new RandomAccessFile(localPath, "r");
+                RemoteFile remote = sftp.open(remotePath, EnumSet.of(OpenMode.WRITE))) {
+            local.seek(offset);
+            OutputStream out = remote.new RemoteFileOutputStream(offset, MAX_UNCONFIRMED);
+            byte[] buf = new byte[CHUNK_SIZE];
+            long remaining = length;
+            while (remaining > 0) {
+                int n = local.read(buf, 0, (int) Math.min(buf.length, remaining));
+                if (n < 0) {
+                    throw new EOFException("Local file " + localPath + " ended " + remaining
+                            + " bytes before the end of range [" + offset + ", " + (offset + length) + ")");
+                }
+                out.write(buf, 0, n);
+                remaining -= n;
+            }
+            // waits for the outstanding write acknowledgements
+            out.close();
+        }
+    }
+
+    /**
+     * Opens a read-ahead stream over bytes {@code [offset, offset + length)} of a remote file. Reads are
+     * issued only as the caller consumes the stream; closing it closes the remote file handle.
+     */
+    public static InputStream openRead(SFTPClient sftp, String remotePath, long offset, long length)
+            throws IOException {
+        RemoteFile remote = sftp.open(remotePath, EnumSet.of(OpenMode.READ));
+        try {
+            return new RangeInputStream(
+                    remote, remote.new ReadAheadRemoteFileInputStream(MAX_UNCONFIRMED, offset, length), offset, length);
+        } catch (RuntimeException e) {
+            remote.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates (or truncates) a remote file and writes {@code in} into it as it is read, so the length
+     * need not be known up front. Returns the number of bytes written.
+     */
+    public static long upload(SFTPClient sftp, InputStream in, String remotePath) throws IOException {
+        try (RemoteFile remote = sftp.open(remotePath, EnumSet.of(OpenMode.WRITE, OpenMode.CREAT, OpenMode.TRUNC))) {
+            OutputStream out = remote.new RemoteFileOutputStream(0, MAX_UNCONFIRMED);
+            byte[] buf = new byte[CHUNK_SIZE];
+            long written = 0;
+            int n;
+            while ((n = in.read(buf)) >= 0) {
+                out.write(buf, 0, n);
+                written += n;
+            }
+            // waits for the outstanding write acknowledgements
+            out.close();
+            return written;
+        }
+    }
+
+    public static void create(SFTPClient sftp, String remotePath) throws IOException {
+        sftp.open(remotePath, EnumSet.of(OpenMode.WRITE, OpenMode.CREAT, OpenMode.TRUNC))
+                .close();
+    }
+
+    /**
+     * Ends the read-ahead stream at the end of the range (sshj only uses the length to size its
+     * read-ahead and would otherwise read on to EOF), and fails if the file ends before the range does.
+     */
+    private static final class RangeInputStream extends FilterInputStream {
+
+        private final RemoteFile remote;
+        private final long end;
+        private long remaining;
+
+        private RangeInputStream(RemoteFile remote, InputStream in, long offset, long length) {
+            super(in);
+            this.remote = remote;
+            this.end = offset + length;
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) < 0 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = super.read(b, off, (int) Math.min(len, remaining));
+            if (n < 0) {
+                throw new EOFException("Remote file " + remote.getPath() + " ended " + remaining
+                        + " bytes before the end of range ending at " + end);
+            }
+            remaining -= n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), remaining);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                remote.close();
+            }
+        }
+    }
+}
@@ -47,6 +47,7 @@ import net.schmizz.sshj.xfer.FilePermission;
 import net.schmizz.sshj.xfer.LocalDestFile;
 import net.schmizz.sshj.xfer.LocalFileFilter;
 import net.schmizz.sshj.xfer.LocalSourceFile;
+import org.apache.airavata.config.ServerSettings;
 import org.apache.airavata.interfaces.SSHConnectionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -82,6 +83,7 @@ public class SSHConnectionServiceImpl implements SSHConnectionService {
         PoolingSSHJClient sshjClient = new PoolingSSHJClient(defaultConfig, host, port == 0 ? 22 : port);
         sshjClient.addHostKeyVerifier(ACCEPT_ALL_VERIFIER);
         sshjClient.setMaxSessionsForConnection(1);
+        sshjClient.setTargetPoolSize(ServerSettings.getSshPoolTargetConnections());
 
         PasswordFinder passwordFinder =
                 passphrase != null ? PasswordUtils.createOneOff(passphrase.toCharArray()) : null;
@@ -478,6 +480,31 @@ public class SSHConnectionServiceImpl implements SSHConnectionService {
             return toRemoteFileAttributes(sftp.lstat(path));
         }
 
+        @Override
+        public void downloadRange(String remotePath, String localPath, long offset, long length) throws IOException {
+            SFTPRangeTransfer.download(sftp, remotePath, localPath, offset, length);
+        }
+
+        @Override
+        public void uploadRange(String localPath, String remotePath, long offset, long length) throws IOException {
+            SFTPRangeTransfer.upload(sftp, localPath, remotePath, offset, length);
+        }
+
+        @Override
+        public InputStream openRange(String remotePath, long offset, long length) throws IOException {
+            return SFTPRangeTransfer.openRead(sftp, remotePath, offset, length);
+        }
+
+        @Override
+        public long upload(InputStream in, String remotePath) throws IOException {
+            return SFTPRangeTransfer.upload(sftp, in, remotePath);
+        }
+
+        @Override
+        public void create(String path) throws IOException {
+            SFTPRangeTransfer.create(sftp, path);
+        }
+
         @Override
         public void setErrored(boolean errored) {
             sftp.setErrored(errored);
@@ -544,6 +571,31 @@ public class SSHConnectionServiceImpl implements SSHConnectionService {
             return toRemoteFileAttributes(sftp.lstat(path));
         }
 
+        @Override
+        public void downloadRange(String remotePath, String localPath, long offset, long length) throws IOException {
+            SFTPRangeTransfer.download(sftp, remotePath, localPath, offset, length);
+        }
+
+        @Override
+        public void uploadRange(String localPath, String remotePath, long offset, long length) throws IOException {
+            SFTPRangeTransfer.upload(sftp, localPath, remotePath, offset, length);
+        }
+
+        @Override
+        public InputStream openRange(String remotePath, long offset, long length) throws IOException {
+            return SFTPRangeTransfer.openRead(sftp, remotePath, offset, length);
+        }
+
+        @Override
+        public long upload(InputStream in, String remotePath) throws IOException {
+            return SFTPRangeTransfer.upload(sftp, in, remotePath);
+        }
+
+        @Override
+        public void create(String path) throws IOException {
+            SFTPRangeTransfer.create(sftp, path);
+        }
+
         @Override
         public void setErrored(boolean errored) {
             /* no-op */
@@ -26,6 +26,7 @@ import org.apache.airavata.config.ApplicationSettings;
 import org.apache.airavata.credential.repository.CredentialStoreException;
 import org.apache.airavata.exception.ApplicationSettingsException;
 import org.apache.airavata.model.credential.store.proto.StoredCredential;
+import org.apache.airavata.model.credential.store.proto.SummaryType;
 import org.apache.airavata.server.DefaultKeyStorePasswordCallback;
 import org.apache.airavata.server.KeyStorePasswordCallback;
 import org.apache.airavata.util.SecurityUtil;
@@ -33,18 +34,28 @@ import org.springframework.stereotype.Component;
 
 /**
  * Utility for encrypting/decrypting credential blobs (protobuf-serialized StoredCredential).
+ * The symmetric key is read from the keystore once and kept in memory until the keystore file
+ * changes; closing the bean (on context shutdown) zeroes it.
  */
 @Component
-public class CredentialEncryptionUtil {
+public class CredentialEncryptionUtil implements AutoCloseable {
 
     private final String keyStorePath;
-    private final String secretKeyAlias;
-    private final KeyStorePasswordCallback keyStorePasswordCallback;
+    private final SymmetricKeyCache keyCache;
 
     public CredentialEncryptionUtil() throws ApplicationSettingsException {
-        this.keyStorePath = ApplicationSettings.getCredentialStoreKeyStorePath();
-        this.secretKeyAlias = ApplicationSettings.getCredentialStoreKeyAlias();
-        this.keyStorePasswordCallback = new DefaultKeyStorePasswordCallback();
+        this(
+                ApplicationSettings.getCredentialStoreKeyStorePath(),
+                ApplicationSettings.getCredentialStoreKeyAlias(),
+                new DefaultKeyStorePasswordCallback());
+    }
+
+    CredentialEncryptionUtil(
+            String keyStorePath, String secretKeyAlias, KeyStorePasswordCallback keyStorePasswordCallback) {
+        this.keyStorePath = keyStorePath;
+        this.keyCache = keyStorePath != null
+                ? new SymmetricKeyCache(keyStorePath, secretKeyAlias, keyStorePasswordCallback)
+                : null;
     }
 
     /** Says whether to encrypt data or not. If keystore path is set we treat encryption as true. */
@@ -52,11 +63,17 @@ public class CredentialEncryptionUtil {
         return this.keyStorePath != null;
     }
 
+    @Override
+    public void close() {
+        if (keyCache != null) {
+            keyCache.close();
+        }
+    }
+
     public StoredCredential convertByteArrayToCredential(byte[] data) throws CredentialStoreException {
         try {
             if (encrypt()) {
-                var key = SecurityUtil.getSymmetricKey(
-                        this.keyStorePath, this.secretKeyAlias, this.keyStorePasswordCallback);
+                var key = keyCache.getKey();
                 data = SecurityUtil.decrypt(data, key);
             }
             return StoredCredential.parseFrom(data);
@@ -74,8 +91,7 @@ public class CredentialEncryptionUtil {
 
         if (encrypt()) {
             try {
-                var key = SecurityUtil.getSymmetricKey(
-                        this.keyStorePath, this.secretKeyAlias, this.keyStorePasswordCallback);
+                var key = keyCache.getKey();
                 return SecurityUtil.encrypt(data, key);
             } catch (GeneralSecurityException e) {
                 throw new CredentialStoreException("Error encrypting data", e);
@@ -127,6 +143,31 @@ public class CredentialEncryptionUtil {
         }
     }
 
+    /**
+     * The summary type a StoredCredential is listed under; an unset credential is
+     * SUMMARY_TYPE_UNKNOWN, which no listing asks for.
+     */
+    public static SummaryType getSummaryType(StoredCredential credential) {
+        switch (credential.getCredentialCase()) {
+            case SSH_CREDENTIAL:
+                return SummaryType.SSH;
+            case PASSWORD_CREDENTIAL:
+                return SummaryType.PASSWD;
+            case CERTIFICATE_CREDENTIAL:
+                return SummaryType.CERT;
+            default:
+                return SummaryType.SUMMARY_TYPE_UNKNOWN;
+        }
+    }
+
+    /** Extract the public key from a StoredCredential; only SSH credentials carry one. */
+    public static String getPublicKey(StoredCredential credential) {
+        if (credential.getCredentialCase() == StoredCredential.CredentialCase.SSH_CREDENTIAL) {
+            return credential.getSshCredential().getPublicKey();
+        }
+        return null;
+    }
+
     /** Extract the gateway id from a StoredCredential. */
     public static String getGatewayId(StoredCredential credential) {
         switch (credential.getCredentialCase()) {
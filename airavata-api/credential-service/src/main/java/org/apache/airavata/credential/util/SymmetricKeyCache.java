@@ -0,0 +1,177 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.credential.util;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.UnrecoverableKeyException;
+import java.util.Arrays;
+import javax.crypto.SecretKey;
+import javax.security.auth.DestroyFailedException;
+import javax.security.auth.Destroyable;
+import org.apache.airavata.server.KeyStorePasswordCallback;
+import org.apache.airavata.util.SecurityUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holds the credential store's symmetric key in memory after the first keystore read. The keystore
+ * file is only re-read when its modification time or size changes, so the per-credential cost is a
+ * single stat instead of a keystore load and decrypt. {@link #close()} zeroes the cached key bytes.
+ */
+final class SymmetricKeyCache implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SymmetricKeyCache.class);
+
+    private final Path keyStorePath;
+    private final String keyAlias;
+    private final KeyStorePasswordCallback passwordCallback;
+
+    private volatile Entry entry;
+    private boolean closed;
+
+    SymmetricKeyCache(String keyStorePath, String keyAlias, KeyStorePasswordCallback passwordCallback) {
+        this.keyStorePath = Paths.get(keyStorePath);
+        this.keyAlias = keyAlias;
+        this.passwordCallback = passwordCallback;
+    }
+
+    Key getKey() throws GeneralSecurityException, IOException {
+        FileStamp stamp = FileStamp.of(keyStorePath);
+        Entry current = entry;
+        if (current != null && current.stamp.equals(stamp)) {
+            return current.key;
+        }
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Symmetric key cache for " + keyStorePath + " is closed");
+            }
+            current = entry;
+            if (current != null && current.stamp.equals(stamp)) {
+                return current.key;
+            }
+            Key loaded = SecurityUtil.getSymmetricKey(keyStorePath.toString(), keyAlias, passwordCallback);
+            if (loaded == null) {
+                throw new UnrecoverableKeyException("Key " + keyAlias + " not found in keystore " + keyStorePath);
+            }
+            RawSecretKey key = RawSecretKey.copyOf(loaded);
+            // The previous key is left to the collector rather than zeroed here: another thread may be
+            // initialising a cipher with it right now.
+            entry = new Entry(stamp, key);
+            if (current == null) {
+                logger.info("Loaded symmetric key {} from keystore {}", keyAlias, keyStorePath);
+            } else {
+                logger.info("Keystore {} changed on disk; reloaded symmetric key {}", keyStorePath, keyAlias);
+            }
+            return key;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        Entry current = entry;
+        entry = null;
+        if (current != null) {
+            current.key.destroy();
+        }
+    }
+
+    private record Entry(FileStamp stamp, RawSecretKey key) {}
+
+    private record FileStamp(long lastModifiedMillis, long size, Object fileKey) {
+
+        static FileStamp of(Path path) throws IOException {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                return new FileStamp(attributes.lastModifiedTime().toMillis(), attributes.size(), attributes.fileKey());
+            } catch (NoSuchFileException e) {
+                throw new FileNotFoundException("Keystore file not found: " + path);
+            }
+        }
+    }
+
+    /**
+     * AES key whose bytes this class owns, so they can actually be wiped; JDK key specs keep a private
+     * copy that {@code destroy()} does not clear.
+     */
+    static final class RawSecretKey implements SecretKey {
+
+        private final String algorithm;
+        private final byte[] encoded;
+        private volatile boolean destroyed;
+
+        private RawSecretKey(String algorithm, byte[] encoded) {
+            this.algorithm = algorithm;
+            this.encoded = encoded;
+        }
+
+        static RawSecretKey copyOf(Key key) throws UnrecoverableKeyException {
+            byte[] encoded = key.getEncoded();
+            if (encoded == null) {
+                throw new UnrecoverableKeyException("Key " + key.getAlgorithm() + " has no raw encoding");
+            }
+            if (key instanceof Destroyable destroyable) {
+                try {
+                    destroyable.destroy();
+                } catch (DestroyFailedException e) {
+                    // Most provider key classes do not support destroy; the copy is dropped instead.
+                }
+            }
+            return new RawSecretKey(key.getAlgorithm(), encoded);
+        }
+
+        @Override
+        public String getAlgorithm() {
+            return algorithm;
+        }
+
+        @Override
+        public String getFormat() {
+            return "RAW";
+        }
+
+        @Override
+        public byte[] getEncoded() {
+            if (destroyed) {
+                throw new IllegalStateException("Key has been destroyed");
+            }
+            return encoded.clone();
+        }
+
+        @Override
+        public void destroy() {
+            destroyed = true;
+            Arrays.fill(encoded, (byte) 0);
+        }
+
+        @Override
+        public boolean isDestroyed() {
+            return destroyed;
+        }
+    }
+}
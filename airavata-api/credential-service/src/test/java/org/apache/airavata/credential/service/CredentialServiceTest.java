@@ -174,12 +174,13 @@ class CredentialServiceTest {
                 .thenReturn(List.of("tok-1"));
         CredentialSummary summary =
                 CredentialSummary.newBuilder().setToken("tok-1").build();
-        when(credentialHandler.getAllCredentialSummaries(eq(SummaryType.SSH), any(), eq("testGateway")))
+        when(credentialHandler.getAllCredentialSummaries(eq(SummaryType.SSH), any(), eq("testGateway"), eq(10), eq(0)))
                 .thenReturn(List.of(summary));
 
-        List<CredentialSummary> result = credentialService.getAllCredentialSummaries(ctx, SummaryType.SSH);
+        List<CredentialSummary> result = credentialService.getAllCredentialSummaries(ctx, SummaryType.SSH, 10, 0);
 
         assertEquals(1, result.size());
-        verify(credentialHandler).getAllCredentialSummaries(eq(SummaryType.SSH), any(), eq("testGateway"));
+        verify(credentialHandler)
+                .getAllCredentialSummaries(eq(SummaryType.SSH), any(), eq("testGateway"), eq(10), eq(0));
     }
 }
@@ -30,6 +30,7 @@ import java.util.Map;
 import java.util.Optional;
 import org.apache.airavata.credential.model.CredentialEntity;
 import org.apache.airavata.credential.model.CredentialPK;
+import org.apache.airavata.credential.model.CredentialSummaryRow;
 import org.apache.airavata.credential.repository.CredentialRepository;
 import org.apache.airavata.credential.repository.CredentialStoreException;
 import org.apache.airavata.credential.util.CredentialEncryptionUtil;
@@ -38,8 +39,10 @@ import org.apache.airavata.model.credential.store.proto.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 
 @ExtendWith(MockitoExtension.class)
 class CredentialStoreServiceTest {
@@ -223,7 +226,10 @@ class CredentialStoreServiceTest {
 
         assertNotNull(token);
         assertFalse(token.isEmpty());
-        verify(credentialRepository).save(any(CredentialEntity.class));
+        ArgumentCaptor<CredentialEntity> saved = ArgumentCaptor.forClass(CredentialEntity.class);
+        verify(credentialRepository).save(saved.capture());
+        assertEquals(SummaryType.SSH, saved.getValue().getCredentialType());
+        assertEquals("ssh-rsa AAAA", saved.getValue().getPublicKey());
     }
 
     @Test
@@ -246,77 +252,95 @@ class CredentialStoreServiceTest {
     }
 
     @Test
-    void getAllCredentialSummaries_sshType_filtersCorrectly() throws Exception {
-        StoredCredential sshStored = StoredCredential.newBuilder()
-                .setSshCredential(SSHCredential.newBuilder()
-                        .setUsername("user1")
-                        .setGatewayId("gw1")
-                        .setPublicKey("ssh-rsa key")
-                        .setToken("ssh-token-1")
-                        .setPersistedTime(1000000))
-                .build();
-
-        StoredCredential pwdStored = StoredCredential.newBuilder()
-                .setPasswordCredential(PasswordCredential.newBuilder()
-                        .setPortalUserName("user2")
-                        .setGatewayId("gw1")
-                        .setToken("pwd-token-1")
-                        .setPersistedTime(2000000))
-                .build();
+    void getAllCredentialSummaries_readsSummaryColumnsWithoutDecrypting() throws Exception {
+        List<String> tokens = List.of("ssh-token-1", "pwd-token-1");
+        CredentialSummaryRow row = new CredentialSummaryRow(
+                "gw1", "ssh-token-1", SummaryType.SSH, "user1", "ssh-rsa key", "my key", new Timestamp(1000000));
+        when(credentialRepository.findSummaries("gw1", SummaryType.SSH, tokens, Pageable.unpaged()))
+                .thenReturn(List.of(row));
 
-        CredentialEntity sshEntity = new CredentialEntity();
-        sshEntity.setGatewayId("gw1");
-        sshEntity.setTokenId("ssh-token-1");
-        sshEntity.setCredential(sshStored.toByteArray());
-        sshEntity.setPortalUserId("user1");
-        sshEntity.setTimePersisted(new Timestamp(1000000));
+        List<CredentialSummary> result = handler.getAllCredentialSummaries(SummaryType.SSH, tokens, "gw1", 0, 0);
 
-        CredentialEntity pwdEntity = new CredentialEntity();
-        pwdEntity.setGatewayId("gw1");
-        pwdEntity.setTokenId("pwd-token-1");
-        pwdEntity.setCredential(pwdStored.toByteArray());
-        pwdEntity.setPortalUserId("user2");
-        pwdEntity.setTimePersisted(new Timestamp(2000000));
+        assertEquals(1, result.size());
+        CredentialSummary summary = result.get(0);
+        assertEquals(SummaryType.SSH, summary.getType());
+        assertEquals("ssh-token-1", summary.getToken());
+        assertEquals("user1", summary.getUsername());
+        assertEquals("gw1", summary.getGatewayId());
+        assertEquals("ssh-rsa key", summary.getPublicKey());
+        assertEquals("my key", summary.getDescription());
+        assertEquals(1000000, summary.getPersistedTime());
+        verifyNoInteractions(encryptionUtil);
+    }
 
-        List<String> tokens = List.of("ssh-token-1", "pwd-token-1");
-        when(credentialRepository.findByGatewayIdAndTokenIdIn("gw1", tokens)).thenReturn(List.of(sshEntity, pwdEntity));
-        when(encryptionUtil.convertByteArrayToCredential(sshEntity.getCredential()))
-                .thenReturn(sshStored);
-        when(encryptionUtil.convertByteArrayToCredential(pwdEntity.getCredential()))
-                .thenReturn(pwdStored);
+    @Test
+    void getAllCredentialSummaries_pagesByOffset() throws Exception {
+        List<String> tokens = List.of("pwd-token-1", "pwd-token-2", "pwd-token-3");
+        CredentialSummaryRow row = new CredentialSummaryRow(
+                "gw1", "pwd-token-2", SummaryType.PASSWD, "user1", null, null, new Timestamp(1000000));
+        ArgumentCaptor<Pageable> page = ArgumentCaptor.forClass(Pageable.class);
+        when(credentialRepository.findSummaries(eq("gw1"), eq(SummaryType.PASSWD), eq(tokens), page.capture()))
+                .thenReturn(List.of(row));
 
-        List<CredentialSummary> result = handler.getAllCredentialSummaries(SummaryType.SSH, tokens, "gw1");
+        // An offset that is not a multiple of the limit must not be rounded down to a page boundary
+        List<CredentialSummary> result = handler.getAllCredentialSummaries(SummaryType.PASSWD, tokens, "gw1", 2, 1);
 
         assertEquals(1, result.size());
-        assertEquals(SummaryType.SSH, result.get(0).getType());
-        assertEquals("ssh-token-1", result.get(0).getToken());
+        assertEquals("pwd-token-2", result.get(0).getToken());
+        assertEquals("", result.get(0).getPublicKey());
+        assertEquals(1, page.getValue().getOffset());
+        assertEquals(2, page.getValue().getPageSize());
     }
 
     @Test
-    void getAllCredentialSummaries_passwdType_filtersCorrectly() throws Exception {
-        StoredCredential pwdStored = StoredCredential.newBuilder()
-                .setPasswordCredential(PasswordCredential.newBuilder()
-                        .setPortalUserName("user1")
+    void getAllCredentialSummaries_backfillsLegacyRowsOnce() throws Exception {
+        StoredCredential sshStored = StoredCredential.newBuilder()
+                .setSshCredential(SSHCredential.newBuilder()
+                        .setUsername("user1")
                         .setGatewayId("gw1")
-                        .setToken("pwd-token-1")
+                        .setPublicKey("ssh-rsa key")
+                        .setToken("ssh-token-1")
                         .setPersistedTime(1000000))
                 .build();
+        CredentialEntity legacy = makeEntity(sshStored, "gw1", "ssh-token-1");
+        List<String> tokens = List.of("ssh-token-1");
+        when(credentialRepository.existsByGatewayIdAndCredentialTypeIsNull("gw1"))
+                .thenReturn(true);
+        when(credentialRepository.findByGatewayIdAndCredentialTypeIsNull("gw1")).thenReturn(List.of(legacy));
+        when(encryptionUtil.convertByteArrayToCredential(any())).thenReturn(sshStored);
 
-        CredentialEntity entity = new CredentialEntity();
-        entity.setGatewayId("gw1");
-        entity.setTokenId("pwd-token-1");
-        entity.setCredential(pwdStored.toByteArray());
-        entity.setPortalUserId("user1");
-        entity.setTimePersisted(new Timestamp(1000000));
+        handler.getAllCredentialSummaries(SummaryType.SSH, tokens, "gw1", 0, 0);
+
+        assertEquals(SummaryType.SSH, legacy.getCredentialType());
+        assertEquals("ssh-rsa key", legacy.getPublicKey());
+        verify(credentialRepository).saveAll(List.of(legacy));
+    }
 
-        List<String> tokens = List.of("pwd-token-1");
-        when(credentialRepository.findByGatewayIdAndTokenIdIn("gw1", tokens)).thenReturn(List.of(entity));
-        when(encryptionUtil.convertByteArrayToCredential(any())).thenReturn(pwdStored);
+    @Test
+    void getAllCredentialSummaries_unreadableLegacyRowIsMarkedAndNotRetried() throws Exception {
+        CredentialEntity legacy = new CredentialEntity();
+        legacy.setGatewayId("gw1");
+        legacy.setTokenId("broken-token");
+        legacy.setCredential(new byte[] {1, 2, 3});
+        legacy.setPortalUserId("user1");
+        when(credentialRepository.existsByGatewayIdAndCredentialTypeIsNull("gw1"))
+                .thenReturn(true);
+        when(credentialRepository.findByGatewayIdAndCredentialTypeIsNull("gw1")).thenReturn(List.of(legacy));
+        when(encryptionUtil.convertByteArrayToCredential(any()))
+                .thenThrow(new CredentialStoreException("bad key"));
+
+        handler.getAllCredentialSummaries(SummaryType.SSH, List.of("broken-token"), "gw1", 0, 0);
+
+        assertEquals(SummaryType.SUMMARY_TYPE_UNKNOWN, legacy.getCredentialType());
+        verify(credentialRepository).saveAll(List.of(legacy));
+    }
 
-        List<CredentialSummary> result = handler.getAllCredentialSummaries(SummaryType.PASSWD, tokens, "gw1");
+    @Test
+    void getAllCredentialSummaries_noAccessibleTokens_skipsQuery() throws Exception {
+        List<CredentialSummary> result = handler.getAllCredentialSummaries(SummaryType.SSH, List.of(), "gw1", 0, 0);
 
-        assertEquals(1, result.size());
-        assertEquals(SummaryType.PASSWD, result.get(0).getType());
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(credentialRepository);
     }
 
     @Test
@@ -337,29 +361,30 @@ class CredentialStoreServiceTest {
 
     @Test
     void getAllCredentialSummaryForGateway_sshType_returnsSSHOnly() throws Exception {
-        StoredCredential sshStored = StoredCredential.newBuilder()
-                .setSshCredential(SSHCredential.newBuilder()
-                        .setUsername("user1")
-                        .setGatewayId("gw1")
-                        .setPublicKey("ssh-rsa key")
-                        .setToken("ssh-token-1")
-                        .setPersistedTime(1000000))
-                .build();
-
-        CredentialEntity entity = new CredentialEntity();
-        entity.setGatewayId("gw1");
-        entity.setTokenId("ssh-token-1");
-        entity.setCredential(sshStored.toByteArray());
-        entity.setPortalUserId("user1");
-        entity.setTimePersisted(new Timestamp(1000000));
-
-        when(credentialRepository.findByGatewayId("gw1")).thenReturn(List.of(entity));
-        when(encryptionUtil.convertByteArrayToCredential(any())).thenReturn(sshStored);
+        CredentialSummaryRow row = new CredentialSummaryRow(
+                "gw1", "ssh-token-1", SummaryType.SSH, "user1", "ssh-rsa key", null, new Timestamp(1000000));
+        when(credentialRepository.findSummariesForGateway("gw1", SummaryType.SSH, null))
+                .thenReturn(List.of(row));
 
         List<CredentialSummary> result = handler.getAllCredentialSummaryForGateway(SummaryType.SSH, "gw1");
 
         assertEquals(1, result.size());
         assertEquals("ssh-token-1", result.get(0).getToken());
+        verifyNoInteractions(encryptionUtil);
+    }
+
+    @Test
+    void getAllCredentialSummaryForUserInGateway_filtersByPortalUser() throws Exception {
+        CredentialSummaryRow row = new CredentialSummaryRow(
+                "gw1", "ssh-token-1", SummaryType.SSH, "user1", "ssh-rsa key", null, new Timestamp(1000000));
+        when(credentialRepository.findSummariesForGateway("gw1", SummaryType.SSH, "user1"))
+                .thenReturn(List.of(row));
+
+        List<CredentialSummary> result =
+                handler.getAllCredentialSummaryForUserInGateway(SummaryType.SSH, "gw1", "user1");
+
+        assertEquals(1, result.size());
+        assertEquals("user1", result.get(0).getUsername());
     }
 
     @Test
@@ -371,29 +396,21 @@ class CredentialStoreServiceTest {
 
     @Test
     void getAllPWDCredentialsForGateway_returnsPwdTokensAndDescriptions() throws Exception {
-        StoredCredential pwdStored = StoredCredential.newBuilder()
-                .setPasswordCredential(PasswordCredential.newBuilder()
-                        .setToken("pwd-token-1")
-                        .setDescription("my password")
-                        .setGatewayId("gw1")
-                        .setPortalUserName("user1")
-                        .setPersistedTime(System.currentTimeMillis()))
-                .build();
-
-        CredentialEntity entity = new CredentialEntity();
-        entity.setGatewayId("gw1");
-        entity.setTokenId("pwd-token-1");
-        entity.setCredential(pwdStored.toByteArray());
-        entity.setPortalUserId("user1");
-        entity.setTimePersisted(new Timestamp(System.currentTimeMillis()));
-        entity.setDescription("my password");
-
-        when(credentialRepository.findByGatewayId("gw1")).thenReturn(List.of(entity));
-        when(encryptionUtil.convertByteArrayToCredential(any())).thenReturn(pwdStored);
+        CredentialSummaryRow row = new CredentialSummaryRow(
+                "gw1",
+                "pwd-token-1",
+                SummaryType.PASSWD,
+                "user1",
+                null,
+                "my password",
+                new Timestamp(System.currentTimeMillis()));
+        when(credentialRepository.findSummariesForGateway("gw1", SummaryType.PASSWD, null))
+                .thenReturn(List.of(row));
 
         Map<String, String> result = handler.getAllPWDCredentialsForGateway("gw1");
 
         assertEquals(1, result.size());
         assertEquals("my password", result.get("pwd-token-1"));
+        verifyNoInteractions(encryptionUtil);
     }
 }
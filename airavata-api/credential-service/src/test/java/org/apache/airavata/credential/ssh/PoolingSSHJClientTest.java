@@ -0,0 +1,193 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.credential.ssh;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import net.schmizz.sshj.DefaultConfig;
+import net.schmizz.sshj.transport.verification.PromiscuousVerifier;
+import net.schmizz.sshj.userauth.method.AuthPassword;
+import net.schmizz.sshj.userauth.password.PasswordUtils;
+import org.apache.sshd.common.file.virtualfs.VirtualFileSystemFactory;
+import org.apache.sshd.server.SshServer;
+import org.apache.sshd.server.keyprovider.SimpleGeneratorHostKeyProvider;
+import org.apache.sshd.sftp.server.SftpSubsystemFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stress test of session leasing in {@link PoolingSSHJClient} against an in-process SSHD: leasing threads
+ * must hold their SFTP sessions at the same time rather than queue behind one another, and every lease must
+ * be returned. Lease throughput is logged for comparison but not asserted, since it depends on the machine.
+ */
+public class PoolingSSHJClientTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PoolingSSHJClientTest.class);
+    private static final long RUN_MILLIS = 2000;
+
+    private SshServer sshd;
+    private PoolingSSHJClient pool;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path sftpRootDir = Files.createTempDirectory("sftp-root-");
+        sftpRootDir.toFile().deleteOnExit();
+
+        sshd = SshServer.setUpDefaultServer();
+        sshd.setHost("localhost");
+        sshd.setPort(0);
+        sshd.setKeyPairProvider(new SimpleGeneratorHostKeyProvider());
+        sshd.setSubsystemFactories(Collections.singletonList(new SftpSubsystemFactory.Builder().build()));
+        sshd.setFileSystemFactory(new VirtualFileSystemFactory(sftpRootDir));
+        sshd.setPasswordAuthenticator((username, password, session) -> true);
+        sshd.start();
+
+        pool = new PoolingSSHJClient(new DefaultConfig(), "localhost", sshd.getPort());
+        pool.addHostKeyVerifier(new PromiscuousVerifier());
+        pool.auth("testuser", List.of(new AuthPassword(PasswordUtils.createOneOff("secret".toCharArray()))));
+        pool.setMaxSessionsForConnection(4);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (pool != null) {
+            pool.disconnect();
+        }
+        if (sshd != null && !sshd.isClosed()) {
+            sshd.stop(true);
+        }
+    }
+
+    @Test
+    public void leasesAreHeldConcurrently() throws Exception {
+        int threads = 8;
+        CyclicBarrier allLeased = new CyclicBarrier(threads);
+        CyclicBarrier allCounted = new CyclicBarrier(threads);
+        AtomicInteger openAtOnce = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                workers.add(executor.submit(() -> {
+                    try (SFTPClientWrapper sftp = pool.newSFTPClientWrapper()) {
+                        sftp.ls(".");
+                        allLeased.await(30, TimeUnit.SECONDS);
+                        openAtOnce.accumulateAndGet(pool.getActiveSessionCount(), Math::max);
+                        allCounted.await(30, TimeUnit.SECONDS);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(threads, openAtOnce.get());
+        assertEquals(0, pool.getActiveSessionCount());
+        assertTrue(pool.getConnectionCount() >= 2, "8 concurrent leases need more than one 4-session connection");
+    }
+
+    @Test
+    public void leaseThroughputIsLogged() throws Exception {
+        // Warm-up so both runs start from an open connection
+        runLeases(1, 300);
+
+        double single = runLeases(1, RUN_MILLIS);
+        double parallel = runLeases(8, RUN_MILLIS);
+        logger.info("Session leases/s: 1 thread {}, 8 threads {}", (long) single, (long) parallel);
+
+        assertTrue(single > 0 && parallel > 0, "8 threads: " + parallel + "/s, 1 thread: " + single + "/s");
+        assertEquals(0, pool.getActiveSessionCount());
+    }
+
+    @Test
+    public void poolIsPreWarmedToTargetSize() throws Exception {
+        pool.setTargetPoolSize(3);
+        try (SFTPClientWrapper sftp = pool.newSFTPClientWrapper()) {
+            sftp.ls(".");
+        }
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (pool.getConnectionCount() < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(3, pool.getConnectionCount());
+        assertEquals(0, pool.getActiveSessionCount());
+    }
+
+    @Test
+    public void closingTwiceReturnsTheSlotOnce() throws Exception {
+        SFTPClientWrapper first = pool.newSFTPClientWrapper();
+        SFTPClientWrapper second = pool.newSFTPClientWrapper();
+        assertEquals(2, pool.getActiveSessionCount());
+
+        first.close();
+        first.close();
+        assertEquals(1, pool.getActiveSessionCount());
+        second.close();
+        assertEquals(0, pool.getActiveSessionCount());
+    }
+
+    /** Lease, use and return SFTP sessions from {@code threads} threads for a while; returns leases per second. */
+    private double runLeases(int threads, long millis) throws Exception {
+        AtomicLong leases = new AtomicLong();
+        long deadline = System.currentTimeMillis() + millis;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                workers.add(executor.submit(() -> {
+                    while (System.currentTimeMillis() < deadline) {
+                        try (SFTPClientWrapper sftp = pool.newSFTPClientWrapper()) {
+                            sftp.ls(".");
+                        }
+                        leases.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get(millis + 30_000, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return leases.get() * 1000.0 / millis;
+    }
+}
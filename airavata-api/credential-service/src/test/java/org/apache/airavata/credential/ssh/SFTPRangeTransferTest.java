@@ -0,0 +1,124 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.credential.ssh;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import net.schmizz.sshj.DefaultConfig;
+import net.schmizz.sshj.transport.verification.PromiscuousVerifier;
+import net.schmizz.sshj.userauth.method.AuthPassword;
+import net.schmizz.sshj.userauth.password.PasswordUtils;
+import org.apache.sshd.common.file.virtualfs.VirtualFileSystemFactory;
+import org.apache.sshd.server.SshServer;
+import org.apache.sshd.server.keyprovider.SimpleGeneratorHostKeyProvider;
+import org.apache.sshd.sftp.server.SftpSubsystemFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Streaming reads and writes of {@link SFTPRangeTransfer} against an in-process SSHD.
+ */
+public class SFTPRangeTransferTest {
+
+    private Path sftpRootDir;
+    private SshServer sshd;
+    private PoolingSSHJClient pool;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        sftpRootDir = Files.createTempDirectory("sftp-root-");
+        sftpRootDir.toFile().deleteOnExit();
+
+        sshd = SshServer.setUpDefaultServer();
+        sshd.setHost("localhost");
+        sshd.setPort(0);
+        sshd.setKeyPairProvider(new SimpleGeneratorHostKeyProvider());
+        sshd.setSubsystemFactories(Collections.singletonList(new SftpSubsystemFactory.Builder().build()));
+        sshd.setFileSystemFactory(new VirtualFileSystemFactory(sftpRootDir));
+        sshd.setPasswordAuthenticator((username, password, session) -> true);
+        sshd.start();
+
+        pool = new PoolingSSHJClient(new DefaultConfig(), "localhost", sshd.getPort());
+        pool.addHostKeyVerifier(new PromiscuousVerifier());
+        pool.auth("testuser", List.of(new AuthPassword(PasswordUtils.createOneOff("secret".toCharArray()))));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (pool != null) {
+            pool.disconnect();
+        }
+        if (sshd != null && !sshd.isClosed()) {
+            sshd.stop(true);
+        }
+    }
+
+    @Test
+    public void openReadStreamsOnlyTheRequestedRange() throws Exception {
+        byte[] content = randomBytes(300_000);
+        Files.write(sftpRootDir.resolve("output.bin"), content);
+
+        try (SFTPClientWrapper sftp = pool.newSFTPClientWrapper();
+                InputStream in = SFTPRangeTransfer.openRead(sftp, "output.bin", 70_000, 150_000)) {
+            assertArrayEquals(Arrays.copyOfRange(content, 70_000, 220_000), in.readAllBytes());
+        }
+    }
+
+    @Test
+    public void openReadOfTheTailStopsAtEndOfFile() throws Exception {
+        byte[] content = randomBytes(1000);
+        Files.write(sftpRootDir.resolve("tail.bin"), content);
+
+        try (SFTPClientWrapper sftp = pool.newSFTPClientWrapper();
+                InputStream in = SFTPRangeTransfer.openRead(sftp, "tail.bin", 900, 100)) {
+            assertArrayEquals(Arrays.copyOfRange(content, 900, 1000), in.readAllBytes());
+        }
+    }
+
+    @Test
+    public void uploadWritesStreamOfUnknownLengthAndTruncates() throws Exception {
+        Files.write(sftpRootDir.resolve("input.bin"), randomBytes(500_000));
+        byte[] content = randomBytes(200_000);
+
+        long written;
+        try (SFTPClientWrapper sftp = pool.newSFTPClientWrapper()) {
+            written = SFTPRangeTransfer.upload(sftp, new ByteArrayInputStream(content), "input.bin");
+        }
+
+        assertEquals(content.length, written);
+        assertArrayEquals(content, Files.readAllBytes(sftpRootDir.resolve("input.bin")));
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,169 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.credential.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.Key;
+import java.security.KeyStore;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import org.apache.airavata.credential.repository.CredentialStoreException;
+import org.apache.airavata.model.credential.store.proto.PasswordCredential;
+import org.apache.airavata.model.credential.store.proto.StoredCredential;
+import org.apache.airavata.server.KeyStorePasswordCallback;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class CredentialEncryptionUtilTest {
+
+    private static final String ALIAS = "airavata";
+    private static final char[] PASSWORD = "airavata".toCharArray();
+
+    @TempDir
+    Path tempDir;
+
+    private Path keyStore;
+    private CountingCallback callback;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        keyStore = tempDir.resolve("airavata.sym.p12");
+        writeKeyStore(keyStore, newAesKey());
+        callback = new CountingCallback();
+    }
+
+    @Test
+    public void testKeyStoreReadOnceAcrossCredentials() throws Exception {
+        try (var util = new CredentialEncryptionUtil(keyStore.toString(), ALIAS, callback)) {
+            for (int i = 0; i < 50; i++) {
+                StoredCredential credential = credential("token-" + i);
+                assertEquals(
+                        credential, util.convertByteArrayToCredential(util.convertCredentialToByteArray(credential)));
+            }
+        }
+        assertEquals(1, callback.storePasswordReads.get());
+    }
+
+    @Test
+    public void testReloadsWhenKeyStoreChanges() throws Exception {
+        try (var util = new CredentialEncryptionUtil(keyStore.toString(), ALIAS, callback)) {
+            byte[] underOldKey = util.convertCredentialToByteArray(credential("token-1"));
+
+            Path replacement = tempDir.resolve("replacement.p12");
+            writeKeyStore(replacement, newAesKey());
+            Files.setLastModifiedTime(
+                    replacement,
+                    FileTime.fromMillis(Files.getLastModifiedTime(keyStore).toMillis() + 2000));
+            Files.move(replacement, keyStore, StandardCopyOption.REPLACE_EXISTING);
+
+            assertThrows(CredentialStoreException.class, () -> util.convertByteArrayToCredential(underOldKey));
+            StoredCredential credential = credential("token-2");
+            assertEquals(credential, util.convertByteArrayToCredential(util.convertCredentialToByteArray(credential)));
+        }
+        assertEquals(2, callback.storePasswordReads.get());
+    }
+
+    @Test
+    public void testCloseZeroesKey() throws Exception {
+        var cache = new SymmetricKeyCache(keyStore.toString(), ALIAS, callback);
+        var key = (SecretKey) cache.getKey();
+        cache.close();
+
+        assertTrue(key.isDestroyed());
+        assertThrows(IllegalStateException.class, key::getEncoded);
+        assertThrows(IllegalStateException.class, cache::getKey);
+    }
+
+    @Test
+    public void testKeyDerivedOnceForRepeatedCalls() throws Exception {
+        try (var cache = new SymmetricKeyCache(keyStore.toString(), ALIAS, callback)) {
+            Key first = cache.getKey();
+            List<Callable<Key>> calls = Collections.nCopies(200, cache::getKey);
+            ExecutorService pool = Executors.newFixedThreadPool(8);
+            try {
+                for (Future<Key> key : pool.invokeAll(calls)) {
+                    assertSame(first, key.get());
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+        assertEquals(1, callback.storePasswordReads.get());
+    }
+
+    private static StoredCredential credential(String token) {
+        return StoredCredential.newBuilder()
+                .setPasswordCredential(PasswordCredential.newBuilder()
+                        .setToken(token)
+                        .setGatewayId("gw1")
+                        .setPortalUserName("user1")
+                        .setLoginUserName("login1")
+                        .setPassword("secret"))
+                .build();
+    }
+
+    private static SecretKey newAesKey() throws Exception {
+        KeyGenerator generator = KeyGenerator.getInstance("AES");
+        generator.init(256);
+        return generator.generateKey();
+    }
+
+    private static void writeKeyStore(Path path, SecretKey key) throws Exception {
+        KeyStore ks = KeyStore.getInstance("PKCS12");
+        ks.load(null, null);
+        ks.setEntry(ALIAS, new KeyStore.SecretKeyEntry(key), new KeyStore.PasswordProtection(PASSWORD));
+        try (OutputStream out = Files.newOutputStream(path)) {
+            ks.store(out, PASSWORD);
+        }
+    }
+
+    private static class CountingCallback implements KeyStorePasswordCallback {
+
+        private final AtomicInteger storePasswordReads = new AtomicInteger();
+
+        @Override
+        public char[] getStorePassword() {
+            storePasswordReads.incrementAndGet();
+            return PASSWORD.clone();
+        }
+
+        @Override
+        public char[] getSecretKeyPassPhrase(String keyAlias) {
+            return PASSWORD.clone();
+        }
+    }
+}
@@ -24,7 +24,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 @Entity
-@Table(name = "ENTITY", schema = "")
+@Table(
+        name = "ENTITY",
+        schema = "",
+        indexes = @Index(name = "IDX_ENTITY_PARENT", columnList = "DOMAIN_ID, PARENT_ENTITY_ID"))
 @IdClass(EntityPK.class)
 public class EntityEntity {
     private static final Logger logger = LoggerFactory.getLogger(EntityEntity.class);
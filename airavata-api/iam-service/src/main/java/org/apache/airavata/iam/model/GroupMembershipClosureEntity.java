@@ -0,0 +1,92 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.iam.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Transitive closure of {@code GROUP_MEMBERSHIP}: one row per (ancestor group, descendant user or
+ * group, path length), counting the distinct membership paths of that length. Maintained by
+ * {@code GroupMembershipRepository} in the same transaction as every membership change, so all the
+ * groups a user belongs to, directly or through nested groups, are one indexed lookup.
+ */
+@Entity
+@Table(
+        name = "GROUP_MEMBERSHIP_CLOSURE",
+        schema = "",
+        indexes = @Index(name = "IDX_GROUP_MEMBERSHIP_CLOSURE_ANCESTOR", columnList = "DOMAIN_ID, ANCESTOR_ID"))
+@IdClass(GroupMembershipClosurePK.class)
+public class GroupMembershipClosureEntity {
+    private String domainId;
+    private String descendantId;
+    private String ancestorId;
+    private int depth;
+    private long pathCount;
+
+    @Id
+    @Column(name = "DOMAIN_ID")
+    public String getDomainId() {
+        return domainId;
+    }
+
+    public void setDomainId(String domainId) {
+        this.domainId = domainId;
+    }
+
+    @Id
+    @Column(name = "DESCENDANT_ID")
+    public String getDescendantId() {
+        return descendantId;
+    }
+
+    public void setDescendantId(String descendantId) {
+        this.descendantId = descendantId;
+    }
+
+    @Id
+    @Column(name = "ANCESTOR_ID")
+    public String getAncestorId() {
+        return ancestorId;
+    }
+
+    public void setAncestorId(String ancestorId) {
+        this.ancestorId = ancestorId;
+    }
+
+    @Id
+    @Column(name = "DEPTH")
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    @Basic
+    @Column(name = "PATH_COUNT", nullable = false)
+    public long getPathCount() {
+        return pathCount;
+    }
+
+    public void setPathCount(long pathCount) {
+        this.pathCount = pathCount;
+    }
+}
@@ -0,0 +1,88 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.iam.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Id;
+import java.io.Serializable;
+import java.util.Objects;
+
+public class GroupMembershipClosurePK implements Serializable {
+    private String domainId;
+    private String descendantId;
+    private String ancestorId;
+    private int depth;
+
+    @Column(name = "DOMAIN_ID")
+    @Id
+    public String getDomainId() {
+        return domainId;
+    }
+
+    public void setDomainId(String domainId) {
+        this.domainId = domainId;
+    }
+
+    @Column(name = "DESCENDANT_ID")
+    @Id
+    public String getDescendantId() {
+        return descendantId;
+    }
+
+    public void setDescendantId(String descendantId) {
+        this.descendantId = descendantId;
+    }
+
+    @Column(name = "ANCESTOR_ID")
+    @Id
+    public String getAncestorId() {
+        return ancestorId;
+    }
+
+    public void setAncestorId(String ancestorId) {
+        this.ancestorId = ancestorId;
+    }
+
+    @Column(name = "DEPTH")
+    @Id
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        GroupMembershipClosurePK that = (GroupMembershipClosurePK) o;
+        return depth == that.depth
+                && Objects.equals(domainId, that.domainId)
+                && Objects.equals(descendantId, that.descendantId)
+                && Objects.equals(ancestorId, that.ancestorId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(domainId, descendantId, ancestorId, depth);
+    }
+}
@@ -24,7 +24,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 @Entity
-@Table(name = "SHARING", schema = "")
+@Table(
+        name = "SHARING",
+        schema = "",
+        indexes =
+                @Index(
+                        name = "IDX_SHARING_INHERITED_PARENT",
+                        columnList = "DOMAIN_ID, INHERITED_PARENT_ID, PERMISSION_TYPE_ID"))
 @IdClass(SharingPK.class)
 public class SharingEntity {
     private static final Logger logger = LoggerFactory.getLogger(SharingEntity.class);
@@ -41,6 +41,33 @@ public class EntityRepository extends AbstractSharingRepository<EntityEntity, En
         return select(filters, 0, -1);
     }
 
+    /**
+     * Ids of every entity below {@code entityId} in the parent/child tree (children, grandchildren
+     * and so on), resolved in one recursive query.
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> getDescendantEntityIds(String domainId, String entityId) throws SharingRegistryException {
+        // UNION (not UNION ALL) drops already-visited ids, so a parent cycle cannot recurse forever
+        String query = "WITH RECURSIVE DESCENDANT (ENTITY_ID) AS ("
+                + "SELECT ENTITY_ID FROM ENTITY WHERE DOMAIN_ID = ?1 AND PARENT_ENTITY_ID = ?2 "
+                + "UNION SELECT E.ENTITY_ID FROM ENTITY E INNER JOIN DESCENDANT D ON E.PARENT_ENTITY_ID = D.ENTITY_ID "
+                + "WHERE E.DOMAIN_ID = ?1) "
+                + "SELECT ENTITY_ID FROM DESCENDANT WHERE ENTITY_ID <> ?2";
+        return execute(em -> (List<String>) em.createNativeQuery(query)
+                .setParameter(1, domainId)
+                .setParameter(2, entityId)
+                .getResultList());
+    }
+
+    public void updateSharedCount(String domainId, String entityId, long sharedCount) throws SharingRegistryException {
+        execute(em -> em.createQuery("UPDATE " + EntityEntity.class.getSimpleName()
+                        + " e SET e.sharedCount = :sharedCount WHERE e.domainId = :domainId AND e.entityId = :entityId")
+                .setParameter("sharedCount", sharedCount)
+                .setParameter("domainId", domainId)
+                .setParameter("entityId", entityId)
+                .executeUpdate());
+    }
+
     // TODO Replace with prepared statements
     @SuppressWarnings("unchecked")
     public List<EntityEntity> searchEntities(
@@ -0,0 +1,142 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.iam.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.Query;
+import java.util.*;
+import org.apache.airavata.iam.model.DomainEntity;
+import org.apache.airavata.iam.model.GroupMembershipClosureEntity;
+import org.apache.airavata.iam.model.GroupMembershipClosurePK;
+import org.apache.airavata.iam.model.SharingRegistryException;
+import org.apache.airavata.iam.repository.MembershipClosure.Path;
+
+/**
+ * Maintains {@code GROUP_MEMBERSHIP_CLOSURE} alongside {@code GROUP_MEMBERSHIP}. Writers call
+ * {@link #addEdge} / {@link #removeEdge} with the {@link EntityManager} of the transaction that
+ * changes the membership, after {@link #lockDomain}, so that concurrent changes in a domain apply
+ * their path deltas one at a time. Memberships that predate the table are seeded by the
+ * V7__Group_membership_closure migration.
+ */
+public class GroupMembershipClosureRepository
+        extends AbstractSharingRepository<GroupMembershipClosureEntity, GroupMembershipClosurePK> {
+
+    // Rows per multi-row upsert; keeps statements well below max_allowed_packet.
+    private static final int UPSERT_CHUNK = 500;
+
+    private static final String UPSERT_PREFIX = "INSERT INTO GROUP_MEMBERSHIP_CLOSURE "
+            + "(DOMAIN_ID, ANCESTOR_ID, DESCENDANT_ID, DEPTH, PATH_COUNT) VALUES ";
+
+    public GroupMembershipClosureRepository() {
+        super(GroupMembershipClosureEntity.class);
+    }
+
+    /** Ids of every group {@code descendantId} belongs to, directly or through nested groups. */
+    public List<String> getAncestorIds(String domainId, String descendantId) throws SharingRegistryException {
+        return execute(em -> em.createQuery(
+                        "SELECT DISTINCT c.ancestorId FROM GroupMembershipClosureEntity c "
+                                + "WHERE c.domainId = :domainId AND c.descendantId = :descendantId",
+                        String.class)
+                .setParameter("domainId", domainId)
+                .setParameter("descendantId", descendantId)
+                .getResultList());
+    }
+
+    /** Serialises membership changes within a domain until the caller's transaction ends. */
+    public void lockDomain(EntityManager em, String domainId) {
+        em.find(DomainEntity.class, domainId, LockModeType.PESSIMISTIC_WRITE);
+    }
+
+    public boolean isAncestor(EntityManager em, String domainId, String ancestorId, String descendantId) {
+        return !em.createQuery("SELECT c.depth FROM GroupMembershipClosureEntity c WHERE c.domainId = :domainId "
+                        + "AND c.descendantId = :descendantId AND c.ancestorId = :ancestorId")
+                .setParameter("domainId", domainId)
+                .setParameter("descendantId", descendantId)
+                .setParameter("ancestorId", ancestorId)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+    }
+
+    public void addEdge(EntityManager em, String domainId, String parentId, String childId) {
+        apply(em, domainId, edgePaths(em, domainId, parentId, childId), 1);
+    }
+
+    public void removeEdge(EntityManager em, String domainId, String parentId, String childId) {
+        List<Path> paths = edgePaths(em, domainId, parentId, childId);
+        apply(em, domainId, paths, -1);
+        em.createQuery("DELETE FROM GroupMembershipClosureEntity c WHERE c.domainId = :domainId "
+                        + "AND c.descendantId IN :descendantIds AND c.pathCount <= 0")
+                .setParameter("domainId", domainId)
+                .setParameter(
+                        "descendantIds",
+                        paths.stream().map(Path::descendantId).distinct().toList())
+                .executeUpdate();
+    }
+
+    private List<Path> edgePaths(EntityManager em, String domainId, String parentId, String childId) {
+        List<Path> toParent = em.createQuery(
+                        "SELECT c FROM GroupMembershipClosureEntity c "
+                                + "WHERE c.domainId = :domainId AND c.descendantId = :id",
+                        GroupMembershipClosureEntity.class)
+                .setParameter("domainId", domainId)
+                .setParameter("id", parentId)
+                .getResultStream()
+                .map(GroupMembershipClosureRepository::toPath)
+                .toList();
+        List<Path> fromChild = em.createQuery(
+                        "SELECT c FROM GroupMembershipClosureEntity c "
+                                + "WHERE c.domainId = :domainId AND c.ancestorId = :id",
+                        GroupMembershipClosureEntity.class)
+                .setParameter("domainId", domainId)
+                .setParameter("id", childId)
+                .getResultStream()
+                .map(GroupMembershipClosureRepository::toPath)
+                .toList();
+        return MembershipClosure.edgePaths(parentId, toParent, childId, fromChild);
+    }
+
+    /** Adds {@code sign * count} to each path's row, inserting rows that do not exist yet. */
+    private void apply(EntityManager em, String domainId, List<Path> paths, int sign) {
+        for (int from = 0; from < paths.size(); from += UPSERT_CHUNK) {
+            List<Path> chunk = paths.subList(from, Math.min(paths.size(), from + UPSERT_CHUNK));
+            StringBuilder sql = new StringBuilder(UPSERT_PREFIX);
+            for (int i = 0; i < chunk.size(); i++) {
+                sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?)");
+            }
+            sql.append(" ON DUPLICATE KEY UPDATE PATH_COUNT = PATH_COUNT + VALUES(PATH_COUNT)");
+            Query query = em.createNativeQuery(sql.toString());
+            int p = 1;
+            for (Path path : chunk) {
+                query.setParameter(p++, domainId);
+                query.setParameter(p++, path.ancestorId());
+                query.setParameter(p++, path.descendantId());
+                query.setParameter(p++, path.depth());
+                query.setParameter(p++, sign * path.count());
+            }
+            query.executeUpdate();
+        }
+    }
+
+    private static Path toPath(GroupMembershipClosureEntity e) {
+        return new Path(e.getAncestorId(), e.getDescendantId(), e.getDepth(), e.getPathCount());
+    }
+}
@@ -29,6 +29,8 @@ import org.springframework.stereotype.Component;
 @Component
 public class GroupMembershipRepository extends AbstractSharingRepository<GroupMembershipEntity, GroupMembershipPK> {
 
+    private final GroupMembershipClosureRepository closureRepository = new GroupMembershipClosureRepository();
+
     public GroupMembershipRepository() {
         super(GroupMembershipEntity.class);
     }
@@ -96,22 +98,52 @@ public class GroupMembershipRepository extends AbstractSharingRepository<GroupMe
         return userGroupRepository.select(queryString, queryParameters, 0, -1);
     }
 
-    public List<GroupMembershipEntity> getAllParentMembershipsForChild(String domainId, String childId)
-            throws SharingRegistryException {
-        List<GroupMembershipEntity> finalParentGroups = new ArrayList<>();
-        Map<String, String> filters = new HashMap<>();
-        filters.put(DBConstants.GroupMembershipTable.CHILD_ID, childId);
-        filters.put(DBConstants.GroupMembershipTable.DOMAIN_ID, domainId);
-        LinkedList<GroupMembershipEntity> temp = new LinkedList<>();
-        select(filters, 0, -1).stream().forEach(m -> temp.addLast(m));
-        while (temp.size() > 0) {
-            GroupMembershipEntity gm = temp.pop();
-            filters = new HashMap<>();
-            filters.put(DBConstants.GroupMembershipTable.CHILD_ID, gm.getParentId());
-            filters.put(DBConstants.GroupMembershipTable.DOMAIN_ID, domainId);
-            select(filters, 0, -1).stream().forEach(m -> temp.addLast(m));
-            finalParentGroups.add(gm);
-        }
-        return finalParentGroups;
+    /**
+     * Ids of every group {@code childId} is a member of, directly or through nested groups, read from
+     * the membership closure in one query.
+     */
+    public List<String> getAllParentGroupIdsForChild(String domainId, String childId) throws SharingRegistryException {
+        return closureRepository.getAncestorIds(domainId, childId);
+    }
+
+    /**
+     * Adds (or refreshes) a membership and, if it is new, the paths it creates in the membership
+     * closure, in one transaction. A group cannot be added to itself or to one of its own members.
+     */
+    public GroupMembershipEntity addMembership(GroupMembershipEntity membership) throws SharingRegistryException {
+        String domainId = membership.getDomainId();
+        String parentId = membership.getParentId();
+        String childId = membership.getChildId();
+        return execute(em -> {
+            closureRepository.lockDomain(em, domainId);
+            GroupMembershipPK pk = new GroupMembershipPK();
+            pk.setParentId(parentId);
+            pk.setChildId(childId);
+            pk.setDomainId(domainId);
+            if (em.find(GroupMembershipEntity.class, pk) != null) {
+                return em.merge(membership);
+            }
+            if (parentId.equals(childId) || closureRepository.isAncestor(em, domainId, childId, parentId)) {
+                throw new IllegalArgumentException(
+                        "Adding " + childId + " to group " + parentId + " would create a membership cycle");
+            }
+            em.persist(membership);
+            closureRepository.addEdge(em, domainId, parentId, childId);
+            return membership;
+        });
+    }
+
+    /** Removes a membership and the closure paths that ran through it, in one transaction. */
+    public boolean removeMembership(GroupMembershipPK pk) throws SharingRegistryException {
+        return execute(em -> {
+            closureRepository.lockDomain(em, pk.getDomainId());
+            GroupMembershipEntity membership = em.find(GroupMembershipEntity.class, pk);
+            if (membership == null) {
+                return false;
+            }
+            em.remove(membership);
+            closureRepository.removeEdge(em, pk.getDomainId(), pk.getParentId(), pk.getChildId());
+            return true;
+        });
     }
 }
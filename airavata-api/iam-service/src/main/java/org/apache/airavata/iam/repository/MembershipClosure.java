@@ -0,0 +1,72 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.iam.repository;
+
+import java.util.*;
+
+/**
+ * Path arithmetic behind {@code GROUP_MEMBERSHIP_CLOSURE}. A closure row (ancestor, descendant,
+ * depth, count) says there are {@code count} distinct membership paths of {@code depth} edges from
+ * the group {@code ancestor} down to {@code descendant}. Counting paths, rather than storing one row
+ * per pair, is what lets an edge be removed incrementally when groups are nested along more than one
+ * route: a pair disappears only when its last path does.
+ */
+final class MembershipClosure {
+
+    record Path(String ancestorId, String descendantId, int depth, long count) {}
+
+    private MembershipClosure() {}
+
+    /**
+     * The paths that run through a new (or removed) membership edge {@code parentId -> childId}: every
+     * ancestor of the parent (and the parent itself) to every descendant of the child (and the child
+     * itself). Adding an edge adds these counts; removing it subtracts them.
+     *
+     * @param toParent closure rows whose descendant is {@code parentId}
+     * @param fromChild closure rows whose ancestor is {@code childId}
+     */
+    static List<Path> edgePaths(String parentId, List<Path> toParent, String childId, List<Path> fromChild) {
+        List<Path> above = new ArrayList<>(toParent.size() + 1);
+        above.add(new Path(parentId, parentId, 0, 1));
+        above.addAll(toParent);
+        List<Path> below = new ArrayList<>(fromChild.size() + 1);
+        below.add(new Path(childId, childId, 0, 1));
+        below.addAll(fromChild);
+
+        Map<Key, Long> counts = new LinkedHashMap<>();
+        for (Path a : above) {
+            for (Path b : below) {
+                counts.merge(
+                        new Key(a.ancestorId(), b.descendantId(), a.depth() + 1 + b.depth()),
+                        a.count() * b.count(),
+                        Long::sum);
+            }
+        }
+        return toPaths(counts);
+    }
+
+    private static List<Path> toPaths(Map<Key, Long> counts) {
+        List<Path> paths = new ArrayList<>(counts.size());
+        counts.forEach((k, count) -> paths.add(new Path(k.ancestorId(), k.descendantId(), k.depth(), count)));
+        return paths;
+    }
+
+    private record Key(String ancestorId, String descendantId, int depth) {}
+}
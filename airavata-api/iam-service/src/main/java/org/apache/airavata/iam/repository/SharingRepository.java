@@ -19,6 +19,7 @@
 */
 package org.apache.airavata.iam.repository;
 
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
 import java.util.HashMap;
 import java.util.List;
@@ -36,6 +37,10 @@ import org.springframework.stereotype.Component;
 public class SharingRepository extends AbstractSharingRepository<SharingEntity, SharingPK> {
     private static final Logger logger = LoggerFactory.getLogger(SharingRepository.class);
 
+    // Entities and grantees per INSERT ... SELECT; keeps a statement's placeholders well below the
+    // server's limit while one statement still writes up to a million rows.
+    private static final int SHARE_CHUNK_SIZE = 1000;
+
     public SharingRepository() {
         super(SharingEntity.class);
     }
@@ -85,20 +90,78 @@ public class SharingRepository extends AbstractSharingRepository<SharingEntity,
     }
 
     public int getSharedCount(String domainId, String entityId) throws SharingRegistryException {
-        Map<String, Object> queryParameters = new HashMap<>();
-        String query = "SELECT p from " + SharingEntity.class.getSimpleName() + " as p";
+        String query = "SELECT COUNT(p) from " + SharingEntity.class.getSimpleName() + " as p";
         query += " WHERE ";
         query += "p." + DBConstants.SharingTable.DOMAIN_ID + " = :" + DBConstants.SharingTable.DOMAIN_ID + " AND ";
-        queryParameters.put(DBConstants.SharingTable.DOMAIN_ID, domainId);
         query += "p." + DBConstants.SharingTable.ENTITY_ID + " = :" + DBConstants.SharingTable.ENTITY_ID + " AND ";
-        queryParameters.put(DBConstants.SharingTable.ENTITY_ID, entityId);
-        String permissionTypeIdString = (new PermissionTypeRepository()).getOwnerPermissionTypeIdForDomain(domainId);
         query += "p." + DBConstants.SharingTable.PERMISSION_TYPE_ID + " <> :"
                 + DBConstants.SharingTable.PERMISSION_TYPE_ID + " AND ";
-        queryParameters.put(DBConstants.SharingTable.PERMISSION_TYPE_ID, permissionTypeIdString);
         query += "p." + DBConstants.SharingTable.SHARING_TYPE + " <> :" + DBConstants.SharingTable.SHARING_TYPE;
-        queryParameters.put(DBConstants.SharingTable.SHARING_TYPE, SharingType.INDIRECT_CASCADING.toString());
-        return select(query, queryParameters, 0, -1).size();
+        String ownerPermissionTypeId = (new PermissionTypeRepository()).getOwnerPermissionTypeIdForDomain(domainId);
+        final String finalQuery = query;
+        return execute(em -> em.createQuery(finalQuery, Long.class)
+                        .setParameter(DBConstants.SharingTable.DOMAIN_ID, domainId)
+                        .setParameter(DBConstants.SharingTable.ENTITY_ID, entityId)
+                        .setParameter(DBConstants.SharingTable.PERMISSION_TYPE_ID, ownerPermissionTypeId)
+                        .setParameter(DBConstants.SharingTable.SHARING_TYPE, SharingType.INDIRECT_CASCADING.toString())
+                        .getSingleResult())
+                .intValue();
+    }
+
+    /**
+     * Grants {@code permissionTypeId} on {@code entityId} to every user/group in {@code groupIds} and, for
+     * a cascading share, on every entity in {@code descendantIds} as an {@code INDIRECT_CASCADING}
+     * permission inherited from {@code entityId}. Rows are produced set-wise by {@code INSERT ... SELECT}
+     * (entities x grantees per statement) in one transaction; grants that already exist are refreshed.
+     */
+    public void shareEntity(
+            String domainId,
+            String entityId,
+            List<String> descendantIds,
+            List<String> groupIds,
+            String permissionTypeId,
+            boolean cascadePermission)
+            throws SharingRegistryException {
+        long now = System.currentTimeMillis();
+        SharingType directType = cascadePermission ? SharingType.DIRECT_CASCADING : SharingType.DIRECT_NON_CASCADING;
+        execute(em -> {
+            insertSharings(em, domainId, List.of(entityId), groupIds, permissionTypeId, entityId, directType, now);
+            if (cascadePermission) {
+                insertSharings(
+                        em,
+                        domainId,
+                        descendantIds,
+                        groupIds,
+                        permissionTypeId,
+                        entityId,
+                        SharingType.INDIRECT_CASCADING,
+                        now);
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Removes {@code permissionTypeId} granted on {@code entityId} to the given users/groups, together with
+     * every copy of it the share cascaded to child entities, in one statement.
+     */
+    public int revokeEntitySharing(String domainId, String entityId, List<String> groupIds, String permissionTypeId)
+            throws SharingRegistryException {
+        String query = "DELETE from " + SharingEntity.class.getSimpleName() + " as p";
+        query += " WHERE ";
+        query += "p." + DBConstants.SharingTable.DOMAIN_ID + " = :" + DBConstants.SharingTable.DOMAIN_ID + " AND ";
+        query += "p." + DBConstants.SharingTable.INHERITED_PARENT_ID + " = :"
+                + DBConstants.SharingTable.INHERITED_PARENT_ID + " AND ";
+        query += "p." + DBConstants.SharingTable.PERMISSION_TYPE_ID + " = :"
+                + DBConstants.SharingTable.PERMISSION_TYPE_ID + " AND ";
+        query += "p." + DBConstants.SharingTable.GROUP_ID + " IN :" + DBConstants.SharingTable.GROUP_ID;
+        final String finalQuery = query;
+        return execute(em -> em.createQuery(finalQuery)
+                .setParameter(DBConstants.SharingTable.DOMAIN_ID, domainId)
+                .setParameter(DBConstants.SharingTable.INHERITED_PARENT_ID, entityId)
+                .setParameter(DBConstants.SharingTable.PERMISSION_TYPE_ID, permissionTypeId)
+                .setParameter(DBConstants.SharingTable.GROUP_ID, groupIds)
+                .executeUpdate());
     }
 
     public void removeAllIndirectCascadingPermissionsForEntity(String domainId, String entityId)
@@ -118,4 +181,50 @@ public class SharingRepository extends AbstractSharingRepository<SharingEntity,
             return true;
         });
     }
+
+    private static void insertSharings(
+            EntityManager em,
+            String domainId,
+            List<String> entityIds,
+            List<String> groupIds,
+            String permissionTypeId,
+            String inheritedParentId,
+            SharingType sharingType,
+            long now) {
+        for (int e = 0; e < entityIds.size(); e += SHARE_CHUNK_SIZE) {
+            List<String> entityChunk = entityIds.subList(e, Math.min(entityIds.size(), e + SHARE_CHUNK_SIZE));
+            for (int g = 0; g < groupIds.size(); g += SHARE_CHUNK_SIZE) {
+                List<String> groupChunk = groupIds.subList(g, Math.min(groupIds.size(), g + SHARE_CHUNK_SIZE));
+                StringBuilder sql = new StringBuilder("INSERT INTO SHARING (PERMISSION_TYPE_ID, ENTITY_ID, GROUP_ID, "
+                        + "INHERITED_PARENT_ID, DOMAIN_ID, SHARING_TYPE, CREATED_TIME, UPDATED_TIME) "
+                        + "SELECT ?, E.ENTITY_ID, G.GROUP_ID, ?, ?, ?, ?, ? FROM ENTITY E, (");
+                for (int i = 0; i < groupChunk.size(); i++) {
+                    sql.append(i == 0 ? "SELECT ? AS GROUP_ID" : " UNION ALL SELECT ?");
+                }
+                sql.append(") G WHERE E.DOMAIN_ID = ? AND E.ENTITY_ID IN (");
+                for (int i = 0; i < entityChunk.size(); i++) {
+                    sql.append(i == 0 ? "?" : ", ?");
+                }
+                sql.append(") ON DUPLICATE KEY UPDATE SHARING_TYPE = VALUES(SHARING_TYPE), "
+                        + "UPDATED_TIME = VALUES(UPDATED_TIME)");
+
+                Query q = em.createNativeQuery(sql.toString());
+                int p = 1;
+                q.setParameter(p++, permissionTypeId);
+                q.setParameter(p++, inheritedParentId);
+                q.setParameter(p++, domainId);
+                q.setParameter(p++, sharingType.name());
+                q.setParameter(p++, now);
+                q.setParameter(p++, now);
+                for (String groupId : groupChunk) {
+                    q.setParameter(p++, groupId);
+                }
+                q.setParameter(p++, domainId);
+                for (String entityId : entityChunk) {
+                    q.setParameter(p++, entityId);
+                }
+                q.executeUpdate();
+            }
+        }
+    }
 }
@@ -21,13 +21,11 @@ package org.apache.airavata.iam.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.apache.airavata.config.Constants;
@@ -46,11 +44,14 @@ import org.apache.airavata.sharing.registry.models.proto.UserGroup;
 import org.apache.http.Consts;
 import org.apache.http.HttpHeaders;
 import org.apache.http.NameValuePair;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.message.BasicNameValuePair;
 import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
@@ -102,7 +103,20 @@ public class KeyCloakSecurityManager implements AiravataSecurityManager {
     private static final String GROUP_BASED_AUTH_METHODS = "/airavata/getGatewayGroups";
     private static final String INTERMEDIATE_OUTPUTS_METHODS =
             "/airavata/fetchIntermediateOutputs|/airavata/getIntermediateOutputProcessStatus";
+    // Discovery documents only change when a realm is reconfigured, so one is re-read at most this often
+    private static final long DISCOVERY_TTL_MS = 60 * 60 * 1000;
+    // A cached service-account token is replaced this long (at most a tenth of its lifetime) before it expires
+    private static final long TOKEN_REFRESH_MARGIN_MS = 30 * 1000;
+    private static final int HTTP_MAX_CONNECTIONS = 50;
+    private static final int HTTP_TIMEOUT_MS = 30 * 1000;
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
     private final HashMap<String, String> rolePermissionConfig = new HashMap<>();
+    // One keep-alive connection pool for all calls to the identity server
+    private final CloseableHttpClient httpClient = createHttpClient();
+    private final Map<String, CachedDiscovery> discoveryByRealm = new ConcurrentHashMap<>();
+    private final Map<String, ServiceAccountToken> serviceAccountTokens = new ConcurrentHashMap<>();
     private final RegistryProvider registryServiceClient;
     private final SharingProvider sharingRegistryServiceClient;
     private final GatewayGroupsInitializer gatewayGroupsInitializer;
@@ -205,11 +219,9 @@ public class KeyCloakSecurityManager implements AiravataSecurityManager {
                     case NOT_CACHED -> {
                         var gatewayGroupMembership = getGatewayGroupMembership(subject, accessToken, gatewayId);
                         decision = hasPermission(gatewayGroupMembership, action);
-                        // TODO get the actual token expiration time
-                        var currentTime = System.currentTimeMillis();
                         authzCacheManager.addToAuthzCache(
-                                new AuthzCacheIndex(subject, gatewayId, accessToken, action),
-                                new AuthzCacheEntry(decision, currentTime + 1000 * 60 * 60, currentTime));
+                                cacheIndex,
+                                AuthzCacheEntry.forAccessToken(decision, accessToken, System.currentTimeMillis()));
                     }
                     default -> throw new AiravataSecurityException("Error in reading from the authorization cache.");
                 }
@@ -231,16 +243,20 @@ public class KeyCloakSecurityManager implements AiravataSecurityManager {
     @Override
     public AuthzToken getUserManagementServiceAccountAuthzToken(String gatewayId) throws AiravataSecurityException {
         try {
-
-            Gateway gateway = registryServiceClient.getGateway(gatewayId);
-            String tokenURL = getTokenEndpoint(gatewayId);
-            JsonNode clientCredentials =
-                    getClientCredentials(tokenURL, gateway.getOauthClientId(), gateway.getOauthClientSecret());
-            String accessToken = clientCredentials.get("access_token").asText();
+            long now = System.currentTimeMillis();
+            ServiceAccountToken token = serviceAccountTokens.get(gatewayId);
+            if (token == null || now >= token.refreshAt()) {
+                Gateway gateway = registryServiceClient.getGateway(gatewayId);
+                String tokenURL = getTokenEndpoint(gatewayId);
+                JsonNode clientCredentials =
+                        getClientCredentials(tokenURL, gateway.getOauthClientId(), gateway.getOauthClientSecret());
+                token = ServiceAccountToken.from(gateway.getOauthClientId(), clientCredentials, now);
+                serviceAccountTokens.put(gatewayId, token);
+            }
             AuthzToken authzToken = AuthzToken.newBuilder()
-                    .setAccessToken(accessToken)
+                    .setAccessToken(token.accessToken())
                     .putClaimsMap(Constants.GATEWAY_ID, gatewayId)
-                    .putClaimsMap(Constants.USER_NAME, gateway.getOauthClientId())
+                    .putClaimsMap(Constants.USER_NAME, token.clientId())
                     .build();
             return authzToken;
         } catch (Exception e) {
@@ -263,10 +279,9 @@ public class KeyCloakSecurityManager implements AiravataSecurityManager {
     private UserInfo getUserInfo(String gatewayId, String token) throws Exception {
         GatewayResourceProfile gwrp = registryServiceClient.getGatewayResourceProfile(gatewayId);
         String identityServerRealm = gwrp.getIdentityServerTenant();
-        String openIdConnectUrl = getOpenIDConfigurationUrl(identityServerRealm);
-        ObjectMapper mapper = new ObjectMapper();
-        JsonNode openIdConnectConfig = mapper.readTree(getFromUrl(openIdConnectUrl, null));
-        String userInfoEndPoint = openIdConnectConfig.get("userinfo_endpoint").asText();
+        String userInfoEndPoint = getOpenIDConfiguration(identityServerRealm)
+                .get("userinfo_endpoint")
+                .asText();
         JsonNode userInfo = mapper.readTree(getFromUrl(userInfoEndPoint, token));
         return new UserInfo()
                 .setSub(userInfo.get("sub").asText())
@@ -311,35 +326,40 @@ public class KeyCloakSecurityManager implements AiravataSecurityManager {
         return ServerSettings.getRemoteIDPServiceUrl() + "/realms/" + realm + "/.well-known/openid-configuration";
     }
 
+    /**
+     * The realm's OpenID discovery document, fetched once and then served from memory for {@link #DISCOVERY_TTL_MS}.
+     */
+    private JsonNode getOpenIDConfiguration(String realm) throws Exception {
+        long now = System.currentTimeMillis();
+        CachedDiscovery discovery = discoveryByRealm.get(realm);
+        if (discovery == null || now - discovery.fetchedAt() >= DISCOVERY_TTL_MS) {
+            discovery = new CachedDiscovery(mapper.readTree(getFromUrl(getOpenIDConfigurationUrl(realm), null)), now);
+            discoveryByRealm.put(realm, discovery);
+        }
+        return discovery.config();
+    }
+
     public String getFromUrl(String urlToRead, String token) throws Exception {
-        StringBuilder result = new StringBuilder();
-        URL url = new URL(urlToRead);
-        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-        conn.setRequestMethod("GET");
-        conn.setDoInput(true);
+        HttpGet httpGet = new HttpGet(urlToRead);
         if (token != null) {
-            String bearerAuth = "Bearer " + token;
-            conn.setRequestProperty("Authorization", bearerAuth);
+            httpGet.setHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
         }
-        BufferedReader rd = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-        String line;
-        while ((line = rd.readLine()) != null) {
-            result.append(line);
+        try (CloseableHttpResponse response = httpClient.execute(httpGet)) {
+            // consuming the entity returns the connection to the pool
+            String body = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+            int status = response.getStatusLine().getStatusCode();
+            if (status / 100 != 2) {
+                throw new IOException("GET " + urlToRead + " returned HTTP " + status);
+            }
+            return body;
         }
-        rd.close();
-        return result.toString();
     }
 
     private String getTokenEndpoint(String gatewayId) throws Exception {
-        String openIdConnectUrl = getOpenIDConfigurationUrl(gatewayId);
-        JsonNode openIdConnectConfig = new ObjectMapper().readTree(getFromUrl(openIdConnectUrl, null));
-        return openIdConnectConfig.get("token_endpoint").asText();
+        return getOpenIDConfiguration(gatewayId).get("token_endpoint").asText();
     }
 
     private JsonNode getClientCredentials(String tokenURL, String clientId, String clientSecret) throws IOException {
-
-        CloseableHttpClient httpClient = HttpClients.createSystem();
-
         HttpPost httpPost = new HttpPost(tokenURL);
         String encoded =
                 Base64.getEncoder().encodeToString((clientId + ":" + clientSecret).getBytes(StandardCharsets.UTF_8));
@@ -350,14 +370,29 @@ public class KeyCloakSecurityManager implements AiravataSecurityManager {
         httpPost.setEntity(entity);
         try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
             String responseBody = EntityUtils.toString(response.getEntity());
-            return new ObjectMapper().readTree(responseBody);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        } finally {
-            httpClient.close();
+            return mapper.readTree(responseBody);
         }
     }
 
+    private static CloseableHttpClient createHttpClient() {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(HTTP_MAX_CONNECTIONS);
+        connectionManager.setDefaultMaxPerRoute(HTTP_MAX_CONNECTIONS);
+        // re-check connections the server may have closed while they sat idle in the pool
+        connectionManager.setValidateAfterInactivity(2000);
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(HTTP_TIMEOUT_MS)
+                .setConnectionRequestTimeout(HTTP_TIMEOUT_MS)
+                .setSocketTimeout(HTTP_TIMEOUT_MS)
+                .build();
+        return HttpClients.custom()
+                .useSystemProperties()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictIdleConnections(60, TimeUnit.SECONDS)
+                .build();
+    }
+
     private boolean hasPermission(GatewayGroupMembership gatewayGroupMembership, String apiMethod) {
 
         // Note: as a stopgap solution, until all resources are secured with group-based authorization, map the Admins
@@ -396,4 +431,23 @@ public class KeyCloakSecurityManager implements AiravataSecurityManager {
             this.inReadOnlyAdminsGroup = inReadOnlyAdminsGroup;
         }
     }
+
+    private record CachedDiscovery(JsonNode config, long fetchedAt) {}
+
+    private record ServiceAccountToken(String accessToken, String clientId, long refreshAt) {
+
+        static ServiceAccountToken from(String clientId, JsonNode clientCredentials, long now)
+                throws AiravataSecurityException {
+            JsonNode accessToken = clientCredentials.get("access_token");
+            if (accessToken == null) {
+                JsonNode error = clientCredentials.get("error_description");
+                throw new AiravataSecurityException("Service account token request for " + clientId + " failed: "
+                        + (error != null ? error.asText() : clientCredentials.toString()));
+            }
+            // without expires_in the token is used for this call only
+            long lifetimeMs = clientCredentials.path("expires_in").asLong(0) * 1000;
+            long refreshAt = now + lifetimeMs - Math.min(TOKEN_REFRESH_MARGIN_MS, lifetimeMs / 10);
+            return new ServiceAccountToken(accessToken.asText(), clientId, refreshAt);
+        }
+    }
 }
@@ -23,8 +23,11 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.*;
 import java.util.stream.Collectors;
+import org.apache.airavata.config.ServerSettings;
 import org.apache.airavata.iam.model.*;
 import org.apache.airavata.iam.repository.*;
+import org.apache.airavata.iam.util.AuthzCacheManager;
+import org.apache.airavata.iam.util.AuthzCacheManagerFactory;
 import org.apache.airavata.iam.util.DBConstants;
 import org.apache.airavata.interfaces.SharingFacade;
 import org.apache.airavata.interfaces.SharingProvider;
@@ -338,6 +341,7 @@ public class SharingService implements SharingFacade, SharingProvider {
             userGroupPK.setGroupId(groupId);
             userGroupPK.setDomainId(domainId);
             (new UserGroupRepository()).delete(userGroupPK);
+            invalidateAuthzDecisions(domainId, null);
             return true;
         } catch (Throwable ex) {
             logger.error(ex.getMessage(), ex);
@@ -382,8 +386,9 @@ public class SharingService implements SharingFacade, SharingProvider {
                 groupMembership.setDomainId(domainId);
                 groupMembership.setCreatedTime(System.currentTimeMillis());
                 groupMembership.setUpdatedTime(System.currentTimeMillis());
-                (new GroupMembershipRepository()).create(groupMembership);
+                (new GroupMembershipRepository()).addMembership(groupMembership);
             }
+            invalidateAuthzDecisions(domainId, userIds);
             return true;
         } catch (Throwable ex) {
             logger.error(ex.getMessage(), ex);
@@ -406,8 +411,9 @@ public class SharingService implements SharingFacade, SharingProvider {
                 groupMembershipPK.setParentId(groupId);
                 groupMembershipPK.setChildId(userIds.get(i));
                 groupMembershipPK.setDomainId(domainId);
-                (new GroupMembershipRepository()).delete(groupMembershipPK);
+                (new GroupMembershipRepository()).removeMembership(groupMembershipPK);
             }
+            invalidateAuthzDecisions(domainId, userIds);
             return true;
         } catch (Throwable ex) {
             logger.error(ex.getMessage(), ex);
@@ -567,7 +573,6 @@ public class SharingService implements SharingFacade, SharingProvider {
             throws SharingRegistryException {
         try {
             for (String childId : childIds) {
-                // Todo check for cyclic dependencies
                 GroupMembershipEntity groupMembership = new GroupMembershipEntity();
                 groupMembership.setParentId(groupId);
                 groupMembership.setChildId(childId);
@@ -575,7 +580,7 @@ public class SharingService implements SharingFacade, SharingProvider {
                 groupMembership.setDomainId(domainId);
                 groupMembership.setCreatedTime(System.currentTimeMillis());
                 groupMembership.setUpdatedTime(System.currentTimeMillis());
-                (new GroupMembershipRepository()).create(groupMembership);
+                (new GroupMembershipRepository()).addMembership(groupMembership);
             }
             return true;
         } catch (Throwable ex) {
@@ -591,7 +596,7 @@ public class SharingService implements SharingFacade, SharingProvider {
             groupMembershipPK.setParentId(groupId);
             groupMembershipPK.setChildId(childId);
             groupMembershipPK.setDomainId(domainId);
-            (new GroupMembershipRepository()).delete(groupMembershipPK);
+            (new GroupMembershipRepository()).removeMembership(groupMembershipPK);
             return true;
         } catch (Throwable ex) {
             logger.error(ex.getMessage(), ex);
@@ -971,9 +976,7 @@ public class SharingService implements SharingFacade, SharingProvider {
         try {
             List<String> groupIds = new ArrayList<>();
             groupIds.add(userId);
-            (new GroupMembershipRepository())
-                    .getAllParentMembershipsForChild(domainId, userId).stream()
-                            .forEach(gm -> groupIds.add(gm.getParentId()));
+            groupIds.addAll((new GroupMembershipRepository()).getAllParentGroupIdsForChild(domainId, userId));
             return (new EntityRepository()).searchEntities(domainId, groupIds, filters, offset, limit);
         } catch (Throwable ex) {
             logger.error(ex.getMessage(), ex);
@@ -1072,61 +1075,17 @@ public class SharingService implements SharingFacade, SharingProvider {
                 throw new SharingRegistryException(OWNER_PERMISSION_NAME + " permission cannot be assigned or removed");
             }
 
-            List<SharingEntity> sharings = new ArrayList<>();
-
-            // Adding permission for the specified users/groups for the specified entity
-            LinkedList<EntityEntity> temp = new LinkedList<>();
-            for (String userId : groupOrUserList) {
-                SharingEntity sharing = new SharingEntity();
-                sharing.setPermissionTypeId(permissionTypeId);
-                sharing.setEntityId(entityId);
-                sharing.setGroupId(userId);
-                sharing.setInheritedParentId(entityId);
-                sharing.setDomainId(domainId);
-                if (cascadePermission) {
-                    sharing.setSharingType(SharingType.DIRECT_CASCADING.name());
-                } else {
-                    sharing.setSharingType(SharingType.DIRECT_NON_CASCADING.name());
-                }
-                sharing.setCreatedTime(System.currentTimeMillis());
-                sharing.setUpdatedTime(System.currentTimeMillis());
-
-                sharings.add(sharing);
-            }
-
-            if (cascadePermission) {
-                // Adding permission for the specified users/groups for all child entities
-                (new EntityRepository())
-                        .getChildEntities(domainId, entityId).stream().forEach(e -> temp.addLast(e));
-                while (temp.size() > 0) {
-                    EntityEntity entity = temp.pop();
-                    String childEntityId = entity.getEntityId();
-                    for (String userId : groupOrUserList) {
-                        SharingEntity sharing = new SharingEntity();
-                        sharing.setPermissionTypeId(permissionTypeId);
-                        sharing.setEntityId(childEntityId);
-                        sharing.setGroupId(userId);
-                        sharing.setInheritedParentId(entityId);
-                        sharing.setSharingType(SharingType.INDIRECT_CASCADING.name());
-                        sharing.setInheritedParentId(entityId);
-                        sharing.setDomainId(domainId);
-                        sharing.setCreatedTime(System.currentTimeMillis());
-                        sharing.setUpdatedTime(System.currentTimeMillis());
-                        sharings.add(sharing);
-                        (new EntityRepository())
-                                .getChildEntities(domainId, childEntityId).stream()
-                                        .forEach(e -> temp.addLast(e));
-                    }
-                }
-            }
-            (new SharingRepository()).create(sharings);
+            // Grant on the entity itself and, when cascading, on its whole subtree; the subtree is read
+            // once, whatever the number of users/groups
+            List<String> descendantIds =
+                    cascadePermission ? (new EntityRepository()).getDescendantEntityIds(domainId, entityId) : List.of();
+            (new SharingRepository())
+                    .shareEntity(
+                            domainId, entityId, descendantIds, groupOrUserList, permissionTypeId, cascadePermission);
 
-            EntityPK entityPK = new EntityPK();
-            entityPK.setDomainId(domainId);
-            entityPK.setEntityId(entityId);
-            EntityEntity entity = (new EntityRepository()).get(entityPK);
-            entity.setSharedCount((long) (new SharingRepository()).getSharedCount(domainId, entityId));
-            (new EntityRepository()).update(entity);
+            (new EntityRepository())
+                    .updateSharedCount(
+                            domainId, entityId, (new SharingRepository()).getSharedCount(domainId, entityId));
             return true;
         } catch (Throwable ex) {
             logger.error(ex.getMessage(), ex);
@@ -1166,10 +1125,8 @@ public class SharingService implements SharingFacade, SharingProvider {
             throws SharingRegistryException {
         try {
             // check whether the user has permission directly or indirectly
-            List<GroupMembershipEntity> parentMemberships =
-                    (new GroupMembershipRepository()).getAllParentMembershipsForChild(domainId, userId);
-            List<String> groupIds = new ArrayList<>();
-            parentMemberships.stream().forEach(pm -> groupIds.add(pm.getParentId()));
+            List<String> groupIds =
+                    new ArrayList<>((new GroupMembershipRepository()).getAllParentGroupIdsForChild(domainId, userId));
             groupIds.add(userId);
             return (new SharingRepository())
                     .hasAccess(
@@ -1193,43 +1150,12 @@ public class SharingService implements SharingFacade, SharingProvider {
                 throw new SharingRegistryException(OWNER_PERMISSION_NAME + " permission cannot be removed");
             }
 
-            // revoking permission for the entity
-            for (String groupId : groupOrUserList) {
-                SharingPK sharingPK = new SharingPK();
-                sharingPK.setEntityId(entityId);
-                sharingPK.setGroupId(groupId);
-                sharingPK.setPermissionTypeId(permissionTypeId);
-                sharingPK.setInheritedParentId(entityId);
-                sharingPK.setDomainId(domainId);
-
-                (new SharingRepository()).delete(sharingPK);
-            }
-
-            // revoking permission from inheritance
-            List<SharingEntity> temp = new ArrayList<>();
-            (new SharingRepository())
-                    .getIndirectSharedChildren(domainId, entityId, permissionTypeId).stream()
-                            .forEach(s -> temp.add(s));
-            for (SharingEntity sharing : temp) {
-                String childEntityId = sharing.getEntityId();
-                for (String groupId : groupOrUserList) {
-                    SharingPK sharingPK = new SharingPK();
-                    sharingPK.setEntityId(childEntityId);
-                    sharingPK.setGroupId(groupId);
-                    sharingPK.setPermissionTypeId(permissionTypeId);
-                    sharingPK.setInheritedParentId(entityId);
-                    sharingPK.setDomainId(domainId);
-
-                    (new SharingRepository()).delete(sharingPK);
-                }
-            }
+            // revoking permission for the entity and the permissions its children inherited from it
+            (new SharingRepository()).revokeEntitySharing(domainId, entityId, groupOrUserList, permissionTypeId);
 
-            EntityPK entityPK = new EntityPK();
-            entityPK.setDomainId(domainId);
-            entityPK.setEntityId(entityId);
-            EntityEntity entity = (new EntityRepository()).get(entityPK);
-            entity.setSharedCount((long) (new SharingRepository()).getSharedCount(domainId, entityId));
-            (new EntityRepository()).update(entity);
+            (new EntityRepository())
+                    .updateSharedCount(
+                            domainId, entityId, (new SharingRepository()).getSharedCount(domainId, entityId));
             return true;
         } catch (Throwable ex) {
             logger.error(ex.getMessage(), ex);
@@ -1237,6 +1163,33 @@ public class SharingService implements SharingFacade, SharingProvider {
         }
     }
 
+    /**
+     * Authorization decisions depend on the groups a user is a direct member of (the gateway's admin and read-only
+     * admin groups), so cached decisions of users whose memberships changed are dropped; {@code null} users drops
+     * those of the whole domain. A failure here must not fail the membership change, so it is only logged.
+     */
+    private void invalidateAuthzDecisions(String domainId, List<String> userIds) {
+        try {
+            if (!ServerSettings.isAuthzCacheEnabled()) {
+                return;
+            }
+            AuthzCacheManager authzCacheManager = AuthzCacheManagerFactory.getAuthzCacheManager();
+            if (userIds == null) {
+                authzCacheManager.removeAuthzCacheEntries(domainId, null);
+                return;
+            }
+            String suffix = "@" + domainId;
+            for (String userId : userIds) {
+                // sharing user ids are <username>@<gatewayId>; cached decisions are keyed by username
+                String userName =
+                        userId.endsWith(suffix) ? userId.substring(0, userId.length() - suffix.length()) : userId;
+                authzCacheManager.removeAuthzCacheEntries(domainId, userName);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to invalidate cached authorization decisions for domain {}", domainId, e);
+        }
+    }
+
     private <T> T getUpdatedObject(T oldEntity, T newEntity) throws SharingRegistryException {
         Field[] newEntityFields = newEntity.getClass().getDeclaredFields();
         Hashtable newHT = fieldsToHT(newEntityFields, newEntity);
@@ -1355,6 +1308,14 @@ public class SharingService implements SharingFacade, SharingProvider {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<String> getAccessGroupIds(String domainId, String userId) throws Exception {
+        List<String> groupIds = new ArrayList<>();
+        groupIds.add(userId);
+        groupIds.addAll((new GroupMembershipRepository()).getAllParentGroupIdsForChild(domainId, userId));
+        return groupIds;
+    }
+
     // ── SharingProvider adapter methods ──────────────────────────────────────────
 
     @Override
@@ -19,41 +19,115 @@
 */
 package org.apache.airavata.iam.util;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 import org.apache.airavata.config.ServerSettings;
 import org.apache.airavata.exception.ApplicationSettingsException;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.apache.airavata.server.CountMonitor;
+import org.apache.airavata.util.BoundedLruCache;
 
-public class AuthzCache extends LinkedHashMap<AuthzCacheIndex, AuthzCacheEntry> {
+/**
+ * Authorization decisions shared by all request threads, held in a {@link BoundedLruCache} so concurrent requests
+ * rarely contend and a full segment evicts its least recently used decision. Every entry carries its own absolute
+ * expiry (that of the access token it was made for) and is dropped on the first lookup after it.
+ */
+public class AuthzCache {
+
+    private static final CountMonitor cacheCounter = new CountMonitor("authz_cache_count", "event");
 
-    private static int MAX_SIZE;
-    private static final Logger logger = LoggerFactory.getLogger(AuthzCache.class);
+    private static volatile AuthzCache authzCache = null;
 
-    private static AuthzCache authzCache = null;
+    private final BoundedLruCache<AuthzCacheIndex, AuthzCacheEntry> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
 
     public static AuthzCache getInstance() throws ApplicationSettingsException {
-        if (authzCache == null) {
+        AuthzCache cache = authzCache;
+        if (cache == null) {
             synchronized (AuthzCache.class) {
-                if (authzCache == null) {
-                    authzCache = new AuthzCache(ServerSettings.getCacheSize());
+                cache = authzCache;
+                if (cache == null) {
+                    cache = new AuthzCache(ServerSettings.getCacheSize());
+                    authzCache = cache;
                 }
             }
         }
-        return authzCache;
+        return cache;
+    }
+
+    AuthzCache(int maxSize) {
+        entries = new BoundedLruCache<>(maxSize, AuthzCacheEntry::getExpiryTime) {
+            @Override
+            protected void onEvicted(AuthzCacheIndex index, AuthzCacheEntry entry) {
+                evictions.increment();
+                cacheCounter.inc("eviction");
+            }
+
+            @Override
+            protected void onExpired(AuthzCacheIndex index, AuthzCacheEntry entry) {
+                expirations.increment();
+                cacheCounter.inc("expiry");
+            }
+        };
+    }
+
+    /**
+     * The decision cached for {@code index}, or {@code null} if there is none or it expired at or before
+     * {@code now}. A hit makes the entry the most recently used of its segment.
+     */
+    public AuthzCacheEntry get(AuthzCacheIndex index, long now) {
+        AuthzCacheEntry entry = entries.get(index, now);
+        if (entry == null) {
+            misses.increment();
+            cacheCounter.inc("miss");
+        } else {
+            hits.increment();
+            cacheCounter.inc("hit");
+        }
+        return entry;
+    }
+
+    public void put(AuthzCacheIndex index, AuthzCacheEntry entry) {
+        entries.put(index, entry);
+    }
+
+    public void remove(AuthzCacheIndex index) {
+        entries.remove(index);
+    }
+
+    /**
+     * Drops every decision made for {@code subject} in {@code gatewayId}, or for every subject of the gateway when
+     * {@code subject} is {@code null}.
+     *
+     * @return the number of decisions dropped
+     */
+    public int invalidate(String gatewayId, String subject) {
+        int removed = entries.removeIf(index -> gatewayId.equals(index.getGatewayId())
+                && (subject == null || subject.equals(index.getSubject())));
+        if (removed > 0) {
+            cacheCounter.inc(removed, "invalidation");
+        }
+        return removed;
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
     }
 
-    private AuthzCache(int initialCapacity) {
-        super(initialCapacity);
-        MAX_SIZE = initialCapacity;
+    public Stats getStats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum());
     }
 
-    @Override
-    protected boolean removeEldestEntry(Map.Entry<AuthzCacheIndex, AuthzCacheEntry> eldest) {
-        if (size() > MAX_SIZE) {
-            logger.info("Authz cache max size exceeded. Removing the old entries.");
+    /** Lookup and removal counts since the cache was created. */
+    public record Stats(long hits, long misses, long evictions, long expirations) {
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
         }
-        return size() > MAX_SIZE;
     }
 }
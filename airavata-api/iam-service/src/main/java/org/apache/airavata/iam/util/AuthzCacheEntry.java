@@ -19,23 +19,56 @@
 */
 package org.apache.airavata.iam.util;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
 /**
  * Cache entry in the default authorization cache.
  */
 public class AuthzCacheEntry {
     // authorization decision for the authorization request associated with this cache entry.
     private boolean decision;
-    // time to live value for the access token in seconds.
+    // time in milli seconds (epoch) at which this decision expires, i.e. when the access token it was made for does.
     private long expiryTime;
     // time stamp in milli seconds at the time this entry is put into the cache
     private long entryTimestamp;
 
+    // upper bound on how long a decision is reused, also used when the token's expiry cannot be read
+    static final long MAX_DECISION_TTL_MS = 60 * 60 * 1000;
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
     public AuthzCacheEntry(boolean decision, long expiryTime, long entryTimestamp) {
         this.decision = decision;
         this.expiryTime = expiryTime;
         this.entryTimestamp = entryTimestamp;
     }
 
+    /**
+     * A decision made at {@code now} for a JWT access token. It expires with the token (its {@code exp} claim), but
+     * at most {@link #MAX_DECISION_TTL_MS} later; opaque or unreadable tokens get the maximum.
+     */
+    public static AuthzCacheEntry forAccessToken(boolean decision, String accessToken, long now) {
+        long maxExpiry = now + MAX_DECISION_TTL_MS;
+        return new AuthzCacheEntry(decision, Math.min(maxExpiry, tokenExpiry(accessToken, maxExpiry)), now);
+    }
+
+    private static long tokenExpiry(String accessToken, long fallback) {
+        String[] parts = accessToken == null ? new String[0] : accessToken.split("\\.");
+        if (parts.length != 3) {
+            return fallback;
+        }
+        try {
+            JsonNode exp = mapper.readTree(new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8))
+                    .get("exp");
+            return exp != null && exp.canConvertToLong() ? exp.asLong() * 1000 : fallback;
+        } catch (Exception e) {
+            return fallback;
+        }
+    }
+
     public long getEntryTimestamp() {
         return entryTimestamp;
     }
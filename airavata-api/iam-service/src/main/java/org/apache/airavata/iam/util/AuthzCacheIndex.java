@@ -19,6 +19,8 @@
 */
 package org.apache.airavata.iam.util;
 
+import java.util.Objects;
+
 /**
  * Cache index of the default authorization cache.
  */
@@ -83,9 +85,6 @@ public class AuthzCacheIndex {
 
     @Override
     public int hashCode() {
-        return this.getSubject().hashCode()
-                + this.getOauthAccessToken().hashCode()
-                + this.getGatewayId().hashCode()
-                + this.getAction().hashCode();
+        return Objects.hash(getSubject(), getOauthAccessToken(), getGatewayId(), getAction());
     }
 }
@@ -68,6 +68,18 @@ public interface AuthzCacheManager {
      */
     public void removeAuthzCacheEntry(AuthzCacheIndex authzCacheIndex) throws AiravataSecurityException;
 
+    /**
+     * Removes the cached authorization decisions of a user, e.g. after the user's group memberships changed.
+     * Implementations that cannot select entries by user may clear the whole cache, which is the default.
+     *
+     * @param gatewayId
+     * @param userName the subject of the cached decisions
+     * @throws AiravataSecurityException
+     */
+    default void removeAuthzCacheEntries(String gatewayId, String userName) throws AiravataSecurityException {
+        clearCache();
+    }
+
     /**
      * Clear the authorization cache.
      *
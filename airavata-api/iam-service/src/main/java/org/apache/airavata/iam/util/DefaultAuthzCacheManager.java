@@ -29,26 +29,12 @@ public class DefaultAuthzCacheManager implements AuthzCacheManager {
 
     @Override
     public AuthzCachedStatus getAuthzCachedStatus(AuthzCacheIndex authzCacheIndex) throws AiravataSecurityException {
-        if (isAuthzDecisionCached(authzCacheIndex)) {
-            AuthzCacheEntry cacheEntry = getAuthzCacheEntry(authzCacheIndex);
-            long expiryTime = cacheEntry.getExpiryTime();
-            long currentTime = System.currentTimeMillis();
-            long timePassed = (currentTime - cacheEntry.getEntryTimestamp()) / 1000;
-            if (expiryTime > timePassed) {
-                // access token is still valid. Hence, return the cached decision
-                if (cacheEntry.getDecision()) {
-                    return AuthzCachedStatus.AUTHORIZED;
-                } else {
-                    return AuthzCachedStatus.NOT_AUTHORIZED;
-                }
-            } else {
-                // access token has been expired. Hence, remove the entry and return.
-                removeAuthzCacheEntry(authzCacheIndex);
-                return AuthzCachedStatus.NOT_CACHED;
-            }
-        } else {
+        // a single lookup: expired decisions are dropped by the cache itself
+        AuthzCacheEntry cacheEntry = getAuthzCacheEntry(authzCacheIndex);
+        if (cacheEntry == null) {
             return AuthzCachedStatus.NOT_CACHED;
         }
+        return cacheEntry.getDecision() ? AuthzCachedStatus.AUTHORIZED : AuthzCachedStatus.NOT_AUTHORIZED;
     }
 
     @Override
@@ -65,7 +51,7 @@ public class DefaultAuthzCacheManager implements AuthzCacheManager {
     @Override
     public boolean isAuthzDecisionCached(AuthzCacheIndex authzCacheIndex) throws AiravataSecurityException {
         try {
-            return AuthzCache.getInstance().containsKey(authzCacheIndex);
+            return AuthzCache.getInstance().get(authzCacheIndex, System.currentTimeMillis()) != null;
         } catch (ApplicationSettingsException e) {
             logger.error(e.getMessage(), e);
             throw new AiravataSecurityException("Error in obtaining the authorization cache instance.");
@@ -75,7 +61,7 @@ public class DefaultAuthzCacheManager implements AuthzCacheManager {
     @Override
     public AuthzCacheEntry getAuthzCacheEntry(AuthzCacheIndex authzCacheIndex) throws AiravataSecurityException {
         try {
-            return AuthzCache.getInstance().get(authzCacheIndex);
+            return AuthzCache.getInstance().get(authzCacheIndex, System.currentTimeMillis());
         } catch (ApplicationSettingsException e) {
             logger.error(e.getMessage(), e);
             throw new AiravataSecurityException("Error in obtaining the authorization cache instance.");
@@ -92,6 +78,16 @@ public class DefaultAuthzCacheManager implements AuthzCacheManager {
         }
     }
 
+    @Override
+    public void removeAuthzCacheEntries(String gatewayId, String userName) throws AiravataSecurityException {
+        try {
+            AuthzCache.getInstance().invalidate(gatewayId, userName);
+        } catch (ApplicationSettingsException e) {
+            logger.error(e.getMessage(), e);
+            throw new AiravataSecurityException("Error in obtaining the authorization cache instance.");
+        }
+    }
+
     @Override
     public void clearCache() throws AiravataSecurityException {
         try {
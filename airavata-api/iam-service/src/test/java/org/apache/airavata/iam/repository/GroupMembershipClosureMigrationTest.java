@@ -0,0 +1,107 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.iam.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.apache.airavata.util.TestBase;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.ext.ScriptUtils;
+import org.testcontainers.jdbc.JdbcDatabaseDelegate;
+
+/**
+ * The V8 migration seeds GROUP_MEMBERSHIP_CLOSURE from the memberships of domains written before
+ * the table existed, counting every path that does not visit a group twice.
+ */
+public class GroupMembershipClosureMigrationTest extends TestBase {
+
+    @Test
+    public void migrationSeedsPathCountsOfExistingMemberships() throws Exception {
+        String domainId = "migrate-" + UUID.randomUUID();
+        try (Connection conn = mariadb().createConnection("")) {
+            // a diamond: user is in left and right, both of which are in top
+            membership(conn, domainId, "left", "user");
+            membership(conn, domainId, "right", "user");
+            membership(conn, domainId, "top", "left");
+            membership(conn, domainId, "top", "right");
+            // a cycle left by older data contributes only its direct edges
+            membership(conn, domainId, "a", "b");
+            membership(conn, domainId, "b", "a");
+            try {
+                try (JdbcDatabaseDelegate db = new JdbcDatabaseDelegate(mariadb(), "")) {
+                    ScriptUtils.runInitScript(db, "db/migration/airavata/V7__Group_membership_closure.sql");
+                }
+
+                Map<List<Object>, Long> expected = new HashMap<>();
+                expected.put(List.of("left", "user", 1), 1L);
+                expected.put(List.of("right", "user", 1), 1L);
+                expected.put(List.of("top", "left", 1), 1L);
+                expected.put(List.of("top", "right", 1), 1L);
+                expected.put(List.of("top", "user", 2), 2L);
+                expected.put(List.of("a", "b", 1), 1L);
+                expected.put(List.of("b", "a", 1), 1L);
+                assertEquals(expected, closure(conn, domainId));
+            } finally {
+                delete(conn, "DELETE FROM GROUP_MEMBERSHIP WHERE DOMAIN_ID = ?", domainId);
+                delete(conn, "DELETE FROM GROUP_MEMBERSHIP_CLOSURE WHERE DOMAIN_ID = ?", domainId);
+            }
+        }
+    }
+
+    private static void membership(Connection conn, String domainId, String parentId, String childId)
+            throws Exception {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO GROUP_MEMBERSHIP (PARENT_ID, DOMAIN_ID, CHILD_ID) VALUES (?, ?, ?)")) {
+            ps.setString(1, parentId);
+            ps.setString(2, domainId);
+            ps.setString(3, childId);
+            ps.executeUpdate();
+        }
+    }
+
+    private static Map<List<Object>, Long> closure(Connection conn, String domainId) throws Exception {
+        Map<List<Object>, Long> rows = new HashMap<>();
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT ANCESTOR_ID, DESCENDANT_ID, DEPTH, PATH_COUNT FROM GROUP_MEMBERSHIP_CLOSURE "
+                        + "WHERE DOMAIN_ID = ?")) {
+            ps.setString(1, domainId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    rows.put(List.of(rs.getString(1), rs.getString(2), rs.getInt(3)), rs.getLong(4));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static void delete(Connection conn, String sql, String domainId) throws Exception {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, domainId);
+            ps.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.iam.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import org.apache.airavata.iam.repository.MembershipClosure.Path;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the closure arithmetic of {@link GroupMembershipClosureRepository} against the breadth-first
+ * walk over {@code GROUP_MEMBERSHIP} it replaces, with an in-memory table standing in for the database.
+ */
+public class MembershipClosureTest {
+
+    /** In-memory GROUP_MEMBERSHIP plus GROUP_MEMBERSHIP_CLOSURE, maintained like the repository does. */
+    private static class Store {
+        final Set<List<String>> edges = new LinkedHashSet<>();
+        final Map<List<Object>, Long> closure = new HashMap<>();
+
+        void add(String parent, String child) {
+            if (edges.add(List.of(parent, child))) {
+                apply(parent, child, 1);
+            }
+        }
+
+        void remove(String parent, String child) {
+            if (edges.remove(List.of(parent, child))) {
+                apply(parent, child, -1);
+                closure.values().removeIf(count -> count <= 0);
+            }
+        }
+
+        private void apply(String parent, String child, int sign) {
+            for (Path p : MembershipClosure.edgePaths(
+                    parent,
+                    rows(p -> p.descendantId().equals(parent)),
+                    child,
+                    rows(p -> p.ancestorId().equals(child)))) {
+                closure.merge(List.of(p.ancestorId(), p.descendantId(), p.depth()), sign * p.count(), Long::sum);
+            }
+        }
+
+        private List<Path> rows(java.util.function.Predicate<Path> filter) {
+            return closure.entrySet().stream()
+                    .map(e -> new Path(
+                            (String) e.getKey().get(0),
+                            (String) e.getKey().get(1),
+                            (Integer) e.getKey().get(2),
+                            e.getValue()))
+                    .filter(filter)
+                    .toList();
+        }
+
+        Set<String> ancestors(String id) {
+            return rows(p -> p.descendantId().equals(id)).stream()
+                    .map(Path::ancestorId)
+                    .collect(Collectors.toSet());
+        }
+
+        /**
+         * The closure computed from scratch, as the V7__Group_membership_closure migration seeds it:
+         * one count per simple path from a member up to each group above it.
+         */
+        Map<List<Object>, Long> rebuilt() {
+            Map<List<Object>, Long> rows = new HashMap<>();
+            for (String member : edges.stream().map(edge -> edge.get(1)).collect(Collectors.toSet())) {
+                climb(member, member, 0, new HashSet<>(List.of(member)), rows);
+            }
+            return rows;
+        }
+
+        private void climb(
+                String descendant, String node, int depth, Set<String> visited, Map<List<Object>, Long> rows) {
+            for (List<String> edge : edges) {
+                String parent = edge.get(0);
+                if (edge.get(1).equals(node) && visited.add(parent)) {
+                    rows.merge(List.of(parent, descendant, depth + 1), 1L, Long::sum);
+                    climb(descendant, parent, depth + 1, visited, rows);
+                    visited.remove(parent);
+                }
+            }
+        }
+
+        /** The previous lookup: one query per membership reached, walking up level by level. */
+        Set<String> ancestorsByWalk(String id, int[] queries) {
+            Set<String> result = new HashSet<>();
+            Deque<String> pending = new ArrayDeque<>(List.of(id));
+            while (!pending.isEmpty()) {
+                String child = pending.pop();
+                queries[0]++;
+                for (List<String> edge : edges) {
+                    if (edge.get(1).equals(child)) {
+                        result.add(edge.get(0));
+                        pending.add(edge.get(0));
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    @Test
+    public void deepHierarchyMatchesWalkAndRebuild() {
+        Store store = new Store();
+        // five levels: user -> g1 -> g2 -> g3 -> g4 -> g5
+        store.add("g1", "user");
+        for (int level = 2; level <= 5; level++) {
+            store.add("g" + level, "g" + (level - 1));
+        }
+        int[] queries = {0};
+        assertEquals(store.ancestorsByWalk("user", queries), store.ancestors("user"));
+        assertEquals(Set.of("g1", "g2", "g3", "g4", "g5"), store.ancestors("user"));
+        assertEquals(6, queries[0]);
+        assertEquals(store.rebuilt(), store.closure);
+
+        store.remove("g3", "g2");
+        assertEquals(Set.of("g1", "g2"), store.ancestors("user"));
+        assertEquals(Set.of("g4", "g5"), store.ancestors("g3"));
+        assertEquals(store.rebuilt(), store.closure);
+    }
+
+    @Test
+    public void diamondKeepsAncestorUntilLastPathIsRemoved() {
+        Store store = new Store();
+        store.add("left", "user");
+        store.add("right", "user");
+        store.add("top", "left");
+        store.add("top", "right");
+        assertEquals(2L, store.closure.get(List.of("top", "user", 2)));
+
+        store.remove("top", "left");
+        assertTrue(store.ancestors("user").contains("top"));
+        assertEquals(store.rebuilt(), store.closure);
+
+        store.remove("right", "user");
+        assertEquals(Set.of("left"), store.ancestors("user"));
+        assertEquals(store.rebuilt(), store.closure);
+    }
+
+    @Test
+    public void wideRandomHierarchyStaysConsistent() {
+        Random random = new Random(42);
+        Store store = new Store();
+        int groups = 60;
+        List<List<String>> added = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            // parents always have a higher index than children, so the graph stays acyclic
+            int child = random.nextInt(groups - 1);
+            String parent = "g" + (child + 1 + random.nextInt(groups - child - 1));
+            String member = random.nextInt(3) == 0 ? "u" + random.nextInt(200) : "g" + child;
+            store.add(parent, member);
+            added.add(List.of(parent, member));
+        }
+        assertEquals(store.rebuilt(), store.closure);
+        for (int u = 0; u < 200; u++) {
+            assertEquals(store.ancestorsByWalk("u" + u, new int[1]), store.ancestors("u" + u));
+        }
+
+        Collections.shuffle(added, random);
+        for (List<String> edge : added.subList(0, 200)) {
+            store.remove(edge.get(0), edge.get(1));
+        }
+        assertEquals(store.rebuilt(), store.closure);
+        for (int u = 0; u < 200; u++) {
+            assertEquals(store.ancestorsByWalk("u" + u, new int[1]), store.ancestors("u" + u));
+        }
+    }
+}
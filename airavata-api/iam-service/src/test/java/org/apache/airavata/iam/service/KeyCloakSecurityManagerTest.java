@@ -0,0 +1,156 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.iam.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.airavata.config.ApplicationSettings;
+import org.apache.airavata.config.Constants;
+import org.apache.airavata.config.ServerSettings;
+import org.apache.airavata.iam.model.UserInfo;
+import org.apache.airavata.interfaces.RegistryProvider;
+import org.apache.airavata.interfaces.SharingProvider;
+import org.apache.airavata.model.appcatalog.gatewayprofile.proto.GatewayResourceProfile;
+import org.apache.airavata.model.security.proto.AuthzToken;
+import org.apache.airavata.model.workspace.proto.Gateway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Round trips from {@link KeyCloakSecurityManager} to the identity server, against a local stand-in that serves a
+ * realm's discovery document, token endpoint and userinfo endpoint and counts the requests to each.
+ */
+class KeyCloakSecurityManagerTest {
+
+    private static final String REALM = "testGateway";
+
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+    private HttpServer server;
+    private String tokenResponse;
+    private KeyCloakSecurityManager securityManager;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        String base = "http://127.0.0.1:" + server.getAddress().getPort();
+        String realmUrl = base + "/realms/" + REALM;
+        server.createContext(
+                "/realms/" + REALM + "/.well-known/openid-configuration",
+                ex -> respond(ex, "discovery", """
+                {"token_endpoint": "%s/token", "userinfo_endpoint": "%s/userinfo"}""".formatted(realmUrl, realmUrl)));
+        server.createContext("/realms/" + REALM + "/token", ex -> respond(ex, "token", tokenResponse));
+        server.createContext("/realms/" + REALM + "/userinfo", ex -> respond(ex, "userinfo", """
+                {"sub": "s-1", "name": "Test User", "given_name": "Test", "family_name": "User",
+                 "email": "test@example.org", "preferred_username": "testuser"}"""));
+        server.start();
+        ApplicationSettings.setOverride(ServerSettings.IAM_SERVER_URL, base);
+
+        RegistryProvider registry = mock(RegistryProvider.class);
+        when(registry.getGateway(REALM))
+                .thenReturn(Gateway.newBuilder()
+                        .setGatewayId(REALM)
+                        .setOauthClientId("pga")
+                        .setOauthClientSecret("secret")
+                        .build());
+        when(registry.getGatewayResourceProfile(REALM))
+                .thenReturn(GatewayResourceProfile.newBuilder()
+                        .setIdentityServerTenant(REALM)
+                        .build());
+        securityManager = new KeyCloakSecurityManager(registry, mock(SharingProvider.class), null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private void respond(HttpExchange exchange, String endpoint, String body) throws IOException {
+        requests.computeIfAbsent(endpoint, k -> new AtomicInteger()).incrementAndGet();
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    private int requestCount(String endpoint) {
+        AtomicInteger count = requests.get(endpoint);
+        return count == null ? 0 : count.get();
+    }
+
+    @Test
+    void serviceAccountTokenIsReusedUntilItNearsExpiry() throws Exception {
+        tokenResponse = "{\"access_token\": \"sa-token\", \"expires_in\": 300}";
+
+        AuthzToken first = securityManager.getUserManagementServiceAccountAuthzToken(REALM);
+        AuthzToken second = securityManager.getUserManagementServiceAccountAuthzToken(REALM);
+
+        assertEquals("sa-token", first.getAccessToken());
+        assertEquals("pga", second.getClaimsMapMap().get(Constants.USER_NAME));
+        assertEquals(second.getAccessToken(), first.getAccessToken());
+        assertEquals(1, requestCount("token"));
+        assertEquals(1, requestCount("discovery"));
+    }
+
+    @Test
+    void tokenWithoutLifetimeIsNotReused() throws Exception {
+        tokenResponse = "{\"access_token\": \"sa-token\"}";
+
+        securityManager.getUserManagementServiceAccountAuthzToken(REALM);
+        securityManager.getUserManagementServiceAccountAuthzToken(REALM);
+
+        assertEquals(2, requestCount("token"));
+        assertEquals(1, requestCount("discovery"));
+    }
+
+    @Test
+    void failedTokenRequestIsReported() {
+        tokenResponse = "{\"error\": \"unauthorized_client\", \"error_description\": \"Invalid client secret\"}";
+
+        Exception e =
+                assertThrows(Exception.class, () -> securityManager.getUserManagementServiceAccountAuthzToken(REALM));
+        assertTrue(e.getMessage().contains("Invalid client secret"));
+    }
+
+    @Test
+    void userInfoReadsDiscoveryOnce() throws Exception {
+        AuthzToken token = AuthzToken.newBuilder()
+                .setAccessToken("user-token")
+                .putClaimsMap(Constants.GATEWAY_ID, REALM)
+                .build();
+
+        UserInfo first = securityManager.getUserInfoFromAuthzToken(token);
+        securityManager.getUserInfoFromAuthzToken(token);
+
+        assertEquals("testuser", first.getUsername());
+        assertEquals(2, requestCount("userinfo"));
+        assertEquals(1, requestCount("discovery"));
+    }
+}
@@ -0,0 +1,122 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.iam.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.airavata.iam.model.SharingEntity;
+import org.apache.airavata.iam.repository.SharingRepository;
+import org.apache.airavata.util.TestBase;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cascading share and revoke of a project with a growing number of experiments to a class of
+ * students. Both are set-based, so the number of statements stays constant as the tree and the
+ * number of grantees grow, and the latency should grow with the rows written rather than with
+ * their product of round trips. Runs only with {@code -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class SharingCascadeBenchmarkTest extends TestBase {
+
+    private static final Logger logger = LoggerFactory.getLogger(SharingCascadeBenchmarkTest.class);
+
+    private static final String DOMAIN_ID = "bench-domain";
+    private static final String READ = DOMAIN_ID + ":READ";
+    private static final int[] EXPERIMENTS = {100, 1000};
+    private static final int STUDENTS = 200;
+
+    private final SharingService sharingService = new SharingService();
+
+    @Test
+    public void cascadingShareAndRevokeOfLargeProject() throws Exception {
+        sharingService.createDomain(DOMAIN_ID, "bench", "cascading share benchmark");
+        sharingService.createEntityType(DOMAIN_ID + ":PROJECT", DOMAIN_ID, "PROJECT", "project");
+        sharingService.createEntityType(DOMAIN_ID + ":EXPERIMENT", DOMAIN_ID, "EXPERIMENT", "experiment");
+        sharingService.createPermissionType(READ, DOMAIN_ID, "READ", "read");
+        sharingService.createUser("bench-owner", DOMAIN_ID, "bench-owner");
+
+        List<String> students = new ArrayList<>();
+        for (int s = 0; s < STUDENTS; s++) {
+            students.add("bench-student-" + s);
+        }
+
+        for (int experiments : EXPERIMENTS) {
+            String projectId = "bench-project-" + experiments;
+            sharingService.createEntity(
+                    projectId, DOMAIN_ID, DOMAIN_ID + ":PROJECT", "bench-owner", projectId, null, null);
+            for (int e = 0; e < experiments; e++) {
+                sharingService.createEntity(
+                        projectId + "-exp-" + e,
+                        DOMAIN_ID,
+                        DOMAIN_ID + ":EXPERIMENT",
+                        "bench-owner",
+                        "experiment " + e,
+                        null,
+                        projectId);
+            }
+
+            long start = System.nanoTime();
+            assertTrue(sharingService.shareEntityWithUsers(DOMAIN_ID, projectId, students, READ, true));
+            long shareMillis = (System.nanoTime() - start) / 1_000_000;
+
+            assertEquals(
+                    (long) STUDENTS,
+                    sharingService.getEntity(DOMAIN_ID, projectId).getSharedCount());
+            assertEquals(experiments * STUDENTS, indirectSharings(projectId));
+            String lastExperiment = projectId + "-exp-" + (experiments - 1);
+            assertTrue(sharingService.userHasAccess(DOMAIN_ID, students.get(STUDENTS - 1), lastExperiment, READ));
+
+            start = System.nanoTime();
+            assertTrue(sharingService.revokeEntitySharingFromUsers(DOMAIN_ID, projectId, students, READ));
+            long revokeMillis = (System.nanoTime() - start) / 1_000_000;
+
+            assertEquals(0L, sharingService.getEntity(DOMAIN_ID, projectId).getSharedCount());
+            assertEquals(0, indirectSharings(projectId));
+            assertFalse(sharingService.userHasAccess(DOMAIN_ID, students.get(0), lastExperiment, READ));
+
+            logger.info(
+                    "cascading share of a project with {} experiments to {} students: share {} ms, revoke {} ms",
+                    experiments,
+                    STUDENTS,
+                    shareMillis,
+                    revokeMillis);
+        }
+    }
+
+    private int indirectSharings(String projectId) throws Exception {
+        return (new SharingRepository())
+                .execute(em -> em.createQuery(
+                                "SELECT COUNT(s) FROM " + SharingEntity.class.getSimpleName()
+                                        + " s WHERE s.domainId = :domainId AND s.inheritedParentId = :parentId"
+                                        + " AND s.sharingType = 'INDIRECT_CASCADING'",
+                                Long.class)
+                        .setParameter("domainId", DOMAIN_ID)
+                        .setParameter("parentId", projectId)
+                        .getSingleResult())
+                .intValue();
+    }
+}
@@ -0,0 +1,153 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.iam.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+public class AuthzCacheTest {
+
+    private static AuthzCacheIndex index(String user, String action) {
+        return new AuthzCacheIndex(user, "gw", "token-" + user, action);
+    }
+
+    private static AuthzCacheEntry entry(boolean decision, long expiry) {
+        return new AuthzCacheEntry(decision, expiry, 0);
+    }
+
+    private static String jwt(String payload) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString("{\"alg\":\"RS256\"}".getBytes(StandardCharsets.UTF_8)) + "."
+                + encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + ".signature";
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedEntry() {
+        // a single segment, so eviction order is fully determined
+        AuthzCache cache = new AuthzCache(1);
+        cache.put(index("a", "/x"), entry(true, Long.MAX_VALUE));
+        cache.put(index("b", "/x"), entry(true, Long.MAX_VALUE));
+        assertNull(cache.get(index("a", "/x"), 0));
+        assertNotNull(cache.get(index("b", "/x"), 0));
+        assertEquals(1, cache.getStats().evictions());
+
+        AuthzCache lru = new AuthzCache(1600);
+        for (int i = 0; i < 10_000; i++) {
+            lru.put(index("u" + i, "/x"), entry(true, Long.MAX_VALUE));
+            assertNotNull(lru.get(index("u0", "/x"), 0), "a recently read entry must survive eviction");
+        }
+        assertTrue(lru.size() <= 1600);
+        assertTrue(lru.getStats().evictions() >= 10_000 - 1600);
+    }
+
+    @Test
+    public void entriesExpireIndividually() {
+        AuthzCache cache = new AuthzCache(100);
+        cache.put(index("a", "/x"), entry(true, 1000));
+        cache.put(index("b", "/x"), entry(false, 5000));
+
+        assertTrue(cache.get(index("a", "/x"), 999).getDecision());
+        assertNull(cache.get(index("a", "/x"), 1000));
+        assertFalse(cache.get(index("b", "/x"), 1000).getDecision());
+        assertEquals(1, cache.size());
+
+        AuthzCache.Stats stats = cache.getStats();
+        assertEquals(2, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.expirations());
+    }
+
+    @Test
+    public void invalidatesDecisionsOfOneUserOrGateway() {
+        AuthzCache cache = new AuthzCache(100);
+        cache.put(index("alice", "/a"), entry(true, Long.MAX_VALUE));
+        cache.put(index("alice", "/b"), entry(true, Long.MAX_VALUE));
+        cache.put(index("bob", "/a"), entry(true, Long.MAX_VALUE));
+        cache.put(new AuthzCacheIndex("alice", "other-gw", "t", "/a"), entry(true, Long.MAX_VALUE));
+
+        assertEquals(2, cache.invalidate("gw", "alice"));
+        assertNull(cache.get(index("alice", "/a"), 0));
+        assertNotNull(cache.get(index("bob", "/a"), 0));
+
+        assertEquals(1, cache.invalidate("gw", null));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void decisionExpiresWithTheAccessToken() {
+        long now = 1_700_000_000_000L;
+        long exp = now / 1000 + 300;
+        assertEquals(
+                exp * 1000,
+                AuthzCacheEntry.forAccessToken(true, jwt("{\"exp\":" + exp + "}"), now)
+                        .getExpiryTime());
+        // capped for long-lived tokens, and the cap is used for tokens without a readable exp
+        long max = now + AuthzCacheEntry.MAX_DECISION_TTL_MS;
+        assertEquals(
+                max,
+                AuthzCacheEntry.forAccessToken(true, jwt("{\"exp\":" + (exp + 86400) + "}"), now)
+                        .getExpiryTime());
+        assertEquals(
+                max,
+                AuthzCacheEntry.forAccessToken(true, jwt("{\"sub\":\"x\"}"), now)
+                        .getExpiryTime());
+        assertEquals(
+                max, AuthzCacheEntry.forAccessToken(true, "opaque-token", now).getExpiryTime());
+    }
+
+    @Test
+    public void staysConsistentUnderConcurrentUse() throws Exception {
+        AuthzCache cache = new AuthzCache(256);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        AuthzCacheIndex key = index("u" + ((i * 31 + thread) % 512), "/x");
+                        if (cache.get(key, 0) == null) {
+                            cache.put(key, entry(true, Long.MAX_VALUE));
+                        }
+                        if (i % 1000 == 0) {
+                            cache.invalidate("gw", "u" + thread);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertTrue(cache.size() <= 256);
+        AuthzCache.Stats stats = cache.getStats();
+        assertEquals(8 * 20_000, stats.hits() + stats.misses());
+    }
+}
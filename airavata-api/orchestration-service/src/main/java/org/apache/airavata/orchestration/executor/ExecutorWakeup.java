@@ -0,0 +1,168 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.orchestration.executor;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.airavata.config.ConditionalOnServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Wake-up channel for the {@link ProcessExecutor} workers. Idle workers park in {@link #await}
+ * instead of sleeping a full poll interval, and whoever makes work runnable (task completion,
+ * requeue, experiment launch) calls {@link #signal} to release one of them immediately.
+ *
+ * <p>Signals are also published across JVMs through {@code EXECUTOR_SIGNAL}, one row per executor
+ * JVM, so publishers never contend on a shared row. {@link #signal} only marks a publish as
+ * pending; the listener tick ({@link #checkRemote}) bumps this JVM's {@code SEQ} at most once per
+ * tick however many signals arrived, then reads the other executors' rows and wakes a local worker
+ * when any of them moved. Its own row is skipped: local signals already woke a worker in-process.
+ * The executor's fixed-interval poll stays in place only as the fallback for missed signals.
+ */
+@Component
+@ConditionalOnServer("orchestrator")
+public class ExecutorWakeup {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutorWakeup.class);
+
+    static final String RUNNABLE_SIGNAL = "RUNNABLE";
+
+    /** Cap on banked wake-ups so a burst of signals does not turn into a burst of empty polls. */
+    private static final int MAX_PENDING_WAKEUPS = 64;
+
+    /** Rows of executors that have not published for this long are dropped when this one starts. */
+    private static final long STALE_SIGNAL_MS = 86_400_000L;
+
+    private final OrchestratorExecutorRepository repo;
+    private final String signalId;
+    private final Semaphore wakeups = new Semaphore(0);
+    private final AtomicBoolean publishPending = new AtomicBoolean();
+
+    // Listener thread only
+    private Map<String, Long> lastSeen;
+
+    public ExecutorWakeup() {
+        this(
+                new OrchestratorExecutorRepository(),
+                RUNNABLE_SIGNAL + "/" + ManagementFactory.getRuntimeMXBean().getName());
+    }
+
+    ExecutorWakeup(OrchestratorExecutorRepository repo, String signalId) {
+        this.repo = repo;
+        this.signalId = signalId;
+    }
+
+    /**
+     * Runnable work was just enqueued: wake a local worker and have the next listener tick notify
+     * executors in other JVMs. Never touches the database.
+     */
+    public void signal(String reason) {
+        wakeLocal();
+        publishPending.set(true);
+        logger.debug("Executor wake-up: {}", reason);
+    }
+
+    /** Wake one worker in this JVM only. */
+    public void wakeLocal() {
+        if (wakeups.availablePermits() < MAX_PENDING_WAKEUPS) {
+            wakeups.release();
+        }
+    }
+
+    /**
+     * Park an idle worker until a wake-up arrives or {@code timeoutMs} elapses.
+     *
+     * @return true if woken by a signal, false on timeout
+     */
+    public boolean await(long timeoutMs) throws InterruptedException {
+        return wakeups.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Listener tick: publish the signals raised since the last tick as one bump of this JVM's row,
+     * then wake a local worker if another executor's row changed. The first tick only records the
+     * baseline (and drops rows of long-gone executors).
+     */
+    public void checkRemote() {
+        publish();
+        try {
+            Map<String, Long> seen = repo.execute(em -> {
+                if (lastSeen == null) {
+                    em.createNativeQuery(
+                                    "DELETE FROM EXECUTOR_SIGNAL WHERE SIGNAL_ID <> :sid AND UPDATED_TIME < :cutoff")
+                            .setParameter("sid", signalId)
+                            .setParameter("cutoff", new Timestamp(System.currentTimeMillis() - STALE_SIGNAL_MS))
+                            .executeUpdate();
+                }
+                List<?> rows = em.createNativeQuery(
+                                "SELECT SIGNAL_ID, SEQ FROM EXECUTOR_SIGNAL WHERE SIGNAL_ID <> :sid")
+                        .setParameter("sid", signalId)
+                        .getResultList();
+                Map<String, Long> counters = new HashMap<>();
+                for (Object row : rows) {
+                    Object[] cols = (Object[]) row;
+                    counters.put((String) cols[0], ((Number) cols[1]).longValue());
+                }
+                return counters;
+            });
+            Map<String, Long> previous = lastSeen;
+            lastSeen = seen;
+            if (previous != null && moved(previous, seen)) {
+                wakeLocal();
+            }
+        } catch (Exception e) {
+            logger.debug("Executor wake-up listener read failed; relying on fallback polling", e);
+        }
+    }
+
+    private void publish() {
+        if (!publishPending.getAndSet(false)) {
+            return;
+        }
+        try {
+            repo.execute(em -> em.createNativeQuery("INSERT INTO EXECUTOR_SIGNAL (SIGNAL_ID, SEQ, UPDATED_TIME) "
+                            + "VALUES (:sid, 1, :ts) ON DUPLICATE KEY UPDATE SEQ = SEQ + 1, UPDATED_TIME = :ts")
+                    .setParameter("sid", signalId)
+                    .setParameter("ts", new Timestamp(System.currentTimeMillis()))
+                    .executeUpdate());
+        } catch (Exception e) {
+            publishPending.set(true);
+            logger.warn("Failed to publish executor wake-up; remote executors fall back to polling", e);
+        }
+    }
+
+    /** True if a row appeared or its counter changed; rows that disappeared carry no new work. */
+    private static boolean moved(Map<String, Long> previous, Map<String, Long> current) {
+        for (Map.Entry<String, Long> row : current.entrySet()) {
+            if (!row.getValue().equals(previous.get(row.getKey()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
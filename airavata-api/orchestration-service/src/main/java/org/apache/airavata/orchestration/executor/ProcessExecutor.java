@@ -27,33 +27,39 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Collectors;
 import org.apache.airavata.config.ConditionalOnServer;
 import org.apache.airavata.config.ServerSettings;
 import org.apache.airavata.interfaces.RegistryHandler;
 import org.apache.airavata.model.status.proto.ExperimentState;
 import org.apache.airavata.model.status.proto.ExperimentStatus;
 import org.apache.airavata.model.status.proto.ProcessState;
-import org.apache.airavata.model.status.proto.ProcessStatus;
 import org.apache.airavata.model.status.proto.TaskState;
-import org.apache.airavata.model.status.proto.TaskStatus;
 import org.apache.airavata.model.task.proto.DataStageType;
 import org.apache.airavata.model.task.proto.DataStagingTaskModel;
 import org.apache.airavata.model.task.proto.TaskTypes;
+import org.apache.airavata.orchestration.repository.ExecCurrentStatusRepository;
 import org.apache.airavata.task.AiravataTask;
 import org.apache.airavata.task.DbTaskResult;
+import org.apache.airavata.task.KeyedLimiter;
 import org.apache.airavata.task.SchedulerUtils;
+import org.apache.airavata.task.SuspendedTasks;
 import org.apache.airavata.task.TaskHelperImpl;
+import org.apache.airavata.task.TaskThreads;
 import org.apache.airavata.task.TaskUtil;
 import org.apache.airavata.util.ExpCatalogUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.SmartLifecycle;
 import org.springframework.stereotype.Component;
@@ -64,11 +70,42 @@ import org.springframework.stereotype.Component;
  * SKIP LOCKED} (exactly-once across threads and future JVMs, with no Helix/ZooKeeper/Curator),
  * runs each task's {@link org.apache.airavata.task.DbTask} body, and advances TASK/PROCESS
  * state in the DB. Task order comes from {@code PROCESS.TASK_DAG}; the current position is
- * derived from the latest {@code EXEC_STATUS} row per task.
+ * read from {@code EXEC_CURRENT_STATUS}, the per-entity projection of the latest
+ * {@code EXEC_STATUS} row, so state reads are point lookups rather than history aggregations.
+ *
+ * <p>Claiming is set-based: one query over the {@code EXEC_CURRENT_STATUS} projection (kept in
+ * step with every status insert) returns the oldest processes that are runnable and have a
+ * claimable task, and each candidate then costs a fixed handful of point queries under its row
+ * lock, independent of how many processes are in flight.
  *
  * <p>The DB row lock is held only for the short claim transaction (which marks the task
  * {@code TASK_STATE_EXECUTING} as the durable claim marker); the actual work runs outside any
  * transaction so long-running tasks never hold a lock.
+ *
+ * <p>A process runs one task at a time, except that the data staging tasks of one contiguous run in
+ * its DAG are independent of each other and are claimed side by side; the task after the run waits
+ * until all of them have completed. If one sibling fails for good the process fails at once; siblings
+ * still running only record their own outcome when they finish and never requeue the process.
+ *
+ * <p>Idle workers park on {@link ExecutorWakeup} and are released as soon as runnable work is
+ * enqueued (here, by {@code DbLaunchOrchestrator}, or by another executor JVM via the
+ * {@code EXECUTOR_SIGNAL} table); the poll interval is only the fallback for missed signals.
+ *
+ * <p>A task that waits on something external (a batch job, say) returns
+ * {@link DbTaskResult#suspended} instead of blocking its worker. The task goes back to
+ * {@code TASK_STATE_CREATED} with a {@code TASK_SUSPENSION} row, and its process is not claimed
+ * again until that row's {@code RESUME_AT} has passed; {@link SuspendedTasks#resume} pulls the
+ * deadline forward when the awaited event arrives. The resumed run leases the row rather than
+ * writing EXECUTING, so a periodic recheck that suspends again adds nothing to the status
+ * history. Suspensions are persisted, so a restarted executor picks them up again, and a handful
+ * of workers can keep any number of jobs in flight.
+ *
+ * <p>With {@code task.execution.mode=virtual} the worker pool is replaced by a single dispatcher
+ * that claims tasks and runs each one on its own virtual thread ({@link TaskThreads}). Concurrency
+ * is then bounded by explicit limits instead of a thread count: tasks in flight
+ * ({@code orchestration.executor.max.in.flight}), tasks per compute resource
+ * ({@code orchestration.executor.max.per.resource}) and concurrent state write-backs, which hold a
+ * DB connection ({@code orchestration.executor.db.permits}).
  */
 @Component
 @ConditionalOnServer("orchestrator")
@@ -88,23 +125,73 @@ public class ProcessExecutor implements SmartLifecycle {
             ProcessState.PROCESS_STATE_QUEUED.name(),
             ProcessState.PROCESS_STATE_DEQUEUING.name());
 
+    /** Latest PROCESS states that are final; a task finishing after them no longer moves the process. */
+    private static final List<String> TERMINAL_PROCESS_STATES = List.of(
+            ProcessState.PROCESS_STATE_COMPLETED.name(),
+            ProcessState.PROCESS_STATE_FAILED.name(),
+            ProcessState.PROCESS_STATE_CANCELED.name());
+
+    /** Latest TASK states that keep a process from being claimed (a failed DAG). */
+    private static final List<String> BLOCKING_TASK_STATES =
+            List.of(TaskState.TASK_STATE_FAILED.name(), TaskState.TASK_STATE_CANCELED.name());
+
+    /** Latest TASK states that leave nothing to claim in a task. */
+    private static final List<String> UNCLAIMABLE_TASK_STATES =
+            List.of(TaskState.TASK_STATE_COMPLETED.name(), TaskState.TASK_STATE_EXECUTING.name());
+
+    /** Claim candidates fetched per window; workers racing on the same head skip each other's locks. */
+    private static final int CLAIM_CANDIDATES = 32;
+
+    private static final String CLAIM_REASON = "claimed by executor";
+
     @Value("${orchestration.executor.threads:4}")
     private int threads;
 
     @Value("${orchestration.executor.poll.interval.ms:3000}")
     private long pollIntervalMs;
 
+    @Value("${orchestration.executor.notify.poll.interval.ms:250}")
+    private long notifyPollIntervalMs;
+
     @Value("${orchestration.executor.lease.timeout.ms:600000}")
     private long leaseTimeoutMs;
 
     @Value("${orchestration.executor.max.attempts:3}")
     private int maxAttempts;
 
+    @Value("${orchestration.executor.max.in.flight:256}")
+    private int maxInFlight;
+
+    @Value("${orchestration.executor.max.per.resource:32}")
+    private int maxPerResource;
+
+    @Value("${orchestration.executor.db.permits:16}")
+    private int dbPermitCount;
+
+    @Autowired
+    private ExecutorWakeup wakeup;
+
     private final OrchestratorExecutorRepository repo = new OrchestratorExecutorRepository();
+    private final ExecCurrentStatusRepository currentStatus = new ExecCurrentStatusRepository();
+    // Resumes that arrived before the task's suspension row was committed; applied once it is.
+    private final Set<String> earlyResumes = ConcurrentHashMap.newKeySet();
 
     private volatile boolean running = false;
     private ExecutorService workers;
+    // virtual execution mode only
+    private ExecutorService taskRunner;
+    private Semaphore inFlight;
+    private KeyedLimiter resourceLimiter;
+    private Semaphore dbPermits;
     private ScheduledExecutorService sweeper;
+    private ScheduledExecutorService listener;
+
+    public ProcessExecutor() {}
+
+    /** For tests that drive claims and results directly, without Spring-injected settings. */
+    ProcessExecutor(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
 
     // ----------------------------------------------------------------- lifecycle
 
@@ -114,31 +201,75 @@ public class ProcessExecutor implements SmartLifecycle {
             return;
         }
         running = true;
-        workers = Executors.newFixedThreadPool(threads, namedDaemon("process-executor-worker"));
-        for (int i = 0; i < threads; i++) {
-            final int id = i;
-            workers.submit(() -> workerLoop(id));
+        SuspendedTasks.setResumeHandler(this::resumeFromEvent);
+        resumeOrphanedSuspensions();
+        boolean virtual = TaskThreads.isVirtualMode();
+        if (virtual) {
+            inFlight = new Semaphore(maxInFlight);
+            resourceLimiter = new KeyedLimiter(maxPerResource);
+            dbPermits = new Semaphore(dbPermitCount, true);
+            taskRunner = TaskThreads.newThreadPerTaskExecutor("process-executor-task");
+            workers = Executors.newSingleThreadExecutor(namedDaemon("process-executor-dispatcher"));
+            workers.submit(this::dispatchLoop);
+        } else {
+            workers = Executors.newFixedThreadPool(threads, namedDaemon("process-executor-worker"));
+            for (int i = 0; i < threads; i++) {
+                final int id = i;
+                workers.submit(() -> workerLoop(id));
+            }
         }
         sweeper = Executors.newSingleThreadScheduledExecutor(namedDaemon("process-executor-sweeper"));
         sweeper.scheduleWithFixedDelay(this::sweep, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        listener = Executors.newSingleThreadScheduledExecutor(namedDaemon("process-executor-listener"));
+        listener.scheduleWithFixedDelay(wakeup::checkRemote, 0, notifyPollIntervalMs, TimeUnit.MILLISECONDS);
         logger.info(
-                "ProcessExecutor started: {} worker(s), poll {} ms, lease {} ms, maxAttempts {}",
-                threads,
+                "ProcessExecutor started: {}, fallback poll {} ms, notify poll {} ms, lease {} ms, maxAttempts {}",
+                virtual
+                        ? "virtual threads (max " + maxInFlight + " in flight, " + maxPerResource + " per resource)"
+                        : threads + " worker(s)",
                 pollIntervalMs,
+                notifyPollIntervalMs,
                 leaseTimeoutMs,
                 maxAttempts);
     }
 
+    /**
+     * The events that would have resumed the suspended tasks were held by the previous run's memory,
+     * so every pending suspension is made due now and its task re-arms its wait when it runs.
+     */
+    private void resumeOrphanedSuspensions() {
+        try {
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            int resumed = repo.execute(
+                    em -> em.createNativeQuery("UPDATE TASK_SUSPENSION SET RESUME_AT = :now "
+                                    + "WHERE RESUME_AT > :now AND CLAIMED_TIME IS NULL")
+                            .setParameter("now", now)
+                            .executeUpdate());
+            if (resumed > 0) {
+                logger.info("Resumed {} task(s) suspended before this executor started", resumed);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to resume suspended tasks; they run again at their deadlines", e);
+        }
+    }
+
     @Override
     public void stop() {
         running = false;
+        SuspendedTasks.setResumeHandler(null);
+        if (listener != null) {
+            listener.shutdownNow();
+        }
         if (sweeper != null) {
             sweeper.shutdownNow();
         }
-        if (workers != null) {
-            workers.shutdownNow();
+        for (ExecutorService pool : new ExecutorService[] {workers, taskRunner}) {
+            if (pool == null) {
+                continue;
+            }
+            pool.shutdownNow();
             try {
-                workers.awaitTermination(15, TimeUnit.SECONDS);
+                pool.awaitTermination(15, TimeUnit.SECONDS);
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
@@ -166,7 +297,7 @@ public class ProcessExecutor implements SmartLifecycle {
             }
             if (!didWork) {
                 try {
-                    Thread.sleep(pollIntervalMs);
+                    wakeup.await(pollIntervalMs);
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                     break;
@@ -175,6 +306,102 @@ public class ProcessExecutor implements SmartLifecycle {
         }
     }
 
+    /**
+     * Virtual mode: claim as long as an in-flight slot is free and hand each claimed task to its own
+     * thread; park on {@link ExecutorWakeup} when nothing is claimable.
+     */
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                inFlight.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            boolean dispatched = false;
+            try {
+                dispatched = dispatchOnce();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                logger.error("Executor dispatcher error", e);
+            } finally {
+                if (!dispatched) {
+                    inFlight.release();
+                }
+            }
+            if (!running) {
+                break;
+            }
+            if (!dispatched) {
+                try {
+                    wakeup.await(pollIntervalMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+
+    /** Claim one task and start it; its thread releases the in-flight slot. Returns true if one was claimed. */
+    private boolean dispatchOnce() throws Exception {
+        RegistryHandler registry = SchedulerUtils.getRegistryHandler();
+        if (registry == null) {
+            return false;
+        }
+        Optional<Claim> claimOpt = withDbPermit(this::claimNextRunnableTask);
+        if (claimOpt.isEmpty()) {
+            return false;
+        }
+        Claim claim = claimOpt.get();
+        logger.info(
+                "Executor dispatched task {} ({}) of process {} on {}",
+                claim.taskId,
+                claim.taskType,
+                claim.processId,
+                claim.computeResourceId);
+        taskRunner.execute(() -> runDispatched(registry, claim));
+        return true;
+    }
+
+    private void runDispatched(RegistryHandler registry, Claim claim) {
+        try {
+            String resource = claim.computeResourceId == null ? "" : claim.computeResourceId;
+            DbTaskResult result = resourceLimiter.call(resource, () -> runRealTask(claim));
+            withDbPermit(() -> {
+                finishTask(registry, claim, result);
+                return null;
+            });
+        } catch (InterruptedException e) {
+            // shutdown: the claim stays EXECUTING and is reclaimed once its lease expires
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("Dispatched task {} of process {} failed", claim.taskId, claim.processId, e);
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    /**
+     * Virtual mode: run a claim or state write-back under a DB permit, so the dispatcher, task threads
+     * and resume events together never hold more connections than there are permits. In platform mode
+     * the worker count already bounds them and the write runs directly.
+     */
+    private <T> T withDbPermit(Callable<T> write) throws Exception {
+        Semaphore permits = dbPermits;
+        if (permits == null) {
+            return write.call();
+        }
+        permits.acquire();
+        try {
+            return write.call();
+        } finally {
+            permits.release();
+        }
+    }
+
     /** Claim and run one task. Returns true if a task ran (loop should immediately try again). */
     private boolean pollOnce(int workerId) {
         RegistryHandler registry = SchedulerUtils.getRegistryHandler();
@@ -205,6 +432,8 @@ public class ProcessExecutor implements SmartLifecycle {
      * {@link DbTaskResult} drives subsequent TASK/PROCESS state transitions.
      */
     private DbTaskResult runRealTask(Claim claim) {
+        // Adaptors the task fetches stay leased, so the adaptor cache cannot destroy them mid-run
+        TaskHelperImpl taskHelper = new TaskHelperImpl();
         try {
             Class<? extends AiravataTask> taskClass = resolveTask(claim.taskId, claim.taskType);
             if (taskClass == null) {
@@ -215,7 +444,7 @@ public class ProcessExecutor implements SmartLifecycle {
             String gatewayId = gatewayIdFor(claim.experimentId);
 
             AiravataTask task = taskClass.getDeclaredConstructor().newInstance();
-            task.setTaskHelper(new TaskHelperImpl());
+            task.setTaskHelper(taskHelper);
 
             Map<String, String> params = new HashMap<>();
             params.put("taskId", claim.taskId);
@@ -239,6 +468,8 @@ public class ProcessExecutor implements SmartLifecycle {
         } catch (Exception e) {
             logger.error("Real task {} ({}) of process {} threw", claim.taskId, claim.taskType, claim.processId, e);
             return DbTaskResult.failed(e.getMessage() == null ? e.toString() : e.getMessage());
+        } finally {
+            taskHelper.close();
         }
     }
 
@@ -317,45 +548,68 @@ public class ProcessExecutor implements SmartLifecycle {
 
     // ----------------------------------------------------------------- claim (FOR UPDATE SKIP LOCKED)
 
-    private Optional<Claim> claimNextRunnableTask() {
-        for (String pid : findRunnableProcessIds()) {
-            Optional<Claim> claim = repo.execute(em -> tryClaimUnderLock(em, pid));
-            if (claim.isPresent()) {
-                return claim;
+    /**
+     * Claims the next task of the oldest claimable process. A candidate can still turn out not to be
+     * claimable under the lock (a DAG that names no runnable task, say), so a window that yields no
+     * claim is followed by the next one: such processes never hide younger ones behind them.
+     */
+    Optional<Claim> claimNextRunnableTask() {
+        for (int offset = 0; ; offset += CLAIM_CANDIDATES) {
+            List<String> candidates = findClaimableProcessIds(offset);
+            for (String pid : candidates) {
+                Optional<Claim> claim = repo.execute(em -> tryClaimUnderLock(em, pid));
+                if (claim.isPresent()) {
+                    return claim;
+                }
+            }
+            if (candidates.size() < CLAIM_CANDIDATES) {
+                return Optional.empty();
             }
         }
-        return Optional.empty();
     }
 
     /**
      * Within one transaction: lock the PROCESS row (skip if another worker holds it), compute the
-     * next runnable task from the DAG + latest task states, and write the EXECUTING marker. The lock
-     * is released when this transaction commits.
+     * next runnable task from the DAG + current task states, and write the EXECUTING marker. The lock
+     * is released when this transaction commits. The candidate was picked without a lock, so
+     * everything is re-checked here: one locking read for the PROCESS row and its DAG, one read of
+     * the tasks joined to their current state, and one point lookup of the process state.
      */
     private Optional<Claim> tryClaimUnderLock(EntityManager em, String pid) {
         List<?> locked = em.createNativeQuery(
-                        "SELECT PROCESS_ID FROM PROCESS WHERE PROCESS_ID = :pid FOR UPDATE SKIP LOCKED")
+                        "SELECT PROCESS_ID, EXPERIMENT_ID, TASK_DAG, COMPUTE_RESOURCE_ID FROM PROCESS "
+                                + "WHERE PROCESS_ID = :pid FOR UPDATE SKIP LOCKED")
                 .setParameter("pid", pid)
                 .getResultList();
         if (locked.isEmpty()) {
             return Optional.empty(); // another worker holds this process
         }
+        Object[] processRow = (Object[]) locked.get(0);
 
-        List<String> dag = taskDag(em, pid);
+        List<String> dag = parseDag(processRow[2]);
         if (dag.isEmpty()) {
             return Optional.empty();
         }
-        String experimentId = experimentIdOf(em, pid);
-        Map<String, String> latest = latestTaskStates(em, pid);
+        String experimentId = (String) processRow[1];
 
-        // if a task is already EXECUTING, the process is in flight under another worker / lease
-        for (String state : latest.values()) {
-            if (TaskState.TASK_STATE_EXECUTING.name().equals(state)) {
-                return Optional.empty();
+        @SuppressWarnings("unchecked")
+        List<Object[]> taskRows = em.createNativeQuery("SELECT t.TASK_ID, t.TASK_TYPE, cs.STATE FROM TASK t "
+                        + "LEFT JOIN EXEC_CURRENT_STATUS cs ON cs.ENTITY_TYPE = 'TASK' AND cs.ENTITY_ID = t.TASK_ID "
+                        + "WHERE t.PARENT_PROCESS_ID = :pid")
+                .setParameter("pid", pid)
+                .getResultList();
+        Map<String, String> latest = new HashMap<>();
+        Map<String, TaskTypes> types = new HashMap<>();
+        for (Object[] a : taskRows) {
+            types.put((String) a[0], parseTaskType(a[1] == null ? null : a[1].toString()));
+            if (a[2] != null) {
+                latest.put((String) a[0], (String) a[2]);
             }
         }
 
+        long now = System.currentTimeMillis();
         String nextTaskId = null;
+        boolean stagingInFlight = false;
         for (String tid : dag) {
             String state = latest.getOrDefault(tid, TaskState.TASK_STATE_CREATED.name());
             if (TaskState.TASK_STATE_COMPLETED.name().equals(state)) {
@@ -365,6 +619,17 @@ public class ProcessExecutor implements SmartLifecycle {
                     || TaskState.TASK_STATE_CANCELED.name().equals(state)) {
                 return Optional.empty(); // a terminal-failed task blocks the DAG
             }
+            boolean staging = types.get(tid) == TaskTypes.DATA_STAGING;
+            if (TaskState.TASK_STATE_EXECUTING.name().equals(state)) {
+                if (!staging) {
+                    return Optional.empty(); // in flight under another worker / lease
+                }
+                stagingInFlight = true; // a staging sibling may run alongside it
+                continue;
+            }
+            if (stagingInFlight && !staging) {
+                return Optional.empty(); // the task after a staging run waits for all of it
+            }
             nextTaskId = tid; // CREATED (or no status yet)
             break;
         }
@@ -372,72 +637,221 @@ public class ProcessExecutor implements SmartLifecycle {
             return Optional.empty(); // all tasks completed; finalize handled by finishTask/sweep
         }
 
-        Map<String, TaskTypes> types = taskTypes(em, pid);
         TaskTypes taskType = types.getOrDefault(nextTaskId, TaskTypes.TASK_TYPES_UNKNOWN);
 
-        long now = System.currentTimeMillis();
-        insertStatus(em, "TASK", nextTaskId, TaskState.TASK_STATE_EXECUTING.name(), now, "claimed by executor");
+        List<?> suspension = em.createNativeQuery("SELECT RESUME_AT FROM TASK_SUSPENSION WHERE TASK_ID = :tid")
+                .setParameter("tid", nextTaskId)
+                .getResultList();
+        if (!suspension.isEmpty()) {
+            if (((Timestamp) suspension.get(0)).getTime() > now) {
+                return Optional.empty(); // still waiting on its event, its deadline or its running resume
+            }
+            // The suspension row is the resumed run's lease: its process stays unclaimable until the
+            // run suspends again or finishes, or the lease runs out. No status is written, so a
+            // periodic recheck that suspends again leaves the task history untouched.
+            em.createNativeQuery("UPDATE TASK_SUSPENSION SET RESUME_AT = :leaseEnd, CLAIMED_TIME = :now "
+                            + "WHERE TASK_ID = :tid")
+                    .setParameter("leaseEnd", new Timestamp(now + leaseTimeoutMs))
+                    .setParameter("now", new Timestamp(now))
+                    .setParameter("tid", nextTaskId)
+                    .executeUpdate();
+        } else {
+            insertStatus(em, "TASK", nextTaskId, TaskState.TASK_STATE_EXECUTING.name(), now, CLAIM_REASON);
+        }
 
         ProcessState stage = processStageFor(taskType, nextTaskId, dag, types);
-        if (stage != null && !stage.name().equals(latestProcessState(em, pid))) {
+        if (stage != null && !stage.name().equals(currentStatus.getState(em, "PROCESS", pid))) {
             insertStatus(em, "PROCESS", pid, stage.name(), now, "");
         }
 
-        return Optional.of(new Claim(pid, experimentId, nextTaskId, taskType));
+        return Optional.of(new Claim(pid, experimentId, nextTaskId, taskType, (String) processRow[3]));
     }
 
     // ----------------------------------------------------------------- finalize state after run
 
-    private void finishTask(RegistryHandler registry, Claim claim, DbTaskResult result) {
+    void finishTask(RegistryHandler registry, Claim claim, DbTaskResult result) {
         try {
-            DbTaskResult.Status status = result.status();
-            if (status == DbTaskResult.Status.COMPLETED || status == DbTaskResult.Status.SKIPPED) {
-                addTaskStatus(registry, claim.taskId, TaskState.TASK_STATE_COMPLETED, result.message());
-                logger.info("Task {} ({}) COMPLETED for process {}", claim.taskId, claim.taskType, claim.processId);
-                if (allTasksCompleted(claim.processId)) {
-                    addProcessStatus(registry, claim.processId, ProcessState.PROCESS_STATE_COMPLETED, null);
-                    logger.info("Process {} COMPLETED (all DAG tasks done)", claim.processId);
+            if (result.status() == DbTaskResult.Status.SUSPENDED) {
+                suspend(claim, result);
+                return;
+            }
+            earlyResumes.remove(claim.taskId);
+            endSuspension(claim.taskId);
+            Settlement settled = repo.execute(em -> settle(em, claim, result));
+            if (settled.moved() != null) {
+                afterProcessMoved(registry, claim.processId, settled.moved());
+                if (settled.moved() != ProcessState.PROCESS_STATE_REQUEUED) {
                     rollUpExperiment(registry, claim.experimentId);
                 }
-            } else if (status == DbTaskResult.Status.FAILED && shouldRetry(claim.taskId)) {
-                addTaskStatus(
-                        registry,
-                        claim.taskId,
-                        TaskState.TASK_STATE_CREATED,
-                        "requeued after failure: " + result.message());
-                addProcessStatus(registry, claim.processId, ProcessState.PROCESS_STATE_REQUEUED, null);
-                logger.warn("Task {} failed and was requeued for process {}", claim.taskId, claim.processId);
-            } else {
-                addTaskStatus(registry, claim.taskId, TaskState.TASK_STATE_FAILED, result.message());
-                addProcessStatus(registry, claim.processId, ProcessState.PROCESS_STATE_FAILED, result.message());
-                logger.error(
-                        "Task {} ({}) FAILED for process {}: {}",
-                        claim.taskId,
-                        claim.taskType,
-                        claim.processId,
-                        result.message());
-                rollUpExperiment(registry, claim.experimentId);
+            } else if (settled.advanced()) {
+                wakeup.signal("task " + claim.taskId + " completed");
             }
         } catch (Exception e) {
             logger.error("Failed to finalize task {} of process {}", claim.taskId, claim.processId, e);
         }
     }
 
+    /**
+     * Record a finished task's outcome and decide its process's next state in one transaction under
+     * the process row lock, so staging siblings finishing together see each other's outcome: exactly
+     * one of them completes the process, and none overwrites a sibling's failure.
+     */
+    private Settlement settle(EntityManager em, Claim claim, DbTaskResult result) {
+        lockProcess(em, claim.processId);
+        long now = System.currentTimeMillis();
+        DbTaskResult.Status status = result.status();
+        boolean succeeded = status == DbTaskResult.Status.COMPLETED || status == DbTaskResult.Status.SKIPPED;
+        String processState = currentStatus.getState(em, "PROCESS", claim.processId);
+        if (TERMINAL_PROCESS_STATES.contains(processState)) {
+            // A staging sibling finishing after another one failed the process: record its own
+            // outcome only, so it neither requeues nor re-finalizes the process.
+            TaskState taskState = succeeded ? TaskState.TASK_STATE_COMPLETED : TaskState.TASK_STATE_FAILED;
+            insertStatus(em, "TASK", claim.taskId, taskState.name(), now, result.message());
+            logger.info(
+                    "Task {} ({}) finished {} after process {} was finalized as {}",
+                    claim.taskId,
+                    claim.taskType,
+                    status,
+                    claim.processId,
+                    processState);
+            return new Settlement(null, false);
+        }
+        if (succeeded) {
+            insertStatus(em, "TASK", claim.taskId, TaskState.TASK_STATE_COMPLETED.name(), now, result.message());
+            logger.info("Task {} ({}) COMPLETED for process {}", claim.taskId, claim.taskType, claim.processId);
+            if (!allTasksCompleted(em, claim.processId)) {
+                return new Settlement(null, true);
+            }
+            insertStatus(em, "PROCESS", claim.processId, ProcessState.PROCESS_STATE_COMPLETED.name(), now, "");
+            logger.info("Process {} COMPLETED (all DAG tasks done)", claim.processId);
+            return new Settlement(ProcessState.PROCESS_STATE_COMPLETED, false);
+        }
+        if (status == DbTaskResult.Status.FAILED && shouldRetry(em, claim.taskId)) {
+            insertStatus(
+                    em,
+                    "TASK",
+                    claim.taskId,
+                    TaskState.TASK_STATE_CREATED.name(),
+                    now,
+                    "requeued after failure: " + result.message());
+            insertStatus(em, "PROCESS", claim.processId, ProcessState.PROCESS_STATE_REQUEUED.name(), now, "");
+            logger.warn("Task {} failed and was requeued for process {}", claim.taskId, claim.processId);
+            return new Settlement(ProcessState.PROCESS_STATE_REQUEUED, false);
+        }
+        insertStatus(em, "TASK", claim.taskId, TaskState.TASK_STATE_FAILED.name(), now, result.message());
+        insertStatus(em, "PROCESS", claim.processId, ProcessState.PROCESS_STATE_FAILED.name(), now, result.message());
+        logger.error(
+                "Task {} ({}) FAILED for process {}: {}",
+                claim.taskId,
+                claim.taskType,
+                claim.processId,
+                result.message());
+        return new Settlement(ProcessState.PROCESS_STATE_FAILED, false);
+    }
+
+    /** Wait for the row lock of a process, serializing its state decisions with claims and siblings. */
+    private static void lockProcess(EntityManager em, String pid) {
+        em.createNativeQuery("SELECT PROCESS_ID FROM PROCESS WHERE PROCESS_ID = :pid FOR UPDATE")
+                .setParameter("pid", pid)
+                .getResultList();
+    }
+
+    /**
+     * Release a suspended task: in one transaction record its suspension and move it back to CREATED,
+     * which ends its lease. Its process is skipped by the claim query until the suspension is due. A
+     * resumed run that suspends again only moves its deadline; the task is already CREATED.
+     */
+    private void suspend(Claim claim, DbTaskResult result) {
+        long now = System.currentTimeMillis();
+        String reason = result.message() == null ? "" : result.message();
+        repo.execute(em -> {
+            em.createNativeQuery("INSERT INTO TASK_SUSPENSION (TASK_ID, PROCESS_ID, RESUME_AT, SUSPENDED_TIME, REASON) "
+                            + "VALUES (:tid, :pid, :resumeAt, :ts, :reason) ON DUPLICATE KEY UPDATE "
+                            + "RESUME_AT = :resumeAt, SUSPENDED_TIME = :ts, REASON = :reason, CLAIMED_TIME = NULL")
+                    .setParameter("tid", claim.taskId)
+                    .setParameter("pid", claim.processId)
+                    .setParameter("resumeAt", new Timestamp(Math.max(now, result.resumeAt())))
+                    .setParameter("ts", new Timestamp(now))
+                    .setParameter("reason", reason)
+                    .executeUpdate();
+            if (!TaskState.TASK_STATE_CREATED.name().equals(currentStatus.getState(em, "TASK", claim.taskId))) {
+                insertStatus(
+                        em, "TASK", claim.taskId, TaskState.TASK_STATE_CREATED.name(), now, "suspended: " + reason);
+            }
+            return null;
+        });
+        logger.info(
+                "Task {} ({}) of process {} suspended until {}: {}",
+                claim.taskId,
+                claim.taskType,
+                claim.processId,
+                new Timestamp(result.resumeAt()),
+                reason);
+        if (earlyResumes.remove(claim.taskId)) {
+            resumeSuspended(claim.taskId);
+        }
+    }
+
+    /** Drop the suspension (or resumed-run lease) of a task that finished, failed or was requeued. */
+    private void endSuspension(String taskId) {
+        repo.execute(em -> em.createNativeQuery("DELETE FROM TASK_SUSPENSION WHERE TASK_ID = :tid")
+                .setParameter("tid", taskId)
+                .executeUpdate());
+    }
+
+    /** {@link SuspendedTasks} handler, called from the threads that observe task events (job pollers). */
+    private void resumeFromEvent(String taskId) {
+        try {
+            withDbPermit(() -> {
+                resumeSuspended(taskId);
+                return null;
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted resuming suspended task {}; it runs again at its deadline", taskId);
+        } catch (Exception e) {
+            logger.warn("Failed to resume suspended task {}; it runs again at its deadline", taskId, e);
+        }
+    }
+
+    /**
+     * Make a suspended task due now and wake a worker. A resume that
+     * finds no waiting suspension is remembered, since the task may still be on its way to suspending
+     * (or be running a resumed check that is about to suspend again).
+     */
+    private void resumeSuspended(String taskId) {
+        earlyResumes.add(taskId);
+        try {
+            int updated = repo.execute(em -> em.createNativeQuery("UPDATE TASK_SUSPENSION SET RESUME_AT = :now "
+                            + "WHERE TASK_ID = :tid AND CLAIMED_TIME IS NULL")
+                    .setParameter("now", new Timestamp(System.currentTimeMillis()))
+                    .setParameter("tid", taskId)
+                    .executeUpdate());
+            if (updated > 0) {
+                earlyResumes.remove(taskId);
+                wakeup.signal("task " + taskId + " resumed");
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to resume suspended task {}; it runs again at its deadline", taskId, e);
+        }
+    }
+
     private void rollUpExperiment(RegistryHandler registry, String experimentId) throws Exception {
         if (experimentId == null) {
             return;
         }
-        // Roll up from native EXEC_STATUS reads rather than mapping each sibling ProcessModel, so a
+        // Roll up from native current-state reads rather than mapping each sibling ProcessModel, so a
         // single unmappable process cannot block the experiment's roll-up.
         boolean[] flags = repo.execute(em -> {
             @SuppressWarnings("unchecked")
-            List<String> pids = em.createNativeQuery("SELECT PROCESS_ID FROM PROCESS WHERE EXPERIMENT_ID = :exp")
+            List<String> states = em.createNativeQuery("SELECT cs.STATE FROM PROCESS p "
+                            + "LEFT JOIN EXEC_CURRENT_STATUS cs ON cs.ENTITY_TYPE = 'PROCESS' "
+                            + "AND cs.ENTITY_ID = p.PROCESS_ID WHERE p.EXPERIMENT_ID = :exp")
                     .setParameter("exp", experimentId)
                     .getResultList();
-            boolean allDone = !pids.isEmpty();
+            boolean allDone = !states.isEmpty();
             boolean failed = false;
-            for (String pid : pids) {
-                String state = latestProcessState(em, pid);
+            for (String state : states) {
                 if (ProcessState.PROCESS_STATE_FAILED.name().equals(state)) {
                     failed = true;
                 }
@@ -472,25 +886,14 @@ public class ProcessExecutor implements SmartLifecycle {
     /** Re-mark tasks stuck in EXECUTING past the lease timeout as CREATED so they get re-claimed. */
     private void reclaimStaleLeases() {
         long cutoff = System.currentTimeMillis() - leaseTimeoutMs;
-        List<String> stale = repo.execute(em -> {
-            @SuppressWarnings("unchecked")
-            List<Object[]> rows = em.createNativeQuery(
-                            "SELECT s.ENTITY_ID, MAX(s.TIME_OF_STATE_CHANGE) FROM EXEC_STATUS s "
-                                    + "WHERE s.ENTITY_TYPE = 'TASK' AND s.STATE = :st GROUP BY s.ENTITY_ID")
-                    .setParameter("st", TaskState.TASK_STATE_EXECUTING.name())
-                    .getResultList();
-            List<String> result = new ArrayList<>();
-            for (Object[] a : rows) {
-                String taskId = (String) a[0];
-                if (toMillis(a[1]) >= cutoff) {
-                    continue;
-                }
-                if (TaskState.TASK_STATE_EXECUTING.name().equals(latestStateForTask(em, taskId))) {
-                    result.add(taskId);
-                }
-            }
-            return result;
-        });
+        // a range scan of the projection's (ENTITY_TYPE, STATE, TIME_OF_STATE_CHANGE) index: only
+        // tasks whose current state is EXECUTING, and has been since before the cutoff
+        List<String> stale = repo.execute(
+                em -> toIds(em.createNativeQuery("SELECT ENTITY_ID FROM EXEC_CURRENT_STATUS WHERE ENTITY_TYPE = 'TASK' "
+                                + "AND STATE = :st AND TIME_OF_STATE_CHANGE < :cutoff")
+                        .setParameter("st", TaskState.TASK_STATE_EXECUTING.name())
+                        .setParameter("cutoff", new Timestamp(cutoff))
+                        .getResultList()));
         for (String taskId : stale) {
             repo.execute(em -> {
                 insertStatus(
@@ -504,6 +907,9 @@ public class ProcessExecutor implements SmartLifecycle {
             });
             logger.warn("Reclaimed stale EXECUTING lease for task {}", taskId);
         }
+        if (!stale.isEmpty()) {
+            wakeup.signal(stale.size() + " stale lease(s) reclaimed");
+        }
     }
 
     /** Safety net: finalize runnable processes whose DAG tasks are all completed. */
@@ -512,12 +918,27 @@ public class ProcessExecutor implements SmartLifecycle {
         if (registry == null) {
             return;
         }
-        for (String pid : findRunnableProcessIds()) {
-            if (!allTasksCompleted(pid)) {
-                continue;
-            }
+        for (String pid : findFinishedRunnableProcessIds()) {
             try {
-                addProcessStatus(registry, pid, ProcessState.PROCESS_STATE_COMPLETED, "finalized by sweep");
+                boolean finalized = repo.execute(em -> {
+                    lockProcess(em, pid);
+                    if (!RUNNABLE_PROCESS_STATES.contains(currentStatus.getState(em, "PROCESS", pid))
+                            || !allTasksCompleted(em, pid)) {
+                        return false;
+                    }
+                    insertStatus(
+                            em,
+                            "PROCESS",
+                            pid,
+                            ProcessState.PROCESS_STATE_COMPLETED.name(),
+                            System.currentTimeMillis(),
+                            "finalized by sweep");
+                    return true;
+                });
+                if (!finalized) {
+                    continue;
+                }
+                afterProcessMoved(registry, pid, ProcessState.PROCESS_STATE_COMPLETED);
                 rollUpExperiment(registry, repo.execute(em -> experimentIdOf(em, pid)));
                 logger.info("Sweep finalized process {} as COMPLETED", pid);
             } catch (Exception e) {
@@ -526,24 +947,24 @@ public class ProcessExecutor implements SmartLifecycle {
         }
     }
 
-    // ----------------------------------------------------------------- registry-backed state writes
+    // ----------------------------------------------------------------- state write follow-ups
 
-    private void addTaskStatus(RegistryHandler registry, String taskId, TaskState state, String reason)
-            throws Exception {
-        TaskStatus.Builder b = TaskStatus.newBuilder().setState(state);
-        if (reason != null) {
-            b.setReason(reason);
+    /** Wake the workers for a process that became runnable, or drop the snapshot of a finished one. */
+    private void afterProcessMoved(RegistryHandler registry, String processId, ProcessState state) {
+        if (RUNNABLE_PROCESS_STATES.contains(state.name())) {
+            wakeup.signal("process " + processId + " moved to " + state.name());
+        } else if (TERMINAL_PROCESS_STATES.contains(state.name())) {
+            discardContextSnapshot(registry, processId);
         }
-        registry.addTaskStatus(b.build(), taskId);
     }
 
-    private void addProcessStatus(RegistryHandler registry, String processId, ProcessState state, String reason)
-            throws Exception {
-        ProcessStatus.Builder b = ProcessStatus.newBuilder().setState(state);
-        if (reason != null) {
-            b.setReason(reason);
+    /** No task of a terminal process reads its context snapshot again. */
+    private void discardContextSnapshot(RegistryHandler registry, String processId) {
+        try {
+            registry.deleteProcessContextSnapshot(processId);
+        } catch (Exception e) {
+            logger.warn("Failed to delete the context snapshot of process {}", processId, e);
         }
-        registry.addProcessStatus(b.build(), processId);
     }
 
     private void updateExperimentStatus(RegistryHandler registry, String experimentId, ExperimentState state)
@@ -555,52 +976,89 @@ public class ProcessExecutor implements SmartLifecycle {
         registry.updateExperimentStatus(es, experimentId);
     }
 
-    private boolean shouldRetry(String taskId) {
-        long attempts = repo.execute(em -> ((Number)
-                        em.createNativeQuery("SELECT COUNT(*) FROM EXEC_STATUS WHERE ENTITY_TYPE = 'TASK' "
-                                        + "AND ENTITY_ID = :eid AND STATE = :st")
-                                .setParameter("eid", taskId)
-                                .setParameter("st", TaskState.TASK_STATE_EXECUTING.name())
-                                .getSingleResult())
-                .longValue());
+    private boolean shouldRetry(EntityManager em, String taskId) {
+        long attempts = ((Number) em.createNativeQuery("SELECT COUNT(*) FROM EXEC_STATUS WHERE ENTITY_TYPE = 'TASK' "
+                                + "AND ENTITY_ID = :eid AND STATE = :st")
+                        .setParameter("eid", taskId)
+                        .setParameter("st", TaskState.TASK_STATE_EXECUTING.name())
+                        .getSingleResult())
+                .longValue();
         return attempts < maxAttempts;
     }
 
-    private boolean allTasksCompleted(String pid) {
-        return repo.execute(em -> {
-            List<String> dag = taskDag(em, pid);
-            if (dag.isEmpty()) {
+    private boolean allTasksCompleted(EntityManager em, String pid) {
+        List<String> dag = taskDag(em, pid);
+        if (dag.isEmpty()) {
+            return false;
+        }
+        Map<String, String> latest = currentStatus.getTaskStates(em, pid);
+        for (String tid : dag) {
+            if (!TaskState.TASK_STATE_COMPLETED.name().equals(latest.get(tid))) {
                 return false;
             }
-            Map<String, String> latest = latestTaskStates(em, pid);
-            for (String tid : dag) {
-                if (!TaskState.TASK_STATE_COMPLETED.name().equals(latest.get(tid))) {
-                    return false;
-                }
-            }
-            return true;
-        });
+        }
+        return true;
     }
 
     // ----------------------------------------------------------------- native read helpers
 
-    private List<String> findRunnableProcessIds() {
-        String inList = RUNNABLE_PROCESS_STATES.stream().map(s -> "'" + s + "'").collect(Collectors.joining(","));
-        String sql = "SELECT p.PROCESS_ID FROM PROCESS p "
-                + "JOIN (SELECT s.ENTITY_ID, s.STATE FROM EXEC_STATUS s "
-                + "  JOIN (SELECT ENTITY_ID, MAX(TIME_OF_STATE_CHANGE) mt FROM EXEC_STATUS "
-                + "        WHERE ENTITY_TYPE = 'PROCESS' GROUP BY ENTITY_ID) m "
-                + "    ON s.ENTITY_ID = m.ENTITY_ID AND s.TIME_OF_STATE_CHANGE = m.mt AND s.ENTITY_TYPE = 'PROCESS') latest "
-                + "  ON latest.ENTITY_ID = p.PROCESS_ID "
-                + "WHERE latest.STATE IN (" + inList + ") ORDER BY p.CREATION_TIME ASC";
-        return repo.execute(em -> {
-            List<?> rows = em.createNativeQuery(sql).getResultList();
-            List<String> ids = new ArrayList<>();
-            for (Object row : rows) {
-                ids.add(row instanceof Object[] arr ? (String) arr[0] : (String) row);
-            }
-            return new ArrayList<>(new LinkedHashSet<>(ids));
-        });
+    /**
+     * Oldest runnable processes that have a claimable task: a task that is neither COMPLETED nor
+     * EXECUTING, no task that is FAILED/CANCELED (DAG blocked) or EXECUTING other than data staging
+     * (in flight), no suspension that is not yet due, and a non-blank DAG. One set-based query over
+     * the {@code EXEC_CURRENT_STATUS} state index, read one window at a time from {@code offset};
+     * the DAG order itself is checked under the lock.
+     */
+    private List<String> findClaimableProcessIds(int offset) {
+        String sql = "SELECT p.PROCESS_ID FROM EXEC_CURRENT_STATUS ps "
+                + "JOIN PROCESS p ON p.PROCESS_ID = ps.ENTITY_ID "
+                + "WHERE ps.ENTITY_TYPE = 'PROCESS' AND ps.STATE IN (:runnable) "
+                + "AND p.TASK_DAG IS NOT NULL AND TRIM(p.TASK_DAG) <> '' "
+                + "AND EXISTS (SELECT 1 FROM TASK t "
+                + "  LEFT JOIN EXEC_CURRENT_STATUS ts ON ts.ENTITY_TYPE = 'TASK' AND ts.ENTITY_ID = t.TASK_ID "
+                + "  WHERE t.PARENT_PROCESS_ID = p.PROCESS_ID "
+                + "    AND (ts.STATE IS NULL OR ts.STATE NOT IN (:unclaimable))) "
+                + "AND NOT EXISTS (SELECT 1 FROM TASK t "
+                + "  JOIN EXEC_CURRENT_STATUS ts ON ts.ENTITY_TYPE = 'TASK' AND ts.ENTITY_ID = t.TASK_ID "
+                + "  WHERE t.PARENT_PROCESS_ID = p.PROCESS_ID AND (ts.STATE IN (:blocking) "
+                + "    OR (ts.STATE = :executing AND (t.TASK_TYPE IS NULL OR t.TASK_TYPE <> :staging)))) "
+                + "AND NOT EXISTS (SELECT 1 FROM TASK_SUSPENSION s "
+                + "  WHERE s.PROCESS_ID = p.PROCESS_ID AND s.RESUME_AT > :now) "
+                + "ORDER BY p.CREATION_TIME ASC, p.PROCESS_ID ASC";
+        return repo.execute(em -> toIds(em.createNativeQuery(sql)
+                .setParameter("runnable", RUNNABLE_PROCESS_STATES)
+                .setParameter("unclaimable", UNCLAIMABLE_TASK_STATES)
+                .setParameter("blocking", BLOCKING_TASK_STATES)
+                .setParameter("executing", TaskState.TASK_STATE_EXECUTING.name())
+                .setParameter("staging", TaskTypes.DATA_STAGING.name())
+                .setParameter("now", new Timestamp(System.currentTimeMillis()))
+                .setFirstResult(offset)
+                .setMaxResults(CLAIM_CANDIDATES)
+                .getResultList()));
+    }
+
+    /** Runnable processes whose tasks all read COMPLETED in the projection (sweep finalization candidates). */
+    private List<String> findFinishedRunnableProcessIds() {
+        String sql = "SELECT p.PROCESS_ID FROM EXEC_CURRENT_STATUS ps "
+                + "JOIN PROCESS p ON p.PROCESS_ID = ps.ENTITY_ID "
+                + "WHERE ps.ENTITY_TYPE = 'PROCESS' AND ps.STATE IN (:runnable) "
+                + "AND EXISTS (SELECT 1 FROM TASK t WHERE t.PARENT_PROCESS_ID = p.PROCESS_ID) "
+                + "AND NOT EXISTS (SELECT 1 FROM TASK t "
+                + "  LEFT JOIN EXEC_CURRENT_STATUS ts ON ts.ENTITY_TYPE = 'TASK' AND ts.ENTITY_ID = t.TASK_ID "
+                + "  WHERE t.PARENT_PROCESS_ID = p.PROCESS_ID AND (ts.STATE IS NULL OR ts.STATE <> :completed)) "
+                + "ORDER BY p.CREATION_TIME ASC";
+        return repo.execute(em -> toIds(em.createNativeQuery(sql)
+                .setParameter("runnable", RUNNABLE_PROCESS_STATES)
+                .setParameter("completed", TaskState.TASK_STATE_COMPLETED.name())
+                .getResultList()));
+    }
+
+    private static List<String> toIds(List<?> rows) {
+        List<String> ids = new ArrayList<>();
+        for (Object row : rows) {
+            ids.add(row instanceof Object[] arr ? (String) arr[0] : (String) row);
+        }
+        return new ArrayList<>(new LinkedHashSet<>(ids));
     }
 
     private List<String> taskDag(EntityManager em, String pid) {
@@ -612,6 +1070,10 @@ public class ProcessExecutor implements SmartLifecycle {
         } catch (Exception e) {
             return List.of();
         }
+        return parseDag(dagObj);
+    }
+
+    private static List<String> parseDag(Object dagObj) {
         if (dagObj == null) {
             return List.of();
         }
@@ -635,84 +1097,6 @@ public class ProcessExecutor implements SmartLifecycle {
         }
     }
 
-    private Map<String, TaskTypes> taskTypes(EntityManager em, String pid) {
-        @SuppressWarnings("unchecked")
-        List<Object[]> rows = em.createNativeQuery("SELECT TASK_ID, TASK_TYPE FROM TASK WHERE PARENT_PROCESS_ID = :pid")
-                .setParameter("pid", pid)
-                .getResultList();
-        Map<String, TaskTypes> m = new HashMap<>();
-        for (Object[] a : rows) {
-            m.put((String) a[0], parseTaskType(a[1] == null ? null : a[1].toString()));
-        }
-        return m;
-    }
-
-    /** Latest state per task for a process, resolving same-timestamp ties by state rank. */
-    private Map<String, String> latestTaskStates(EntityManager em, String pid) {
-        @SuppressWarnings("unchecked")
-        List<Object[]> rows = em.createNativeQuery(
-                        "SELECT s.ENTITY_ID, s.STATE, s.TIME_OF_STATE_CHANGE FROM EXEC_STATUS s "
-                                + "WHERE s.ENTITY_TYPE = 'TASK' AND s.ENTITY_ID IN "
-                                + "(SELECT TASK_ID FROM TASK WHERE PARENT_PROCESS_ID = :pid)")
-                .setParameter("pid", pid)
-                .getResultList();
-        Map<String, String> best = new HashMap<>();
-        Map<String, Long> bestTime = new HashMap<>();
-        Map<String, Integer> bestRank = new HashMap<>();
-        for (Object[] a : rows) {
-            String tid = (String) a[0];
-            String state = (String) a[1];
-            long time = toMillis(a[2]);
-            int rank = stateRank(state);
-            Long ct = bestTime.get(tid);
-            if (ct == null || time > ct || (time == ct && rank > bestRank.get(tid))) {
-                best.put(tid, state);
-                bestTime.put(tid, time);
-                bestRank.put(tid, rank);
-            }
-        }
-        return best;
-    }
-
-    private String latestStateForTask(EntityManager em, String taskId) {
-        @SuppressWarnings("unchecked")
-        List<Object[]> rows = em.createNativeQuery("SELECT s.STATE, s.TIME_OF_STATE_CHANGE FROM EXEC_STATUS s "
-                        + "WHERE s.ENTITY_TYPE = 'TASK' AND s.ENTITY_ID = :tid")
-                .setParameter("tid", taskId)
-                .getResultList();
-        String best = null;
-        long bestTime = -1;
-        int bestRank = -1;
-        for (Object[] a : rows) {
-            long time = toMillis(a[1]);
-            int rank = stateRank((String) a[0]);
-            if (time > bestTime || (time == bestTime && rank > bestRank)) {
-                bestTime = time;
-                bestRank = rank;
-                best = (String) a[0];
-            }
-        }
-        return best;
-    }
-
-    private String latestProcessState(EntityManager em, String pid) {
-        @SuppressWarnings("unchecked")
-        List<Object[]> rows = em.createNativeQuery("SELECT s.STATE, s.TIME_OF_STATE_CHANGE FROM EXEC_STATUS s "
-                        + "WHERE s.ENTITY_TYPE = 'PROCESS' AND s.ENTITY_ID = :pid")
-                .setParameter("pid", pid)
-                .getResultList();
-        String best = null;
-        long bestTime = -1;
-        for (Object[] a : rows) {
-            long time = toMillis(a[1]);
-            if (time > bestTime) {
-                bestTime = time;
-                best = (String) a[0];
-            }
-        }
-        return best;
-    }
-
     private void insertStatus(
             EntityManager em, String entityType, String entityId, String state, long timeMillis, String reason) {
         String prefix =
@@ -727,6 +1111,7 @@ public class ProcessExecutor implements SmartLifecycle {
                 .setParameter("ts", new Timestamp(timeMillis))
                 .setParameter("reason", reason == null ? "" : reason)
                 .executeUpdate();
+        currentStatus.record(em, entityType, entityId, state, new Timestamp(timeMillis));
     }
 
     // ----------------------------------------------------------------- pure helpers
@@ -761,33 +1146,6 @@ public class ProcessExecutor implements SmartLifecycle {
         }
     }
 
-    /**
-     * Tie-break rank for two EXEC_STATUS rows of the same task that share a
-     * TIME_OF_STATE_CHANGE. TIME_OF_STATE_CHANGE is second-precision, so a fast
-     * EXECUTING -> CREATED requeue (finishTask writes CREATED in the same second the
-     * task was claimed EXECUTING) lands on the same timestamp. CREATED must out-rank
-     * EXECUTING so that requeue wins the tie and the task is re-claimed on the next poll
-     * instead of being masked as still-EXECUTING and stalled for a full lease interval.
-     * This is only a same-timestamp tiebreak; the primary ordering is still by time, so
-     * any later EXECUTING (the normal CREATED -> EXECUTING start, written with a fresh
-     * timestamp at claim time) still wins by being strictly newer.
-     */
-    private static int stateRank(String state) {
-        TaskState s = parseTaskState(state);
-        if (s == TaskState.TASK_STATE_COMPLETED
-                || s == TaskState.TASK_STATE_FAILED
-                || s == TaskState.TASK_STATE_CANCELED) {
-            return 4;
-        }
-        if (s == TaskState.TASK_STATE_CREATED) {
-            return 3;
-        }
-        if (s == TaskState.TASK_STATE_EXECUTING) {
-            return 2;
-        }
-        return 1;
-    }
-
     private static TaskTypes parseTaskType(String s) {
         if (s == null) {
             return TaskTypes.TASK_TYPES_UNKNOWN;
@@ -799,36 +1157,6 @@ public class ProcessExecutor implements SmartLifecycle {
         }
     }
 
-    private static TaskState parseTaskState(String s) {
-        if (s == null) {
-            return TaskState.TASK_STATE_UNKNOWN;
-        }
-        try {
-            return TaskState.valueOf(s);
-        } catch (IllegalArgumentException e) {
-            return TaskState.TASK_STATE_UNKNOWN;
-        }
-    }
-
-    private static long toMillis(Object dbTimestamp) {
-        if (dbTimestamp == null) {
-            return 0L;
-        }
-        if (dbTimestamp instanceof Timestamp ts) {
-            return ts.getTime();
-        }
-        if (dbTimestamp instanceof java.util.Date d) {
-            return d.getTime();
-        }
-        if (dbTimestamp instanceof java.time.LocalDateTime ldt) {
-            return ldt.atZone(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli();
-        }
-        if (dbTimestamp instanceof java.time.Instant in) {
-            return in.toEpochMilli();
-        }
-        return 0L;
-    }
-
     private static ThreadFactory namedDaemon(String prefix) {
         AtomicInteger seq = new AtomicInteger();
         return r -> {
@@ -838,17 +1166,22 @@ public class ProcessExecutor implements SmartLifecycle {
         };
     }
 
-    private static final class Claim {
+    /** The state {@link #settle} moved a process to (null if none), and whether its DAG advanced. */
+    private record Settlement(ProcessState moved, boolean advanced) {}
+
+    static final class Claim {
         final String processId;
         final String experimentId;
         final String taskId;
         final TaskTypes taskType;
+        final String computeResourceId;
 
-        Claim(String processId, String experimentId, String taskId, TaskTypes taskType) {
+        Claim(String processId, String experimentId, String taskId, TaskTypes taskType, String computeResourceId) {
             this.processId = processId;
             this.experimentId = experimentId;
             this.taskId = taskId;
             this.taskType = taskType;
+            this.computeResourceId = computeResourceId;
         }
     }
 }
@@ -146,6 +146,11 @@ public class ExecutionDataAccessImpl implements ExecutionDataAccess {
         return taskRepository.addTask(task, processId);
     }
 
+    @Override
+    public List<String> addTasks(List<TaskModel> tasks, String processId) throws RegistryException {
+        return taskRepository.addTasks(tasks, processId);
+    }
+
     @Override
     public void deleteTasks(String processId) throws RegistryException {
         taskRepository.deleteTasks(processId);
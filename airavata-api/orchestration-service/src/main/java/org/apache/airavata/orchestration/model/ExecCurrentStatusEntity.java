@@ -0,0 +1,101 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.orchestration.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.sql.Timestamp;
+
+/**
+ * Current-state projection of the append-only {@code EXEC_STATUS} history: one row per
+ * (ENTITY_TYPE, ENTITY_ID) holding the state that wins the history's ordering (latest
+ * TIME_OF_STATE_CHANGE, ties broken by STATE_RANK). Maintained by
+ * {@code ExecCurrentStatusRepository} in the same transaction as every history write, so readers
+ * can do point or state-indexed lookups instead of re-aggregating the history.
+ */
+@Entity
+@Table(
+        name = "EXEC_CURRENT_STATUS",
+        // The executor's runnable-process scan filters by (type, state).
+        indexes =
+                @Index(name = "IDX_EXEC_CURRENT_STATUS_STATE", columnList = "ENTITY_TYPE, STATE, TIME_OF_STATE_CHANGE"))
+@IdClass(ExecCurrentStatusPK.class)
+public class ExecCurrentStatusEntity implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "ENTITY_TYPE")
+    private String entityType; // PROCESS, TASK, JOB
+
+    @Id
+    @Column(name = "ENTITY_ID")
+    private String entityId;
+
+    @Column(name = "STATE")
+    private String state;
+
+    @Column(name = "STATE_RANK", nullable = false)
+    private int stateRank;
+
+    @Column(name = "TIME_OF_STATE_CHANGE")
+    private Timestamp timeOfStateChange;
+
+    public ExecCurrentStatusEntity() {}
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public String getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(String entityId) {
+        this.entityId = entityId;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public int getStateRank() {
+        return stateRank;
+    }
+
+    public void setStateRank(int stateRank) {
+        this.stateRank = stateRank;
+    }
+
+    public Timestamp getTimeOfStateChange() {
+        return timeOfStateChange;
+    }
+
+    public void setTimeOfStateChange(Timestamp timeOfStateChange) {
+        this.timeOfStateChange = timeOfStateChange;
+    }
+}
@@ -0,0 +1,69 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.orchestration.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * The primary key class for the exec_current_status database table.
+ */
+public class ExecCurrentStatusPK implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String entityType;
+    private String entityId;
+
+    public ExecCurrentStatusPK() {}
+
+    public ExecCurrentStatusPK(String entityType, String entityId) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public String getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(String entityId) {
+        this.entityId = entityId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ExecCurrentStatusPK)) return false;
+        ExecCurrentStatusPK that = (ExecCurrentStatusPK) o;
+        return Objects.equals(entityType, that.entityType) && Objects.equals(entityId, that.entityId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(entityType, entityId);
+    }
+}
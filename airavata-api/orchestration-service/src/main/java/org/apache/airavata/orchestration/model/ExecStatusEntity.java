@@ -27,7 +27,7 @@ import java.sql.Timestamp;
  * Consolidated execution status entity for PROCESS, TASK, and JOB statuses.
  */
 @Entity
-@Table(name = "EXEC_STATUS")
+@Table(name = "EXEC_STATUS", indexes = @Index(name = "IDX_EXEC_STATUS_ENTITY", columnList = "ENTITY_TYPE, ENTITY_ID"))
 public class ExecStatusEntity implements Serializable {
     private static final long serialVersionUID = 1L;
 
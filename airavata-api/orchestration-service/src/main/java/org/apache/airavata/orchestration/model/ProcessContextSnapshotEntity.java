@@ -0,0 +1,83 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.orchestration.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.sql.Timestamp;
+
+/**
+ * The serialized {@code ProcessContextSnapshot} of a process: the profiles and descriptions its
+ * tasks resolve, stored once so that later tasks of the DAG (and tasks re-claimed after a restart)
+ * read one row instead of the registry. Deleted when the process reaches a terminal state.
+ */
+@Entity
+@Table(name = "PROCESS_CONTEXT_SNAPSHOT")
+public class ProcessContextSnapshotEntity implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "PROCESS_ID")
+    private String processId;
+
+    @Column(name = "FORMAT_VERSION", nullable = false)
+    private int formatVersion;
+
+    @Lob
+    @Column(name = "SNAPSHOT", nullable = false, columnDefinition = "LONGBLOB")
+    private byte[] snapshot;
+
+    @Column(name = "UPDATED_TIME")
+    private Timestamp updatedTime;
+
+    public ProcessContextSnapshotEntity() {}
+
+    public String getProcessId() {
+        return processId;
+    }
+
+    public void setProcessId(String processId) {
+        this.processId = processId;
+    }
+
+    public int getFormatVersion() {
+        return formatVersion;
+    }
+
+    public void setFormatVersion(int formatVersion) {
+        this.formatVersion = formatVersion;
+    }
+
+    public byte[] getSnapshot() {
+        return snapshot;
+    }
+
+    public void setSnapshot(byte[] snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public Timestamp getUpdatedTime() {
+        return updatedTime;
+    }
+
+    public void setUpdatedTime(Timestamp updatedTime) {
+        this.updatedTime = updatedTime;
+    }
+}
@@ -0,0 +1,111 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.orchestration.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.sql.Timestamp;
+
+/**
+ * A task that returned {@code DbTaskResult.suspended}: it holds no worker and no lease while it waits,
+ * and the executor does not claim its process again until {@code RESUME_AT} has passed. An event
+ * (e.g. the task's job finishing) pulls {@code RESUME_AT} forward to now.
+ *
+ * <p>When the task is claimed again the row becomes its lease: {@code CLAIMED_TIME} is set and
+ * {@code RESUME_AT} moves out by the lease timeout, so a periodic recheck that suspends again writes
+ * no task status. The row is deleted once the task finishes.
+ */
+@Entity
+@Table(
+        name = "TASK_SUSPENSION",
+        // The executor's claim query skips processes with a suspension that is not yet due.
+        indexes = @Index(name = "IDX_TASK_SUSPENSION_PROCESS", columnList = "PROCESS_ID, RESUME_AT"))
+public class TaskSuspensionEntity implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "TASK_ID")
+    private String taskId;
+
+    @Column(name = "PROCESS_ID", nullable = false)
+    private String processId;
+
+    @Column(name = "RESUME_AT", nullable = false)
+    private Timestamp resumeAt;
+
+    @Column(name = "SUSPENDED_TIME")
+    private Timestamp suspendedTime;
+
+    @Column(name = "REASON", columnDefinition = "LONGTEXT")
+    private String reason;
+
+    @Column(name = "CLAIMED_TIME")
+    private Timestamp claimedTime;
+
+    public TaskSuspensionEntity() {}
+
+    public String getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(String taskId) {
+        this.taskId = taskId;
+    }
+
+    public String getProcessId() {
+        return processId;
+    }
+
+    public void setProcessId(String processId) {
+        this.processId = processId;
+    }
+
+    public Timestamp getResumeAt() {
+        return resumeAt;
+    }
+
+    public void setResumeAt(Timestamp resumeAt) {
+        this.resumeAt = resumeAt;
+    }
+
+    public Timestamp getSuspendedTime() {
+        return suspendedTime;
+    }
+
+    public void setSuspendedTime(Timestamp suspendedTime) {
+        this.suspendedTime = suspendedTime;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    public Timestamp getClaimedTime() {
+        return claimedTime;
+    }
+
+    public void setClaimedTime(Timestamp claimedTime) {
+        this.claimedTime = claimedTime;
+    }
+}
@@ -0,0 +1,272 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.orchestration.repository;
+
+import jakarta.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.airavata.db.AbstractRepository;
+import org.apache.airavata.orchestration.model.ExecCurrentStatusEntity;
+import org.apache.airavata.orchestration.model.ExecCurrentStatusPK;
+import org.apache.airavata.orchestration.model.ExecStatusEntity;
+import org.apache.airavata.orchestration.model.JobEntity;
+import org.apache.airavata.orchestration.model.ProcessEntity;
+import org.apache.airavata.orchestration.model.TaskEntity;
+
+/**
+ * Maintains {@code EXEC_CURRENT_STATUS}, the per-entity current-state projection of
+ * {@code EXEC_STATUS}. Every writer of the history calls {@link #record} (or
+ * {@link #recordLatest} for cascaded status lists) with the {@link EntityManager} of its own
+ * transaction, so the projection commits or rolls back together with the history row.
+ *
+ * <p>The upsert is monotonic: a state replaces the current one only if it is at least as new
+ * (TIME_OF_STATE_CHANGE) and, on a same-timestamp tie, at least as highly ranked. Re-applying
+ * old history is therefore harmless. The projection of a database that predates it is seeded
+ * by the V3__Exec_current_status migration.
+ */
+public class ExecCurrentStatusRepository
+        extends AbstractRepository<ExecCurrentStatusEntity, ExecCurrentStatusEntity, ExecCurrentStatusPK> {
+
+    /** Terminal states across PROCESS_STATE_*, TASK_STATE_* and JobState; they win every tie. */
+    private static final List<String> TERMINAL_STATES = List.of(
+            "PROCESS_STATE_COMPLETED",
+            "PROCESS_STATE_FAILED",
+            "PROCESS_STATE_CANCELED",
+            "TASK_STATE_COMPLETED",
+            "TASK_STATE_FAILED",
+            "TASK_STATE_CANCELED",
+            "COMPLETE",
+            "FAILED",
+            "CANCELED");
+
+    // Later assignments see earlier ones, so TIME_OF_STATE_CHANGE must be updated last: the
+    // STATE and STATE_RANK guards still compare against the previous time.
+    private static final String WINS = "(VALUES(TIME_OF_STATE_CHANGE) > TIME_OF_STATE_CHANGE "
+            + "OR (VALUES(TIME_OF_STATE_CHANGE) = TIME_OF_STATE_CHANGE AND VALUES(STATE_RANK) >= STATE_RANK))";
+
+    private static final String ON_DUPLICATE = " ON DUPLICATE KEY UPDATE "
+            + "STATE = IF(" + WINS + ", VALUES(STATE), STATE), "
+            + "STATE_RANK = IF(" + WINS + ", VALUES(STATE_RANK), STATE_RANK), "
+            + "TIME_OF_STATE_CHANGE = IF(" + WINS + ", VALUES(TIME_OF_STATE_CHANGE), TIME_OF_STATE_CHANGE)";
+
+    private static final String UPSERT_SQL = "INSERT INTO EXEC_CURRENT_STATUS "
+            + "(ENTITY_TYPE, ENTITY_ID, STATE, STATE_RANK, TIME_OF_STATE_CHANGE) "
+            + "VALUES (:etype, :eid, :state, :rank, :ts)" + ON_DUPLICATE;
+
+    public ExecCurrentStatusRepository() {
+        super(ExecCurrentStatusEntity.class, ExecCurrentStatusEntity.class);
+    }
+
+    @Override
+    protected ExecCurrentStatusEntity toModel(ExecCurrentStatusEntity entity) {
+        return entity;
+    }
+
+    @Override
+    protected ExecCurrentStatusEntity toEntity(ExecCurrentStatusEntity model) {
+        return model;
+    }
+
+    /**
+     * Tie-break rank between two states of the same entity written with the same
+     * TIME_OF_STATE_CHANGE. Terminal states always win. For tasks, CREATED out-ranks EXECUTING so a
+     * requeue written in the same instant as the claim is not masked as still-EXECUTING. Must stay
+     * in line with the rank the V3__Exec_current_status migration seeds the projection with.
+     */
+    public static int stateRank(String entityType, String state) {
+        if (state == null) {
+            return 0;
+        }
+        if (TERMINAL_STATES.contains(state)) {
+            return 4;
+        }
+        if ("TASK".equals(entityType)) {
+            if ("TASK_STATE_CREATED".equals(state)) {
+                return 3;
+            }
+            if ("TASK_STATE_EXECUTING".equals(state)) {
+                return 2;
+            }
+        }
+        return 1;
+    }
+
+    /** Apply one history row to the projection inside the caller's transaction. */
+    public void record(EntityManager em, String entityType, String entityId, String state, Timestamp time) {
+        if (entityId == null || state == null || time == null) {
+            return;
+        }
+        em.createNativeQuery(UPSERT_SQL)
+                .setParameter("etype", entityType)
+                .setParameter("eid", entityId)
+                .setParameter("state", state)
+                .setParameter("rank", stateRank(entityType, state))
+                .setParameter("ts", time)
+                .executeUpdate();
+    }
+
+    /**
+     * Apply a cascaded status list (as merged with its PROCESS/TASK/JOB parent) to the projection.
+     * Only the list's winning row is written, so saving an entity with a long history costs one
+     * upsert.
+     */
+    public void recordLatest(
+            EntityManager em, String entityType, String entityId, Collection<ExecStatusEntity> statuses) {
+        ExecStatusEntity best = latest(entityType, statuses);
+        if (best != null) {
+            record(em, entityType, entityId, best.getState(), best.getTimeOfStateChange());
+        }
+    }
+
+    /** Project the statuses cascaded with a merged process, its tasks and their jobs. */
+    public void recordCascade(EntityManager em, ProcessEntity process) {
+        if (process == null) {
+            return;
+        }
+        recordLatest(em, "PROCESS", process.getProcessId(), process.getProcessStatuses());
+        if (process.getTasks() != null) {
+            process.getTasks().forEach(task -> recordCascade(em, task));
+        }
+    }
+
+    /** Project the statuses cascaded with a merged task and its jobs. */
+    public void recordCascade(EntityManager em, TaskEntity task) {
+        if (task == null) {
+            return;
+        }
+        recordLatest(em, "TASK", task.getTaskId(), task.getTaskStatuses());
+        if (task.getJobs() != null) {
+            task.getJobs().forEach(job -> recordCascade(em, job));
+        }
+    }
+
+    /**
+     * Project the statuses cascaded with a batch of newly persisted tasks (and their jobs). The
+     * tasks' winning rows are written with one multi-row upsert instead of one statement per task.
+     */
+    public void recordCascade(EntityManager em, Collection<TaskEntity> tasks) {
+        StringBuilder sql = new StringBuilder("INSERT INTO EXEC_CURRENT_STATUS "
+                + "(ENTITY_TYPE, ENTITY_ID, STATE, STATE_RANK, TIME_OF_STATE_CHANGE) VALUES ");
+        List<Object> params = new ArrayList<>();
+        for (TaskEntity task : tasks) {
+            ExecStatusEntity best = latest("TASK", task.getTaskStatuses());
+            if (best != null && task.getTaskId() != null) {
+                sql.append(params.isEmpty() ? "" : ", ").append("(?, ?, ?, ?, ?)");
+                params.addAll(List.of(
+                        "TASK",
+                        task.getTaskId(),
+                        best.getState(),
+                        stateRank("TASK", best.getState()),
+                        best.getTimeOfStateChange()));
+            }
+            if (task.getJobs() != null) {
+                task.getJobs().forEach(job -> recordCascade(em, job));
+            }
+        }
+        if (params.isEmpty()) {
+            return;
+        }
+        var query = em.createNativeQuery(sql.append(ON_DUPLICATE).toString());
+        for (int i = 0; i < params.size(); i++) {
+            query.setParameter(i + 1, params.get(i));
+        }
+        query.executeUpdate();
+    }
+
+    /** Project the statuses cascaded with a merged job. */
+    public void recordCascade(EntityManager em, JobEntity job) {
+        if (job != null) {
+            recordLatest(em, "JOB", job.getJobId(), job.getJobStatuses());
+        }
+    }
+
+    /** Current state of one entity, or null if it has no status yet. */
+    public String getState(EntityManager em, String entityType, String entityId) {
+        List<?> rows = em.createNativeQuery(
+                        "SELECT STATE FROM EXEC_CURRENT_STATUS WHERE ENTITY_TYPE = :etype AND ENTITY_ID = :eid")
+                .setParameter("etype", entityType)
+                .setParameter("eid", entityId)
+                .getResultList();
+        return rows.isEmpty() ? null : (String) rows.get(0);
+    }
+
+    /** Current state of every task of a process, keyed by TASK_ID; tasks without a status are absent. */
+    public Map<String, String> getTaskStates(EntityManager em, String processId) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = em.createNativeQuery("SELECT t.TASK_ID, cs.STATE FROM TASK t "
+                        + "JOIN EXEC_CURRENT_STATUS cs ON cs.ENTITY_TYPE = 'TASK' AND cs.ENTITY_ID = t.TASK_ID "
+                        + "WHERE t.PARENT_PROCESS_ID = :pid")
+                .setParameter("pid", processId)
+                .getResultList();
+        Map<String, String> states = new HashMap<>();
+        for (Object[] a : rows) {
+            states.put((String) a[0], (String) a[1]);
+        }
+        return states;
+    }
+
+    /**
+     * The {@code EXEC_STATUS} row the projection currently points at (matched on state and time
+     * through the entity index), or null if the entity has no projected state.
+     */
+    public ExecStatusEntity getCurrentStatus(String entityType, String entityId) {
+        return execute(em -> {
+            List<ExecStatusEntity> rows = em.createQuery(
+                            "SELECT s FROM ExecStatusEntity s, ExecCurrentStatusEntity c "
+                                    + "WHERE c.entityType = :etype AND c.entityId = :eid "
+                                    + "AND s.entityType = c.entityType AND s.entityId = c.entityId "
+                                    + "AND s.state = c.state AND s.timeOfStateChange = c.timeOfStateChange",
+                            ExecStatusEntity.class)
+                    .setParameter("etype", entityType)
+                    .setParameter("eid", entityId)
+                    .setMaxResults(1)
+                    .getResultList();
+            return rows.isEmpty() ? null : rows.get(0);
+        });
+    }
+
+    /** The row of a status list that the projection should hold, or null if none is usable. */
+    private static ExecStatusEntity latest(String entityType, Collection<ExecStatusEntity> statuses) {
+        if (statuses == null) {
+            return null;
+        }
+        ExecStatusEntity best = null;
+        for (ExecStatusEntity s : statuses) {
+            if (s.getState() == null || s.getTimeOfStateChange() == null) {
+                continue;
+            }
+            if (best == null || wins(entityType, s, best)) {
+                best = s;
+            }
+        }
+        return best;
+    }
+
+    private static boolean wins(String entityType, ExecStatusEntity candidate, ExecStatusEntity current) {
+        int cmp = candidate.getTimeOfStateChange().compareTo(current.getTimeOfStateChange());
+        return cmp > 0
+                || (cmp == 0
+                        && stateRank(entityType, candidate.getState()) >= stateRank(entityType, current.getState()));
+    }
+}
@@ -54,6 +54,8 @@ import org.springframework.stereotype.Component;
 public class ExecStatusRepository extends AbstractRepository<ExecStatusEntity, ExecStatusEntity, String> {
     private static final Logger logger = LoggerFactory.getLogger(ExecStatusRepository.class);
 
+    private final ExecCurrentStatusRepository currentStatusRepository = new ExecCurrentStatusRepository();
+
     public ExecStatusRepository() {
         super(ExecStatusEntity.class, ExecStatusEntity.class);
     }
@@ -116,6 +118,8 @@ public class ExecStatusRepository extends AbstractRepository<ExecStatusEntity, E
                 }
                 processEntity.getProcessStatuses().add(entity);
                 em.merge(processEntity);
+                currentStatusRepository.record(
+                        em, "PROCESS", processId, entity.getState(), entity.getTimeOfStateChange());
             }
             return null;
         });
@@ -142,12 +146,19 @@ public class ExecStatusRepository extends AbstractRepository<ExecStatusEntity, E
                     processEntity.getProcessStatuses().add(entity);
                 }
                 em.merge(processEntity);
+                currentStatusRepository.record(
+                        em, "PROCESS", processId, entity.getState(), entity.getTimeOfStateChange());
             }
             return null;
         });
     }
 
     public ProcessStatus getProcessStatus(String processId) throws RegistryException {
+        ExecStatusEntity current = currentStatusRepository.getCurrentStatus("PROCESS", processId);
+        if (current != null) {
+            return ExecutionMapper.INSTANCE.processStatusToModel(current);
+        }
+        // not projected yet (EXEC_CURRENT_STATUS not seeded): derive it from the full history
         ProcessRepository processRepository = new ProcessRepository();
         ProcessModel processModel = processRepository.getProcess(processId);
         List<ProcessStatus> list = processModel.getProcessStatusesList();
@@ -202,6 +213,7 @@ public class ExecStatusRepository extends AbstractRepository<ExecStatusEntity, E
                 }
                 taskEntity.getTaskStatuses().add(entity);
                 em.merge(taskEntity);
+                currentStatusRepository.record(em, "TASK", taskId, entity.getState(), entity.getTimeOfStateChange());
             }
             return null;
         });
@@ -240,6 +252,7 @@ public class ExecStatusRepository extends AbstractRepository<ExecStatusEntity, E
                     taskEntity.getTaskStatuses().add(entity);
                 }
                 em.merge(taskEntity);
+                currentStatusRepository.record(em, "TASK", taskId, entity.getState(), entity.getTimeOfStateChange());
             }
             return null;
         });
@@ -247,6 +260,10 @@ public class ExecStatusRepository extends AbstractRepository<ExecStatusEntity, E
     }
 
     public TaskStatus getTaskStatus(String taskId) throws RegistryException {
+        ExecStatusEntity current = currentStatusRepository.getCurrentStatus("TASK", taskId);
+        if (current != null) {
+            return ExecutionMapper.INSTANCE.taskStatusToModel(current);
+        }
         TaskRepository taskRepository = new TaskRepository();
         TaskModel taskModel = taskRepository.getTask(taskId);
         List<TaskStatus> list = taskModel.getTaskStatusesList();
@@ -287,6 +304,8 @@ public class ExecStatusRepository extends AbstractRepository<ExecStatusEntity, E
                 }
                 jobEntity.getJobStatuses().add(entity);
                 em.merge(jobEntity);
+                currentStatusRepository.record(
+                        em, "JOB", jobPK.getJobId(), entity.getState(), entity.getTimeOfStateChange());
             }
             return null;
         });
@@ -325,6 +344,8 @@ public class ExecStatusRepository extends AbstractRepository<ExecStatusEntity, E
                     jobEntity.getJobStatuses().add(entity);
                 }
                 em.merge(jobEntity);
+                currentStatusRepository.record(
+                        em, "JOB", jobPK.getJobId(), entity.getState(), entity.getTimeOfStateChange());
             }
             return null;
         });
@@ -332,6 +353,10 @@ public class ExecStatusRepository extends AbstractRepository<ExecStatusEntity, E
     }
 
     public JobStatus getJobStatus(JobPK jobPK) throws RegistryException {
+        ExecStatusEntity current = currentStatusRepository.getCurrentStatus("JOB", jobPK.getJobId());
+        if (current != null) {
+            return ExecutionMapper.INSTANCE.jobStatusToModel(current);
+        }
         JobRepository jobRepository = new JobRepository();
         JobModel jobModel = jobRepository.getJob(jobPK);
         List<JobStatus> list = jobModel.getJobStatusesList();
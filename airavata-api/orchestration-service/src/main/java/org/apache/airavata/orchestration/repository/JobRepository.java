@@ -41,6 +41,8 @@ import org.springframework.stereotype.Component;
 public class JobRepository extends AbstractRepository<JobModel, JobEntity, JobPK> {
     private static final Logger logger = LoggerFactory.getLogger(JobRepository.class);
 
+    private final ExecCurrentStatusRepository currentStatusRepository = new ExecCurrentStatusRepository();
+
     public JobRepository() {
         super(JobModel.class, JobEntity.class);
     }
@@ -90,7 +92,11 @@ public class JobRepository extends AbstractRepository<JobModel, JobEntity, JobPK
 
         populateParentIds(jobEntity);
 
-        return execute(entityManager -> entityManager.merge(jobEntity));
+        return execute(entityManager -> {
+            JobEntity saved = entityManager.merge(jobEntity);
+            currentStatusRepository.recordCascade(entityManager, saved);
+            return saved;
+        });
     }
 
     protected void populateParentIds(JobEntity jobEntity) {
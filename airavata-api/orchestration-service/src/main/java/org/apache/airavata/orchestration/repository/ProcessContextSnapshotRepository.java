@@ -0,0 +1,118 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.orchestration.repository;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import java.util.List;
+import org.apache.airavata.db.AbstractRepository;
+import org.apache.airavata.model.process.proto.ProcessContextSnapshot;
+import org.apache.airavata.orchestration.model.ProcessContextSnapshotEntity;
+import org.apache.airavata.util.AiravataUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ProcessContextSnapshotRepository
+        extends AbstractRepository<ProcessContextSnapshotEntity, ProcessContextSnapshotEntity, String> {
+    private static final Logger logger = LoggerFactory.getLogger(ProcessContextSnapshotRepository.class);
+
+    // One scalar subquery per profile row a process context is resolved from; a missing row reads
+    // as '-' so the positions of the remaining stamps stay fixed.
+    private static final String PROFILE_VERSION_SQL = "SELECT CONCAT_WS('|',"
+            + " COALESCE((SELECT UPDATE_TIME FROM GATEWAY_PROFILE WHERE GATEWAY_ID = :gw), '-'),"
+            + " COALESCE((SELECT UPDATE_TIME FROM GROUP_RESOURCE_PROFILE"
+            + " WHERE GROUP_RESOURCE_PROFILE_ID = :grp), '-'),"
+            + " COALESCE((SELECT UPDATE_TIME FROM COMPUTE_RESOURCE WHERE RESOURCE_ID = :cr), '-'),"
+            + " COALESCE((SELECT UPDATE_TIME FROM APPLICATION_DEPLOYMENT WHERE DEPLOYMENT_ID = :dep), '-'),"
+            + " COALESCE((SELECT UPDATE_TIME FROM APPLICATION_INTERFACE WHERE INTERFACE_ID = :iface), '-'),"
+            + " COALESCE((SELECT UPDATE_TIME FROM USER_RESOURCE_PROFILE"
+            + " WHERE GATEWAY_ID = :gw AND USER_ID = :usr), '-'),"
+            + " COALESCE((SELECT MAX(s.UPDATE_TIME) FROM STORAGE_RESOURCE s JOIN STORAGE_PREFERENCE p"
+            + " ON p.STORAGE_RESOURCE_ID = s.STORAGE_RESOURCE_ID WHERE p.GATEWAY_ID = :gw), '-'),"
+            + " (SELECT COUNT(*) FROM STORAGE_PREFERENCE WHERE GATEWAY_ID = :gw))";
+
+    public ProcessContextSnapshotRepository() {
+        super(ProcessContextSnapshotEntity.class, ProcessContextSnapshotEntity.class);
+    }
+
+    @Override
+    protected ProcessContextSnapshotEntity toModel(ProcessContextSnapshotEntity entity) {
+        return entity;
+    }
+
+    @Override
+    protected ProcessContextSnapshotEntity toEntity(ProcessContextSnapshotEntity model) {
+        return model;
+    }
+
+    /** The stored snapshot of a process, or null if there is none or it can no longer be parsed. */
+    public ProcessContextSnapshot getSnapshot(String processId) {
+        ProcessContextSnapshotEntity entity = get(processId);
+        if (entity == null) {
+            return null;
+        }
+        try {
+            return ProcessContextSnapshot.parseFrom(entity.getSnapshot());
+        } catch (InvalidProtocolBufferException e) {
+            logger.warn("Discarding unreadable context snapshot of process {}", processId, e);
+            return null;
+        }
+    }
+
+    public void saveSnapshot(ProcessContextSnapshot snapshot) {
+        ProcessContextSnapshotEntity entity = new ProcessContextSnapshotEntity();
+        entity.setProcessId(snapshot.getProcessId());
+        entity.setFormatVersion(snapshot.getFormatVersion());
+        entity.setSnapshot(snapshot.toByteArray());
+        entity.setUpdatedTime(AiravataUtils.getCurrentTimestamp());
+        update(entity);
+    }
+
+    public void deleteSnapshot(String processId) {
+        execute(em -> em.createNativeQuery("DELETE FROM PROCESS_CONTEXT_SNAPSHOT WHERE PROCESS_ID = :pid")
+                .setParameter("pid", processId)
+                .executeUpdate());
+    }
+
+    public String getProfileVersion(
+            String gatewayId,
+            String groupResourceProfileId,
+            String computeResourceId,
+            String applicationDeploymentId,
+            String applicationInterfaceId,
+            String userId) {
+        return execute(em -> {
+            List<?> rows = em.createNativeQuery(PROFILE_VERSION_SQL)
+                    .setParameter("gw", nullToEmpty(gatewayId))
+                    .setParameter("grp", nullToEmpty(groupResourceProfileId))
+                    .setParameter("cr", nullToEmpty(computeResourceId))
+                    .setParameter("dep", nullToEmpty(applicationDeploymentId))
+                    .setParameter("iface", nullToEmpty(applicationInterfaceId))
+                    .setParameter("usr", nullToEmpty(userId))
+                    .getResultList();
+            return rows.isEmpty() || rows.get(0) == null ? "" : rows.get(0).toString();
+        });
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -24,6 +24,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import org.apache.airavata.compute.model.ProcessResourceScheduleEntity;
 import org.apache.airavata.db.AbstractRepository;
 import org.apache.airavata.db.DBConstants;
 import org.apache.airavata.db.QueryConstants;
@@ -33,7 +34,6 @@ import org.apache.airavata.model.scheduling.proto.ComputationalResourceSchedulin
 import org.apache.airavata.model.status.proto.ProcessState;
 import org.apache.airavata.model.status.proto.ProcessStatus;
 import org.apache.airavata.orchestration.mapper.ExecutionMapper;
-import org.apache.airavata.compute.model.ProcessResourceScheduleEntity;
 import org.apache.airavata.orchestration.model.ProcessEntity;
 import org.apache.airavata.util.AiravataUtils;
 import org.apache.airavata.util.ExpCatalogUtils;
@@ -46,6 +46,7 @@ public class ProcessRepository extends AbstractRepository<ProcessModel, ProcessE
     private static final Logger logger = LoggerFactory.getLogger(ProcessRepository.class);
 
     private final TaskRepository taskRepository = new TaskRepository();
+    private final ExecCurrentStatusRepository currentStatusRepository = new ExecCurrentStatusRepository();
 
     public ProcessRepository() {
         super(ProcessModel.class, ProcessEntity.class);
@@ -123,6 +124,7 @@ public class ProcessRepository extends AbstractRepository<ProcessModel, ProcessE
                 schedule.setProcessId(saved.getProcessId());
                 saved.setProcessResourceSchedule(entityManager.merge(schedule));
             }
+            currentStatusRepository.recordCascade(entityManager, saved);
             return saved;
         });
     }
@@ -42,6 +42,7 @@ public class TaskRepository extends AbstractRepository<TaskModel, TaskEntity, St
     private static final Logger logger = LoggerFactory.getLogger(TaskRepository.class);
 
     private final JobRepository jobRepository = new JobRepository();
+    private final ExecCurrentStatusRepository currentStatusRepository = new ExecCurrentStatusRepository();
 
     public TaskRepository() {
         super(TaskModel.class, TaskEntity.class);
@@ -63,30 +64,8 @@ public class TaskRepository extends AbstractRepository<TaskModel, TaskEntity, St
     }
 
     protected TaskEntity saveTask(TaskModel taskModel) throws RegistryException {
-        if (taskModel.getTaskId().isEmpty() || taskModel.getTaskId().equals("DO_NOT_SET_AT_CLIENTS")) {
-            logger.debug("Setting the Task's TaskId");
-            taskModel = taskModel.toBuilder()
-                    .setTaskId(ExpCatalogUtils.getID("TASK"))
-                    .build();
-        }
-
-        String taskId = taskModel.getTaskId();
-
-        if (!taskModel.getTaskStatusesList().isEmpty()) {
-            logger.debug("Populating the status id of TaskStatus objects for the Task");
-            TaskModel.Builder tmBuilder = taskModel.toBuilder().clearTaskStatuses();
-            for (org.apache.airavata.model.status.proto.TaskStatus ts : taskModel.getTaskStatusesList()) {
-                if (ts.getStatusId().isEmpty()) {
-                    ts = ts.toBuilder()
-                            .setStatusId(ExpCatalogUtils.getID("TASK_STATE"))
-                            .build();
-                }
-                tmBuilder.addTaskStatuses(ts);
-            }
-            taskModel = tmBuilder.build();
-        }
-
-        if (!isTaskExist(taskId)) {
+        taskModel = assignIds(taskModel);
+        if (!isTaskExist(taskModel.getTaskId())) {
             logger.debug("Setting creation time if Task doesn't already exist");
             taskModel = taskModel.toBuilder()
                     .setCreationTime(System.currentTimeMillis())
@@ -107,10 +86,36 @@ public class TaskRepository extends AbstractRepository<TaskModel, TaskEntity, St
                         entityManager.getReference(ProcessEntity.class, taskEntity.getParentProcessId());
                 taskEntity.setProcess(processRef);
             }
-            return entityManager.merge(taskEntity);
+            TaskEntity saved = entityManager.merge(taskEntity);
+            currentStatusRepository.recordCascade(entityManager, saved);
+            return saved;
         });
     }
 
+    private TaskModel assignIds(TaskModel taskModel) {
+        if (taskModel.getTaskId().isEmpty() || taskModel.getTaskId().equals("DO_NOT_SET_AT_CLIENTS")) {
+            logger.debug("Setting the Task's TaskId");
+            taskModel = taskModel.toBuilder()
+                    .setTaskId(ExpCatalogUtils.getID("TASK"))
+                    .build();
+        }
+
+        if (!taskModel.getTaskStatusesList().isEmpty()) {
+            logger.debug("Populating the status id of TaskStatus objects for the Task");
+            TaskModel.Builder tmBuilder = taskModel.toBuilder().clearTaskStatuses();
+            for (org.apache.airavata.model.status.proto.TaskStatus ts : taskModel.getTaskStatusesList()) {
+                if (ts.getStatusId().isEmpty()) {
+                    ts = ts.toBuilder()
+                            .setStatusId(ExpCatalogUtils.getID("TASK_STATE"))
+                            .build();
+                }
+                tmBuilder.addTaskStatuses(ts);
+            }
+            taskModel = tmBuilder.build();
+        }
+        return taskModel;
+    }
+
     protected void populateParentIds(TaskEntity taskEntity) {
 
         String taskId = taskEntity.getTaskId();
@@ -150,6 +155,48 @@ public class TaskRepository extends AbstractRepository<TaskModel, TaskEntity, St
         return taskId;
     }
 
+    /**
+     * Inserts the tasks of a newly created process, with their initial statuses, and records their
+     * ids in order as the process's TASK_DAG, all in one transaction. The tasks are new, so they are
+     * persisted rather than merged: no per-task existence check or select-before-insert, and the
+     * inserts go out as JDBC batches.
+     *
+     * @return the task ids, in DAG order
+     */
+    public List<String> addTasks(List<TaskModel> tasks, String processId) throws RegistryException {
+        long now = System.currentTimeMillis();
+        List<TaskEntity> taskEntities = new ArrayList<>(tasks.size());
+        List<String> taskIds = new ArrayList<>(tasks.size());
+        for (TaskModel task : tasks) {
+            TaskModel taskModel = assignIds(task).toBuilder()
+                    .setParentProcessId(processId)
+                    .setCreationTime(now)
+                    .setLastUpdateTime(now)
+                    .build();
+            TaskEntity taskEntity = ExecutionMapper.INSTANCE.taskToEntity(taskModel);
+            populateParentIds(taskEntity);
+            taskEntities.add(taskEntity);
+            taskIds.add(taskModel.getTaskId());
+        }
+
+        execute(entityManager -> {
+            ProcessEntity processRef = entityManager.getReference(ProcessEntity.class, processId);
+            for (TaskEntity taskEntity : taskEntities) {
+                taskEntity.setProcess(processRef);
+                entityManager.persist(taskEntity);
+            }
+            entityManager.flush();
+            currentStatusRepository.recordCascade(entityManager, taskEntities);
+            entityManager
+                    .createQuery("UPDATE ProcessEntity p SET p.taskDag = :taskDag WHERE p.processId = :processId")
+                    .setParameter("taskDag", String.join(",", taskIds))
+                    .setParameter("processId", processId)
+                    .executeUpdate();
+            return null;
+        });
+        return taskIds;
+    }
+
     public String updateTask(TaskModel task, String taskId) throws RegistryException {
         return saveTaskModelData(task);
     }
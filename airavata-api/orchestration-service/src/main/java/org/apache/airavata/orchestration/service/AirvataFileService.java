@@ -20,17 +20,22 @@
 package org.apache.airavata.orchestration.service;
 
 import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.airavata.interfaces.AgentAdaptor;
 import org.apache.airavata.interfaces.FileMetadata;
 import org.apache.airavata.orchestration.workflow.ProcessDataManager;
 import org.apache.airavata.storage.model.AiravataDirectory;
 import org.apache.airavata.storage.model.AiravataFile;
 import org.apache.airavata.task.AdaptorSupport;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -104,58 +109,188 @@ public class AirvataFileService {
         return AiravataFile.fromMetadata(info);
     }
 
-    public void uploadFile(String processId, String subPath, InputStream inputStream, String fileName, long fileSize)
+    /**
+     * Writes {@code inputStream} to {@code subPath} of the process directory as it is read. Adaptors
+     * that cannot stream an upload of unknown length get it staged through a local temp file instead.
+     *
+     * @return the number of bytes written
+     */
+    public long uploadFile(String processId, String subPath, InputStream inputStream, String fileName)
             throws Exception {
-
-        var tempPath = Files.createTempFile("tempfile_", ".data").toAbsolutePath();
-        var metadata = new FileMetadata();
-        metadata.setName(fileName);
-        metadata.setSize(fileSize);
-        Files.copy(inputStream, tempPath, StandardCopyOption.REPLACE_EXISTING);
-
         ProcessDataManager dataManager = new ProcessDataManager(registryClient, processId, adaptorSupport);
         AgentAdaptor agentAdaptor = getAgentAdaptor(dataManager, processId);
         String absPath = dataManager.getBaseDir() + subPath;
 
         try {
-            var content = Files.newInputStream(tempPath);
             agentAdaptor.createDirectory(new File(absPath).getParent(), true);
-            logger.info("Uploading file {}:{} to {}:{}", "temp", metadata.getName(), processId, subPath);
-            agentAdaptor.uploadFile(content, metadata, absPath);
-            logger.info("Uploaded file {}:{} to {}:{}", "temp", metadata.getName(), processId, subPath);
+            logger.info("Uploading file {} to {}:{}", fileName, processId, subPath);
+            long size = agentAdaptor.supportsRangedTransfer()
+                    ? agentAdaptor.uploadStream(inputStream, absPath)
+                    : uploadStaged(agentAdaptor, inputStream, fileName, absPath);
+            logger.info("Uploaded file {} ({} bytes) to {}:{}", fileName, size, processId, subPath);
+            return size;
         } catch (Exception e) {
-            logger.error("Failed to upload file {}:{} to {}:{}", "temp", metadata.getName(), processId, subPath);
+            logger.error("Failed to upload file {} to {}:{}", fileName, processId, subPath);
             throw e;
-        } finally {
-            tempPath.toFile().deleteOnExit();
         }
     }
 
-    public Path downloadFile(String processId, String subPath) throws Exception {
+    private long uploadStaged(AgentAdaptor agentAdaptor, InputStream inputStream, String fileName, String absPath)
+            throws Exception {
+        Path tempPath = Files.createTempFile("tempfile_", ".data").toAbsolutePath();
+        try {
+            long size = Files.copy(inputStream, tempPath, StandardCopyOption.REPLACE_EXISTING);
+            var metadata = new FileMetadata();
+            metadata.setName(fileName);
+            metadata.setSize(size);
+            try (InputStream content = Files.newInputStream(tempPath)) {
+                agentAdaptor.uploadFile(content, metadata, absPath);
+            }
+            return size;
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
 
+    /**
+     * Resolves {@code subPath} of the process directory for download. The returned handle streams any
+     * byte range of the file straight from the remote end; nothing is copied locally up front.
+     */
+    public RemoteFileDownload openDownload(String processId, String subPath) throws Exception {
         ProcessDataManager dataManager = new ProcessDataManager(registryClient, processId, adaptorSupport);
         AgentAdaptor agentAdaptor = getAgentAdaptor(dataManager, processId);
         String absPath = dataManager.getBaseDir() + subPath;
 
-        if (agentAdaptor.doesFileExist(absPath)) {
-            var tempPath = Files.createTempFile("tempfile_", ".data").toAbsolutePath();
+        if (!agentAdaptor.doesFileExist(absPath)) {
+            throw new Exception("File " + absPath + " does not exist in process " + processId);
+        }
+        FileMetadata metadata = agentAdaptor.getFileMetadata(absPath);
+        if (metadata.isDirectory()) {
+            throw new Exception("Path " + absPath + " is a directory");
+        }
+        return new RemoteFileDownload(adaptorSupport, dataManager, agentAdaptor, absPath, metadata);
+    }
+
+    /** A remote file resolved by {@link #openDownload}, ready to be streamed in whole or by range. */
+    public static final class RemoteFileDownload {
+
+        // An adaptor evicted between the lookup and the lease is looked up again this many times at most
+        private static final int LEASE_ATTEMPTS = 3;
+
+        private final AdaptorSupport adaptorSupport;
+        private final ProcessDataManager dataManager;
+        private final AgentAdaptor agentAdaptor;
+        private final String absPath;
+        private final FileMetadata metadata;
+
+        RemoteFileDownload(
+                AdaptorSupport adaptorSupport,
+                ProcessDataManager dataManager,
+                AgentAdaptor agentAdaptor,
+                String absPath,
+                FileMetadata metadata) {
+            this.adaptorSupport = adaptorSupport;
+            this.dataManager = dataManager;
+            this.agentAdaptor = agentAdaptor;
+            this.absPath = absPath;
+            this.metadata = metadata;
+        }
+
+        public FileMetadata getMetadata() {
+            return metadata;
+        }
+
+        /**
+         * Opens bytes {@code [offset, offset + length)} of the file. The stream reads from the remote end
+         * as it is consumed; the caller must close it to release the transfer session. The adaptor is
+         * leased for as long as the stream is open, so the shared cache cannot destroy it mid-transfer.
+         */
+        public InputStream open(long offset, long length) throws Exception {
+            AgentAdaptor adaptor = agentAdaptor;
+            boolean leased = adaptorSupport.acquire(adaptor);
+            for (int attempt = 1; !leased && attempt < LEASE_ATTEMPTS; attempt++) {
+                adaptor = dataManager.getAgentAdaptor();
+                leased = adaptorSupport.acquire(adaptor);
+            }
+            // Keeps being evicted: stream through it unleased rather than fail the download
+            Lease lease = new Lease(leased ? adaptorSupport : null, adaptor);
+            try {
+                if (adaptor.supportsRangedTransfer()) {
+                    return new LeasedInputStream(adaptor.openFileRange(absPath, offset, length), lease);
+                }
+                return openStaged(adaptor, lease, offset, length);
+            } catch (Exception e) {
+                lease.release();
+                throw e;
+            }
+        }
+
+        // No ranged reads (plain SCP): stage the file locally, then stream the range from disk.
+        private InputStream openStaged(AgentAdaptor adaptor, Lease lease, long offset, long length) throws Exception {
+            Path tempPath = Files.createTempFile("tempfile_", ".data").toAbsolutePath();
             try {
-                logger.info("Downloading file {}:{} to {}:{}", processId, subPath, "temp", tempPath.toString());
-                agentAdaptor.downloadFile(absPath, tempPath.toString());
-                if (tempPath.toFile().exists()) {
-                    logger.info("Downloaded file {}:{} to {}:{}", processId, subPath, "temp", tempPath.toString());
-                    return tempPath;
-                } else {
-                    throw new Exception("Failed to download file to " + tempPath.toString());
+                try {
+                    adaptor.downloadFile(absPath, tempPath.toString());
+                } finally {
+                    lease.release(); // the remote end is not read again once the file is staged
+                }
+                InputStream in = Files.newInputStream(tempPath, StandardOpenOption.DELETE_ON_CLOSE);
+                try {
+                    in.skipNBytes(offset);
+                } catch (IOException e) {
+                    in.close();
+                    throw e;
                 }
+                return BoundedInputStream.builder()
+                        .setInputStream(in)
+                        .setMaxCount(length)
+                        .get();
             } catch (Exception e) {
-                logger.error("Failed to download file {}:{} to {}:{}", processId, subPath, "temp", tempPath.toString());
+                Files.deleteIfExists(tempPath);
                 throw e;
+            }
+        }
+    }
+
+    /** One adaptor lease taken by {@link RemoteFileDownload#open}; released at most once. */
+    private static final class Lease {
+
+        private final AdaptorSupport adaptorSupport;
+        private final AgentAdaptor adaptor;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Lease(AdaptorSupport adaptorSupport, AgentAdaptor adaptor) {
+            this.adaptorSupport = adaptorSupport;
+            this.adaptor = adaptor;
+        }
+
+        void release() {
+            if (adaptorSupport != null && released.compareAndSet(false, true)) {
+                adaptorSupport.release(adaptor);
+            }
+        }
+    }
+
+    /**
+     * Releases the adaptor lease when the stream is closed, which the response does on completion,
+     * abort and cancellation alike.
+     */
+    private static final class LeasedInputStream extends FilterInputStream {
+
+        private final Lease lease;
+
+        LeasedInputStream(InputStream in, Lease lease) {
+            super(in);
+            this.lease = lease;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
             } finally {
-                tempPath.toFile().deleteOnExit();
+                lease.release();
             }
-        } else {
-            throw new Exception("File " + absPath + " does not exist in process " + processId);
         }
     }
 }
@@ -27,10 +27,12 @@ import org.apache.airavata.model.status.proto.ExperimentState;
 import org.apache.airavata.model.status.proto.ExperimentStatus;
 import org.apache.airavata.model.status.proto.ProcessState;
 import org.apache.airavata.model.status.proto.ProcessStatus;
+import org.apache.airavata.orchestration.executor.ExecutorWakeup;
 import org.apache.airavata.task.SchedulerUtils;
 import org.apache.airavata.util.AiravataUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 /**
@@ -40,7 +42,8 @@ import org.springframework.stereotype.Service;
  * <p>Reuses {@link SimpleOrchestratorImpl#createProcesses} and
  * {@link SimpleOrchestratorImpl#createAndSaveTasks} for row creation, then writes
  * PROCESS_STATE_STARTED per process and EXPERIMENT_STATE_LAUNCHED once, directly via
- * the in-process {@link RegistryHandler}.
+ * the in-process {@link RegistryHandler}. Each STARTED process signals {@link ExecutorWakeup} so an
+ * idle executor worker claims its first task right away instead of on its next poll.
  */
 @Service
 @ConditionalOnServer("orchestrator")
@@ -48,6 +51,9 @@ public class DbLaunchOrchestrator implements LaunchOrchestrator {
 
     private static final Logger logger = LoggerFactory.getLogger(DbLaunchOrchestrator.class);
 
+    @Autowired
+    private ExecutorWakeup wakeup;
+
     @Override
     public void launchExperiment(String experimentId, String gatewayId) throws Exception {
         logger.info("DB launch bridge starting for experiment {} in gateway {}", experimentId, gatewayId);
@@ -57,16 +63,17 @@ public class DbLaunchOrchestrator implements LaunchOrchestrator {
 
         List<ProcessModel> procs = orch.createProcesses(experimentId, gatewayId);
         for (ProcessModel proc : procs) {
+            // Writes the tasks, their CREATED statuses and the process TASK_DAG in one transaction.
             String taskDag = orch.createAndSaveTasks(gatewayId, proc);
-            proc = proc.toBuilder().setTaskDag(taskDag).build();
-            registry.updateProcess(proc, proc.getProcessId());
 
             ProcessStatus processStatus = ProcessStatus.newBuilder()
                     .setState(ProcessState.PROCESS_STATE_STARTED)
                     .setTimeOfStateChange(AiravataUtils.getCurrentTimestamp().getTime())
                     .build();
             registry.addProcessStatus(processStatus, proc.getProcessId());
-            logger.info("Created process {} with {} tasks for experiment {}", proc.getProcessId(), taskDag, experimentId);
+            wakeup.signal("process " + proc.getProcessId() + " launched");
+            logger.info(
+                    "Created process {} with {} tasks for experiment {}", proc.getProcessId(), taskDag, experimentId);
         }
 
         ExperimentStatus experimentStatus = ExperimentStatus.newBuilder()
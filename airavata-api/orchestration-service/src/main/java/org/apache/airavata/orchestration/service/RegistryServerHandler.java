@@ -56,6 +56,7 @@ import org.apache.airavata.model.data.replica.proto.DataProductModel;
 import org.apache.airavata.model.data.replica.proto.DataReplicaLocationModel;
 import org.apache.airavata.model.experiment.proto.*;
 import org.apache.airavata.model.job.proto.JobModel;
+import org.apache.airavata.model.process.proto.ProcessContextSnapshot;
 import org.apache.airavata.model.process.proto.ProcessModel;
 import org.apache.airavata.model.scheduling.proto.ComputationalResourceSchedulingModel;
 import org.apache.airavata.model.status.proto.*;
@@ -65,6 +66,7 @@ import org.apache.airavata.model.workspace.proto.Gateway;
 import org.apache.airavata.model.workspace.proto.GatewayUsageReportingCommand;
 import org.apache.airavata.model.workspace.proto.Notification;
 import org.apache.airavata.model.workspace.proto.Project;
+import org.apache.airavata.orchestration.repository.ProcessContextSnapshotRepository;
 import org.apache.airavata.storage.service.StorageRegistryService;
 import org.apache.airavata.task.SchedulerUtils;
 import org.slf4j.Logger;
@@ -109,6 +111,9 @@ public class RegistryServerHandler implements RegistryHandler {
     @org.springframework.beans.factory.annotation.Autowired
     private QueueStatusRegistry queueStatusRegistryHandler;
 
+    @org.springframework.beans.factory.annotation.Autowired
+    private ProcessContextSnapshotRepository processContextSnapshotRepository;
+
     @PostConstruct
     public void registerAsGlobalHandler() {
         SchedulerUtils.setRegistryHandler(this);
@@ -199,6 +204,11 @@ public class RegistryServerHandler implements RegistryHandler {
         return experimentRegistryHandler.addTask(taskModel, processId);
     }
 
+    @Override
+    public List<String> addTasks(List<TaskModel> taskModels, String processId) throws Exception {
+        return experimentRegistryHandler.addTasks(taskModels, processId);
+    }
+
     @Override
     public void addTaskStatus(TaskStatus taskStatus, String taskId) throws Exception {
         experimentRegistryHandler.addTaskStatus(taskStatus, taskId);
@@ -348,6 +358,18 @@ public class RegistryServerHandler implements RegistryHandler {
                 gatewayId, userName, accessibleExpIds, filters, limit, offset);
     }
 
+    public List<ExperimentSummaryModel> searchAccessibleExperiments(
+            String gatewayId,
+            String userName,
+            List<String> accessGroupIds,
+            Map<ExperimentSearchFields, String> filters,
+            int limit,
+            int offset)
+            throws Exception {
+        return experimentRegistryHandler.searchAccessibleExperiments(
+                gatewayId, userName, accessGroupIds, filters, limit, offset);
+    }
+
     // =========================================================================
     // ProjectRegistry delegation
     // =========================================================================
@@ -1048,4 +1070,39 @@ public class RegistryServerHandler implements RegistryHandler {
     public List<QueueStatusModel> getLatestQueueStatuses() throws Exception {
         return queueStatusRegistryHandler.getLatestQueueStatuses();
     }
+
+    // --- ProcessContextRegistry ---
+
+    @Override
+    public ProcessContextSnapshot getProcessContextSnapshot(String processId) throws Exception {
+        return processContextSnapshotRepository.getSnapshot(processId);
+    }
+
+    @Override
+    public void saveProcessContextSnapshot(ProcessContextSnapshot snapshot) throws Exception {
+        processContextSnapshotRepository.saveSnapshot(snapshot);
+    }
+
+    @Override
+    public void deleteProcessContextSnapshot(String processId) throws Exception {
+        processContextSnapshotRepository.deleteSnapshot(processId);
+    }
+
+    @Override
+    public String getProcessContextProfileVersion(
+            String gatewayId,
+            String groupResourceProfileId,
+            String computeResourceId,
+            String applicationDeploymentId,
+            String applicationInterfaceId,
+            String userId)
+            throws Exception {
+        return processContextSnapshotRepository.getProfileVersion(
+                gatewayId,
+                groupResourceProfileId,
+                computeResourceId,
+                applicationDeploymentId,
+                applicationInterfaceId,
+                userId);
+    }
 }
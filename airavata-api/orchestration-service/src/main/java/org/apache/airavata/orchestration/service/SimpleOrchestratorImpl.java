@@ -335,14 +335,13 @@ public class SimpleOrchestratorImpl extends AbstractOrchestrator {
             }
 
             // TODO - handle for different resource types
-            List<String> taskIdList = new ArrayList<>();
-            taskIdList.addAll(createAndSaveEnvSetupTask(registryClient, gatewayId, processModel, resourceType));
-            taskIdList.addAll(createAndSaveInputDataStagingTasks(processModel, gatewayId, resourceType));
-            taskIdList.addAll(createAndSaveSubmissionTasks(registryClient, processModel, userGivenWallTime));
-            taskIdList.addAll(createAndSaveOutputDataStagingTasks(processModel, gatewayId, resourceType));
-            // update process scheduling
-            registryClient.updateProcess(processModel, processModel.getProcessId());
-            return getTaskDag(taskIdList);
+            List<TaskModel> tasks = new ArrayList<>();
+            tasks.addAll(createEnvSetupTask(gatewayId, processModel, resourceType));
+            tasks.addAll(createInputDataStagingTasks(processModel, gatewayId, resourceType));
+            tasks.addAll(createSubmissionTasks(processModel, userGivenWallTime));
+            tasks.addAll(createOutputDataStagingTasks(processModel, gatewayId, resourceType));
+            // tasks, their initial statuses and the process TASK_DAG are written in one transaction
+            return getTaskDag(registryClient.addTasks(tasks, processModel.getProcessId()));
         } catch (Exception e) {
             throw new OrchestratorException("Error during creating process", e);
         }
@@ -355,11 +354,9 @@ public class SimpleOrchestratorImpl extends AbstractOrchestrator {
             GroupComputeResourcePreference preference =
                     OrchestratorUtils.getGroupComputeResourcePreference(processModel);
             ResourceType resourceType = preference.getResourceType();
-            List<String> taskIdList = new ArrayList<>(createAndSaveIntermediateOutputDataStagingTasks(
-                    processModel, gatewayId, parentProcess, resourceType));
-            // update process scheduling
-            registryClient.updateProcess(processModel, processModel.getProcessId());
-            return getTaskDag(taskIdList);
+            List<TaskModel> tasks =
+                    createIntermediateOutputDataStagingTasks(processModel, gatewayId, parentProcess, resourceType);
+            return getTaskDag(registryClient.addTasks(tasks, processModel.getProcessId()));
         } catch (Exception e) {
             throw new OrchestratorException("Error during creating process", e);
         }
@@ -377,11 +374,8 @@ public class SimpleOrchestratorImpl extends AbstractOrchestrator {
         return dag.substring(0, dag.length() - 1); // remove last comma
     }
 
-    private List<String> createAndSaveEnvSetupTask(
-            RegistryHandler registryClient, String gatewayId, ProcessModel processModel, ResourceType resourceType)
+    private List<TaskModel> createEnvSetupTask(String gatewayId, ProcessModel processModel, ResourceType resourceType)
             throws Exception, AiravataException, OrchestratorException {
-        List<String> envTaskIds = new ArrayList<>();
-
         String scratchLocation = OrchestratorUtils.getScratchLocation(processModel, gatewayId);
         String workingDir = scratchLocation + File.separator + processModel.getProcessId();
 
@@ -401,17 +395,13 @@ public class SimpleOrchestratorImpl extends AbstractOrchestrator {
                 .setMaxRetry(3)
                 .setCurrentRetry(0)
                 .build();
-        String envSetupTaskId = registryClient.addTask(envSetupTask, processModel.getProcessId());
-        envSetupTask = envSetupTask.toBuilder().setTaskId(envSetupTaskId).build();
-        envTaskIds.add(envSetupTaskId);
-
-        return envTaskIds;
+        return List.of(envSetupTask);
     }
 
-    public List<String> createAndSaveInputDataStagingTasks(
+    public List<TaskModel> createInputDataStagingTasks(
             ProcessModel processModel, String gatewayId, ResourceType resourceType) throws AiravataException {
 
-        List<String> dataStagingTaskIds = new ArrayList<>();
+        List<TaskModel> dataStagingTasks = new ArrayList<>();
         // proto getXList() is immutable; copy so sortByInputOrder can sort in place
         List<InputDataObjectType> processInputs = new ArrayList<>(processModel.getProcessInputsList());
 
@@ -434,13 +424,8 @@ public class SimpleOrchestratorImpl extends AbstractOrchestrator {
                         }
                         final RegistryHandler registryClient = getRegistryHandler();
                         try {
-                            TaskModel inputDataStagingTask = getInputDataStagingTask(
-                                    registryClient, processModel, processInput, gatewayId, resourceType);
-                            String taskId = registryClient.addTask(inputDataStagingTask, processModel.getProcessId());
-                            inputDataStagingTask = inputDataStagingTask.toBuilder()
-                                    .setTaskId(taskId)
-                                    .build();
-                            dataStagingTaskIds.add(inputDataStagingTask.getTaskId());
+                            dataStagingTasks.add(getInputDataStagingTask(
+                                    registryClient, processModel, processInput, gatewayId, resourceType));
                         } catch (Exception e) {
                             throw new AiravataException("Error while serializing data staging sub task model", e);
                         }
@@ -451,15 +436,15 @@ public class SimpleOrchestratorImpl extends AbstractOrchestrator {
                 }
             }
         }
-        return dataStagingTaskIds;
+        return dataStagingTasks;
     }
 
-    public List<String> createAndSaveOutputDataStagingTasks(
+    public List<TaskModel> createOutputDataStagingTasks(
             ProcessModel processModel, String gatewayId, ResourceType resourceType)
             throws AiravataException, Exception, OrchestratorException {
 
         final RegistryHandler registryClient = getRegistryHandler();
-        List<String> dataStagingTaskIds = new ArrayList<>();
+        List<TaskModel> dataStagingTasks = new ArrayList<>();
         List<OutputDataObjectType> processOutputs = processModel.getProcessOutputsList();
         String appName = OrchestratorUtils.getApplicationInterfaceName(processModel);
         if (!processOutputs.isEmpty()) {
@@ -473,12 +458,7 @@ public class SimpleOrchestratorImpl extends AbstractOrchestrator {
                                     .build();
                         }
                         createOutputDataSatagingTasks(
-                                registryClient,
-                                processModel,
-                                gatewayId,
-                                dataStagingTaskIds,
-                                processOutput,
-                                resourceType);
+                                registryClient, processModel, gatewayId, dataStagingTasks, processOutput, resourceType);
                         break;
                     case STDERR:
                         if (processOutput.getValue().trim().isEmpty()) {
@@ -487,22 +467,12 @@ public class SimpleOrchestratorImpl extends AbstractOrchestrator {
                                     .build();
                         }
                         createOutputDataSatagingTasks(
-                                registryClient,
-                                processModel,
-                                gatewayId,
-                                dataStagingTaskIds,
-                                processOutput,
-                                resourceType);
+                                registryClient, processModel, gatewayId, dataStagingTasks, processOutput, resourceType);
                         break;
                     case URI:
                     case URI_COLLECTION:
                         createOutputDataSatagingTasks(
-                                registryClient,
-                                processModel,
-                                gatewayId,
-                                dataStagingTaskIds,
-                                processOutput,
-                                resourceType);
+                                registryClient, processModel, gatewayId, dataStagingTasks, processOutput, resourceType);
                         break;
                     default:
                         // nothing to do
@@ -513,21 +483,20 @@ public class SimpleOrchestratorImpl extends AbstractOrchestrator {
 
         try {
             if (isArchive(registryClient, processModel)) {
-                createArchiveDataStatgingTask(
-                        registryClient, processModel, gatewayId, dataStagingTaskIds, resourceType);
+                createArchiveDataStatgingTask(registryClient, processModel, gatewayId, dataStagingTasks, resourceType);
             }
         } catch (Exception e) {
             throw new AiravataException("Error! Application interface retrieval failed", e);
         }
-        return dataStagingTaskIds;
+        return dataStagingTasks;
     }
 
-    public List<String> createAndSaveIntermediateOutputDataStagingTasks(
+    public List<TaskModel> createIntermediateOutputDataStagingTasks(
             ProcessModel processModel, String gatewayId, ProcessModel parentProcess, ResourceType resourceType)
             throws AiravataException, Exception, OrchestratorException {
 
         final RegistryHandler registryClient = getRegistryHandler();
-        List<String> dataStagingTaskIds = new ArrayList<>();
+        List<TaskModel> dataStagingTasks = new ArrayList<>();
         List<OutputDataObjectType> processOutputs = processModel.getProcessOutputsList();
         String appName = OrchestratorUtils.getApplicationInterfaceName(processModel);
         if (!processOutputs.isEmpty()) {
@@ -545,7 +514,7 @@ public class SimpleOrchestratorImpl extends AbstractOrchestrator {
                                 processModel,
                                 gatewayId,
                                 parentProcess,
-                                dataStagingTaskIds,
+                                dataStagingTasks,
                                 processOutput,
                                 resourceType);
                         break;
@@ -560,7 +529,7 @@ public class SimpleOrchestratorImpl extends AbstractOrchestrator {
                                 processModel,
                                 gatewayId,
                                 parentProcess,
-                                dataStagingTaskIds,
+                                dataStagingTasks,
                                 processOutput,
                                 resourceType);
                         break;
@@ -571,7 +540,7 @@ public class SimpleOrchestratorImpl extends AbstractOrchestrator {
                                 processModel,
                                 gatewayId,
                                 parentProcess,
-                                dataStagingTaskIds,
+                                dataStagingTasks,
                                 processOutput,
                                 resourceType);
                         break;
@@ -581,7 +550,7 @@ public class SimpleOrchestratorImpl extends AbstractOrchestrator {
                 }
             }
         }
-        return dataStagingTaskIds;
+        return dataStagingTasks;
     }
 
     private boolean isArchive(RegistryHandler registryClient, ProcessModel processModel) throws Exception {
@@ -594,7 +563,7 @@ public class SimpleOrchestratorImpl extends AbstractOrchestrator {
             RegistryHandler registryClient,
             ProcessModel processModel,
             String gatewayId,
-            List<String> dataStagingTaskIds,
+            List<TaskModel> dataStagingTasks,
             ResourceType resourceType)
             throws AiravataException, Exception, OrchestratorException {
         TaskModel archiveTask;
@@ -603,26 +572,20 @@ public class SimpleOrchestratorImpl extends AbstractOrchestrator {
         } catch (Exception e) {
             throw new AiravataException("Error! DataStaging sub task serialization failed", e);
         }
-        String taskId = registryClient.addTask(archiveTask, processModel.getProcessId());
-        archiveTask = archiveTask.toBuilder().setTaskId(taskId).build();
-        dataStagingTaskIds.add(archiveTask.getTaskId());
+        dataStagingTasks.add(archiveTask);
     }
 
     private void createOutputDataSatagingTasks(
             RegistryHandler registryClient,
             ProcessModel processModel,
             String gatewayId,
-            List<String> dataStagingTaskIds,
+            List<TaskModel> dataStagingTasks,
             OutputDataObjectType processOutput,
             ResourceType resourceType)
             throws AiravataException, OrchestratorException {
         try {
-            TaskModel outputDataStagingTask = getOutputDataStagingTask(
-                    registryClient, processModel, processOutput, gatewayId, null, resourceType);
-            String taskId = registryClient.addTask(outputDataStagingTask, processModel.getProcessId());
-            outputDataStagingTask =
-                    outputDataStagingTask.toBuilder().setTaskId(taskId).build();
-            dataStagingTaskIds.add(outputDataStagingTask.getTaskId());
+            dataStagingTasks.add(getOutputDataStagingTask(
+                    registryClient, processModel, processOutput, gatewayId, null, resourceType));
         } catch (Exception e) {
             throw new AiravataException("Error while serializing data staging sub task model", e);
         }
@@ -633,31 +596,26 @@ public class SimpleOrchestratorImpl extends AbstractOrchestrator {
             ProcessModel processModel,
             String gatewayId,
             ProcessModel parentProcess,
-            List<String> dataStagingTaskIds,
+            List<TaskModel> dataStagingTasks,
             OutputDataObjectType processOutput,
             ResourceType resourceType)
             throws AiravataException, OrchestratorException {
         try {
             TaskModel outputDataStagingTask = getOutputDataStagingTask(
                     registryClient, processModel, processOutput, gatewayId, parentProcess, resourceType);
-            outputDataStagingTask = outputDataStagingTask.toBuilder()
+            dataStagingTasks.add(outputDataStagingTask.toBuilder()
                     .setTaskType(TaskTypes.OUTPUT_FETCHING)
-                    .build();
-            String taskId = registryClient.addTask(outputDataStagingTask, processModel.getProcessId());
-            outputDataStagingTask =
-                    outputDataStagingTask.toBuilder().setTaskId(taskId).build();
-            dataStagingTaskIds.add(outputDataStagingTask.getTaskId());
+                    .build());
         } catch (Exception e) {
             throw new AiravataException("Error while serializing data staging sub task model", e);
         }
     }
 
-    private List<String> createAndSaveSubmissionTasks(
-            RegistryHandler registryClient, ProcessModel processModel, int wallTime)
+    private List<TaskModel> createSubmissionTasks(ProcessModel processModel, int wallTime)
             throws Exception, OrchestratorException {
 
         // Transport is always SSH; monitoring is derived from the provisioning type.
-        List<String> submissionTaskIds = new ArrayList<>();
+        List<TaskModel> submissionTasks = new ArrayList<>();
         TaskStatus taskStatus = TaskStatus.newBuilder()
                 .setState(TaskState.TASK_STATE_CREATED)
                 .setTimeOfStateChange(AiravataUtils.getCurrentTimestamp().getTime())
@@ -678,9 +636,7 @@ public class SimpleOrchestratorImpl extends AbstractOrchestrator {
                 .setCurrentRetry(0)
                 .build();
 
-        String taskId = registryClient.addTask(taskModel, processModel.getProcessId());
-        taskModel = taskModel.toBuilder().setTaskId(taskId).build();
-        submissionTaskIds.add(taskModel.getTaskId());
+        submissionTasks.add(taskModel);
 
         // create monitor task
         TaskStatus monitorTaskStatus = TaskStatus.newBuilder()
@@ -700,11 +656,9 @@ public class SimpleOrchestratorImpl extends AbstractOrchestrator {
                 .setSubTaskModel(com.google.protobuf.ByteString.copyFrom(monitorSubTaskModel.toByteArray()))
                 .build();
 
-        String mTaskId = registryClient.addTask(monitorTaskModel, processModel.getProcessId());
-        monitorTaskModel = monitorTaskModel.toBuilder().setTaskId(mTaskId).build();
-        submissionTaskIds.add(monitorTaskModel.getTaskId());
+        submissionTasks.add(monitorTaskModel);
 
-        return submissionTaskIds;
+        return submissionTasks;
     }
 
     private void sortByInputOrder(List<InputDataObjectType> processInputs) {
@@ -0,0 +1,96 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.orchestration.executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import org.apache.airavata.util.TestBase;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Cross-JVM wake-ups through {@code EXECUTOR_SIGNAL}: two {@link ExecutorWakeup}s with their own
+ * signal rows stand in for two executor JVMs sharing the database.
+ */
+public class ExecutorWakeupSignalTest extends TestBase {
+
+    private final OrchestratorExecutorRepository repo = new OrchestratorExecutorRepository();
+    private final ExecutorWakeup first = new ExecutorWakeup(repo, "RUNNABLE/first");
+    private final ExecutorWakeup second = new ExecutorWakeup(repo, "RUNNABLE/second");
+
+    @Test
+    public void signalWakesOtherExecutorOnce() throws Exception {
+        first.checkRemote();
+        second.checkRemote();
+
+        for (int i = 0; i < 100; i++) {
+            first.signal("burst " + i);
+        }
+        drain(first);
+        first.checkRemote();
+        assertEquals(1L, seq("RUNNABLE/first"), "a burst of signals is published as one bump");
+
+        second.checkRemote();
+        assertTrue(second.await(0), "the other executor was not woken");
+        assertFalse(second.await(0), "the other executor was woken more than once");
+
+        second.checkRemote();
+        assertFalse(second.await(0), "an unchanged signal row woke the executor again");
+    }
+
+    @Test
+    public void ownSignalIsNotEchoed() throws Exception {
+        first.checkRemote();
+        first.signal("local work");
+        assertTrue(first.await(0), "local signal did not wake a local worker");
+
+        first.checkRemote();
+        first.checkRemote();
+        assertEquals(1L, seq("RUNNABLE/first"));
+        assertFalse(first.await(0), "the executor was woken again by its own published signal");
+    }
+
+    @Test
+    public void staleRowsAreDroppedOnStart() {
+        repo.execute(em -> em.createNativeQuery(
+                        "INSERT INTO EXECUTOR_SIGNAL (SIGNAL_ID, SEQ, UPDATED_TIME) VALUES ('RUNNABLE/gone', 7, :ts)")
+                .setParameter("ts", new Timestamp(System.currentTimeMillis() - 2 * 86_400_000L))
+                .executeUpdate());
+
+        first.checkRemote();
+
+        assertEquals(-1L, seq("RUNNABLE/gone"));
+    }
+
+    private long seq(String signalId) {
+        return repo.execute(em -> {
+            var rows = em.createNativeQuery("SELECT SEQ FROM EXECUTOR_SIGNAL WHERE SIGNAL_ID = :sid")
+                    .setParameter("sid", signalId)
+                    .getResultList();
+            return rows.isEmpty() ? -1L : ((Number) rows.get(0)).longValue();
+        });
+    }
+
+    private static void drain(ExecutorWakeup wakeup) throws InterruptedException {
+        while (wakeup.await(0)) {}
+    }
+}
@@ -0,0 +1,70 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.orchestration.executor;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+public class ExecutorWakeupTest {
+
+    private final ExecutorWakeup wakeup = new ExecutorWakeup(new OrchestratorExecutorRepository(), "RUNNABLE/test");
+
+    @Test
+    public void awaitTimesOutWithoutSignal() throws Exception {
+        assertFalse(wakeup.await(20));
+    }
+
+    @Test
+    public void signalReleasesParkedWorker() throws Exception {
+        CountDownLatch parked = new CountDownLatch(1);
+        CountDownLatch woken = new CountDownLatch(1);
+        Thread worker = new Thread(() -> {
+            try {
+                parked.countDown();
+                if (wakeup.await(10_000)) {
+                    woken.countDown();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        worker.start();
+        assertTrue(parked.await(5, TimeUnit.SECONDS));
+        wakeup.signal("test");
+        assertTrue(woken.await(5, TimeUnit.SECONDS), "signal did not wake the parked worker");
+        worker.join();
+    }
+
+    @Test
+    public void bankedWakeupsAreCapped() throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            wakeup.signal("burst " + i);
+        }
+        int banked = 0;
+        while (wakeup.await(0)) {
+            banked++;
+        }
+        assertTrue(banked > 0 && banked <= 64, "banked " + banked + " wake-ups");
+    }
+}
@@ -0,0 +1,133 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.orchestration.executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.util.Optional;
+import org.apache.airavata.model.status.proto.ProcessState;
+import org.apache.airavata.model.status.proto.TaskState;
+import org.apache.airavata.orchestration.repository.ExecCurrentStatusRepository;
+import org.apache.airavata.util.TestBase;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Claim latency against a growing number of in-flight processes. Every seeded process has a task
+ * EXECUTING, so none is claimable; the single claimable process is created last, behind all of
+ * them. With the set-based claim the latency should stay flat as the in-flight count grows. Runs
+ * only with {@code -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class ProcessExecutorClaimBenchmarkTest extends TestBase {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessExecutorClaimBenchmarkTest.class);
+
+    private static final int[] IN_FLIGHT = {100, 1000, 3000};
+    private static final int TASKS_PER_PROCESS = 4;
+    private static final int CLAIMS_PER_ROUND = 10;
+
+    private final OrchestratorExecutorRepository repo = new OrchestratorExecutorRepository();
+    private final ExecCurrentStatusRepository currentStatus = new ExecCurrentStatusRepository();
+
+    @Test
+    public void claimLatencyIsIndependentOfInFlightCount() {
+        ProcessExecutor executor = new ProcessExecutor();
+        long base = System.currentTimeMillis() - 86_400_000L;
+        int seeded = 0;
+        int serial = 0;
+        for (int target : IN_FLIGHT) {
+            for (; seeded < target; seeded++) {
+                seedProcess("bench-busy-" + seeded, base + seeded, 1);
+            }
+            long totalNanos = 0;
+            for (int i = 0; i < CLAIMS_PER_ROUND; i++) {
+                String pid = "bench-ready-" + serial++;
+                seedProcess(pid, base + 86_000_000L + serial, -1);
+
+                long start = System.nanoTime();
+                Optional<ProcessExecutor.Claim> claim = executor.claimNextRunnableTask();
+                totalNanos += System.nanoTime() - start;
+
+                assertTrue(claim.isPresent(), "claimable process was not found behind " + target + " in-flight");
+                assertEquals(pid, claim.get().processId);
+                assertEquals(pid + "-task-0", claim.get().taskId);
+            }
+            logger.info(
+                    "claim latency with {} in-flight processes: {} us avg over {} claims",
+                    target,
+                    totalNanos / CLAIMS_PER_ROUND / 1000,
+                    CLAIMS_PER_ROUND);
+        }
+    }
+
+    /**
+     * One STARTED process with a linear DAG. Tasks before {@code executingIndex} are COMPLETED and the
+     * task at {@code executingIndex} is EXECUTING; {@code -1} leaves every task unstarted (claimable).
+     */
+    private void seedProcess(String pid, long createdMillis, int executingIndex) {
+        repo.execute(em -> {
+            StringBuilder dag = new StringBuilder();
+            for (int t = 0; t < TASKS_PER_PROCESS; t++) {
+                dag.append(t == 0 ? "" : ",").append(pid).append("-task-").append(t);
+            }
+            Timestamp created = new Timestamp(createdMillis);
+            em.createNativeQuery("INSERT INTO PROCESS (PROCESS_ID, EXPERIMENT_ID, CREATION_TIME, TASK_DAG) "
+                            + "VALUES (:pid, 'bench-experiment', :ts, :dag)")
+                    .setParameter("pid", pid)
+                    .setParameter("ts", created)
+                    .setParameter("dag", dag.toString())
+                    .executeUpdate();
+            status(em, "PROCESS", pid, ProcessState.PROCESS_STATE_STARTED.name(), created);
+            for (int t = 0; t < TASKS_PER_PROCESS; t++) {
+                String tid = pid + "-task-" + t;
+                em.createNativeQuery("INSERT INTO TASK (TASK_ID, PARENT_PROCESS_ID, TASK_TYPE, CREATION_TIME) "
+                                + "VALUES (:tid, :pid, 'ENV_SETUP', :ts)")
+                        .setParameter("tid", tid)
+                        .setParameter("pid", pid)
+                        .setParameter("ts", created)
+                        .executeUpdate();
+                if (t < executingIndex) {
+                    status(em, "TASK", tid, TaskState.TASK_STATE_COMPLETED.name(), created);
+                } else if (t == executingIndex) {
+                    status(em, "TASK", tid, TaskState.TASK_STATE_EXECUTING.name(), created);
+                }
+            }
+            return null;
+        });
+    }
+
+    private void status(EntityManager em, String type, String id, String state, Timestamp ts) {
+        em.createNativeQuery("INSERT INTO EXEC_STATUS (STATUS_ID, ENTITY_TYPE, ENTITY_ID, STATE, TIME_OF_STATE_CHANGE) "
+                        + "VALUES (:sid, :type, :id, :state, :ts)")
+                .setParameter("sid", id + "-" + state)
+                .setParameter("type", type)
+                .setParameter("id", id)
+                .setParameter("state", state)
+                .setParameter("ts", ts)
+                .executeUpdate();
+        currentStatus.record(em, type, id, state, ts);
+    }
+}
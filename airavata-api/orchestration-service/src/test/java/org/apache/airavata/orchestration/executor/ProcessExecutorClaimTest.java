@@ -0,0 +1,258 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.orchestration.executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.apache.airavata.interfaces.RegistryHandler;
+import org.apache.airavata.model.status.proto.ProcessState;
+import org.apache.airavata.model.status.proto.TaskState;
+import org.apache.airavata.orchestration.repository.ExecCurrentStatusRepository;
+import org.apache.airavata.task.DbTaskResult;
+import org.apache.airavata.util.TestBase;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Processes that pass the candidate query but cannot be claimed under the lock must not keep
+ * younger claimable processes out of the claim window, the data staging tasks of one run are
+ * claimed side by side (one failing sibling fails the process for good, and siblings finishing
+ * together complete it once), and a resumed suspended task runs under its suspension row.
+ */
+public class ProcessExecutorClaimTest extends TestBase {
+
+    private final OrchestratorExecutorRepository repo = new OrchestratorExecutorRepository();
+    private final ExecCurrentStatusRepository currentStatus = new ExecCurrentStatusRepository();
+
+    @Test
+    public void unclaimableCandidatesDoNotHideYoungerProcesses() {
+        long base = System.currentTimeMillis() - 86_400_000L;
+        // More than a full claim window of old processes whose DAG names no task ...
+        for (int i = 0; i < 40; i++) {
+            seedProcess("claim-malformed-" + i, base + i, " , ", "claim-malformed-" + i + "-task");
+        }
+        // ... and of old processes with no DAG at all
+        for (int i = 0; i < 40; i++) {
+            seedProcess("claim-blank-" + i, base + 100 + i, "", "claim-blank-" + i + "-task");
+        }
+        seedProcess("claim-ready", base + 1000, "claim-ready-task", "claim-ready-task");
+
+        Optional<ProcessExecutor.Claim> claim = new ProcessExecutor().claimNextRunnableTask();
+
+        assertTrue(claim.isPresent(), "the claimable process was hidden behind unclaimable ones");
+        assertEquals("claim-ready", claim.get().processId);
+        assertEquals("claim-ready-task", claim.get().taskId);
+    }
+
+    @Test
+    public void stagingSiblingsAreClaimedTogetherAndGateTheNextTask() {
+        long base = System.currentTimeMillis() - 86_400_000L;
+        seedProcess("claim-staging", base, "stage-a,stage-b,stage-submit", "stage-a", "DATA_STAGING");
+        seedTask("claim-staging", "stage-b", "DATA_STAGING", base);
+        seedTask("claim-staging", "stage-submit", "JOB_SUBMISSION", base);
+        ProcessExecutor executor = new ProcessExecutor();
+
+        Optional<ProcessExecutor.Claim> first = executor.claimNextRunnableTask();
+        Optional<ProcessExecutor.Claim> second = executor.claimNextRunnableTask();
+
+        assertTrue(first.isPresent() && second.isPresent(), "staging siblings were not claimed together");
+        assertEquals("stage-a", first.get().taskId);
+        assertEquals("stage-b", second.get().taskId);
+        assertFalse(
+                executor.claimNextRunnableTask().isPresent(),
+                "the job submission was claimed while staging was still in flight");
+    }
+
+    @Test
+    public void failingStagingSiblingFailsTheProcessForGood() throws Exception {
+        long base = System.currentTimeMillis() - 86_400_000L;
+        String pid = "claim-sibling-fail";
+        seedProcess(pid, base, "sibling-a,sibling-b,sibling-c,sibling-submit", "sibling-a", "DATA_STAGING");
+        seedTask(pid, "sibling-b", "DATA_STAGING", base);
+        seedTask(pid, "sibling-c", "DATA_STAGING", base);
+        seedTask(pid, "sibling-submit", "JOB_SUBMISSION", base);
+        RegistryHandler registry = mock(RegistryHandler.class);
+        // retries allowed, so only the finalized process keeps a failing sibling from requeueing it
+        ProcessExecutor executor = new ProcessExecutor(3);
+
+        ProcessExecutor.Claim a = executor.claimNextRunnableTask().orElseThrow();
+        ProcessExecutor.Claim b = executor.claimNextRunnableTask().orElseThrow();
+        ProcessExecutor.Claim c = executor.claimNextRunnableTask().orElseThrow();
+        assertEquals("sibling-c", c.taskId);
+
+        executor.finishTask(registry, a, DbTaskResult.fatal("transfer failed"));
+
+        assertEquals(ProcessState.PROCESS_STATE_FAILED.name(), state("PROCESS", pid));
+        assertFalse(executor.claimNextRunnableTask().isPresent(), "a task of the failed process was claimed");
+
+        executor.finishTask(registry, b, DbTaskResult.completed("staged"));
+        executor.finishTask(registry, c, DbTaskResult.failed("checksum mismatch"));
+
+        assertEquals(ProcessState.PROCESS_STATE_FAILED.name(), state("PROCESS", pid));
+        Map<String, String> tasks = repo.execute(em -> currentStatus.getTaskStates(em, pid));
+        assertEquals(TaskState.TASK_STATE_FAILED.name(), tasks.get("sibling-a"));
+        assertEquals(TaskState.TASK_STATE_COMPLETED.name(), tasks.get("sibling-b"));
+        assertEquals(TaskState.TASK_STATE_FAILED.name(), tasks.get("sibling-c"), "the late failure was requeued");
+        assertFalse(tasks.containsKey("sibling-submit"), "the job submission ran after staging failed");
+        assertEquals(0, processStatusRows(pid, ProcessState.PROCESS_STATE_REQUEUED), "the failed process was requeued");
+        assertEquals(1, processStatusRows(pid, ProcessState.PROCESS_STATE_FAILED));
+        assertFalse(executor.claimNextRunnableTask().isPresent(), "a task of the failed process was claimed");
+    }
+
+    @Test
+    public void stagingSiblingsFinishingTogetherCompleteTheProcessOnce() throws Exception {
+        long base = System.currentTimeMillis() - 86_400_000L;
+        String pid = "claim-sibling-race";
+        seedProcess(pid, base, "race-a,race-b", "race-a", "DATA_STAGING");
+        seedTask(pid, "race-b", "DATA_STAGING", base);
+        RegistryHandler registry = mock(RegistryHandler.class);
+        ProcessExecutor executor = new ProcessExecutor(3);
+        ProcessExecutor.Claim a = executor.claimNextRunnableTask().orElseThrow();
+        ProcessExecutor.Claim b = executor.claimNextRunnableTask().orElseThrow();
+        assertEquals("race-b", b.taskId);
+
+        CyclicBarrier start = new CyclicBarrier(2);
+        ExecutorService siblings = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<?>> finishes = new ArrayList<>();
+            for (ProcessExecutor.Claim claim : List.of(a, b)) {
+                finishes.add(siblings.submit(() -> {
+                    start.await();
+                    executor.finishTask(registry, claim, DbTaskResult.completed("staged"));
+                    return null;
+                }));
+            }
+            for (Future<?> finish : finishes) {
+                finish.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            siblings.shutdownNow();
+        }
+
+        assertEquals(ProcessState.PROCESS_STATE_COMPLETED.name(), state("PROCESS", pid));
+        assertEquals(1, processStatusRows(pid, ProcessState.PROCESS_STATE_COMPLETED));
+    }
+
+    @Test
+    public void resumedTaskLeasesItsSuspensionWithoutWritingStatus() {
+        long base = System.currentTimeMillis() - 86_400_000L;
+        seedProcess("claim-resume", base, "resume-monitor", "resume-monitor", "MONITORING");
+        repo.execute(em -> {
+            Timestamp suspended = new Timestamp(base + 1000);
+            em.createNativeQuery(
+                            "INSERT INTO EXEC_STATUS (STATUS_ID, ENTITY_TYPE, ENTITY_ID, STATE, TIME_OF_STATE_CHANGE) "
+                                    + "VALUES ('resume-monitor-suspended', 'TASK', 'resume-monitor', :state, :ts)")
+                    .setParameter("state", TaskState.TASK_STATE_CREATED.name())
+                    .setParameter("ts", suspended)
+                    .executeUpdate();
+            currentStatus.record(em, "TASK", "resume-monitor", TaskState.TASK_STATE_CREATED.name(), suspended);
+            em.createNativeQuery("INSERT INTO TASK_SUSPENSION (TASK_ID, PROCESS_ID, RESUME_AT, SUSPENDED_TIME) "
+                            + "VALUES ('resume-monitor', 'claim-resume', :due, :ts)")
+                    .setParameter("due", new Timestamp(System.currentTimeMillis() - 1000))
+                    .setParameter("ts", suspended)
+                    .executeUpdate();
+            return null;
+        });
+
+        Optional<ProcessExecutor.Claim> claim = new ProcessExecutor().claimNextRunnableTask();
+
+        assertTrue(claim.isPresent(), "the due suspension was not resumed");
+        assertEquals("resume-monitor", claim.get().taskId);
+        long statusRows = repo.execute(em -> ((Number) em.createNativeQuery(
+                                "SELECT COUNT(*) FROM EXEC_STATUS WHERE ENTITY_TYPE = 'TASK' AND ENTITY_ID = 'resume-monitor'")
+                        .getSingleResult())
+                .longValue());
+        assertEquals(1, statusRows, "the resumed claim wrote task status history");
+        Object claimed = repo.execute(em -> em.createNativeQuery(
+                        "SELECT CLAIMED_TIME FROM TASK_SUSPENSION WHERE TASK_ID = 'resume-monitor'")
+                .getSingleResult());
+        assertNotNull(claimed, "the resumed run does not hold its suspension row as a lease");
+    }
+
+    private long processStatusRows(String pid, ProcessState state) {
+        return repo.execute(em -> ((Number) em.createNativeQuery("SELECT COUNT(*) FROM EXEC_STATUS "
+                                + "WHERE ENTITY_TYPE = 'PROCESS' AND ENTITY_ID = :pid AND STATE = :state")
+                        .setParameter("pid", pid)
+                        .setParameter("state", state.name())
+                        .getSingleResult())
+                .longValue());
+    }
+
+    private String state(String entityType, String entityId) {
+        return repo.execute(em -> currentStatus.getState(em, entityType, entityId));
+    }
+
+    private void seedProcess(String pid, long createdMillis, String dag, String taskId) {
+        seedProcess(pid, createdMillis, dag, taskId, "ENV_SETUP");
+    }
+
+    private void seedTask(String pid, String taskId, String taskType, long createdMillis) {
+        repo.execute(
+                em -> em.createNativeQuery("INSERT INTO TASK (TASK_ID, PARENT_PROCESS_ID, TASK_TYPE, CREATION_TIME) "
+                                + "VALUES (:tid, :pid, :type, :ts)")
+                        .setParameter("tid", taskId)
+                        .setParameter("pid", pid)
+                        .setParameter("type", taskType)
+                        .setParameter("ts", new Timestamp(createdMillis))
+                        .executeUpdate());
+    }
+
+    private void seedProcess(String pid, long createdMillis, String dag, String taskId, String taskType) {
+        repo.execute(em -> {
+            Timestamp created = new Timestamp(createdMillis);
+            em.createNativeQuery("INSERT INTO PROCESS (PROCESS_ID, EXPERIMENT_ID, CREATION_TIME, TASK_DAG) "
+                            + "VALUES (:pid, 'claim-experiment', :ts, :dag)")
+                    .setParameter("pid", pid)
+                    .setParameter("ts", created)
+                    .setParameter("dag", dag)
+                    .executeUpdate();
+            em.createNativeQuery("INSERT INTO TASK (TASK_ID, PARENT_PROCESS_ID, TASK_TYPE, CREATION_TIME) "
+                            + "VALUES (:tid, :pid, :type, :ts)")
+                    .setParameter("tid", taskId)
+                    .setParameter("pid", pid)
+                    .setParameter("type", taskType)
+                    .setParameter("ts", created)
+                    .executeUpdate();
+            em.createNativeQuery(
+                            "INSERT INTO EXEC_STATUS (STATUS_ID, ENTITY_TYPE, ENTITY_ID, STATE, TIME_OF_STATE_CHANGE) "
+                                    + "VALUES (:sid, 'PROCESS', :pid, :state, :ts)")
+                    .setParameter("sid", pid + "-started")
+                    .setParameter("pid", pid)
+                    .setParameter("state", ProcessState.PROCESS_STATE_STARTED.name())
+                    .setParameter("ts", created)
+                    .executeUpdate();
+            currentStatus.record(em, "PROCESS", pid, ProcessState.PROCESS_STATE_STARTED.name(), created);
+            return null;
+        });
+    }
+}
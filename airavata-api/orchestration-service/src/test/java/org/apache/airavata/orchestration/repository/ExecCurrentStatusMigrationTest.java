@@ -0,0 +1,98 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.orchestration.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.UUID;
+import org.apache.airavata.util.TestBase;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.ext.ScriptUtils;
+import org.testcontainers.jdbc.JdbcDatabaseDelegate;
+
+/**
+ * The V3 migration seeds EXEC_CURRENT_STATUS from the history of entities written before the
+ * projection existed, picking the latest row per entity and the higher rank on a timestamp tie.
+ */
+public class ExecCurrentStatusMigrationTest extends TestBase {
+
+    @Test
+    public void migrationSeedsTheLatestStateOfEveryEntity() throws Exception {
+        String prefix = "migrate-" + UUID.randomUUID() + "-";
+        long base = System.currentTimeMillis() - 60_000L;
+        String processId = prefix + "process";
+        String taskId = prefix + "task";
+        try (Connection conn = mariadb().createConnection("")) {
+            history(conn, "PROCESS", processId, "PROCESS_STATE_CREATED", base);
+            history(conn, "PROCESS", processId, "PROCESS_STATE_EXECUTING", base + 2000);
+            history(conn, "PROCESS", processId, "PROCESS_STATE_STARTED", base + 1000);
+            // A requeue written in the same instant as the claim: CREATED out-ranks EXECUTING
+            history(conn, "TASK", taskId, "TASK_STATE_EXECUTING", base);
+            history(conn, "TASK", taskId, "TASK_STATE_CREATED", base);
+            try {
+                try (JdbcDatabaseDelegate db = new JdbcDatabaseDelegate(mariadb(), "")) {
+                    ScriptUtils.runInitScript(db, "db/migration/airavata/V3__Exec_current_status.sql");
+                }
+
+                assertEquals("PROCESS_STATE_EXECUTING", current(conn, "PROCESS", processId));
+                assertEquals("TASK_STATE_CREATED", current(conn, "TASK", taskId));
+            } finally {
+                delete(conn, "DELETE FROM EXEC_STATUS WHERE ENTITY_ID LIKE ?", prefix);
+                delete(conn, "DELETE FROM EXEC_CURRENT_STATUS WHERE ENTITY_ID LIKE ?", prefix);
+            }
+        }
+    }
+
+    private static void history(Connection conn, String entityType, String entityId, String state, long millis)
+            throws Exception {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO EXEC_STATUS (STATUS_ID, ENTITY_TYPE, ENTITY_ID, STATE, TIME_OF_STATE_CHANGE) "
+                        + "VALUES (?, ?, ?, ?, ?)")) {
+            ps.setString(1, UUID.randomUUID().toString());
+            ps.setString(2, entityType);
+            ps.setString(3, entityId);
+            ps.setString(4, state);
+            ps.setTimestamp(5, new Timestamp(millis));
+            ps.executeUpdate();
+        }
+    }
+
+    private static String current(Connection conn, String entityType, String entityId) throws Exception {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT STATE FROM EXEC_CURRENT_STATUS WHERE ENTITY_TYPE = ? AND ENTITY_ID = ?")) {
+            ps.setString(1, entityType);
+            ps.setString(2, entityId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    private static void delete(Connection conn, String sql, String prefix) throws Exception {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, prefix + "%");
+            ps.executeUpdate();
+        }
+    }
+}
@@ -143,4 +143,70 @@ public class TaskRepositoryTest extends TestBase {
         gatewayRepository.removeGateway(gatewayId);
         projectRepository.removeProject(projectId);
     }
+
+    @Test
+    public void addTasksWritesTasksStatusesAndDagTogether() throws RegistryException {
+        Gateway gateway = Gateway.newBuilder()
+                .setGatewayId("gateway")
+                .setDomain("SEAGRID")
+                .setEmailAddress("abc@d.com")
+                .build();
+        String gatewayId = gatewayRepository.addGateway(gateway);
+        Project project = Project.newBuilder()
+                .setName("projectName")
+                .setOwner("user")
+                .setGatewayId(gatewayId)
+                .build();
+        String projectId = projectRepository.addProject(project, gatewayId);
+        ExperimentModel experimentModel = ExperimentModel.newBuilder()
+                .setProjectId(projectId)
+                .setGatewayId(gatewayId)
+                .setExperimentType(ExperimentType.SINGLE_APPLICATION)
+                .setUserName("user")
+                .setExperimentName("name")
+                .setUserConfigurationData(UserConfigurationDataModel.getDefaultInstance())
+                .build();
+        String experimentId = experimentRepository.addExperiment(experimentModel);
+        String processId = processRepository.addProcess(
+                ProcessModel.newBuilder().setExperimentId(experimentId).build(), experimentId);
+
+        TaskStatus created = TaskStatus.newBuilder()
+                .setState(TaskState.TASK_STATE_CREATED)
+                .setTimeOfStateChange(AiravataUtils.getCurrentTimestamp().getTime())
+                .build();
+        List<TaskModel> tasks = List.of(
+                TaskModel.newBuilder()
+                        .setTaskType(TaskTypes.ENV_SETUP)
+                        .addTaskStatuses(created)
+                        .build(),
+                TaskModel.newBuilder()
+                        .setTaskType(TaskTypes.JOB_SUBMISSION)
+                        .addTaskStatuses(created)
+                        .build(),
+                TaskModel.newBuilder()
+                        .setTaskType(TaskTypes.MONITORING)
+                        .addTaskStatuses(created)
+                        .build());
+
+        List<String> taskIds = taskRepository.addTasks(tasks, processId);
+        assertEquals(3, taskIds.size());
+
+        ProcessModel retrievedProcess = processRepository.getProcess(processId);
+        assertEquals(String.join(",", taskIds), retrievedProcess.getTaskDag());
+        assertEquals(3, retrievedProcess.getTasksList().size());
+        for (String taskId : taskIds) {
+            TaskModel retrievedTask = taskRepository.getTask(taskId);
+            assertEquals(processId, retrievedTask.getParentProcessId());
+            assertEquals(1, retrievedTask.getTaskStatusesCount());
+            assertEquals(
+                    TaskState.TASK_STATE_CREATED,
+                    retrievedTask.getTaskStatusesList().get(0).getState());
+        }
+        assertEquals(
+                TaskTypes.MONITORING, taskRepository.getTask(taskIds.get(2)).getTaskType());
+
+        experimentRepository.removeExperiment(experimentId);
+        gatewayRepository.removeGateway(gatewayId);
+        projectRepository.removeProject(projectId);
+    }
 }
@@ -24,6 +24,7 @@ import static org.mockito.Mockito.*;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import org.apache.airavata.interfaces.AgentAdaptor;
@@ -146,7 +147,7 @@ class AirvataFileServiceTest {
     }
 
     @Test
-    void uploadFile_delegatesToAdaptor() throws Exception {
+    void uploadFile_streamsToAdaptor() throws Exception {
         byte[] content = "hello world".getBytes();
         InputStream inputStream = new ByteArrayInputStream(content);
 
@@ -154,48 +155,138 @@ class AirvataFileServiceTest {
             when(mock.getAgentAdaptor()).thenReturn(agentAdaptor);
             when(mock.getBaseDir()).thenReturn("/home/user/");
         })) {
-            fileService.uploadFile("proc-1", "output/test.txt", inputStream, "test.txt", content.length);
+            when(agentAdaptor.supportsRangedTransfer()).thenReturn(true);
+            when(agentAdaptor.uploadStream(inputStream, "/home/user/output/test.txt"))
+                    .thenReturn((long) content.length);
 
+            long size = fileService.uploadFile("proc-1", "output/test.txt", inputStream, "test.txt");
+
+            assertEquals(content.length, size);
             verify(agentAdaptor).createDirectory("/home/user/output", true);
+            verify(agentAdaptor, never()).uploadFile(any(InputStream.class), any(FileMetadata.class), anyString());
+        }
+    }
+
+    @Test
+    void uploadFile_stagesForAdaptorsWithoutStreaming() throws Exception {
+        byte[] content = "hello world".getBytes();
+        InputStream inputStream = new ByteArrayInputStream(content);
+
+        try (MockedConstruction<ProcessDataManager> mocked = mockConstruction(ProcessDataManager.class, (mock, ctx) -> {
+            when(mock.getAgentAdaptor()).thenReturn(agentAdaptor);
+            when(mock.getBaseDir()).thenReturn("/home/user/");
+        })) {
+            long size = fileService.uploadFile("proc-1", "output/test.txt", inputStream, "test.txt");
+
+            assertEquals(content.length, size);
             verify(agentAdaptor)
-                    .uploadFile(any(InputStream.class), any(FileMetadata.class), eq("/home/user/output/test.txt"));
+                    .uploadFile(
+                            any(InputStream.class),
+                            argThat(m -> m.getSize() == content.length && "test.txt".equals(m.getName())),
+                            eq("/home/user/output/test.txt"));
+        }
+    }
+
+    @Test
+    void openDownload_streamsRequestedRange() throws Exception {
+        FileMetadata metadata = new FileMetadata();
+        metadata.setName("result.txt");
+        metadata.setSize(100);
+
+        try (MockedConstruction<ProcessDataManager> mocked = mockConstruction(ProcessDataManager.class, (mock, ctx) -> {
+            when(mock.getAgentAdaptor()).thenReturn(agentAdaptor);
+            when(mock.getBaseDir()).thenReturn("/home/user/");
+        })) {
+            when(agentAdaptor.doesFileExist("/home/user/result.txt")).thenReturn(true);
+            when(agentAdaptor.getFileMetadata("/home/user/result.txt")).thenReturn(metadata);
+            when(agentAdaptor.supportsRangedTransfer()).thenReturn(true);
+            when(agentAdaptor.openFileRange("/home/user/result.txt", 10, 20))
+                    .thenReturn(new ByteArrayInputStream("range".getBytes()));
+            when(adaptorSupport.acquire(agentAdaptor)).thenReturn(true);
+
+            var download = fileService.openDownload("proc-1", "result.txt");
+
+            assertEquals(100, download.getMetadata().getSize());
+            verify(adaptorSupport, never()).acquire(any());
+            InputStream in = download.open(10, 20);
+            assertEquals("range", new String(in.readAllBytes()));
+            verify(adaptorSupport, never()).release(any());
+            in.close();
+            in.close();
+            verify(adaptorSupport, times(1)).release(agentAdaptor);
+            verify(agentAdaptor, never()).downloadFile(anyString(), anyString());
         }
     }
 
     @Test
-    void downloadFile_returnsPathWhenFileExists() throws Exception {
+    void openDownload_stagesForAdaptorsWithoutRangedReads() throws Exception {
+        FileMetadata metadata = new FileMetadata();
+        metadata.setName("result.txt");
+        metadata.setSize(10);
+
         try (MockedConstruction<ProcessDataManager> mocked = mockConstruction(ProcessDataManager.class, (mock, ctx) -> {
             when(mock.getAgentAdaptor()).thenReturn(agentAdaptor);
             when(mock.getBaseDir()).thenReturn("/home/user/");
         })) {
             when(agentAdaptor.doesFileExist("/home/user/result.txt")).thenReturn(true);
+            when(agentAdaptor.getFileMetadata("/home/user/result.txt")).thenReturn(metadata);
+            String[] staged = new String[1];
             doAnswer(invocation -> {
-                        // Simulate download by creating the temp file content
-                        String localPath = invocation.getArgument(1);
-                        java.nio.file.Files.writeString(Path.of(localPath), "file content");
+                        staged[0] = invocation.getArgument(1);
+                        Files.writeString(Path.of(staged[0]), "0123456789");
                         return null;
                     })
                     .when(agentAdaptor)
                     .downloadFile(eq("/home/user/result.txt"), anyString());
-
-            Path result = fileService.downloadFile("proc-1", "result.txt");
-
-            assertNotNull(result);
-            assertTrue(result.toFile().exists());
-            // cleanup
-            result.toFile().delete();
+            when(adaptorSupport.acquire(agentAdaptor)).thenReturn(true);
+
+            try (InputStream in =
+                    fileService.openDownload("proc-1", "result.txt").open(2, 3)) {
+                // The file is local once staged, so the lease is not held while the client reads
+                verify(adaptorSupport).release(agentAdaptor);
+                assertEquals("234", new String(in.readAllBytes()));
+            }
+            assertFalse(Files.exists(Path.of(staged[0])));
+            verify(adaptorSupport, times(1)).release(agentAdaptor);
         }
     }
 
     @Test
-    void downloadFile_throwsWhenFileDoesNotExist() throws Exception {
+    void openDownload_throwsWhenFileDoesNotExist() throws Exception {
         try (MockedConstruction<ProcessDataManager> mocked = mockConstruction(ProcessDataManager.class, (mock, ctx) -> {
             when(mock.getAgentAdaptor()).thenReturn(agentAdaptor);
             when(mock.getBaseDir()).thenReturn("/home/user/");
         })) {
             when(agentAdaptor.doesFileExist("/home/user/missing.txt")).thenReturn(false);
 
-            assertThrows(Exception.class, () -> fileService.downloadFile("proc-1", "missing.txt"));
+            assertThrows(Exception.class, () -> fileService.openDownload("proc-1", "missing.txt"));
+        }
+    }
+
+    @Test
+    void openDownload_releasesLeaseWhenOpeningFails() throws Exception {
+        FileMetadata metadata = new FileMetadata();
+        metadata.setName("result.txt");
+        metadata.setSize(100);
+        AgentAdaptor replacement = mock(AgentAdaptor.class);
+
+        try (MockedConstruction<ProcessDataManager> mocked = mockConstruction(ProcessDataManager.class, (mock, ctx) -> {
+            when(mock.getAgentAdaptor()).thenReturn(agentAdaptor, replacement);
+            when(mock.getBaseDir()).thenReturn("/home/user/");
+        })) {
+            when(agentAdaptor.doesFileExist("/home/user/result.txt")).thenReturn(true);
+            when(agentAdaptor.getFileMetadata("/home/user/result.txt")).thenReturn(metadata);
+            // Evicted after openDownload resolved it: the stream leases the cache's current adaptor
+            when(adaptorSupport.acquire(agentAdaptor)).thenReturn(false);
+            when(adaptorSupport.acquire(replacement)).thenReturn(true);
+            when(replacement.supportsRangedTransfer()).thenReturn(true);
+            when(replacement.openFileRange("/home/user/result.txt", 0, 100)).thenThrow(new RuntimeException("closed"));
+
+            var download = fileService.openDownload("proc-1", "result.txt");
+
+            assertThrows(RuntimeException.class, () -> download.open(0, 100));
+            verify(adaptorSupport).release(replacement);
+            verify(adaptorSupport, never()).release(agentAdaptor);
         }
     }
 }
@@ -31,7 +31,12 @@ import org.hibernate.annotations.SQLRestriction;
  * The persistent class for the experiment database table.
  */
 @Entity
-@Table(name = "EXPERIMENT")
+@Table(
+        name = "EXPERIMENT",
+        indexes =
+                @Index(
+                        name = "IDX_EXPERIMENT_GATEWAY_CREATION",
+                        columnList = "GATEWAY_ID, CREATION_TIME, EXPERIMENT_ID"))
 public class ExperimentEntity implements Serializable {
     private static final long serialVersionUID = 1L;
 
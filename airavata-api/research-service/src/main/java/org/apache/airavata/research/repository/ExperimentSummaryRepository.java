@@ -79,6 +79,102 @@ public class ExperimentSummaryRepository
             throw new RegistryException("GatewayId is required");
         }
 
+        whereClause += filterSearchQuery(filters, queryParameters);
+
+        if (!accessibleExperimentIds.isEmpty()) {
+            logger.debug("Filter Experiments by Accessible Experiment IDs");
+            queryParameters.put(DBConstants.Experiment.ACCESSIBLE_EXPERIMENT_IDS, accessibleExperimentIds);
+            whereClause += " ES.experimentId IN :" + DBConstants.Experiment.ACCESSIBLE_EXPERIMENT_IDS;
+        } else {
+            // If no experiments are accessible then immediately return an empty list
+            return new ArrayList<ExperimentSummaryModel>();
+        }
+
+        int queryLimit = limit;
+        int queryOffset = offset;
+        int accessibleExperimentIdsBatchNum = 0;
+
+        // Figure out the initial batch of accessible experiment ids and the
+        // offset into it by counting the matching experiments in each batch
+        if (queryOffset > 0) {
+            String countQuery = "SELECT COUNT(ES) FROM " + ExperimentSummaryEntity.class.getSimpleName() + " ES WHERE ";
+            countQuery += whereClause;
+            BatchOffset batchOffset = findInitialAccessibleExperimentsBatchOffset(
+                    countQuery, queryOffset, queryParameters, accessibleExperimentIds);
+            queryOffset = batchOffset.offset;
+            accessibleExperimentIdsBatchNum = batchOffset.batchNum;
+        }
+
+        query += whereClause;
+        if (orderByIdentifier != null
+                && resultOrderType != null
+                && orderByIdentifier.equals(DBConstants.Experiment.CREATION_TIME)) {
+            String order = (resultOrderType == ResultOrderType.ASC) ? "ASC" : "DESC";
+            query += " ORDER BY ES." + DBConstants.Experiment.CREATION_TIME + " " + order;
+        }
+
+        List<ExperimentSummaryModel> allExperimentSummaryModels = new ArrayList<>();
+
+        // Break up the query in batches over accessibleExperimentIds
+        // NOTE: this assumes that the accessibleExperimentIds are sorted in the
+        // same order as the expected experiment summary results
+        double totalBatches = Math.ceil(
+                Integer.valueOf(accessibleExperimentIds.size()).floatValue() / ACCESSIBLE_EXPERIMENT_IDS_BATCH_SIZE);
+        for (int batchNum = accessibleExperimentIdsBatchNum; batchNum < totalBatches; batchNum++) {
+            List<String> accessibleExperimentIdsBatch = accessibleExperimentIds.subList(
+                    batchNum * ACCESSIBLE_EXPERIMENT_IDS_BATCH_SIZE,
+                    Math.min(accessibleExperimentIds.size(), (batchNum + 1) * ACCESSIBLE_EXPERIMENT_IDS_BATCH_SIZE));
+            queryParameters.put(DBConstants.Experiment.ACCESSIBLE_EXPERIMENT_IDS, accessibleExperimentIdsBatch);
+            List<ExperimentSummaryModel> experimentSummaryModelList =
+                    select(query, queryLimit, queryOffset, queryParameters);
+            allExperimentSummaryModels.addAll(experimentSummaryModelList);
+            if (allExperimentSummaryModels.size() == limit) {
+                return allExperimentSummaryModels;
+            } else if (limit > 0 && allExperimentSummaryModels.size() < limit) {
+                queryLimit -= experimentSummaryModelList.size();
+                // In the next and subsequent batches, start from offset 0
+                queryOffset = 0;
+            }
+        }
+        return allExperimentSummaryModels;
+    }
+
+    /**
+     * Searches the experiments of a gateway that are shared with any of {@code accessGroupIds} (a user id
+     * and the ids of every group it belongs to), newest first. The access check is a correlated EXISTS on
+     * SHARING, so filtering, ordering and paging all happen in one query and only the requested page is
+     * read, however many experiments the user can access. Ties on creation time are broken by experiment
+     * id so consecutive pages neither repeat nor skip rows. The ordering walks
+     * IDX_EXPERIMENT_GATEWAY_CREATION, which the V10 migration adds.
+     */
+    public List<ExperimentSummaryModel> searchAccessibleExperiments(
+            List<String> accessGroupIds, Map<String, String> filters, int limit, int offset) throws RegistryException {
+        if (filters == null || !filters.containsKey(DBConstants.Experiment.GATEWAY_ID)) {
+            logger.error("GatewayId is required");
+            throw new RegistryException("GatewayId is required");
+        }
+        if (accessGroupIds == null || accessGroupIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<String, Object> queryParameters = new HashMap<>();
+        String query = "SELECT ES FROM " + ExperimentSummaryEntity.class.getSimpleName() + " ES WHERE "
+                + filterSearchQuery(filters, queryParameters);
+        queryParameters.put(DBConstants.Experiment.ACCESS_GROUP_IDS, accessGroupIds);
+        query += "EXISTS (SELECT S.entityId FROM SharingEntity S"
+                + " WHERE S.domainId = ES.gatewayId AND S.entityId = ES.experimentId"
+                + " AND S.groupId IN :" + DBConstants.Experiment.ACCESS_GROUP_IDS + ")"
+                + " ORDER BY ES.creationTime DESC, ES.experimentId DESC";
+        return select(query, limit, offset, queryParameters);
+    }
+
+    /**
+     * Builds the "... AND " terminated where-clause terms for the search filters shared by the
+     * experiment search queries, registering their parameters in {@code queryParameters}.
+     */
+    private String filterSearchQuery(Map<String, String> filters, Map<String, Object> queryParameters) {
+        String whereClause = "";
+
         if (filters.get(DBConstants.Job.JOB_ID) != null) {
             logger.debug("Filter Experiments by JobId");
             queryParameters.put(DBConstants.Job.JOB_ID, filters.get(DBConstants.Job.JOB_ID));
@@ -135,11 +231,12 @@ public class ExperimentSummaryRepository
             whereClause += "ES.experimentStatus LIKE :" + DBConstants.ExperimentSummary.EXPERIMENT_STATUS + " AND ";
         }
 
-        if (filters.get(DBConstants.ExperimentSummary.FROM_DATE) != null
-                && filters.get(DBConstants.ExperimentSummary.TO_DATE) != null) {
+        String from = filters.get(DBConstants.ExperimentSummary.FROM_DATE);
+        String to = filters.get(DBConstants.ExperimentSummary.TO_DATE);
+        if (from != null && to != null) {
 
-            Timestamp fromDate = new Timestamp(Long.valueOf(filters.get(DBConstants.ExperimentSummary.FROM_DATE)));
-            Timestamp toDate = new Timestamp(Long.valueOf(filters.get(DBConstants.ExperimentSummary.TO_DATE)));
+            Timestamp fromDate = new Timestamp(Long.valueOf(from));
+            Timestamp toDate = new Timestamp(Long.valueOf(to));
 
             if (toDate.after(fromDate)) {
                 logger.debug("Filter Experiments by CreationTime");
@@ -148,6 +245,14 @@ public class ExperimentSummaryRepository
                 whereClause += "ES.creationTime BETWEEN :" + DBConstants.ExperimentSummary.FROM_DATE + " AND :"
                         + DBConstants.ExperimentSummary.TO_DATE + " AND ";
             }
+        } else if (from != null) {
+            logger.debug("Filter Experiments by CreationTime lower bound");
+            queryParameters.put(DBConstants.ExperimentSummary.FROM_DATE, new Timestamp(Long.valueOf(from)));
+            whereClause += "ES.creationTime >= :" + DBConstants.ExperimentSummary.FROM_DATE + " AND ";
+        } else if (to != null) {
+            logger.debug("Filter Experiments by CreationTime upper bound");
+            queryParameters.put(DBConstants.ExperimentSummary.TO_DATE, new Timestamp(Long.valueOf(to)));
+            whereClause += "ES.creationTime <= :" + DBConstants.ExperimentSummary.TO_DATE + " AND ";
         }
 
         if (filters.get(DBConstants.Experiment.USER_NAME) != null) {
@@ -155,63 +260,7 @@ public class ExperimentSummaryRepository
             queryParameters.put(DBConstants.Experiment.USER_NAME, filters.get(DBConstants.Experiment.USER_NAME));
             whereClause += "ES.userName = :" + DBConstants.Experiment.USER_NAME + " AND ";
         }
-
-        if (!accessibleExperimentIds.isEmpty()) {
-            logger.debug("Filter Experiments by Accessible Experiment IDs");
-            queryParameters.put(DBConstants.Experiment.ACCESSIBLE_EXPERIMENT_IDS, accessibleExperimentIds);
-            whereClause += " ES.experimentId IN :" + DBConstants.Experiment.ACCESSIBLE_EXPERIMENT_IDS;
-        } else {
-            // If no experiments are accessible then immediately return an empty list
-            return new ArrayList<ExperimentSummaryModel>();
-        }
-
-        int queryLimit = limit;
-        int queryOffset = offset;
-        int accessibleExperimentIdsBatchNum = 0;
-
-        // Figure out the initial batch of accessible experiment ids and the
-        // offset into it by counting the matching experiments in each batch
-        if (queryOffset > 0) {
-            String countQuery = "SELECT COUNT(ES) FROM " + ExperimentSummaryEntity.class.getSimpleName() + " ES WHERE ";
-            countQuery += whereClause;
-            BatchOffset batchOffset = findInitialAccessibleExperimentsBatchOffset(
-                    countQuery, queryOffset, queryParameters, accessibleExperimentIds);
-            queryOffset = batchOffset.offset;
-            accessibleExperimentIdsBatchNum = batchOffset.batchNum;
-        }
-
-        query += whereClause;
-        if (orderByIdentifier != null
-                && resultOrderType != null
-                && orderByIdentifier.equals(DBConstants.Experiment.CREATION_TIME)) {
-            String order = (resultOrderType == ResultOrderType.ASC) ? "ASC" : "DESC";
-            query += " ORDER BY ES." + DBConstants.Experiment.CREATION_TIME + " " + order;
-        }
-
-        List<ExperimentSummaryModel> allExperimentSummaryModels = new ArrayList<>();
-
-        // Break up the query in batches over accessibleExperimentIds
-        // NOTE: this assumes that the accessibleExperimentIds are sorted in the
-        // same order as the expected experiment summary results
-        double totalBatches = Math.ceil(
-                Integer.valueOf(accessibleExperimentIds.size()).floatValue() / ACCESSIBLE_EXPERIMENT_IDS_BATCH_SIZE);
-        for (int batchNum = accessibleExperimentIdsBatchNum; batchNum < totalBatches; batchNum++) {
-            List<String> accessibleExperimentIdsBatch = accessibleExperimentIds.subList(
-                    batchNum * ACCESSIBLE_EXPERIMENT_IDS_BATCH_SIZE,
-                    Math.min(accessibleExperimentIds.size(), (batchNum + 1) * ACCESSIBLE_EXPERIMENT_IDS_BATCH_SIZE));
-            queryParameters.put(DBConstants.Experiment.ACCESSIBLE_EXPERIMENT_IDS, accessibleExperimentIdsBatch);
-            List<ExperimentSummaryModel> experimentSummaryModelList =
-                    select(query, queryLimit, queryOffset, queryParameters);
-            allExperimentSummaryModels.addAll(experimentSummaryModelList);
-            if (allExperimentSummaryModels.size() == limit) {
-                return allExperimentSummaryModels;
-            } else if (limit > 0 && allExperimentSummaryModels.size() < limit) {
-                queryLimit -= experimentSummaryModelList.size();
-                // In the next and subsequent batches, start from offset 0
-                queryOffset = 0;
-            }
-        }
-        return allExperimentSummaryModels;
+        return whereClause;
     }
 
     class BatchOffset {
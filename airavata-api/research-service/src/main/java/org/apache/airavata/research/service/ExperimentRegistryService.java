@@ -302,6 +302,16 @@ public class ExperimentRegistryService implements ExperimentRegistry {
         }
     }
 
+    @Override
+    public List<String> addTasks(List<TaskModel> taskModels, String processId) throws Exception {
+        try {
+            return executionDataAccess.addTasks(taskModels, processId);
+        } catch (Exception e) {
+            logger.error(processId, "Error while adding tasks ", e);
+            throw new RegistryException("Error while adding tasks. More info : " + e.getMessage());
+        }
+    }
+
     @Override
     public void addTaskStatus(TaskStatus taskStatus, String taskId) throws Exception {
         try {
@@ -786,29 +796,7 @@ public class ExperimentRegistryService implements ExperimentRegistry {
             if (userProfileProvider.getUserProfileByIdAndGateWay(userName, gatewayId) == null) {
                 throw new RegistryException("User does not exist in the system. Please provide a valid user..");
             }
-            Map<String, String> regFilters = new HashMap<>();
-            regFilters.put(Constants.FieldConstants.ExperimentConstants.GATEWAY_ID, gatewayId);
-            for (Map.Entry<ExperimentSearchFields, String> entry : filters.entrySet()) {
-                if (entry.getKey().equals(ExperimentSearchFields.EXPERIMENT_NAME)) {
-                    regFilters.put(Constants.FieldConstants.ExperimentConstants.EXPERIMENT_NAME, entry.getValue());
-                } else if (entry.getKey().equals(ExperimentSearchFields.EXPERIMENT_DESC)) {
-                    regFilters.put(Constants.FieldConstants.ExperimentConstants.DESCRIPTION, entry.getValue());
-                } else if (entry.getKey().equals(ExperimentSearchFields.APPLICATION_ID)) {
-                    regFilters.put(Constants.FieldConstants.ExperimentConstants.EXECUTION_ID, entry.getValue());
-                } else if (entry.getKey().equals(ExperimentSearchFields.STATUS)) {
-                    regFilters.put(Constants.FieldConstants.ExperimentConstants.EXPERIMENT_STATUS, entry.getValue());
-                } else if (entry.getKey().equals(ExperimentSearchFields.FROM_DATE)) {
-                    regFilters.put(Constants.FieldConstants.ExperimentConstants.FROM_DATE, entry.getValue());
-                } else if (entry.getKey().equals(ExperimentSearchFields.TO_DATE)) {
-                    regFilters.put(Constants.FieldConstants.ExperimentConstants.TO_DATE, entry.getValue());
-                } else if (entry.getKey().equals(ExperimentSearchFields.PROJECT_ID)) {
-                    regFilters.put(Constants.FieldConstants.ExperimentConstants.PROJECT_ID, entry.getValue());
-                } else if (entry.getKey().equals(ExperimentSearchFields.USER_NAME)) {
-                    regFilters.put(Constants.FieldConstants.ExperimentConstants.USER_NAME, entry.getValue());
-                } else if (entry.getKey().equals(ExperimentSearchFields.JOB_ID)) {
-                    regFilters.put(Constants.FieldConstants.JobConstants.JOB_ID, entry.getValue());
-                }
-            }
+            Map<String, String> regFilters = toRegistryFilters(gatewayId, filters);
             if (accessibleExpIds.size() == 0 && !ServerSettings.isEnableSharing()) {
                 if (!regFilters.containsKey(DBConstants.Experiment.USER_NAME)) {
                     regFilters.put(DBConstants.Experiment.USER_NAME, userName);
@@ -826,10 +814,62 @@ public class ExperimentRegistryService implements ExperimentRegistry {
         }
     }
 
+    public List<ExperimentSummaryModel> searchAccessibleExperiments(
+            String gatewayId,
+            String userName,
+            List<String> accessGroupIds,
+            Map<ExperimentSearchFields, String> filters,
+            int limit,
+            int offset)
+            throws Exception {
+        if (!validateString(userName)) {
+            throw new RegistryException("Username cannot be empty. Please provide a valid user..");
+        }
+        if (!isGatewayExistInternal(gatewayId)) {
+            throw new RegistryException("Internal error");
+        }
+        try {
+            if (userProfileProvider.getUserProfileByIdAndGateWay(userName, gatewayId) == null) {
+                throw new RegistryException("User does not exist in the system. Please provide a valid user..");
+            }
+            return experimentSummaryRepository.searchAccessibleExperiments(
+                    accessGroupIds, toRegistryFilters(gatewayId, filters), limit, offset);
+        } catch (Exception e) {
+            throw new RegistryException("Error while retrieving experiments. More info : " + e.getMessage());
+        }
+    }
+
     // =========================================================================
     // Private helpers
     // =========================================================================
 
+    private Map<String, String> toRegistryFilters(String gatewayId, Map<ExperimentSearchFields, String> filters) {
+        Map<String, String> regFilters = new HashMap<>();
+        regFilters.put(Constants.FieldConstants.ExperimentConstants.GATEWAY_ID, gatewayId);
+        for (Map.Entry<ExperimentSearchFields, String> entry : filters.entrySet()) {
+            if (entry.getKey().equals(ExperimentSearchFields.EXPERIMENT_NAME)) {
+                regFilters.put(Constants.FieldConstants.ExperimentConstants.EXPERIMENT_NAME, entry.getValue());
+            } else if (entry.getKey().equals(ExperimentSearchFields.EXPERIMENT_DESC)) {
+                regFilters.put(Constants.FieldConstants.ExperimentConstants.DESCRIPTION, entry.getValue());
+            } else if (entry.getKey().equals(ExperimentSearchFields.APPLICATION_ID)) {
+                regFilters.put(Constants.FieldConstants.ExperimentConstants.EXECUTION_ID, entry.getValue());
+            } else if (entry.getKey().equals(ExperimentSearchFields.STATUS)) {
+                regFilters.put(Constants.FieldConstants.ExperimentConstants.EXPERIMENT_STATUS, entry.getValue());
+            } else if (entry.getKey().equals(ExperimentSearchFields.FROM_DATE)) {
+                regFilters.put(Constants.FieldConstants.ExperimentConstants.FROM_DATE, entry.getValue());
+            } else if (entry.getKey().equals(ExperimentSearchFields.TO_DATE)) {
+                regFilters.put(Constants.FieldConstants.ExperimentConstants.TO_DATE, entry.getValue());
+            } else if (entry.getKey().equals(ExperimentSearchFields.PROJECT_ID)) {
+                regFilters.put(Constants.FieldConstants.ExperimentConstants.PROJECT_ID, entry.getValue());
+            } else if (entry.getKey().equals(ExperimentSearchFields.USER_NAME)) {
+                regFilters.put(Constants.FieldConstants.ExperimentConstants.USER_NAME, entry.getValue());
+            } else if (entry.getKey().equals(ExperimentSearchFields.JOB_ID)) {
+                regFilters.put(Constants.FieldConstants.JobConstants.JOB_ID, entry.getValue());
+            }
+        }
+        return regFilters;
+    }
+
     private ExperimentModel getExperimentInternal(String airavataExperimentId) throws Exception {
         try {
             if (!experimentRepository.isExperimentExist(airavataExperimentId)) {
@@ -275,20 +275,21 @@ public class ExperimentService {
                         .build());
             }
 
-            int searchOffset = 0;
-            int searchLimit = Integer.MAX_VALUE;
-            boolean filteredInSharing = filtersCopy.isEmpty();
-            if (filteredInSharing) {
-                searchOffset = offset;
-                searchLimit = limit;
+            if (!filtersCopy.isEmpty()) {
+                // Filters the sharing registry cannot evaluate (application, status, job id): check access
+                // inside the registry's search query instead of first listing every accessible experiment
+                // id. Name and description keep the substring match the sharing search applies to them.
+                Map<ExperimentSearchFields, String> registryFilters = new HashMap<>(filters);
+                registryFilters.computeIfPresent(ExperimentSearchFields.EXPERIMENT_NAME, (k, v) -> "%" + v + "%");
+                registryFilters.computeIfPresent(ExperimentSearchFields.EXPERIMENT_DESC, (k, v) -> "%" + v + "%");
+                List<String> accessGroupIds = sharingHandler.getAccessGroupIds(gatewayId, userName + "@" + gatewayId);
+                return experimentRegistry.searchAccessibleExperiments(
+                        gatewayId, userName, accessGroupIds, registryFilters, limit, offset);
             }
 
             accessibleExpIds.addAll(sharingHandler.searchEntityIds(
-                    gatewayId, userName + "@" + gatewayId, sharingFilters, searchOffset, searchLimit));
-
-            int finalOffset = filteredInSharing ? 0 : offset;
-            return experimentRegistry.searchExperiments(
-                    gatewayId, userName, accessibleExpIds, filtersCopy, limit, finalOffset);
+                    gatewayId, userName + "@" + gatewayId, sharingFilters, offset, limit));
+            return experimentRegistry.searchExperiments(gatewayId, userName, accessibleExpIds, filtersCopy, limit, 0);
         } catch (Exception e) {
             throw new ServiceException("Error while searching experiments: " + e.getMessage(), e);
         }
@@ -25,7 +25,9 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.sql.Timestamp;
 import java.util.*;
 import org.apache.airavata.db.DBConstants;
+import org.apache.airavata.iam.model.SharingEntity;
 import org.apache.airavata.iam.repository.GatewayRepository;
+import org.apache.airavata.iam.repository.SharingRepository;
 import org.apache.airavata.interfaces.RegistryException;
 import org.apache.airavata.interfaces.ResultOrderType;
 import org.apache.airavata.model.experiment.proto.ExperimentModel;
@@ -369,4 +371,86 @@ public class ExperimentSummaryRepositoryTest extends TestBase {
         gatewayRepository.removeGateway(gatewayId);
         projectRepository.removeProject(projectId);
     }
+
+    @Test
+    public void searchAccessibleExperimentsTest() throws Exception {
+        Gateway gateway = Gateway.newBuilder()
+                .setGatewayId("accessGateway")
+                .setDomain("SEAGRID")
+                .setEmailAddress("abc@d.com")
+                .build();
+        String gatewayId = gatewayRepository.addGateway(gateway);
+
+        Project project = Project.newBuilder()
+                .setName("projectName")
+                .setOwner("user")
+                .setGatewayId(gatewayId)
+                .build();
+        String projectId = projectRepository.addProject(project, gatewayId);
+
+        List<String> experimentIds = new ArrayList<>();
+        String[] creationTimes = {"2010-01-01 09:00:00", "2018-01-01 09:00:00", "2020-01-01 09:00:00"};
+        for (int i = 0; i < creationTimes.length; i++) {
+            ExperimentModel experimentModel = ExperimentModel.newBuilder()
+                    .setProjectId(projectId)
+                    .setGatewayId(gatewayId)
+                    .setExperimentType(ExperimentType.SINGLE_APPLICATION)
+                    .setUserName("user" + i)
+                    .setExperimentName("name" + i)
+                    .setExecutionId("executionId" + i)
+                    .setUserConfigurationData(UserConfigurationDataModel.getDefaultInstance())
+                    .build();
+            String experimentId = experimentRepository.addExperiment(experimentModel);
+            experimentModel = experimentRepository.getExperiment(experimentId).toBuilder()
+                    .setCreationTime(Timestamp.valueOf(creationTimes[i]).getTime())
+                    .build();
+            experimentRepository.updateExperiment(experimentModel, experimentId);
+            experimentIds.add(experimentId);
+        }
+
+        // The first experiment is shared with the user, the second with one of its groups, the third with
+        // a group the user is not in
+        SharingRepository sharingRepository = new SharingRepository();
+        String[] grantees = {"user@" + gatewayId, "groupOne", "otherGroup"};
+        for (int i = 0; i < grantees.length; i++) {
+            SharingEntity sharing = new SharingEntity();
+            sharing.setDomainId(gatewayId);
+            sharing.setEntityId(experimentIds.get(i));
+            sharing.setGroupId(grantees[i]);
+            sharing.setPermissionTypeId(gatewayId + ":READ");
+            sharing.setInheritedParentId(experimentIds.get(i));
+            sharing.setSharingType("DIRECT_NON_CASCADING");
+            sharingRepository.create(sharing);
+        }
+        List<String> accessGroupIds = Arrays.asList("user@" + gatewayId, "groupOne");
+
+        Map<String, String> filters = new HashMap<>();
+        filters.put(DBConstants.Experiment.GATEWAY_ID, gatewayId);
+        List<ExperimentSummaryModel> experiments =
+                experimentSummaryRepository.searchAccessibleExperiments(accessGroupIds, filters, -1, 0);
+        assertEquals(2, experiments.size());
+        assertEquals(experimentIds.get(1), experiments.get(0).getExperimentId(), "newest first");
+        assertEquals(experimentIds.get(0), experiments.get(1).getExperimentId());
+
+        experiments = experimentSummaryRepository.searchAccessibleExperiments(accessGroupIds, filters, 1, 1);
+        assertEquals(1, experiments.size());
+        assertEquals(experimentIds.get(0), experiments.get(0).getExperimentId());
+
+        filters.put(DBConstants.Experiment.EXECUTION_ID, "executionId1");
+        experiments = experimentSummaryRepository.searchAccessibleExperiments(accessGroupIds, filters, -1, 0);
+        assertEquals(1, experiments.size());
+        assertEquals(experimentIds.get(1), experiments.get(0).getExperimentId());
+
+        filters.remove(DBConstants.Experiment.EXECUTION_ID);
+        filters.put(
+                DBConstants.ExperimentSummary.FROM_DATE,
+                String.valueOf(Timestamp.valueOf("2015-01-01 00:00:00").getTime()));
+        experiments = experimentSummaryRepository.searchAccessibleExperiments(accessGroupIds, filters, -1, 0);
+        assertEquals(1, experiments.size(), "a lone lower bound still filters");
+        assertEquals(experimentIds.get(1), experiments.get(0).getExperimentId());
+
+        assertTrue(experimentSummaryRepository
+                .searchAccessibleExperiments(Collections.emptyList(), filters, -1, 0)
+                .isEmpty());
+    }
 }
@@ -35,7 +35,9 @@ import org.apache.airavata.interfaces.ProjectRegistry;
 import org.apache.airavata.interfaces.SharingFacade;
 import org.apache.airavata.model.application.io.proto.OutputDataObjectType;
 import org.apache.airavata.model.experiment.proto.ExperimentModel;
+import org.apache.airavata.model.experiment.proto.ExperimentSearchFields;
 import org.apache.airavata.model.experiment.proto.ExperimentStatistics;
+import org.apache.airavata.model.experiment.proto.ExperimentSummaryModel;
 import org.apache.airavata.model.job.proto.JobModel;
 import org.apache.airavata.model.process.proto.ProcessModel;
 import org.apache.airavata.model.status.proto.ExperimentState;
@@ -330,4 +332,52 @@ class ExperimentServiceTest {
 
         assertEquals(ProcessState.PROCESS_STATE_EXECUTING, result.getState());
     }
+
+    @Test
+    void searchExperiments_withRegistryOnlyFilter_checksAccessInRegistryQuery() throws Exception {
+        List<String> groupIds = List.of("testUser@testGateway", "group-1");
+        when(sharingHandler.getAccessGroupIds("testGateway", "testUser@testGateway"))
+                .thenReturn(groupIds);
+        List<ExperimentSummaryModel> page = List.of(
+                ExperimentSummaryModel.newBuilder().setExperimentId("exp-1").build());
+        when(experimentRegistry.searchAccessibleExperiments(
+                        eq("testGateway"), eq("testUser"), eq(groupIds), anyMap(), eq(10), eq(20)))
+                .thenReturn(page);
+
+        List<ExperimentSummaryModel> result = experimentService.searchExperiments(
+                ctx,
+                "testGateway",
+                "testUser",
+                Map.of(
+                        ExperimentSearchFields.STATUS, "EXPERIMENT_STATE_COMPLETED",
+                        ExperimentSearchFields.EXPERIMENT_NAME, "run"),
+                10,
+                20);
+
+        assertEquals(page, result);
+        verify(experimentRegistry)
+                .searchAccessibleExperiments(
+                        "testGateway",
+                        "testUser",
+                        groupIds,
+                        Map.of(
+                                ExperimentSearchFields.STATUS, "EXPERIMENT_STATE_COMPLETED",
+                                ExperimentSearchFields.EXPERIMENT_NAME, "%run%"),
+                        10,
+                        20);
+        verify(sharingHandler, never()).searchEntityIds(anyString(), anyString(), anyList(), anyInt(), anyInt());
+    }
+
+    @Test
+    void searchExperiments_withSharingOnlyFilters_pagesInSharingSearch() throws Exception {
+        when(sharingHandler.searchEntityIds(eq("testGateway"), eq("testUser@testGateway"), anyList(), eq(20), eq(10)))
+                .thenReturn(List.of("exp-1"));
+
+        experimentService.searchExperiments(
+                ctx, "testGateway", "testUser", Map.of(ExperimentSearchFields.PROJECT_ID, "proj-1"), 10, 20);
+
+        verify(experimentRegistry).searchExperiments("testGateway", "testUser", List.of("exp-1"), Map.of(), 10, 0);
+        verify(experimentRegistry, never())
+                .searchAccessibleExperiments(anyString(), anyString(), anyList(), anyMap(), anyInt(), anyInt());
+    }
 }
@@ -54,4 +54,18 @@ public final class Constants {
     public static final String ROLE_READ_ONLY_ADMIN = "admin-ro";
 
     public static final String ENABLE_STREAMING_TRANSFER = "enable.streaming.transfer";
+    public static final String DATA_STAGING_MAX_TRANSFERS_PER_HOST = "data.staging.max.transfers.per.host";
+    public static final String DATA_STAGING_RANGED_THRESHOLD = "data.staging.ranged.threshold";
+    public static final String DATA_STAGING_RANGED_STREAMS = "data.staging.ranged.streams";
+    public static final String AGENT_ADAPTOR_IDLE_TIMEOUT_MS = "agent.adaptor.idle.timeout.ms";
+    public static final String AGENT_ADAPTOR_MAX_LIFETIME_MS = "agent.adaptor.max.lifetime.ms";
+    public static final String AGENT_ADAPTOR_HEALTH_CHECK_INTERVAL_MS = "agent.adaptor.health.check.interval.ms";
+    public static final String SSH_POOL_TARGET_CONNECTIONS = "ssh.pool.target.connections";
+    public static final String TASK_EXECUTION_MODE = "task.execution.mode";
+    public static final String TASK_CONTEXT_SNAPSHOT_TTL_MS = "task.context.snapshot.ttl.ms";
+    public static final String JOB_TEMPLATE_CACHE_SIZE = "job.template.cache.size";
+    public static final String JOB_SUBMISSION_INLINE_SCRIPT = "job.submission.inline.script";
+    public static final String JOB_ARRAY_ENABLED = "job.array.enabled";
+    public static final String JOB_ARRAY_WINDOW_MS = "job.array.window.ms";
+    public static final String JOB_ARRAY_MAX_SIZE = "job.array.max.size";
 }
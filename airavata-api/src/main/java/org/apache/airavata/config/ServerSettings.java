@@ -215,6 +215,63 @@ public class ServerSettings extends ApplicationSettings {
         return Boolean.valueOf(getSetting(Constants.ENABLE_STREAMING_TRANSFER, "True"));
     }
 
+    public static int getDataStagingMaxTransfersPerHost() {
+        return Integer.parseInt(getSetting(Constants.DATA_STAGING_MAX_TRANSFERS_PER_HOST, "4"));
+    }
+
+    public static long getDataStagingRangedThreshold() {
+        return Long.parseLong(getSetting(Constants.DATA_STAGING_RANGED_THRESHOLD, "268435456"));
+    }
+
+    public static int getDataStagingRangedStreams() {
+        return Integer.parseInt(getSetting(Constants.DATA_STAGING_RANGED_STREAMS, "4"));
+    }
+
+    public static long getAgentAdaptorIdleTimeoutMs() {
+        return Long.parseLong(getSetting(Constants.AGENT_ADAPTOR_IDLE_TIMEOUT_MS, "3600000"));
+    }
+
+    public static long getAgentAdaptorMaxLifetimeMs() {
+        return Long.parseLong(getSetting(Constants.AGENT_ADAPTOR_MAX_LIFETIME_MS, "43200000"));
+    }
+
+    public static long getAgentAdaptorHealthCheckIntervalMs() {
+        return Long.parseLong(getSetting(Constants.AGENT_ADAPTOR_HEALTH_CHECK_INTERVAL_MS, "300000"));
+    }
+
+    public static int getSshPoolTargetConnections() {
+        return Integer.parseInt(getSetting(Constants.SSH_POOL_TARGET_CONNECTIONS, "1"));
+    }
+
+    /** {@code platform} (default) or {@code virtual}; see {@code org.apache.airavata.task.TaskThreads}. */
+    public static String getTaskExecutionMode() {
+        return getSetting(Constants.TASK_EXECUTION_MODE, "platform");
+    }
+
+    public static long getTaskContextSnapshotTtlMs() {
+        return Long.parseLong(getSetting(Constants.TASK_CONTEXT_SNAPSHOT_TTL_MS, "600000"));
+    }
+
+    public static int getJobTemplateCacheSize() {
+        return Integer.parseInt(getSetting(Constants.JOB_TEMPLATE_CACHE_SIZE, "256"));
+    }
+
+    public static boolean isJobSubmissionInlineScript() {
+        return Boolean.parseBoolean(getSetting(Constants.JOB_SUBMISSION_INLINE_SCRIPT, "true"));
+    }
+
+    public static boolean isJobArrayEnabled() {
+        return Boolean.parseBoolean(getSetting(Constants.JOB_ARRAY_ENABLED, "false"));
+    }
+
+    public static long getJobArrayWindowMs() {
+        return Long.parseLong(getSetting(Constants.JOB_ARRAY_WINDOW_MS, "10000"));
+    }
+
+    public static int getJobArrayMaxSize() {
+        return Integer.parseInt(getSetting(Constants.JOB_ARRAY_MAX_SIZE, "1000"));
+    }
+
     public static String getComputeResourceSelectionPolicyClass() throws ApplicationSettingsException {
         return getSetting(
                 COMPUTE_RESOURCE_SELECTION_POLICY_CLASS,
@@ -121,6 +121,7 @@ public class DBConstants {
         public static final String CREATION_TIME = "creationTime";
         public static final String RESOURCE_HOST_ID = "resourceHostId";
         public static final String ACCESSIBLE_EXPERIMENT_IDS = "accessibleExperimentIds";
+        public static final String ACCESS_GROUP_IDS = "accessGroupIds";
     }
 
     public final class ExperimentStatus {
@@ -37,6 +37,14 @@ public interface AgentAdaptor {
 
     void destroy();
 
+    /**
+     * Cheap liveness probe used by the adaptor cache to drop adaptors whose remote end has gone away.
+     * Adaptors without a long-lived connection have nothing to probe and report healthy.
+     */
+    default boolean isHealthy() {
+        return true;
+    }
+
     CommandOutput executeCommand(String command, String workingDirectory) throws AgentException;
 
     void createDirectory(String path) throws AgentException;
@@ -64,4 +72,47 @@ public interface AgentAdaptor {
     StorageVolumeInfo getStorageVolumeInfo(String location) throws AgentException;
 
     StorageDirectoryInfo getStorageDirectoryInfo(String location) throws AgentException;
+
+    /**
+     * Whether this adaptor implements the ranged transfer methods below, which let a large file be
+     * moved as several parallel range streams.
+     */
+    default boolean supportsRangedTransfer() {
+        return false;
+    }
+
+    /** Creates (or truncates) {@code remoteFile} so its ranges can then be uploaded in any order. */
+    default void prepareRangedUpload(String remoteFile) throws AgentException {
+        throw new AgentException(
+                "Ranged transfer is not supported by " + getClass().getSimpleName());
+    }
+
+    default void uploadFileRange(String localFile, String remoteFile, long offset, long length) throws AgentException {
+        throw new AgentException(
+                "Ranged transfer is not supported by " + getClass().getSimpleName());
+    }
+
+    default void downloadFileRange(String remoteFile, String localFile, long offset, long length)
+            throws AgentException {
+        throw new AgentException(
+                "Ranged transfer is not supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * Opens a stream over bytes {@code [offset, offset + length)} of {@code remoteFile} that reads from
+     * the remote end only as the caller consumes it. Closing the stream releases the transfer session.
+     */
+    default InputStream openFileRange(String remoteFile, long offset, long length) throws AgentException {
+        throw new AgentException(
+                "Ranged transfer is not supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * Writes {@code localInStream} to {@code remoteFile} (created or truncated) as it is read, without
+     * knowing its length up front. Returns the number of bytes written.
+     */
+    default long uploadStream(InputStream localInStream, String remoteFile) throws AgentException {
+        throw new AgentException(
+                "Ranged transfer is not supported by " + getClass().getSimpleName());
+    }
 }
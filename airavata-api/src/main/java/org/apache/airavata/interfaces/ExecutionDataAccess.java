@@ -78,6 +78,9 @@ public interface ExecutionDataAccess {
     // --- Task ---
     String addTask(TaskModel task, String processId) throws RegistryException;
 
+    /** Adds all tasks of a process and records their ids, in order, as its TASK_DAG in one transaction. */
+    List<String> addTasks(List<TaskModel> tasks, String processId) throws RegistryException;
+
     void deleteTasks(String processId) throws RegistryException;
 
     // --- Task Status ---
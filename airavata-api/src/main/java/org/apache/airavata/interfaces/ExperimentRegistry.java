@@ -86,6 +86,19 @@ public interface ExperimentRegistry {
             int offset)
             throws Exception;
 
+    /**
+     * Searches the experiments shared with any of {@code accessGroupIds} (the user and every group it
+     * belongs to), checking access in the database rather than against a materialized id list.
+     */
+    List<ExperimentSummaryModel> searchAccessibleExperiments(
+            String gatewayId,
+            String userName,
+            List<String> accessGroupIds,
+            Map<ExperimentSearchFields, String> filters,
+            int limit,
+            int offset)
+            throws Exception;
+
     void updateExperimentConfiguration(String airavataExperimentId, UserConfigurationDataModel userConfiguration)
             throws Exception;
 
@@ -120,6 +133,9 @@ public interface ExperimentRegistry {
     // --- Task operations ---
     String addTask(TaskModel taskModel, String processId) throws Exception;
 
+    /** Adds all tasks of a process and records their ids, in order, as its TASK_DAG in one transaction. */
+    List<String> addTasks(List<TaskModel> taskModels, String processId) throws Exception;
+
     void addTaskStatus(TaskStatus taskStatus, String taskId) throws Exception;
 
     void deleteTasks(String processId) throws Exception;
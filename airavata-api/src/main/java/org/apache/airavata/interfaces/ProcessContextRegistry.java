@@ -0,0 +1,49 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.interfaces;
+
+import org.apache.airavata.model.process.proto.ProcessContextSnapshot;
+
+/**
+ * Registry operations for the process-scoped context snapshot shared by the tasks of a process.
+ */
+public interface ProcessContextRegistry {
+
+    /** Returns the stored snapshot of the process, or {@code null} if none has been saved. */
+    ProcessContextSnapshot getProcessContextSnapshot(String processId) throws Exception;
+
+    void saveProcessContextSnapshot(ProcessContextSnapshot snapshot) throws Exception;
+
+    void deleteProcessContextSnapshot(String processId) throws Exception;
+
+    /**
+     * Returns the update stamps of the profile rows a process context is resolved from, in one round
+     * trip. The value changes whenever one of those profiles is updated; it is only meant to be
+     * compared for equality.
+     */
+    String getProcessContextProfileVersion(
+            String gatewayId,
+            String groupResourceProfileId,
+            String computeResourceId,
+            String applicationDeploymentId,
+            String applicationInterfaceId,
+            String userId)
+            throws Exception;
+}
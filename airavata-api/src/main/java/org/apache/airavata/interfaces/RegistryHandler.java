@@ -36,4 +36,5 @@ public interface RegistryHandler
                 ResourceProfileRegistry,
                 StorageRegistry,
                 GatewayRegistry,
-                QueueStatusRegistry {}
+                QueueStatusRegistry,
+                ProcessContextRegistry {}
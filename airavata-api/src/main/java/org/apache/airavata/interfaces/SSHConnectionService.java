@@ -152,6 +152,27 @@ public interface SSHConnectionService {
 
         RemoteFileAttributes lstat(String path) throws IOException;
 
+        /**
+         * Copies bytes {@code [offset, offset + length)} of a remote file into the same range of a
+         * local file, so several sessions can fetch disjoint ranges of one file in parallel.
+         */
+        void downloadRange(String remotePath, String localPath, long offset, long length) throws IOException;
+
+        /** Writes bytes {@code [offset, offset + length)} of a local file into the same range of a remote file. */
+        void uploadRange(String localPath, String remotePath, long offset, long length) throws IOException;
+
+        /**
+         * Opens a stream over bytes {@code [offset, offset + length)} of a remote file that reads from the
+         * remote end only as it is consumed. Closing the stream closes the file, not this session.
+         */
+        InputStream openRange(String remotePath, long offset, long length) throws IOException;
+
+        /** Writes {@code in} to a created or truncated remote file as it is read; returns the bytes written. */
+        long upload(InputStream in, String remotePath) throws IOException;
+
+        /** Creates the remote file, or truncates it to zero length if it exists. */
+        void create(String path) throws IOException;
+
         void setErrored(boolean errored);
 
         boolean isErrored();
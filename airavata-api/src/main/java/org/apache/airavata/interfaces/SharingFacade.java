@@ -84,6 +84,12 @@ public interface SharingFacade {
     List<String> searchEntityIds(String domainId, String userId, List<SearchCriteria> filters, int offset, int limit)
             throws Exception;
 
+    /**
+     * Returns {@code userId} followed by the ids of every group it is a member of, directly or through
+     * nested groups: the grantee ids an entity must be shared with for the user to access it.
+     */
+    List<String> getAccessGroupIds(String domainId, String userId) throws Exception;
+
     // --- Sharing ---
 
     boolean shareEntityWithGroups(
@@ -39,4 +39,15 @@ public interface AdaptorSupport {
     StorageResourceAdaptor fetchStorageSSHAdaptor(
             String gatewayId, String resourceId, String authToken, String gatewayUserId, String loginUserName)
             throws AgentException;
+
+    /**
+     * Keep a fetched adaptor from being health-probed or destroyed until {@link #release}; false if it
+     * is no longer cached and a fresh one should be fetched.
+     */
+    default boolean acquire(AgentAdaptor adaptor) {
+        return false;
+    }
+
+    /** Hand back a lease taken by {@link #acquire}. */
+    default void release(AgentAdaptor adaptor) {}
 }
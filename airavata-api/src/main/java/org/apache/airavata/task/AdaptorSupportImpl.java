@@ -19,7 +19,6 @@
 */
 package org.apache.airavata.task;
 
-import java.util.Optional;
 import org.apache.airavata.interfaces.AgentAdaptor;
 import org.apache.airavata.interfaces.AgentException;
 import org.apache.airavata.interfaces.StorageResourceAdaptor;
@@ -33,17 +32,16 @@ public class AdaptorSupportImpl implements AdaptorSupport {
     private static final String SSHJ_AGENT_ADAPTOR_CLASS = "org.apache.airavata.compute.util.SSHJAgentAdaptor";
     private static final String SSHJ_STORAGE_ADAPTOR_CLASS = "org.apache.airavata.compute.util.SSHJStorageAdaptor";
 
-    private static AdaptorSupportImpl INSTANCE;
+    private static final class Holder {
+        private static final AdaptorSupportImpl INSTANCE = new AdaptorSupportImpl();
+    }
 
     private final AgentStore agentStore = new AgentStore();
 
     private AdaptorSupportImpl() {}
 
-    public static synchronized AdaptorSupportImpl getInstance() {
-        if (INSTANCE == null) {
-            INSTANCE = new AdaptorSupportImpl();
-        }
-        return INSTANCE;
+    public static AdaptorSupportImpl getInstance() {
+        return Holder.INSTANCE;
     }
 
     public void initializeAdaptor() {}
@@ -54,26 +52,13 @@ public class AdaptorSupportImpl implements AdaptorSupport {
         logger.debug("Fetching adaptor for compute resource " + computeResourceId + " with token " + authToken
                 + " with user " + userId);
 
-        Optional<AgentAdaptor> agentAdaptorOp = agentStore.getAgentAdaptor(computeResourceId, authToken, userId);
-        if (agentAdaptorOp.isPresent()) {
-            logger.debug("Re using the adaptor for gateway " + gatewayId + ", compute resource " + computeResourceId
-                    + " , user " + userId);
-            return agentAdaptorOp.get();
-        } else {
-            synchronized (this) {
-                agentAdaptorOp = agentStore.getAgentAdaptor(computeResourceId, authToken, userId);
-                if (agentAdaptorOp.isPresent()) {
-                    return agentAdaptorOp.get();
-                } else {
-                    logger.debug("Could not find an adaptor for gateway " + gatewayId + ", compute resource "
-                            + computeResourceId + " , user " + userId + ". Creating new one");
-                    AgentAdaptor agentAdaptor = createSSHJAgentAdaptor();
-                    agentAdaptor.init(computeResourceId, gatewayId, userId, authToken);
-                    agentStore.putAgentAdaptor(computeResourceId, authToken, userId, agentAdaptor);
-                    return agentAdaptor;
-                }
-            }
-        }
+        return agentStore.getAgentAdaptor(computeResourceId, authToken, userId, () -> {
+            logger.debug("Could not find an adaptor for gateway " + gatewayId + ", compute resource "
+                    + computeResourceId + " , user " + userId + ". Creating new one");
+            AgentAdaptor agentAdaptor = createSSHJAgentAdaptor();
+            agentAdaptor.init(computeResourceId, gatewayId, userId, authToken);
+            return agentAdaptor;
+        });
     }
 
     @Override
@@ -83,27 +68,13 @@ public class AdaptorSupportImpl implements AdaptorSupport {
         logger.debug("Fetching adaptor for storage resource " + storageResourceId + " with token " + authToken
                 + " with user " + userId);
 
-        Optional<StorageResourceAdaptor> agentAdaptorOp =
-                agentStore.getStorageAdaptor(storageResourceId, authToken, userId);
-        if (agentAdaptorOp.isPresent()) {
-            logger.debug("Re using the storage adaptor for gateway " + gatewayId + ", storage resource "
-                    + storageResourceId + " , user " + userId);
-            return agentAdaptorOp.get();
-        } else {
-            synchronized (this) {
-                agentAdaptorOp = agentStore.getStorageAdaptor(storageResourceId, authToken, userId);
-                if (agentAdaptorOp.isPresent()) {
-                    return agentAdaptorOp.get();
-                } else {
-                    logger.debug("Could not find a storage adaptor for gateway " + gatewayId + ", storage resource "
-                            + storageResourceId + " , user " + userId + ". Creating new one");
-                    StorageResourceAdaptor storageResourceAdaptor = createSSHJStorageAdaptor();
-                    storageResourceAdaptor.init(storageResourceId, gatewayId, userId, authToken);
-                    agentStore.putStorageAdaptor(storageResourceId, authToken, userId, storageResourceAdaptor);
-                    return storageResourceAdaptor;
-                }
-            }
-        }
+        return agentStore.getStorageAdaptor(storageResourceId, authToken, userId, () -> {
+            logger.debug("Could not find a storage adaptor for gateway " + gatewayId + ", storage resource "
+                    + storageResourceId + " , user " + userId + ". Creating new one");
+            StorageResourceAdaptor storageResourceAdaptor = createSSHJStorageAdaptor();
+            storageResourceAdaptor.init(storageResourceId, gatewayId, userId, authToken);
+            return storageResourceAdaptor;
+        });
     }
 
     @Override
@@ -119,38 +90,17 @@ public class AdaptorSupportImpl implements AdaptorSupport {
                 gatewayUserId,
                 loginUserName);
 
-        Optional<AgentAdaptor> adaptorOp = agentStore.getSSHAdaptor(cacheKey, authToken, gatewayUserId, loginUserName);
-        if (adaptorOp.isPresent()) {
+        return agentStore.getSSHAdaptor(cacheKey, authToken, gatewayUserId, loginUserName, () -> {
             logger.debug(
-                    "Reusing SSH adaptor for gateway {}, compute resource {}, gateway user {}, login username {}",
+                    "Could not find SSH adaptor for gateway {}, compute resource {}, gateway user {}, login username {}. Creating new one",
                     gatewayId,
                     resourceId,
                     gatewayUserId,
                     loginUserName);
-            return adaptorOp.get();
-
-        } else {
-            synchronized (this) {
-                adaptorOp = agentStore.getSSHAdaptor(cacheKey, authToken, gatewayUserId, loginUserName);
-                if (adaptorOp.isPresent()) {
-                    return adaptorOp.get();
-
-                } else {
-                    logger.debug(
-                            "Could not find SSH adaptor for gateway {}, compute resource {}, gateway user {}, login username {}. Creating new one",
-                            gatewayId,
-                            resourceId,
-                            gatewayUserId,
-                            loginUserName);
-
-                    AgentAdaptor agentAdaptor = createSSHJAgentAdaptor();
-                    agentAdaptor.init(resourceId, gatewayId, loginUserName, authToken);
-
-                    agentStore.putSSHAdaptor(cacheKey, authToken, gatewayUserId, loginUserName, agentAdaptor);
-                    return agentAdaptor;
-                }
-            }
-        }
+            AgentAdaptor agentAdaptor = createSSHJAgentAdaptor();
+            agentAdaptor.init(resourceId, gatewayId, loginUserName, authToken);
+            return agentAdaptor;
+        });
     }
 
     @Override
@@ -166,37 +116,32 @@ public class AdaptorSupportImpl implements AdaptorSupport {
                 gatewayUserId,
                 loginUserName);
 
-        Optional<AgentAdaptor> adaptorOp = agentStore.getSSHAdaptor(cacheKey, authToken, gatewayUserId, loginUserName);
-        if (adaptorOp.isPresent()) {
+        return agentStore.getSSHAdaptor(cacheKey, authToken, gatewayUserId, loginUserName, () -> {
             logger.debug(
-                    "Reusing SSH adaptor for gateway {}, storage resource {}, gateway user {}, login username {}",
+                    "Could not find SSH adaptor for gateway {}, storage resource {}, gateway user {}, login username {}. Creating new one",
                     gatewayId,
                     resourceId,
                     gatewayUserId,
                     loginUserName);
-            return (StorageResourceAdaptor) adaptorOp.get();
-
-        } else {
-            synchronized (this) {
-                adaptorOp = agentStore.getSSHAdaptor(cacheKey, authToken, gatewayUserId, loginUserName);
-                if (adaptorOp.isPresent()) {
-                    return (StorageResourceAdaptor) adaptorOp.get();
-                } else {
-                    logger.debug(
-                            "Could not find SSH adaptor for gateway {}, storage resource {}, gateway user {}, login username {}. Creating new one",
-                            gatewayId,
-                            resourceId,
-                            gatewayUserId,
-                            loginUserName);
-
-                    StorageResourceAdaptor storageAdaptor = createSSHJStorageAdaptor();
-                    storageAdaptor.init(resourceId, gatewayId, loginUserName, authToken);
-
-                    agentStore.putSSHAdaptor(cacheKey, authToken, gatewayUserId, loginUserName, storageAdaptor);
-                    return storageAdaptor;
-                }
-            }
-        }
+            StorageResourceAdaptor storageAdaptor = createSSHJStorageAdaptor();
+            storageAdaptor.init(resourceId, gatewayId, loginUserName, authToken);
+            return storageAdaptor;
+        });
+    }
+
+    @Override
+    public boolean acquire(AgentAdaptor adaptor) {
+        return agentStore.acquire(adaptor);
+    }
+
+    @Override
+    public void release(AgentAdaptor adaptor) {
+        agentStore.release(adaptor);
+    }
+
+    /** Destroy every cached adaptor; called when the application context closes. */
+    public void shutdown() {
+        agentStore.shutdown();
     }
 
     private AgentAdaptor createSSHJAgentAdaptor() throws AgentException {
@@ -19,98 +19,364 @@
 */
 package org.apache.airavata.task;
 
-import java.util.HashMap;
+import io.micrometer.core.instrument.Metrics;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.airavata.config.ServerSettings;
 import org.apache.airavata.interfaces.AgentAdaptor;
+import org.apache.airavata.interfaces.AgentException;
 import org.apache.airavata.interfaces.StorageResourceAdaptor;
+import org.apache.airavata.server.CountMonitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * Concurrent cache of initialized compute and storage adaptors.
+ *
+ * <p>Creation is serialized per key only: the first caller for a key runs the factory while later
+ * callers for the same key wait on its result, and callers for other keys are never blocked. A
+ * background housekeeper destroys adaptors unused for the idle timeout, retires adaptors older than
+ * the max lifetime (destroying them once they have also gone idle, since callers may still hold
+ * them), and probes {@link AgentAdaptor#isHealthy()} on adaptors idle for the health check interval.
+ *
+ * <p>A caller that holds an adaptor across a long operation (a transfer, a job status poller) takes a
+ * lease with {@link #acquire} and hands it back with {@link #release}. A leased adaptor is never
+ * probed or destroyed; if it is evicted while leased it is retired instead, and destroyed once the
+ * last lease is released and it has gone idle.
+ */
 public class AgentStore {
 
-    // compute resource: auth token: user: adaptor
-    private final Map<String, Map<String, Map<String, AgentAdaptor>>> agentAdaptorCache = new HashMap<>();
-    // storage resource: auth token: user: adaptor
-    private final Map<String, Map<String, Map<String, StorageResourceAdaptor>>> storageAdaptorCache = new HashMap<>();
-    // SSH adaptor cache: resourceId (with compute/storage prefix): auth token: gatewayUserId: loginUserName: adaptor
-    private final Map<String, Map<String, Map<String, Map<String, AgentAdaptor>>>> sshAdaptorCache = new HashMap<>();
-
-    public Optional<AgentAdaptor> getAgentAdaptor(String computeResource, String authToken, String userId) {
-        Map<String, Map<String, AgentAdaptor>> tokenToUserMap = agentAdaptorCache.get(computeResource);
-        if (tokenToUserMap != null) {
-            Map<String, AgentAdaptor> userToAdaptorMap = tokenToUserMap.get(authToken);
-            if (userToAdaptorMap != null) {
-                return Optional.ofNullable(userToAdaptorMap.get(userId));
-            } else {
-                return Optional.empty();
-            }
-        } else {
-            return Optional.empty();
+    private static final Logger logger = LoggerFactory.getLogger(AgentStore.class);
+
+    private static final CountMonitor lookupCounter = new CountMonitor("agent_store_lookup_count", "kind", "result");
+    private static final CountMonitor evictionCounter =
+            new CountMonitor("agent_store_eviction_count", "kind", "reason");
+
+    @FunctionalInterface
+    public interface AdaptorFactory<A extends AgentAdaptor> {
+        A create() throws AgentException;
+    }
+
+    private final ConcurrentHashMap<Key, Entry> cache = new ConcurrentHashMap<>();
+    private final Queue<Entry> retired = new ConcurrentLinkedQueue<>();
+    // Cached and retired entries by the identity of their adaptor, until it is destroyed; leases look up here
+    private final Map<AgentAdaptor, Entry> byAdaptor = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private final long idleTimeoutMs;
+    private final long maxLifetimeMs;
+    private final long healthCheckIntervalMs;
+
+    private final ScheduledExecutorService housekeeper;
+    private final ExecutorService healthChecker;
+
+    public AgentStore() {
+        this(
+                ServerSettings.getAgentAdaptorIdleTimeoutMs(),
+                ServerSettings.getAgentAdaptorMaxLifetimeMs(),
+                ServerSettings.getAgentAdaptorHealthCheckIntervalMs());
+    }
+
+    AgentStore(long idleTimeoutMs, long maxLifetimeMs, long healthCheckIntervalMs) {
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.maxLifetimeMs = maxLifetimeMs;
+        this.healthCheckIntervalMs = healthCheckIntervalMs;
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "agent-store-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Probes can block on an unresponsive host, so they never run on the housekeeping thread
+        this.healthChecker = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "agent-store-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long sweepIntervalMs = Math.max(10, Math.min(healthCheckIntervalMs, Math.min(idleTimeoutMs, 60_000)));
+        housekeeper.scheduleWithFixedDelay(this::sweep, sweepIntervalMs, sweepIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public AgentAdaptor getAgentAdaptor(
+            String computeResource, String authToken, String userId, AdaptorFactory<AgentAdaptor> factory)
+            throws AgentException {
+        return getOrCreate(new Key("compute", computeResource, authToken, userId, null), factory);
+    }
+
+    public StorageResourceAdaptor getStorageAdaptor(
+            String storageResource, String authToken, String userId, AdaptorFactory<StorageResourceAdaptor> factory)
+            throws AgentException {
+        return getOrCreate(new Key("storage", storageResource, authToken, userId, null), factory);
+    }
+
+    public <A extends AgentAdaptor> A getSSHAdaptor(
+            String resourceId, String authToken, String gatewayUserId, String loginUserName, AdaptorFactory<A> factory)
+            throws AgentException {
+        return getOrCreate(new Key("ssh", resourceId, authToken, gatewayUserId, loginUserName), factory);
+    }
+
+    /** Number of adaptors currently handed out for new lookups. */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * Take a lease on {@code adaptor}, which must have come from this store: until it is released it is
+     * neither health-probed nor destroyed. Returns false, taking no lease, if the adaptor is no longer
+     * handed out for new lookups; the caller should look up a fresh one.
+     */
+    public boolean acquire(AgentAdaptor adaptor) {
+        Entry entry = byAdaptor.get(adaptor);
+        if (entry == null) {
+            return false;
+        }
+        entry.leases.incrementAndGet();
+        // The housekeeper removes before it reads the lease count, so a removal it did not see is caught here
+        if (cache.get(entry.key) != entry) {
+            release(entry);
+            return false;
+        }
+        entry.lastUsed = System.currentTimeMillis();
+        return true;
+    }
+
+    /** Hand back a lease taken by {@link #acquire}. */
+    public void release(AgentAdaptor adaptor) {
+        Entry entry = byAdaptor.get(adaptor);
+        if (entry != null) {
+            release(entry);
         }
     }
 
-    public void putAgentAdaptor(String computeResource, String authToken, String userId, AgentAdaptor agentAdaptor) {
-        Map<String, Map<String, AgentAdaptor>> tokenToUserMap =
-                agentAdaptorCache.computeIfAbsent(computeResource, k -> new HashMap<>());
-        Map<String, AgentAdaptor> userToAdaptorMap = tokenToUserMap.computeIfAbsent(authToken, k -> new HashMap<>());
-        userToAdaptorMap.put(userId, agentAdaptor);
+    private void release(Entry entry) {
+        entry.lastUsed = System.currentTimeMillis();
+        if (entry.leases.decrementAndGet() < 0) {
+            entry.leases.incrementAndGet();
+            logger.warn("Adaptor {} released more often than it was acquired", entry.key);
+        }
     }
 
-    public Optional<StorageResourceAdaptor> getStorageAdaptor(String storageResource, String authToken, String userId) {
-        Map<String, Map<String, StorageResourceAdaptor>> tokenToUserMap = storageAdaptorCache.get(storageResource);
-        if (tokenToUserMap != null) {
-            Map<String, StorageResourceAdaptor> userToAdaptorMap = tokenToUserMap.get(authToken);
-            if (userToAdaptorMap != null) {
-                return Optional.ofNullable(userToAdaptorMap.get(userId));
-            } else {
-                return Optional.empty();
+    /** Destroy every cached and retired adaptor and stop the background threads. */
+    public void shutdown() {
+        housekeeper.shutdownNow();
+        healthChecker.shutdownNow();
+        cache.values().forEach(entry -> {
+            if (cache.remove(entry.key, entry)) {
+                destroy(entry);
             }
-        } else {
-            return Optional.empty();
+        });
+        Entry entry;
+        while ((entry = retired.poll()) != null) {
+            destroy(entry);
         }
     }
 
-    public void putStorageAdaptor(
-            String storageResource, String authToken, String userId, StorageResourceAdaptor storageResourceAdaptor) {
-        Map<String, Map<String, StorageResourceAdaptor>> tokenToUserMap =
-                storageAdaptorCache.computeIfAbsent(storageResource, k -> new HashMap<>());
-        Map<String, StorageResourceAdaptor> userToAdaptorMap =
-                tokenToUserMap.computeIfAbsent(authToken, k -> new HashMap<>());
-        userToAdaptorMap.put(userId, storageResourceAdaptor);
+    @SuppressWarnings("unchecked")
+    private <A extends AgentAdaptor> A getOrCreate(Key key, AdaptorFactory<A> factory) throws AgentException {
+        while (true) {
+            Entry entry = cache.get(key);
+            if (entry == null) {
+                Entry created = new Entry(key);
+                entry = cache.putIfAbsent(key, created);
+                if (entry == null) {
+                    return (A) create(created, factory);
+                }
+            }
+
+            lookupCounter.inc(key.kind, entry.adaptor.isDone() ? "hit" : "wait");
+            AgentAdaptor adaptor = await(entry);
+            entry.lastUsed = System.currentTimeMillis();
+            // The housekeeper may have evicted the entry between the lookup and the touch
+            if (cache.get(key) == entry) {
+                return (A) adaptor;
+            }
+        }
     }
 
-    public Optional<AgentAdaptor> getSSHAdaptor(
-            String resourceId, String authToken, String gatewayUserId, String loginUserName) {
-        Map<String, Map<String, Map<String, AgentAdaptor>>> tokenToGatewayUserMap = sshAdaptorCache.get(resourceId);
+    private AgentAdaptor create(Entry entry, AdaptorFactory<?> factory) throws AgentException {
+        lookupCounter.inc(entry.key.kind, "miss");
+        logger.debug("Creating adaptor for {}", entry.key);
+        long start = System.nanoTime();
+        try {
+            AgentAdaptor adaptor = factory.create();
+            Metrics.timer("agent_store_creation_latency", "kind", entry.key.kind)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            entry.lastUsed = System.currentTimeMillis();
+            entry.lastChecked = entry.lastUsed;
+            byAdaptor.put(adaptor, entry);
+            entry.adaptor.complete(adaptor);
+            return adaptor;
+        } catch (AgentException | RuntimeException e) {
+            // Leave no failed entry behind so the next caller retries the creation
+            cache.remove(entry.key, entry);
+            entry.adaptor.completeExceptionally(e);
+            throw e;
+        }
+    }
 
-        if (tokenToGatewayUserMap != null) {
-            Map<String, Map<String, AgentAdaptor>> gatewayUserToLoginUserMap = tokenToGatewayUserMap.get(authToken);
+    private AgentAdaptor await(Entry entry) throws AgentException {
+        try {
+            return entry.adaptor.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AgentException("Interrupted while waiting for adaptor " + entry.key, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof AgentException agentException) {
+                throw agentException;
+            }
+            throw new AgentException("Failed to create adaptor " + entry.key, e.getCause());
+        }
+    }
 
-            if (gatewayUserToLoginUserMap != null) {
-                Map<String, AgentAdaptor> loginUserToAdaptorMap = gatewayUserToLoginUserMap.get(gatewayUserId);
+    void sweep() {
+        long now = System.currentTimeMillis();
+        try {
+            for (Entry entry : cache.values()) {
+                if (!entry.adaptor.isDone() || entry.adaptor.isCompletedExceptionally()) {
+                    continue;
+                }
+                long idleMs = now - entry.lastUsed;
+                boolean leased = entry.leases.get() > 0;
+                if (idleMs > idleTimeoutMs && !leased) {
+                    if (cache.remove(entry.key, entry)) {
+                        logger.info("Destroying adaptor {} after {} ms idle", entry.key, idleMs);
+                        evictionCounter.inc(entry.key.kind, "idle");
+                        destroyOrRetire(entry);
+                    }
+                } else if (now - entry.createdAt > maxLifetimeMs) {
+                    if (cache.remove(entry.key, entry)) {
+                        logger.info("Retiring adaptor {} after reaching its max lifetime", entry.key);
+                        evictionCounter.inc(entry.key.kind, "lifetime");
+                        retired.add(entry);
+                    }
+                } else if (!leased
+                        && idleMs >= healthCheckIntervalMs
+                        && now - entry.lastChecked >= healthCheckIntervalMs
+                        && entry.checking.compareAndSet(false, true)) {
+                    healthChecker.execute(() -> probe(entry));
+                }
+            }
 
-                if (loginUserToAdaptorMap != null) {
-                    return Optional.ofNullable(loginUserToAdaptorMap.get(loginUserName));
-                } else {
-                    return Optional.empty();
+            retired.removeIf(entry -> {
+                if (entry.leases.get() == 0 && now - entry.lastUsed > idleTimeoutMs) {
+                    destroy(entry);
+                    return true;
                 }
-            } else {
-                return Optional.empty();
+                return false;
+            });
+        } catch (Exception e) {
+            logger.warn("Adaptor cache housekeeping failed", e);
+        }
+    }
+
+    private void probe(Entry entry) {
+        try {
+            boolean healthy;
+            try {
+                healthy = entry.adaptor.getNow(null).isHealthy();
+            } catch (Exception e) {
+                logger.warn("Health check of adaptor {} failed", entry.key, e);
+                healthy = false;
             }
+            entry.lastChecked = System.currentTimeMillis();
+            if (!healthy && cache.remove(entry.key, entry)) {
+                logger.warn("Evicting unhealthy adaptor {}", entry.key);
+                evictionCounter.inc(entry.key.kind, "unhealthy");
+                destroyOrRetire(entry);
+            }
+        } finally {
+            entry.checking.set(false);
+        }
+    }
+
+    /** Destroy an entry just removed from the cache, unless a lease was taken on it meanwhile. */
+    private void destroyOrRetire(Entry entry) {
+        if (entry.leases.get() > 0) {
+            retired.add(entry);
         } else {
-            return Optional.empty();
+            destroy(entry);
         }
     }
 
-    public void putSSHAdaptor(
-            String resourceId, String authToken, String gatewayUserId, String loginUserName, AgentAdaptor adaptor) {
+    private void destroy(Entry entry) {
+        AgentAdaptor adaptor = entry.adaptor.getNow(null);
+        if (adaptor == null) {
+            return;
+        }
+        byAdaptor.remove(adaptor, entry);
+        try {
+            adaptor.destroy();
+        } catch (Exception e) {
+            logger.warn("Failed to destroy adaptor {}", entry.key, e);
+        }
+    }
+
+    private static final class Entry {
+        private final Key key;
+        private final CompletableFuture<AgentAdaptor> adaptor = new CompletableFuture<>();
+        private final long createdAt = System.currentTimeMillis();
+        private final AtomicBoolean checking = new AtomicBoolean();
+        private final AtomicInteger leases = new AtomicInteger();
+        private volatile long lastUsed = createdAt;
+        private volatile long lastChecked = createdAt;
+
+        private Entry(Key key) {
+            this.key = key;
+        }
+    }
+
+    // The auth token is part of the identity but deliberately left out of toString, which is logged
+    private static final class Key {
+        private final String kind;
+        private final String resourceId;
+        private final String authToken;
+        private final String userId;
+        private final String loginUserName;
 
-        Map<String, Map<String, Map<String, AgentAdaptor>>> tokenToGatewayUserMap =
-                sshAdaptorCache.computeIfAbsent(resourceId, k -> new HashMap<>());
-        Map<String, Map<String, AgentAdaptor>> gatewayUserToLoginUserMap =
-                tokenToGatewayUserMap.computeIfAbsent(authToken, k -> new HashMap<>());
-        Map<String, AgentAdaptor> loginUserToAdaptorMap =
-                gatewayUserToLoginUserMap.computeIfAbsent(gatewayUserId, k -> new HashMap<>());
+        private Key(String kind, String resourceId, String authToken, String userId, String loginUserName) {
+            this.kind = kind;
+            this.resourceId = resourceId;
+            this.authToken = authToken;
+            this.userId = userId;
+            this.loginUserName = loginUserName;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return kind.equals(other.kind)
+                    && Objects.equals(resourceId, other.resourceId)
+                    && Objects.equals(authToken, other.authToken)
+                    && Objects.equals(userId, other.userId)
+                    && Objects.equals(loginUserName, other.loginUserName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, resourceId, authToken, userId, loginUserName);
+        }
 
-        loginUserToAdaptorMap.put(loginUserName, adaptor);
+        @Override
+        public String toString() {
+            return kind + ":" + resourceId + ":" + userId + (loginUserName != null ? ":" + loginUserName : "");
+        }
     }
 }
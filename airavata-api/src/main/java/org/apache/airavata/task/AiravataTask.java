@@ -36,6 +36,7 @@ import org.apache.airavata.model.application.io.proto.OutputDataObjectType;
 import org.apache.airavata.model.commons.proto.ErrorModel;
 import org.apache.airavata.model.data.replica.proto.*;
 import org.apache.airavata.model.experiment.proto.ExperimentModel;
+import org.apache.airavata.model.process.proto.ProcessContextSnapshot;
 import org.apache.airavata.model.process.proto.ProcessModel;
 import org.apache.airavata.model.status.proto.*;
 import org.apache.airavata.util.AiravataUtils;
@@ -429,9 +430,6 @@ public abstract class AiravataTask extends AbstractTask {
             processModel = getRegistryServiceClient().getProcess(processId);
             experimentModel = getRegistryServiceClient().getExperiment(experimentId);
 
-            this.computeResourceDescription =
-                    getRegistryServiceClient().getComputeResource(this.processModel.getComputeResourceId());
-
             TaskContext.TaskContextBuilder taskContextBuilder = new TaskContext.TaskContextBuilder(
                             getProcessId(), getGatewayId(), getTaskId())
                     .setRegistryClient(getRegistryServiceClient())
@@ -440,6 +438,16 @@ public abstract class AiravataTask extends AbstractTask {
                     .setProcessModel(getProcessModel());
 
             this.taskContext = taskContextBuilder.build();
+
+            // Profiles and descriptions are shared by all tasks of the process through its snapshot
+            ProcessContextSnapshot snapshot = ProcessContextSnapshots.restoreOrBuild(taskContext);
+            String computeResourceId = this.processModel.getComputeResourceId();
+            this.computeResourceDescription = snapshot.hasComputeResource()
+                            && snapshot.getComputeResource()
+                                    .getComputeResourceId()
+                                    .equals(computeResourceId)
+                    ? snapshot.getComputeResource()
+                    : getRegistryServiceClient().getComputeResource(computeResourceId);
             logger.info("Task " + this.taskName + " initialized");
 
         } catch (Exception e) {
@@ -552,16 +560,17 @@ public abstract class AiravataTask extends AbstractTask {
         return SchedulerUtils.getRegistryHandler();
     }
 
-    private static UserProfileProvider userProfileProvider;
+    private static volatile UserProfileProvider userProfileProvider;
 
-    public static synchronized void setUserProfileProvider(UserProfileProvider provider) {
+    public static void setUserProfileProvider(UserProfileProvider provider) {
         userProfileProvider = provider;
     }
 
-    public static synchronized UserProfileProvider getUserProfileProvider() {
-        if (userProfileProvider == null) {
+    public static UserProfileProvider getUserProfileProvider() {
+        UserProfileProvider provider = userProfileProvider;
+        if (provider == null) {
             throw new IllegalStateException("UserProfileProvider has not been initialized");
         }
-        return userProfileProvider;
+        return provider;
     }
 }
@@ -33,15 +33,26 @@ public final class DbTaskResult {
         /** Task failed unrecoverably; fail the process immediately, no retry. */
         FATAL_FAILED,
         /** Task was skipped (treated as success for DAG advancement). */
-        SKIPPED
+        SKIPPED,
+        /**
+         * Task is waiting on an external event; release the worker and run the task again when
+         * {@link SuspendedTasks#resume} is called for it or {@link #resumeAt()} passes.
+         */
+        SUSPENDED
     }
 
     private final Status status;
     private final String message;
+    private final long resumeAt;
 
     private DbTaskResult(Status status, String message) {
+        this(status, message, 0L);
+    }
+
+    private DbTaskResult(Status status, String message, long resumeAt) {
         this.status = status;
         this.message = message;
+        this.resumeAt = resumeAt;
     }
 
     public Status status() {
@@ -52,6 +63,11 @@ public final class DbTaskResult {
         return message;
     }
 
+    /** Epoch millis after which a {@link Status#SUSPENDED} task is re-run even if no event arrived. */
+    public long resumeAt() {
+        return resumeAt;
+    }
+
     public static DbTaskResult completed(String message) {
         return new DbTaskResult(Status.COMPLETED, message);
     }
@@ -67,4 +83,8 @@ public final class DbTaskResult {
     public static DbTaskResult skipped(String message) {
         return new DbTaskResult(Status.SKIPPED, message);
     }
+
+    public static DbTaskResult suspended(String message, long resumeAtMillis) {
+        return new DbTaskResult(Status.SUSPENDED, message, resumeAtMillis);
+    }
 }
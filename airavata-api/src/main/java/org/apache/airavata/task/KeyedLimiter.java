@@ -0,0 +1,119 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.task;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * A fair concurrency limit per key (compute resource, host, ...): at most {@code permitsPerKey}
+ * callers hold any one key at a time. Waiting parks the calling thread, which costs nothing but
+ * the wait for a virtual thread.
+ */
+public final class KeyedLimiter {
+
+    private final int permitsPerKey;
+    private final ConcurrentHashMap<String, Semaphore> permits = new ConcurrentHashMap<>();
+
+    public KeyedLimiter(int permitsPerKey) {
+        this.permitsPerKey = Math.max(1, permitsPerKey);
+    }
+
+    /** Run {@code work} holding a permit of {@code key}. */
+    public <R> R call(String key, Callable<R> work) throws Exception {
+        return call(List.of(key), work);
+    }
+
+    /**
+     * Run {@code work} holding a permit of every one of {@code keys}. Keys are acquired in a fixed
+     * order, so two callers over the same pair of keys cannot deadlock.
+     */
+    public <R> R call(Collection<String> keys, Callable<R> work) throws Exception {
+        acquire(keys);
+        try {
+            return work.call();
+        } finally {
+            release(keys, 1);
+        }
+    }
+
+    /**
+     * Wait for a permit of every one of {@code keys}, acquired in the same fixed order as
+     * {@link #call}; hand it back with {@link #release}. If interrupted, nothing is held.
+     */
+    public void acquire(Collection<String> keys) throws InterruptedException {
+        List<Semaphore> held = new ArrayList<>();
+        try {
+            for (String key : new TreeSet<>(keys)) {
+                Semaphore permit = permits.computeIfAbsent(key, k -> new Semaphore(permitsPerKey, true));
+                permit.acquire();
+                held.add(permit);
+            }
+        } catch (InterruptedException e) {
+            held.forEach(Semaphore::release);
+            throw e;
+        }
+    }
+
+    /**
+     * Take up to {@code max} further permits of every one of {@code keys} without waiting, stopping at
+     * the first key with none free. Returns how many were taken; hand them back with {@link #release}.
+     */
+    public int tryAcquire(Collection<String> keys, int max) {
+        List<Semaphore> ordered = new ArrayList<>();
+        for (String key : new TreeSet<>(keys)) {
+            ordered.add(permits.computeIfAbsent(key, k -> new Semaphore(permitsPerKey, true)));
+        }
+        int taken = 0;
+        while (taken < max) {
+            List<Semaphore> held = new ArrayList<>();
+            for (Semaphore permit : ordered) {
+                if (!permit.tryAcquire()) {
+                    held.forEach(Semaphore::release);
+                    return taken;
+                }
+                held.add(permit);
+            }
+            taken++;
+        }
+        return taken;
+    }
+
+    /** Return {@code count} permits of every one of {@code keys} taken by {@link #acquire} or {@link #tryAcquire}. */
+    public void release(Collection<String> keys, int count) {
+        for (String key : new TreeSet<>(keys)) {
+            Semaphore permit = permits.get(key);
+            if (permit != null) {
+                permit.release(count);
+            }
+        }
+    }
+
+    /** Permits of {@code key} currently held. */
+    public int inUse(String key) {
+        Semaphore permit = permits.get(key);
+        return permit == null ? 0 : permitsPerKey - permit.availablePermits();
+    }
+}
@@ -0,0 +1,125 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.task;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.airavata.interfaces.AgentAdaptor;
+import org.apache.airavata.interfaces.AgentException;
+import org.apache.airavata.interfaces.StorageResourceAdaptor;
+
+/**
+ * {@link AdaptorSupport} of one task run: every adaptor it fetches is leased from the shared cache,
+ * and {@link #releaseAll} hands all of them back when the run ends.
+ */
+class LeasedAdaptorSupport implements AdaptorSupport {
+
+    // An adaptor evicted between the lookup and the lease is looked up again this many times at most
+    private static final int LEASE_ATTEMPTS = 3;
+
+    @FunctionalInterface
+    private interface Fetch<A extends AgentAdaptor> {
+        A fetch() throws Exception;
+    }
+
+    private final AdaptorSupport delegate;
+    private final List<AgentAdaptor> leased = new ArrayList<>();
+
+    LeasedAdaptorSupport(AdaptorSupport delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void initializeAdaptor() {
+        delegate.initializeAdaptor();
+    }
+
+    @Override
+    public AgentAdaptor fetchAdaptor(String gatewayId, String computeResourceId, String authToken, String userId)
+            throws Exception {
+        return lease(() -> delegate.fetchAdaptor(gatewayId, computeResourceId, authToken, userId));
+    }
+
+    @Override
+    public StorageResourceAdaptor fetchStorageAdaptor(
+            String gatewayId, String storageResourceId, String authToken, String userId) throws AgentException {
+        return leaseUnchecked(() -> delegate.fetchStorageAdaptor(gatewayId, storageResourceId, authToken, userId));
+    }
+
+    @Override
+    public AgentAdaptor fetchComputeSSHAdaptor(
+            String gatewayId, String resourceId, String authToken, String gatewayUserId, String loginUserName)
+            throws AgentException {
+        return leaseUnchecked(
+                () -> delegate.fetchComputeSSHAdaptor(gatewayId, resourceId, authToken, gatewayUserId, loginUserName));
+    }
+
+    @Override
+    public StorageResourceAdaptor fetchStorageSSHAdaptor(
+            String gatewayId, String resourceId, String authToken, String gatewayUserId, String loginUserName)
+            throws AgentException {
+        return leaseUnchecked(
+                () -> delegate.fetchStorageSSHAdaptor(gatewayId, resourceId, authToken, gatewayUserId, loginUserName));
+    }
+
+    @Override
+    public boolean acquire(AgentAdaptor adaptor) {
+        return delegate.acquire(adaptor);
+    }
+
+    @Override
+    public void release(AgentAdaptor adaptor) {
+        delegate.release(adaptor);
+    }
+
+    /** Release every lease taken by this run's lookups. */
+    void releaseAll() {
+        List<AgentAdaptor> held;
+        synchronized (leased) {
+            held = new ArrayList<>(leased);
+            leased.clear();
+        }
+        held.forEach(delegate::release);
+    }
+
+    private <A extends AgentAdaptor> A lease(Fetch<A> fetch) throws Exception {
+        A adaptor = fetch.fetch();
+        for (int attempt = 1; !delegate.acquire(adaptor); attempt++) {
+            if (attempt == LEASE_ATTEMPTS) {
+                return adaptor; // keeps being evicted; use it unleased rather than fail the task
+            }
+            adaptor = fetch.fetch();
+        }
+        synchronized (leased) {
+            leased.add(adaptor);
+        }
+        return adaptor;
+    }
+
+    private <A extends AgentAdaptor> A leaseUnchecked(Fetch<A> fetch) throws AgentException {
+        try {
+            return lease(fetch);
+        } catch (AgentException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new AgentException("Failed to fetch adaptor", e);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.task;
+
+import java.util.function.Consumer;
+import org.apache.airavata.config.ServerSettings;
+import org.apache.airavata.interfaces.RegistryHandler;
+import org.apache.airavata.model.process.proto.ProcessContextSnapshot;
+import org.apache.airavata.model.process.proto.ProcessModel;
+import org.apache.airavata.server.CountMonitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Shares the registry lookups of a {@link TaskContext} across all tasks of a process.
+ *
+ * <p>The first task of a process resolves its profiles and descriptions and stores them as a
+ * {@link ProcessContextSnapshot}; later tasks of the DAG, including tasks claimed again after a
+ * restart, seed their context from it and skip those reads. A snapshot is only reused while the
+ * process still points at the same resource, profile, application and user, the profile rows still
+ * carry the update stamps it was built from, and it is younger than
+ * {@link ServerSettings#getTaskContextSnapshotTtlMs()} — the stamp check costs one query.
+ *
+ * <p>Only what tasks read is stored. The user profile is left out; a task that needs it looks it up.
+ */
+public final class ProcessContextSnapshots {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessContextSnapshots.class);
+
+    // bump whenever the snapshot layout changes; snapshots of another version are rebuilt
+    static final int FORMAT_VERSION = 1;
+
+    private static final CountMonitor lookupCounter = new CountMonitor("process_context_snapshot_count", "result");
+
+    private ProcessContextSnapshots() {}
+
+    /**
+     * Seeds {@code context} from the process's stored snapshot, or resolves the context and stores a
+     * new snapshot when there is no usable one. Never fails: anything that cannot be resolved here is
+     * left for the context's own getters to look up (and report) when a task needs it.
+     */
+    public static ProcessContextSnapshot restoreOrBuild(TaskContext context) {
+        return restoreOrBuild(context, ServerSettings.getTaskContextSnapshotTtlMs(), System.currentTimeMillis());
+    }
+
+    static ProcessContextSnapshot restoreOrBuild(TaskContext context, long ttlMs, long now) {
+        RegistryHandler registry = context.getRegistryClient();
+        String processId = context.getProcessId();
+        String fingerprint = fingerprint(context.getGatewayId(), context.getProcessModel());
+
+        String profileVersion = profileVersion(registry, context);
+        ProcessContextSnapshot stored = null;
+        try {
+            stored = registry.getProcessContextSnapshot(processId);
+        } catch (Exception e) {
+            logger.warn("Failed to read the context snapshot of process {}", processId, e);
+        }
+
+        if (stored != null && isCurrent(stored, fingerprint, profileVersion, ttlMs, now)) {
+            apply(stored, context);
+            lookupCounter.inc("hit");
+            return stored;
+        }
+        lookupCounter.inc(stored == null ? "miss" : "stale");
+
+        ProcessContextSnapshot built = build(context, fingerprint, profileVersion, now);
+        // Without a profile version the snapshot could never be validated; resolve but do not store.
+        if (profileVersion != null) {
+            try {
+                registry.saveProcessContextSnapshot(built);
+            } catch (Exception e) {
+                logger.warn("Failed to store the context snapshot of process {}", processId, e);
+            }
+        }
+        return built;
+    }
+
+    static String fingerprint(String gatewayId, ProcessModel process) {
+        return String.join(
+                "|",
+                gatewayId,
+                process.getComputeResourceId(),
+                process.getGroupResourceProfileId(),
+                process.getApplicationDeploymentId(),
+                process.getApplicationInterfaceId(),
+                process.getUserName(),
+                String.valueOf(process.getUseUserCrPref()));
+    }
+
+    private static boolean isCurrent(
+            ProcessContextSnapshot snapshot, String fingerprint, String profileVersion, long ttlMs, long now) {
+        return snapshot.getFormatVersion() == FORMAT_VERSION
+                && snapshot.getFingerprint().equals(fingerprint)
+                && profileVersion != null
+                && snapshot.getProfileVersion().equals(profileVersion)
+                && now - snapshot.getBuiltAt() < ttlMs;
+    }
+
+    private static String profileVersion(RegistryHandler registry, TaskContext context) {
+        ProcessModel process = context.getProcessModel();
+        try {
+            return registry.getProcessContextProfileVersion(
+                    context.getGatewayId(),
+                    process.getGroupResourceProfileId(),
+                    process.getComputeResourceId(),
+                    process.getApplicationDeploymentId(),
+                    process.getApplicationInterfaceId(),
+                    process.getUseUserCrPref() ? process.getUserName() : null);
+        } catch (Exception e) {
+            logger.warn("Failed to read the profile version of process {}", context.getProcessId(), e);
+            return null;
+        }
+    }
+
+    private static void apply(ProcessContextSnapshot snapshot, TaskContext context) {
+        if (snapshot.hasGatewayResourceProfile()) {
+            context.setGatewayResourceProfile(snapshot.getGatewayResourceProfile());
+        }
+        if (snapshot.hasGroupResourceProfile()) {
+            context.setGroupResourceProfile(snapshot.getGroupResourceProfile());
+        }
+        if (snapshot.hasGroupComputeResourcePreference()) {
+            context.setGroupComputeResourcePreference(snapshot.getGroupComputeResourcePreference());
+        }
+        if (snapshot.hasUserResourceProfile()) {
+            context.setUserResourceProfile(snapshot.getUserResourceProfile());
+        }
+        if (snapshot.hasUserComputeResourcePreference()) {
+            context.setUserComputeResourcePreference(snapshot.getUserComputeResourcePreference());
+        }
+        if (snapshot.hasComputeResource()) {
+            context.setComputeResourceDescription(snapshot.getComputeResource());
+        }
+        if (snapshot.hasApplicationDeployment()) {
+            context.setApplicationDeploymentDescription(snapshot.getApplicationDeployment());
+        }
+        if (snapshot.hasApplicationInterface()) {
+            context.setApplicationInterfaceDescription(snapshot.getApplicationInterface());
+        }
+        if (snapshot.hasStorageResource()) {
+            context.setStorageResourceDescription(snapshot.getStorageResource());
+        }
+    }
+
+    private static ProcessContextSnapshot build(
+            TaskContext context, String fingerprint, String profileVersion, long now) {
+        ProcessContextSnapshot.Builder builder = ProcessContextSnapshot.newBuilder()
+                .setFormatVersion(FORMAT_VERSION)
+                .setProcessId(context.getProcessId())
+                .setFingerprint(fingerprint)
+                .setProfileVersion(profileVersion == null ? "" : profileVersion)
+                .setBuiltAt(now);
+        ProcessModel process = context.getProcessModel();
+        String processId = context.getProcessId();
+
+        resolve(
+                processId,
+                "gateway resource profile",
+                context::getGatewayResourceProfile,
+                builder::setGatewayResourceProfile);
+        if (context.isSetGroupResourceProfile()) {
+            resolve(
+                    processId,
+                    "group resource profile",
+                    context::getGroupResourceProfile,
+                    builder::setGroupResourceProfile);
+            resolve(
+                    processId,
+                    "group compute resource preference",
+                    context::getGroupComputeResourcePreference,
+                    builder::setGroupComputeResourcePreference);
+        }
+        if (process.getUseUserCrPref()) {
+            resolve(
+                    processId,
+                    "user resource profile",
+                    context::getUserResourceProfile,
+                    builder::setUserResourceProfile);
+            resolve(
+                    processId,
+                    "user compute resource preference",
+                    context::getUserComputeResourcePreference,
+                    builder::setUserComputeResourcePreference);
+        }
+        resolve(processId, "compute resource", context::getComputeResourceDescription, builder::setComputeResource);
+        resolve(
+                processId,
+                "application deployment",
+                context::getApplicationDeploymentDescription,
+                builder::setApplicationDeployment);
+        resolve(
+                processId,
+                "application interface",
+                context::getApplicationInterfaceDescription,
+                builder::setApplicationInterface);
+        resolve(processId, "storage resource", context::getStorageResourceDescription, builder::setStorageResource);
+        return builder.build();
+    }
+
+    private interface Lookup<T> {
+        T get() throws Exception;
+    }
+
+    private static <T> void resolve(String processId, String what, Lookup<T> lookup, Consumer<T> setter) {
+        try {
+            T value = lookup.get();
+            if (value != null) {
+                setter.accept(value);
+            }
+        } catch (Exception e) {
+            logger.debug("Not snapshotting the {} of process {}: {}", what, processId, e.getMessage());
+        }
+    }
+}
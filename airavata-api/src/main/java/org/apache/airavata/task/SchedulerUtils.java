@@ -29,12 +29,14 @@ import org.apache.airavata.util.AiravataUtils;
  */
 public class SchedulerUtils {
 
-    private static RegistryHandler registryHandler;
+    // Read by every task and executor poll; volatile rather than synchronized so callers never queue
+    // on a monitor (which would also pin virtual threads to their carriers).
+    private static volatile RegistryHandler registryHandler;
 
     /**
      * Sets the registry handler for direct in-JVM calls.
      */
-    public static synchronized void setRegistryHandler(RegistryHandler handler) {
+    public static void setRegistryHandler(RegistryHandler handler) {
         registryHandler = handler;
     }
 
@@ -43,11 +45,12 @@ public class SchedulerUtils {
      *
      * @return RegistryHandler
      */
-    public static synchronized RegistryHandler getRegistryHandler() {
-        if (registryHandler == null) {
+    public static RegistryHandler getRegistryHandler() {
+        RegistryHandler handler = registryHandler;
+        if (handler == null) {
             throw new IllegalStateException("Registry handler has not been initialized");
         }
-        return registryHandler;
+        return handler;
     }
 
     public static void saveAndPublishProcessStatus(
@@ -0,0 +1,45 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.task;
+
+import java.util.function.Consumer;
+
+/**
+ * Resume channel for tasks that returned {@link DbTaskResult#suspended}. A suspended task has given
+ * its worker back to the executor; when the event it is waiting on arrives (e.g. its job reached a
+ * terminal state), the task side calls {@link #resume} and the executor makes the task claimable
+ * again right away instead of at its persisted deadline.
+ */
+public final class SuspendedTasks {
+
+    private static volatile Consumer<String> resumeHandler = taskId -> {};
+
+    private SuspendedTasks() {}
+
+    /** Installed by the executor that persists suspensions; a no-op until then. */
+    public static void setResumeHandler(Consumer<String> handler) {
+        resumeHandler = handler != null ? handler : taskId -> {};
+    }
+
+    /** Make the suspended task {@code taskId} runnable now. Safe to call for a task that is not suspended. */
+    public static void resume(String taskId) {
+        resumeHandler.accept(taskId);
+    }
+}
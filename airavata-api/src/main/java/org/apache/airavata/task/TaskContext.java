@@ -107,8 +107,8 @@ public class TaskContext {
     private ResourceJobManager resourceJobManager;
 
     private List<String> taskExecutionOrder;
-    private List<TaskModel> taskList;
-    private Map<String, TaskModel> taskMap;
+    private volatile List<TaskModel> taskList;
+    private volatile Map<String, TaskModel> taskMap;
 
     /**
      * Note: process context property use lazy loading approach. In runtime you will see some properties as null
@@ -293,7 +293,7 @@ public class TaskContext {
         this.userResourceProfile = userResourceProfile;
     }
 
-    private UserComputeResourcePreference getUserComputeResourcePreference() throws Exception {
+    UserComputeResourcePreference getUserComputeResourcePreference() throws Exception {
         if (this.userComputeResourcePreference == null && processModel.getUseUserCrPref()) {
             try {
                 this.userComputeResourcePreference = registryClient.getUserComputeResourcePreference(
@@ -500,13 +500,11 @@ public class TaskContext {
         return getProcessModel().getTaskDag();
     }
 
+    // Lazily derived from the immutable process model; a racing first call just derives it twice,
+    // so no class-wide lock is taken (it serialized every task context in the JVM).
     public List<TaskModel> getTaskList() {
         if (taskList == null) {
-            synchronized (TaskModel.class) {
-                if (taskList == null) {
-                    taskList = getProcessModel().getTasksList();
-                }
-            }
+            taskList = getProcessModel().getTasksList();
         }
         return taskList;
     }
@@ -521,14 +519,11 @@ public class TaskContext {
 
     public Map<String, TaskModel> getTaskMap() {
         if (taskMap == null) {
-            synchronized (TaskModel.class) {
-                if (taskMap == null) {
-                    taskMap = new HashMap<>();
-                    for (TaskModel taskModel : getTaskList()) {
-                        taskMap.put(taskModel.getTaskId(), taskModel);
-                    }
-                }
+            Map<String, TaskModel> map = new HashMap<>();
+            for (TaskModel taskModel : getTaskList()) {
+                map.put(taskModel.getTaskId(), taskModel);
             }
+            taskMap = map;
         }
         return taskMap;
     }
@@ -781,6 +776,10 @@ public class TaskContext {
         return this.userProfile;
     }
 
+    public void setUserProfile(UserProfile userProfile) {
+        this.userProfile = userProfile;
+    }
+
     private boolean isValid(String str) {
         return str != null && !str.trim().isEmpty();
     }
@@ -19,9 +19,21 @@
 */
 package org.apache.airavata.task;
 
-public class TaskHelperImpl implements TaskHelper {
+/**
+ * Helper for one task run. Every adaptor the task fetches is leased until {@link #close}, so the
+ * adaptor cache cannot probe or destroy it while the task is still using it.
+ */
+public class TaskHelperImpl implements TaskHelper, AutoCloseable {
+
+    private final LeasedAdaptorSupport adaptorSupport = new LeasedAdaptorSupport(AdaptorSupportImpl.getInstance());
+
+    public AdaptorSupport getAdaptorSupport() {
+        return adaptorSupport;
+    }
 
-    public AdaptorSupportImpl getAdaptorSupport() {
-        return AdaptorSupportImpl.getInstance();
+    /** Release the adaptors leased by the task run. */
+    @Override
+    public void close() {
+        adaptorSupport.releaseAll();
     }
 }
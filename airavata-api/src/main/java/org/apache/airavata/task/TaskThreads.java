@@ -0,0 +1,132 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.task;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.airavata.config.ServerSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Threads for task bodies and transfers. In the default {@code platform} execution mode work runs on
+ * pools of platform threads, so concurrency is whatever the pool sizes allow. With
+ * {@code task.execution.mode=virtual} every submitted unit of work gets its own virtual thread:
+ * blocking SSH, SFTP and JDBC calls no longer hold a pooled thread, and concurrency is bounded only
+ * by the explicit limits of the caller (in-flight tasks, per compute resource, per host).
+ *
+ * <p>Virtual threads need a Java 21 runtime and are looked up reflectively so the code base still
+ * builds for Java 17. The shipped image runs Java 17, where {@code task.execution.mode=virtual} is
+ * ignored with a warning and the platform pools stay in use: without virtual threads, a thread per
+ * unit of work would trade the bounded pools for hundreds of platform threads.
+ */
+public final class TaskThreads {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskThreads.class);
+
+    private static final boolean VIRTUAL_SUPPORTED = detectVirtualThreads();
+    private static final AtomicBoolean unsupportedModeLogged = new AtomicBoolean();
+
+    private TaskThreads() {}
+
+    /**
+     * Whether tasks run in virtual mode: {@code task.execution.mode} selects virtual threads and this
+     * JVM has them. Otherwise the platform pools are used.
+     */
+    public static boolean isVirtualMode() {
+        if (!"virtual".equalsIgnoreCase(ServerSettings.getTaskExecutionMode().trim())) {
+            return false;
+        }
+        if (!VIRTUAL_SUPPORTED) {
+            if (unsupportedModeLogged.compareAndSet(false, true)) {
+                logger.warn(
+                        "task.execution.mode=virtual needs a Java 21 runtime; running Java {} in platform mode",
+                        Runtime.version().feature());
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /** Whether this JVM can create virtual threads. */
+    public static boolean virtualThreadsSupported() {
+        return VIRTUAL_SUPPORTED;
+    }
+
+    /**
+     * Executor for the configured execution mode: {@code platformThreads} pooled platform threads
+     * (an unbounded cached pool when {@code platformThreads <= 0}), or a thread per task in virtual
+     * mode.
+     */
+    public static ExecutorService newExecutor(String name, int platformThreads) {
+        return newExecutor(name, platformThreads, isVirtualMode());
+    }
+
+    static ExecutorService newExecutor(String name, int platformThreads, boolean virtual) {
+        if (virtual) {
+            return newThreadPerTaskExecutor(name);
+        }
+        return platformThreads > 0
+                ? Executors.newFixedThreadPool(platformThreads, daemon(name))
+                : Executors.newCachedThreadPool(daemon(name));
+    }
+
+    /** Executor that starts a new thread, virtual where supported, for every task. */
+    public static ExecutorService newThreadPerTaskExecutor(String name) {
+        if (VIRTUAL_SUPPORTED) {
+            try {
+                Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+                Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                builder =
+                        builderType.getMethod("name", String.class, long.class).invoke(builder, name + "-", 1L);
+                ThreadFactory factory =
+                        (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+                return (ExecutorService) Executors.class
+                        .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                        .invoke(null, factory);
+            } catch (ReflectiveOperationException e) {
+                logger.warn("Failed to create a virtual thread executor for {}; using platform threads", name, e);
+            }
+        }
+        return Executors.newCachedThreadPool(daemon(name));
+    }
+
+    /** Named daemon platform threads. */
+    public static ThreadFactory daemon(String name) {
+        AtomicInteger seq = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    private static boolean detectVirtualThreads() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
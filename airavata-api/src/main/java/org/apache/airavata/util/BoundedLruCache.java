@@ -0,0 +1,175 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * A size-bounded LRU whose entries expire on the first lookup at or after their own expiry time. The cache is split
+ * into segments by key hash, each an access-ordered {@link LinkedHashMap} under its own lock, so concurrent callers
+ * rarely contend and a full segment evicts its least recently used entry in constant time.
+ *
+ * <p>Subclasses may override {@link #onEvicted} and {@link #onExpired} to count removals; both run under the segment
+ * lock and must not call back into the cache.
+ */
+public class BoundedLruCache<K, V> {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment<K, V>[] segments;
+    private final ToLongFunction<? super V> expiryTime;
+
+    /**
+     * @param maxSize the most entries held at once
+     * @param expiryTime the time, in the clock of the {@code now} passed to {@link #get}, at which a value expires
+     */
+    @SuppressWarnings("unchecked")
+    public BoundedLruCache(int maxSize, ToLongFunction<? super V> expiryTime) {
+        this.expiryTime = expiryTime;
+        int segmentCount = Math.max(1, Math.min(SEGMENTS, maxSize));
+        segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            // Spread the remainder so the segments add up to exactly maxSize
+            segments[i] = new Segment<>(Math.max(1, maxSize / segmentCount + (i < maxSize % segmentCount ? 1 : 0)));
+        }
+    }
+
+    /**
+     * The value cached for {@code key}, or {@code null} if there is none or it expired at or before {@code now}. A hit
+     * makes the entry the most recently used of its segment.
+     */
+    public V get(K key, long now) {
+        Segment<K, V> segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            V value = segment.entries.get(key);
+            if (value != null && expiryTime.applyAsLong(value) <= now) {
+                segment.entries.remove(key);
+                onExpired(key, value);
+                return null;
+            }
+            return value;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    public void put(K key, V value) {
+        Segment<K, V> segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            segment.entries.put(key, value);
+            if (segment.entries.size() > segment.capacity) {
+                Iterator<Map.Entry<K, V>> eldest = segment.entries.entrySet().iterator();
+                Map.Entry<K, V> evicted = eldest.next();
+                eldest.remove();
+                onEvicted(evicted.getKey(), evicted.getValue());
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    public void remove(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            segment.entries.remove(key);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * Drops every entry whose key matches {@code filter}, one segment at a time.
+     *
+     * @return the number of entries dropped
+     */
+    public int removeIf(Predicate<? super K> filter) {
+        int removed = 0;
+        for (Segment<K, V> segment : segments) {
+            segment.lock.lock();
+            try {
+                Iterator<K> it = segment.entries.keySet().iterator();
+                while (it.hasNext()) {
+                    if (filter.test(it.next())) {
+                        it.remove();
+                        removed++;
+                    }
+                }
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return removed;
+    }
+
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            segment.lock.lock();
+            try {
+                segment.entries.clear();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.entries.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    /** Called when a put pushed {@code key}, the least recently used entry of its segment, out. */
+    protected void onEvicted(K key, V value) {}
+
+    /** Called when a lookup found {@code key} expired and dropped it. */
+    protected void onExpired(K key, V value) {}
+
+    private Segment<K, V> segmentFor(K key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        return segments[Math.floorMod(h, segments.length)];
+    }
+
+    // ReentrantLock rather than synchronized: callers may run on virtual threads, which a monitor would pin
+    private static final class Segment<K, V> {
+        final ReentrantLock lock = new ReentrantLock();
+        final LinkedHashMap<K, V> entries = new LinkedHashMap<>(16, 0.75f, true);
+        final int capacity;
+
+        Segment(int capacity) {
+            this.capacity = capacity;
+        }
+    }
+}
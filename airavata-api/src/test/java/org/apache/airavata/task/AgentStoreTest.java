@@ -0,0 +1,204 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.airavata.interfaces.AgentAdaptor;
+import org.apache.airavata.interfaces.AgentException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class AgentStoreTest {
+
+    private AgentStore store;
+
+    @AfterEach
+    public void tearDown() {
+        if (store != null) {
+            store.shutdown();
+        }
+    }
+
+    @Test
+    public void concurrentLookupsOfOneKeyCreateOnce() throws Exception {
+        store = new AgentStore(60_000, 600_000, 60_000);
+        AtomicInteger creations = new AtomicInteger();
+        AgentAdaptor adaptor = mock(AgentAdaptor.class);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<AgentAdaptor>> lookups = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                lookups.add(pool.submit(() -> store.getAgentAdaptor("cluster", "token", "user", () -> {
+                    creations.incrementAndGet();
+                    pause(50);
+                    return adaptor;
+                })));
+            }
+            for (Future<AgentAdaptor> lookup : lookups) {
+                assertSame(adaptor, lookup.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, creations.get());
+    }
+
+    @Test
+    public void slowCreationDoesNotBlockOtherResources() throws Exception {
+        store = new AgentStore(60_000, 600_000, 60_000);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<AgentAdaptor> slow = pool.submit(() -> store.getAgentAdaptor("slow-cluster", "token", "user", () -> {
+                await(release);
+                return mock(AgentAdaptor.class);
+            }));
+
+            long start = System.nanoTime();
+            AgentAdaptor fast = mock(AgentAdaptor.class);
+            assertSame(fast, store.getAgentAdaptor("fast-cluster", "token", "user", () -> fast));
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+
+            release.countDown();
+            slow.get(10, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void failedCreationIsRetried() throws Exception {
+        store = new AgentStore(60_000, 600_000, 60_000);
+        assertThrows(
+                AgentException.class,
+                () -> store.getAgentAdaptor("cluster", "token", "user", () -> {
+                    throw new AgentException("handshake failed");
+                }));
+
+        AgentAdaptor adaptor = mock(AgentAdaptor.class);
+        assertSame(adaptor, store.getAgentAdaptor("cluster", "token", "user", () -> adaptor));
+    }
+
+    @Test
+    public void idleAdaptorsAreDestroyed() throws Exception {
+        store = new AgentStore(50, 600_000, 60_000);
+        AgentAdaptor adaptor = mock(AgentAdaptor.class);
+        store.getAgentAdaptor("cluster", "token", "user", () -> adaptor);
+
+        verify(adaptor, timeout(5000)).destroy();
+        assertEquals(0, store.size());
+
+        AgentAdaptor replacement = mock(AgentAdaptor.class);
+        assertNotSame(adaptor, store.getAgentAdaptor("cluster", "token", "user", () -> replacement));
+    }
+
+    @Test
+    public void unhealthyAdaptorsAreEvicted() throws Exception {
+        store = new AgentStore(60_000, 600_000, 20);
+        AgentAdaptor adaptor = mock(AgentAdaptor.class);
+        when(adaptor.isHealthy()).thenReturn(false);
+        store.getSSHAdaptor("compute-cluster", "token", "gateway-user", "login", () -> adaptor);
+
+        verify(adaptor, timeout(5000)).destroy();
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    public void leasedAdaptorsOutliveTheIdleTimeout() throws Exception {
+        store = new AgentStore(50, 600_000, 20);
+        AgentAdaptor adaptor = mock(AgentAdaptor.class);
+        when(adaptor.isHealthy()).thenReturn(false);
+        store.getAgentAdaptor("cluster", "token", "user", () -> adaptor);
+        assertTrue(store.acquire(adaptor));
+
+        pause(300);
+        verify(adaptor, never()).destroy();
+        verify(adaptor, never()).isHealthy();
+        assertEquals(1, store.size());
+
+        store.release(adaptor);
+        verify(adaptor, timeout(5000)).destroy();
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    public void evictedAdaptorsCannotBeLeased() throws Exception {
+        store = new AgentStore(50, 600_000, 60_000);
+        AgentAdaptor adaptor = mock(AgentAdaptor.class);
+        store.getAgentAdaptor("cluster", "token", "user", () -> adaptor);
+
+        verify(adaptor, timeout(5000)).destroy();
+        assertFalse(store.acquire(adaptor));
+    }
+
+    @Test
+    public void leaseKeepsOnlyItsOwnAdaptor() throws Exception {
+        store = new AgentStore(50, 600_000, 60_000);
+        AgentAdaptor leased = mock(AgentAdaptor.class);
+        AgentAdaptor idle = mock(AgentAdaptor.class);
+        store.getAgentAdaptor("cluster-a", "token", "user", () -> leased);
+        store.getAgentAdaptor("cluster-b", "token", "user", () -> idle);
+        assertTrue(store.acquire(leased));
+
+        verify(idle, timeout(5000)).destroy();
+        verify(leased, never()).destroy();
+        assertFalse(store.acquire(idle));
+
+        store.release(leased);
+        verify(leased, timeout(5000)).destroy();
+        assertFalse(store.acquire(leased));
+    }
+
+    private static void pause(long millis) throws AgentException {
+        await(new CountDownLatch(1), millis);
+    }
+
+    private static void await(CountDownLatch latch) throws AgentException {
+        await(latch, TimeUnit.SECONDS.toMillis(30));
+    }
+
+    private static void await(CountDownLatch latch, long millis) throws AgentException {
+        try {
+            latch.await(millis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AgentException("Interrupted", e);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.airavata.interfaces.RegistryHandler;
+import org.apache.airavata.interfaces.UserProfileProvider;
+import org.apache.airavata.model.appcatalog.computeresource.proto.ComputeResourceDescription;
+import org.apache.airavata.model.appcatalog.gatewayprofile.proto.GatewayResourceProfile;
+import org.apache.airavata.model.appcatalog.gatewayprofile.proto.StoragePreference;
+import org.apache.airavata.model.appcatalog.groupresourceprofile.proto.GroupComputeResourcePreference;
+import org.apache.airavata.model.appcatalog.groupresourceprofile.proto.GroupResourceProfile;
+import org.apache.airavata.model.appcatalog.storageresource.proto.StorageResourceDescription;
+import org.apache.airavata.model.process.proto.ProcessContextSnapshot;
+import org.apache.airavata.model.process.proto.ProcessModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ProcessContextSnapshotsTest {
+
+    private static final long TTL = 600_000;
+
+    private RegistryHandler registry;
+    private UserProfileProvider userProfiles;
+    private final AtomicReference<ProcessContextSnapshot> stored = new AtomicReference<>();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        registry = mock(RegistryHandler.class);
+        userProfiles = mock(UserProfileProvider.class);
+        when(registry.getGatewayResourceProfile("gw"))
+                .thenReturn(GatewayResourceProfile.newBuilder()
+                        .setGatewayId("gw")
+                        .addStoragePreferences(StoragePreference.newBuilder()
+                                .setStorageResourceId("gw_storage")
+                                .setLoginUserName("store-user"))
+                        .build());
+        when(registry.getGroupResourceProfile("grp"))
+                .thenReturn(GroupResourceProfile.newBuilder()
+                        .setGroupResourceProfileId("grp")
+                        .build());
+        when(registry.getGroupComputeResourcePreference(anyString(), eq("grp")))
+                .thenAnswer(inv -> GroupComputeResourcePreference.newBuilder()
+                        .setComputeResourceId(inv.getArgument(0))
+                        .setGroupResourceProfileId("grp")
+                        .setLoginUserName("login")
+                        .build());
+        when(registry.getComputeResource(anyString()))
+                .thenAnswer(inv -> ComputeResourceDescription.newBuilder()
+                        .setComputeResourceId(inv.getArgument(0))
+                        .build());
+        when(registry.getStorageResource("gw_storage"))
+                .thenReturn(StorageResourceDescription.newBuilder()
+                        .setStorageResourceId("gw_storage")
+                        .build());
+        when(registry.getProcessContextProfileVersion(any(), any(), any(), any(), any(), isNull()))
+                .thenReturn("v1");
+        when(registry.getProcessContextSnapshot("proc")).thenAnswer(inv -> stored.get());
+        doAnswer(inv -> {
+                    stored.set(inv.getArgument(0));
+                    return null;
+                })
+                .when(registry)
+                .saveProcessContextSnapshot(any());
+    }
+
+    @Test
+    public void laterTasksOfAProcessReuseTheSnapshot() throws Exception {
+        ProcessContextSnapshots.restoreOrBuild(context("task-1", "cluster"), TTL, 1_000);
+        TaskContext second = context("task-2", "cluster");
+        ProcessContextSnapshot snapshot = ProcessContextSnapshots.restoreOrBuild(second, TTL, 2_000);
+
+        assertEquals(1_000, snapshot.getBuiltAt());
+        assertEquals("login", second.getComputeResourceLoginUserName());
+        assertEquals("store-user", second.getStorageResourceLoginUserName());
+        assertEquals("cluster", second.getComputeResourceDescription().getComputeResourceId());
+        verify(registry, times(1)).getGatewayResourceProfile("gw");
+        verify(registry, times(1)).getGroupComputeResourcePreference("cluster", "grp");
+        verify(registry, times(1)).getComputeResource("cluster");
+        verify(registry, times(1)).getStorageResource("gw_storage");
+        verify(registry, times(1)).saveProcessContextSnapshot(any());
+    }
+
+    @Test
+    public void userProfileIsNotStored() throws Exception {
+        ProcessContextSnapshots.restoreOrBuild(context("task-1", "cluster"), TTL, 1_000);
+
+        assertTrue(stored.get().hasComputeResource());
+        verify(userProfiles, never()).getUserProfileByIdAndGateWay(anyString(), anyString());
+    }
+
+    @Test
+    public void snapshotOfAnotherFormatIsRebuilt() throws Exception {
+        ProcessContextSnapshots.restoreOrBuild(context("task-1", "cluster"), TTL, 1_000);
+        stored.set(stored.get()
+                .toBuilder()
+                .setFormatVersion(ProcessContextSnapshots.FORMAT_VERSION + 1)
+                .build());
+
+        ProcessContextSnapshot snapshot =
+                ProcessContextSnapshots.restoreOrBuild(context("task-2", "cluster"), TTL, 2_000);
+
+        assertEquals(ProcessContextSnapshots.FORMAT_VERSION, snapshot.getFormatVersion());
+        assertEquals(2_000, stored.get().getBuiltAt());
+    }
+
+    @Test
+    public void profileUpdateRebuildsTheSnapshot() throws Exception {
+        ProcessContextSnapshots.restoreOrBuild(context("task-1", "cluster"), TTL, 1_000);
+        when(registry.getProcessContextProfileVersion(any(), any(), any(), any(), any(), isNull()))
+                .thenReturn("v2");
+        ProcessContextSnapshot snapshot =
+                ProcessContextSnapshots.restoreOrBuild(context("task-2", "cluster"), TTL, 2_000);
+
+        assertEquals("v2", snapshot.getProfileVersion());
+        assertEquals(2_000, stored.get().getBuiltAt());
+        verify(registry, times(2)).getGatewayResourceProfile("gw");
+    }
+
+    @Test
+    public void changedProcessOrExpiredSnapshotIsRebuilt() throws Exception {
+        ProcessContextSnapshots.restoreOrBuild(context("task-1", "cluster"), TTL, 1_000);
+
+        ProcessContextSnapshot moved =
+                ProcessContextSnapshots.restoreOrBuild(context("task-2", "other-cluster"), TTL, 2_000);
+        assertEquals("other-cluster", moved.getComputeResource().getComputeResourceId());
+
+        ProcessContextSnapshot expired =
+                ProcessContextSnapshots.restoreOrBuild(context("task-3", "other-cluster"), TTL, 2_000 + TTL);
+        assertEquals(2_000 + TTL, expired.getBuiltAt());
+        verify(registry, times(3)).getGatewayResourceProfile("gw");
+    }
+
+    @Test
+    public void unresolvableLookupsAreLeftToTheTask() throws Exception {
+        when(registry.getStorageResource("gw_storage")).thenThrow(new RuntimeException("storage down"));
+        ProcessContextSnapshot snapshot =
+                ProcessContextSnapshots.restoreOrBuild(context("task-1", "cluster"), TTL, 1_000);
+
+        assertTrue(snapshot.hasComputeResource());
+        assertFalse(snapshot.hasStorageResource());
+    }
+
+    private TaskContext context(String taskId, String computeResourceId) throws Exception {
+        ProcessModel process = ProcessModel.newBuilder()
+                .setProcessId("proc")
+                .setExperimentId("exp")
+                .setComputeResourceId(computeResourceId)
+                .setGroupResourceProfileId("grp")
+                .setUserName("alice")
+                .build();
+        return new TaskContext.TaskContextBuilder("proc", "gw", taskId)
+                .setRegistryClient(registry)
+                .setUserProfileProvider(userProfiles)
+                .setProcessModel(process)
+                .build();
+    }
+}
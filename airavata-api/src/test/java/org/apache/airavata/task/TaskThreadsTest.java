@@ -0,0 +1,150 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The two execution modes on blocking work: the default mode's fixed worker pool against
+ * thread-per-task execution bounded by the caller's own limits.
+ */
+public class TaskThreadsTest {
+
+    private static final int POOL_THREADS = 4;
+    private static final int TASKS = 64;
+
+    @Test
+    public void threadPerTaskModeRunsBlockingTasksBeyondThePoolSize() throws Exception {
+        ExecutorService executor = TaskThreads.newExecutor("blocking-virtual", POOL_THREADS, true);
+        CountDownLatch running = new CountDownLatch(TASKS);
+        CountDownLatch release = new CountDownLatch(1);
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        try {
+            for (int i = 0; i < TASKS; i++) {
+                executor.execute(() -> {
+                    threads.add(Thread.currentThread());
+                    running.countDown();
+                    awaitQuietly(release);
+                });
+            }
+            // every task is blocked at once, far more than the pool size of the platform mode
+            assertTrue(running.await(10, TimeUnit.SECONDS), (TASKS - running.getCount()) + " tasks running");
+        } finally {
+            release.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+        assertEquals(TASKS, threads.size());
+        if (TaskThreads.virtualThreadsSupported()) {
+            for (Thread thread : threads) {
+                assertTrue((Boolean) Thread.class.getMethod("isVirtual").invoke(thread), thread.getName());
+            }
+        }
+    }
+
+    @Test
+    public void platformModeRunsNoMoreTasksThanThePoolSize() throws Exception {
+        ExecutorService executor = TaskThreads.newExecutor("blocking-platform", POOL_THREADS, false);
+        CountDownLatch poolBusy = new CountDownLatch(POOL_THREADS);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger started = new AtomicInteger();
+        try {
+            for (int i = 0; i < TASKS; i++) {
+                executor.execute(() -> {
+                    started.incrementAndGet();
+                    poolBusy.countDown();
+                    awaitQuietly(release);
+                });
+            }
+            assertTrue(poolBusy.await(10, TimeUnit.SECONDS));
+            // the remaining tasks stay queued until a pool thread is given back
+            assertEquals(POOL_THREADS, ((ThreadPoolExecutor) executor).getActiveCount());
+            assertEquals(TASKS - POOL_THREADS, ((ThreadPoolExecutor) executor).getQueue().size());
+            assertEquals(POOL_THREADS, started.get());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+        assertEquals(TASKS, started.get());
+    }
+
+    @Test
+    public void keyedLimiterBoundsEachKeyIndependently() throws Exception {
+        KeyedLimiter limiter = new KeyedLimiter(2);
+        CountDownLatch held = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = TaskThreads.newExecutor("limiter", 0, false);
+        try {
+            for (int i = 0; i < 3; i++) {
+                pool.submit(() -> limiter.call("a", () -> {
+                    held.countDown();
+                    return release.await(5, TimeUnit.SECONDS);
+                }));
+            }
+            assertTrue(held.await(5, TimeUnit.SECONDS));
+            Thread.sleep(100);
+            assertEquals(2, limiter.inUse("a"));
+            // another key is not held up by the saturated one
+            assertEquals("b", limiter.call("b", () -> "b"));
+            release.countDown();
+        } finally {
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+        }
+        assertEquals(0, limiter.inUse("a"));
+    }
+
+    @Test
+    public void multiKeyCallsOverlappingKeysDoNotDeadlock() throws Exception {
+        KeyedLimiter limiter = new KeyedLimiter(1);
+        ExecutorService pool = TaskThreads.newExecutor("limiter-multi", 0, true);
+        AtomicInteger done = new AtomicInteger();
+        try {
+            for (int i = 0; i < 50; i++) {
+                List<String> keys = i % 2 == 0 ? List.of("x", "y") : List.of("y", "x");
+                pool.submit(() -> limiter.call(keys, done::incrementAndGet));
+            }
+        } finally {
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        }
+        assertEquals(50, done.get());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
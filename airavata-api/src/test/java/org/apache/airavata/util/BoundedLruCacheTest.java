@@ -0,0 +1,101 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class BoundedLruCacheTest {
+
+    private record Value(String name, long expiresAt) {}
+
+    @Test
+    public void fullSegmentEvictsItsLeastRecentlyUsedEntry() {
+        List<String> evicted = new ArrayList<>();
+        // a single segment, so eviction order is fully determined
+        BoundedLruCache<String, Value> cache = new BoundedLruCache<>(1, Value::expiresAt) {
+            @Override
+            protected void onEvicted(String key, Value value) {
+                evicted.add(key);
+            }
+        };
+        cache.put("a", new Value("a", Long.MAX_VALUE));
+        cache.put("b", new Value("b", Long.MAX_VALUE));
+
+        assertEquals(List.of("a"), evicted);
+        assertNull(cache.get("a", 0));
+        assertEquals("b", cache.get("b", 0).name());
+    }
+
+    @Test
+    public void recentlyReadEntrySurvivesEviction() {
+        BoundedLruCache<String, Value> cache = new BoundedLruCache<>(64, Value::expiresAt);
+        cache.put("hot", new Value("hot", Long.MAX_VALUE));
+        for (int i = 0; i < 1000; i++) {
+            assertNotNull(cache.get("hot", 0), "evicted after " + i + " puts");
+            cache.put("cold-" + i, new Value("cold-" + i, Long.MAX_VALUE));
+        }
+        assertEquals(64, cache.size());
+    }
+
+    @Test
+    public void segmentsAddUpToTheMaximumSize() {
+        BoundedLruCache<String, Value> cache = new BoundedLruCache<>(50, Value::expiresAt);
+        for (int i = 0; i < 10_000; i++) {
+            cache.put("k" + i, new Value("k" + i, Long.MAX_VALUE));
+        }
+        assertEquals(50, cache.size());
+    }
+
+    @Test
+    public void entryExpiresOnTheFirstLookupAtItsExpiry() {
+        List<String> expired = new ArrayList<>();
+        BoundedLruCache<String, Value> cache = new BoundedLruCache<>(10, Value::expiresAt) {
+            @Override
+            protected void onExpired(String key, Value value) {
+                expired.add(key);
+            }
+        };
+        cache.put("a", new Value("a", 1000));
+
+        assertEquals("a", cache.get("a", 999).name());
+        assertNull(cache.get("a", 1000));
+        assertEquals(List.of("a"), expired);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void removeIfDropsMatchingKeysOnly() {
+        BoundedLruCache<String, Value> cache = new BoundedLruCache<>(100, Value::expiresAt);
+        for (int i = 0; i < 20; i++) {
+            cache.put((i % 2 == 0 ? "even-" : "odd-") + i, new Value("v" + i, Long.MAX_VALUE));
+        }
+
+        assertEquals(10, cache.removeIf(key -> key.startsWith("odd-")));
+        assertEquals(10, cache.size());
+        assertNull(cache.get("odd-1", 0));
+        assertEquals("v2", cache.get("even-2", 0).name());
+    }
+}
@@ -22,9 +22,12 @@ package org.apache.airavata.util;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.Persistence;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.apache.airavata.db.EntityManagerFactoryHolder;
 import org.testcontainers.containers.MariaDBContainer;
+import org.testcontainers.ext.ScriptUtils;
+import org.testcontainers.jdbc.JdbcDatabaseDelegate;
 
 /**
  * Singleton Testcontainer for MariaDB shared across all test classes in the module.
@@ -35,6 +38,19 @@ import org.testcontainers.containers.MariaDBContainer;
  */
 public class SharedMariaDB {
 
+    private static final String MIGRATIONS = "db/migration/airavata/";
+
+    // Versioned migrations applied after the V1 baseline, in order, the way Flyway applies them to a server
+    private static final List<String> UPGRADES = List.of(
+            "V2__Executor_signal.sql",
+            "V3__Exec_current_status.sql",
+            "V4__Task_suspension.sql",
+            "V5__Process_context_snapshot.sql",
+            "V6__Credential_summary_columns.sql",
+            "V7__Group_membership_closure.sql",
+            "V8__Sharing_cascade_indexes.sql",
+            "V9__Experiment_gateway_creation_index.sql");
+
     private static volatile MariaDBContainer<?> INSTANCE;
     private static volatile boolean initialized = false;
 
@@ -49,8 +65,13 @@ public class SharedMariaDB {
                 .withUsername("airavata")
                 .withPassword("airavata")
                 .withCommand("--lower-case-table-names=1", "--sql-mode=")
-                .withInitScript("db/migration/airavata/V1__Baseline_schema.sql");
+                .withInitScript(MIGRATIONS + "V1__Baseline_schema.sql");
         INSTANCE.start();
+        try (JdbcDatabaseDelegate db = new JdbcDatabaseDelegate(INSTANCE, "")) {
+            for (String upgrade : UPGRADES) {
+                ScriptUtils.runInitScript(db, MIGRATIONS + upgrade);
+            }
+        }
 
         // Set system properties (still used by ServerSettings in some tests)
         System.setProperty("airavata.jdbc.driver", INSTANCE.getDriverClassName());
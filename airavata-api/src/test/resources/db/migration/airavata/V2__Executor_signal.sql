@@ -0,0 +1,28 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Cross-JVM wake-up rows of the DB executor: one row per executor JVM, bumped when it makes
+ * work runnable and watched by the other executors.
+ */
+
+CREATE TABLE IF NOT EXISTS `executor_signal` (
+  `SIGNAL_ID` varchar(255) NOT NULL,
+  `SEQ` bigint(20) NOT NULL,
+  `UPDATED_TIME` datetime(6) DEFAULT NULL,
+  PRIMARY KEY (`SIGNAL_ID`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_uca1400_ai_ci;
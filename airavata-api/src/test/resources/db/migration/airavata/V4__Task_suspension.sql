@@ -0,0 +1,33 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Tasks waiting for an external event (a job status change, a timer) without holding an executor
+ * worker; the executor resumes each one when it is woken or its RESUME_AT falls due. A resumed
+ * task keeps its row, with CLAIMED_TIME set, as its lease until it suspends again or finishes.
+ */
+
+CREATE TABLE IF NOT EXISTS `task_suspension` (
+  `TASK_ID` varchar(255) NOT NULL,
+  `PROCESS_ID` varchar(255) NOT NULL,
+  `RESUME_AT` datetime(6) NOT NULL,
+  `SUSPENDED_TIME` datetime(6) DEFAULT NULL,
+  `REASON` longtext DEFAULT NULL,
+  `CLAIMED_TIME` datetime(6) DEFAULT NULL,
+  PRIMARY KEY (`TASK_ID`),
+  KEY `IDX_TASK_SUSPENSION_PROCESS` (`PROCESS_ID`,`RESUME_AT`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_uca1400_ai_ci;
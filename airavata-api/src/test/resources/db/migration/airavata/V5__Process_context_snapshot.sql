@@ -0,0 +1,29 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * The registry lookups (profiles, resource and application descriptions) shared by the tasks of
+ * one process, stored once per process as a serialized ProcessContextSnapshot.
+ */
+
+CREATE TABLE IF NOT EXISTS `process_context_snapshot` (
+  `PROCESS_ID` varchar(255) NOT NULL,
+  `FORMAT_VERSION` int(11) NOT NULL,
+  `SNAPSHOT` longblob NOT NULL,
+  `UPDATED_TIME` datetime(6) DEFAULT NULL,
+  PRIMARY KEY (`PROCESS_ID`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_uca1400_ai_ci;
@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * GROUP_MEMBERSHIP_CLOSURE: for every group a user or group belongs to, directly or through nested
+ * groups, the number of distinct membership paths of each depth leading there. Maintained with
+ * GROUP_MEMBERSHIP by GroupMembershipClosureRepository and seeded here from the existing
+ * memberships. Paths never visit a group twice, so a membership cycle left by older data adds
+ * only its direct edges.
+ */
+
+CREATE TABLE IF NOT EXISTS `group_membership_closure` (
+  `DOMAIN_ID` varchar(255) NOT NULL,
+  `DESCENDANT_ID` varchar(255) NOT NULL,
+  `ANCESTOR_ID` varchar(255) NOT NULL,
+  `DEPTH` int(11) NOT NULL,
+  `PATH_COUNT` bigint(20) NOT NULL,
+  PRIMARY KEY (`DOMAIN_ID`,`DESCENDANT_ID`,`ANCESTOR_ID`,`DEPTH`),
+  KEY `IDX_GROUP_MEMBERSHIP_CLOSURE_ANCESTOR` (`DOMAIN_ID`,`ANCESTOR_ID`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_uca1400_ai_ci;
+
+INSERT INTO `group_membership_closure` (`DOMAIN_ID`, `DESCENDANT_ID`, `ANCESTOR_ID`, `DEPTH`, `PATH_COUNT`)
+SELECT `DOMAIN_ID`, `DESCENDANT_ID`, `ANCESTOR_ID`, `DEPTH`, COUNT(*)
+FROM (
+  WITH RECURSIVE `paths` (`DOMAIN_ID`, `DESCENDANT_ID`, `ANCESTOR_ID`, `DEPTH`, `VISITED`) AS (
+    SELECT m.`DOMAIN_ID`, m.`CHILD_ID`, m.`PARENT_ID`, 1,
+      CAST(CONCAT('/', m.`CHILD_ID`, '/', m.`PARENT_ID`, '/') AS CHAR(8192))
+    FROM `group_membership` m
+    WHERE m.`PARENT_ID` <> m.`CHILD_ID`
+    UNION ALL
+    SELECT p.`DOMAIN_ID`, p.`DESCENDANT_ID`, m.`PARENT_ID`, p.`DEPTH` + 1,
+      CONCAT(p.`VISITED`, m.`PARENT_ID`, '/')
+    FROM `paths` p
+    JOIN `group_membership` m ON m.`DOMAIN_ID` = p.`DOMAIN_ID` AND m.`CHILD_ID` = p.`ANCESTOR_ID`
+    WHERE LOCATE(CONCAT('/', m.`PARENT_ID`, '/'), p.`VISITED`) = 0
+  )
+  SELECT `DOMAIN_ID`, `DESCENDANT_ID`, `ANCESTOR_ID`, `DEPTH` FROM `paths`
+) seeded
+WHERE NOT EXISTS (
+  SELECT 1 FROM `group_membership_closure` c WHERE c.`DOMAIN_ID` = seeded.`DOMAIN_ID`)
+GROUP BY `DOMAIN_ID`, `DESCENDANT_ID`, `ANCESTOR_ID`, `DEPTH`;
@@ -0,0 +1,24 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Indexes behind the sharing cascade: the children of an entity are found by parent, and the
+ * grants a parent passed down to them by the parent they were inherited from.
+ */
+
+CREATE INDEX IF NOT EXISTS `IDX_ENTITY_PARENT` ON `entity` (`DOMAIN_ID`,`PARENT_ENTITY_ID`);
+CREATE INDEX IF NOT EXISTS `IDX_SHARING_INHERITED_PARENT` ON `sharing` (`DOMAIN_ID`,`INHERITED_PARENT_ID`,`PERMISSION_TYPE_ID`);
@@ -29,7 +29,8 @@ import org.springframework.stereotype.Component;
 @ConfigurationProperties(prefix = "airavata.storage")
 public class StorageConfiguration {
 
-    @Bean
+    // Close the cached adaptors and their SSH sessions when the context shuts down
+    @Bean(destroyMethod = "shutdown")
     public AdaptorSupport adaptorSupport() {
         return AdaptorSupportImpl.getInstance();
     }
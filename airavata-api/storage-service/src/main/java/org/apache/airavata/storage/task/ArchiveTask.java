@@ -22,6 +22,8 @@ package org.apache.airavata.storage.task;
 import java.io.File;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.List;
+import java.util.concurrent.Callable;
 import org.apache.airavata.config.ServerSettings;
 import org.apache.airavata.interfaces.AgentAdaptor;
 import org.apache.airavata.interfaces.AgentException;
@@ -31,11 +33,11 @@ import org.apache.airavata.interfaces.StorageResourceAdaptor;
 import org.apache.airavata.model.status.proto.ProcessState;
 import org.apache.airavata.model.task.proto.DataStagingTaskModel;
 import org.apache.airavata.server.CountMonitor;
+import org.apache.airavata.task.DbTaskResult;
 import org.apache.airavata.task.TaskContext;
 import org.apache.airavata.task.TaskDef;
 import org.apache.airavata.task.TaskHelper;
 import org.apache.airavata.task.TaskOnFailException;
-import org.apache.airavata.task.DbTaskResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -116,8 +118,13 @@ public class ArchiveTask extends DataStagingTask {
                         Long.parseLong(ServerSettings.getSetting("max.archive.size", MAX_ARCHIVE_SIZE + ""));
 
                 if (fileMetadata.getSize() < maxArchiveSize) {
-                    boolean fileTransferred = transferFileToStorage(
-                            tarCreationAbsPath, destFilePath, archiveFileName, adaptor, storageResourceAdaptor);
+                    String tarPath = tarCreationAbsPath;
+                    String destPath = destFilePath;
+                    boolean fileTransferred = stageAll(
+                                    stagingHosts(false),
+                                    List.<Callable<Boolean>>of(() -> transferFileToStorage(
+                                            tarPath, destPath, archiveFileName, adaptor, storageResourceAdaptor)))
+                            .get(0);
                     if (!fileTransferred) {
                         logger.error("Failed to transfer created archive file " + tarCreationAbsPath);
                         throw new TaskOnFailException(
@@ -0,0 +1,216 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.storage.task;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.airavata.config.ServerSettings;
+import org.apache.airavata.task.KeyedLimiter;
+import org.apache.airavata.task.TaskOnFailException;
+import org.apache.airavata.task.TaskThreads;
+
+/**
+ * Process-wide scheduler for data staging transfers. A staging task hands it all of its files at once;
+ * they run concurrently, with at most {@code data.staging.max.transfers.per.host} streams touching
+ * any one compute or storage resource at a time. Large files are further split by
+ * {@link #runRanges} into up to {@code data.staging.ranged.streams} parallel byte ranges; every range
+ * stream beyond the first counts against the same per-host limit.
+ *
+ * <p>A file transfer takes its host slots before it is handed a thread, so transfers still waiting
+ * for a slot hold no thread and both pools only grow with the streams actually running. File
+ * transfers and range transfers run on separate pools, so a file transfer waiting on its ranges
+ * never starves the pool its ranges need. In virtual execution mode both run on virtual threads
+ * (see {@link TaskThreads}).
+ */
+public final class DataStagingEngine {
+
+    private static final class Holder {
+        private static final DataStagingEngine INSTANCE = new DataStagingEngine(
+                ServerSettings.getDataStagingMaxTransfersPerHost(), ServerSettings.getDataStagingRangedStreams());
+    }
+
+    /** One byte range of a ranged transfer. */
+    public interface RangeTransfer {
+        void run(long offset, long length) throws Exception;
+    }
+
+    private final int rangedStreams;
+    private final KeyedLimiter hostLimiter;
+    private final ExecutorService fileExecutor = TaskThreads.newExecutor("data-staging-file", 0);
+    private final ExecutorService rangeExecutor = TaskThreads.newExecutor("data-staging-range", 0);
+    // Hosts whose slot the file transfer running on this thread holds (set by runAll)
+    private final ThreadLocal<Collection<String>> heldHosts = new ThreadLocal<>();
+
+    DataStagingEngine(int maxTransfersPerHost, int rangedStreams) {
+        this.hostLimiter = new KeyedLimiter(maxTransfersPerHost);
+        this.rangedStreams = Math.max(1, rangedStreams);
+    }
+
+    public static DataStagingEngine getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Run every transfer concurrently and return their results in submission order. Each transfer
+     * holds a slot on every one of {@code hosts} while it runs. The first failure cancels the
+     * transfers still running or queued and is rethrown.
+     */
+    public <R> List<R> runAll(Collection<String> hosts, List<Callable<R>> transfers) throws TaskOnFailException {
+        BlockingQueue<Future<R>> finished = new LinkedBlockingQueue<>();
+        List<Future<R>> futures = new ArrayList<>();
+        try {
+            int done = 0;
+            for (Callable<R> transfer : transfers) {
+                // surface a failure before waiting for the next slot
+                Future<R> future;
+                while ((future = finished.poll()) != null) {
+                    future.get();
+                    done++;
+                }
+                hostLimiter.acquire(hosts);
+                HostTransfer<R> task = new HostTransfer<>(hosts, transfer, finished);
+                futures.add(task);
+                try {
+                    fileExecutor.execute(task);
+                } catch (RuntimeException e) {
+                    task.cancel(false);
+                    throw e;
+                }
+            }
+            for (; done < futures.size(); done++) {
+                finished.take().get();
+            }
+            List<R> results = new ArrayList<>();
+            for (Future<R> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            throw asTaskFailure(e.getCause(), "Data staging transfer failed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TaskOnFailException("Interrupted while waiting for data staging transfers", false, e);
+        } finally {
+            futures.forEach(f -> f.cancel(true));
+        }
+    }
+
+    /**
+     * Split {@code [0, size)} into contiguous ranges and run them in parallel, returning when all of
+     * them have completed. The calling file transfer's own slot carries the first stream; each further
+     * stream (up to {@code data.staging.ranged.streams} in all) needs a free slot on every host the
+     * transfer touches. Slots are only taken if free right now, so ranges never wait on file transfers
+     * that are themselves waiting. Outside {@link #runAll} the transfer holds no slot and runs as a
+     * single stream.
+     */
+    public void runRanges(long size, RangeTransfer range) throws TaskOnFailException {
+        Collection<String> hosts = heldHosts.get();
+        int extra = hosts == null ? 0 : hostLimiter.tryAcquire(hosts, rangedStreams - 1);
+        try {
+            runRanges(size, 1 + extra, range);
+        } finally {
+            if (extra > 0) {
+                hostLimiter.release(hosts, extra);
+            }
+        }
+    }
+
+    private void runRanges(long size, int streams, RangeTransfer range) throws TaskOnFailException {
+        long rangeSize = (size + streams - 1) / streams;
+        List<Future<?>> futures = new ArrayList<>();
+        for (long offset = 0; offset < size; offset += rangeSize) {
+            long start = offset;
+            long length = Math.min(rangeSize, size - offset);
+            futures.add(rangeExecutor.submit(() -> {
+                range.run(start, length);
+                return null;
+            }));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw asTaskFailure(e.getCause(), "Ranged transfer failed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TaskOnFailException("Interrupted while waiting for ranged transfer", false, e);
+        } finally {
+            futures.forEach(f -> f.cancel(true));
+        }
+    }
+
+    /**
+     * A file transfer that already holds its host slots. It hands them back when it ends, or when it
+     * is cancelled before it ever ran, and then queues itself on {@code finished}.
+     */
+    private final class HostTransfer<R> extends FutureTask<R> {
+        private final Collection<String> hosts;
+        private final AtomicBoolean started;
+        private final BlockingQueue<Future<R>> finished;
+
+        HostTransfer(Collection<String> hosts, Callable<R> transfer, BlockingQueue<Future<R>> finished) {
+            this(hosts, transfer, new AtomicBoolean(), finished);
+        }
+
+        private HostTransfer(
+                Collection<String> hosts,
+                Callable<R> transfer,
+                AtomicBoolean started,
+                BlockingQueue<Future<R>> finished) {
+            super(() -> {
+                if (!started.compareAndSet(false, true)) {
+                    return null; // cancelled first; done() has handed the slots back
+                }
+                heldHosts.set(hosts);
+                try {
+                    return transfer.call();
+                } finally {
+                    heldHosts.remove();
+                    hostLimiter.release(hosts, 1);
+                }
+            });
+            this.hosts = hosts;
+            this.started = started;
+            this.finished = finished;
+        }
+
+        @Override
+        protected void done() {
+            if (started.compareAndSet(false, true)) {
+                hostLimiter.release(hosts, 1);
+            }
+            finished.add(this);
+        }
+    }
+
+    private static TaskOnFailException asTaskFailure(Throwable cause, String message) {
+        return cause instanceof TaskOnFailException tofe ? tofe : new TaskOnFailException(message, false, cause);
+    }
+}
@@ -23,9 +23,12 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.RandomAccessFile;
+import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 import org.apache.airavata.config.ServerSettings;
 import org.apache.airavata.interfaces.AgentAdaptor;
 import org.apache.airavata.interfaces.AgentException;
@@ -40,6 +43,7 @@ import org.apache.airavata.storage.util.VirtualStreamProducer;
 import org.apache.airavata.task.AdaptorSupport;
 import org.apache.airavata.task.AiravataTask;
 import org.apache.airavata.task.TaskOnFailException;
+import org.apache.airavata.task.TaskThreads;
 import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -49,9 +53,20 @@ public abstract class DataStagingTask extends AiravataTask {
 
     private static final Logger logger = LoggerFactory.getLogger(DataStagingTask.class);
     private static final CountMonitor transferSizeTaskCounter = new CountMonitor("transfer_data_size_counter");
+    // Staging throughput is rate(data_staging_bytes_counter) / rate(data_staging_time_ms_counter)
+    private static final CountMonitor stagedBytesCounter = new CountMonitor("data_staging_bytes_counter");
+    private static final CountMonitor stagingTimeCounter = new CountMonitor("data_staging_time_ms_counter");
 
+    // The in-bound half of each pass-through transfer runs here, the out-bound half on the transfer's
+    // own thread. The per-host limit of DataStagingEngine bounds how many run at once.
     private static final ExecutorService PASS_THROUGH_EXECUTOR =
-            new ThreadPoolExecutor(10, 60, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+            TaskThreads.newExecutor("data-staging-pass-through", 0);
+
+    // In-memory ring between the in-bound download and the out-bound upload of a pass-through transfer
+    private static final int PASS_THROUGH_BUFFER_SIZE = 1024 * 1024;
+
+    // bytes moved by this task's transfers, for the aggregate throughput recorded by stageAll
+    private final LongAdder stagedBytes = new LongAdder();
 
     @SuppressWarnings("WeakerAccess")
     protected DataStagingTaskModel getDataStagingTaskModel() throws TaskOnFailException {
@@ -232,10 +247,48 @@ public abstract class DataStagingTask extends AiravataTask {
         return inputString;
     }
 
-    public void naiveTransfer(
+    /**
+     * Run the transfers of this task's files concurrently through the shared {@link DataStagingEngine},
+     * bounded per compute/storage resource, and record the aggregate throughput.
+     */
+    protected <R> List<R> stageAll(List<String> hosts, List<Callable<R>> transfers) throws TaskOnFailException {
+        long bytesBefore = stagedBytes.sum();
+        long start = System.nanoTime();
+        List<R> results = DataStagingEngine.getInstance().runAll(hosts, transfers);
+        long bytes = stagedBytes.sum() - bytesBefore;
+        long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        stagedBytesCounter.inc(bytes);
+        stagingTimeCounter.inc(elapsedMs);
+        logger.info(
+                "Staged {} file(s), {} bytes in {} ms ({} MB/s) for task {}",
+                transfers.size(),
+                bytes,
+                elapsedMs,
+                String.format("%.1f", bytes / 1e3 / elapsedMs),
+                getTaskId());
+        return results;
+    }
+
+    /** Per-resource concurrency keys for {@link #stageAll}: the compute resource and the input or output storage. */
+    protected List<String> stagingHosts(boolean input) throws TaskOnFailException {
+        try {
+            String storageId = input
+                    ? getTaskContext().getInputStorageResourceId()
+                    : getTaskContext().getOutputStorageResourceId();
+            return List.of("compute:" + getTaskContext().getComputeResourceId(), "storage:" + storageId);
+        } catch (Exception e) {
+            throw new TaskOnFailException("Failed to resolve staging resources for task " + getTaskId(), false, e);
+        }
+    }
+
+    public long naiveTransfer(
             AgentAdaptor srcAdaptor, String sourceFile, AgentAdaptor destAdaptor, String destFile, String tempFile)
             throws TaskOnFailException {
 
+        // Ranged transfers go over SFTP, which takes literal paths, so keep the unescaped ones
+        String rawSourceFile = sourceFile;
+        String rawDestFile = destFile;
+
         // Only shell-escape paths handed to adaptors that interpret them through a shell (SCP).
         // StorageResourceAdaptor (SSHJStorageAdaptor) does literal sftp.get/sftp.put with no shell,
         // so escaping there turns paths containing ( ) [ ] { } $ ^ ? & % into "No such file".
@@ -248,6 +301,14 @@ public abstract class DataStagingTask extends AiravataTask {
 
         logger.info("Using naive transfer to transfer " + sourceFile + " to " + destFile);
         try {
+            long rangedSize = rangedTransferSize(srcAdaptor, rawSourceFile, destAdaptor);
+            if (rangedSize > 0) {
+                rangedTransfer(srcAdaptor, rawSourceFile, destAdaptor, rawDestFile, tempFile, rangedSize);
+                transferSizeTaskCounter.inc(rangedSize);
+                stagedBytes.add(rangedSize);
+                return rangedSize;
+            }
+
             try {
                 logger.info("Downloading file " + sourceFile + " to local temp file " + tempFile);
                 srcAdaptor.downloadFile(sourceFile, tempFile);
@@ -261,7 +322,8 @@ public abstract class DataStagingTask extends AiravataTask {
                 throw new TaskOnFailException("Local file does not exist at " + tempFile, false, null);
             }
 
-            transferSizeTaskCounter.inc(localFile.length());
+            long size = localFile.length();
+            transferSizeTaskCounter.inc(size);
 
             try {
                 logger.info("Uploading file form local temp file " + tempFile + " to " + destFile);
@@ -270,13 +332,54 @@ public abstract class DataStagingTask extends AiravataTask {
                 throw new TaskOnFailException(
                         "Failed uploading file to " + destFile + " from local path " + tempFile, false, e);
             }
+            stagedBytes.add(size);
+            return size;
         } finally {
             logger.info("Deleting temporary file " + tempFile);
             deleteTempFile(tempFile);
         }
     }
 
-    public static void passThroughTransfer(
+    /** Size of the source file if it should move as parallel ranges, otherwise -1. */
+    private long rangedTransferSize(AgentAdaptor srcAdaptor, String sourceFile, AgentAdaptor destAdaptor) {
+        if (!srcAdaptor.supportsRangedTransfer() || !destAdaptor.supportsRangedTransfer()) {
+            return -1;
+        }
+        try {
+            long size = srcAdaptor.getFileMetadata(sourceFile).getSize();
+            return size >= ServerSettings.getDataStagingRangedThreshold() ? size : -1;
+        } catch (AgentException e) {
+            logger.warn("Could not stat {} for a ranged transfer; using a single stream", sourceFile, e);
+            return -1;
+        }
+    }
+
+    /** Download into the local temp file and upload from it, each as parallel SFTP byte ranges. */
+    private void rangedTransfer(
+            AgentAdaptor srcAdaptor,
+            String sourceFile,
+            AgentAdaptor destAdaptor,
+            String destFile,
+            String tempFile,
+            long size)
+            throws TaskOnFailException {
+        logger.info("Transferring {} ({} bytes) to {} as parallel ranges", sourceFile, size, destFile);
+        DataStagingEngine engine = DataStagingEngine.getInstance();
+        try (RandomAccessFile local = new RandomAccessFile(tempFile, "rw")) {
+            local.setLength(size);
+        } catch (IOException e) {
+            throw new TaskOnFailException("Failed to allocate local temp file " + tempFile, false, e);
+        }
+        engine.runRanges(size, (offset, length) -> srcAdaptor.downloadFileRange(sourceFile, tempFile, offset, length));
+        try {
+            destAdaptor.prepareRangedUpload(destFile);
+        } catch (AgentException e) {
+            throw new TaskOnFailException("Failed to create " + destFile + " for a ranged upload", false, e);
+        }
+        engine.runRanges(size, (offset, length) -> destAdaptor.uploadFileRange(tempFile, destFile, offset, length));
+    }
+
+    public static long passThroughTransfer(
             AgentAdaptor srcAdaptor, String sourceFile, AgentAdaptor destAdaptor, String destFile)
             throws TaskOnFailException {
         logger.info("Using pass through transfer to transfer " + sourceFile + " to " + destFile);
@@ -290,10 +393,12 @@ public abstract class DataStagingTask extends AiravataTask {
 
         final FileMetadata fileMetadata = tempMetadata;
 
-        VirtualStreamProducer streamProducer = new VirtualStreamProducer(1024, fileMetadata.getSize());
+        VirtualStreamProducer streamProducer =
+                new VirtualStreamProducer(PASS_THROUGH_BUFFER_SIZE, fileMetadata.getSize());
 
         OutputStream os = streamProducer.getOutputStream();
         InputStream is = streamProducer.getInputStream();
+        AtomicReference<TransferResult> firstFailure = new AtomicReference<>();
 
         Callable<TransferResult> inCallable = () -> {
             TransferResult result = new TransferResult();
@@ -307,9 +412,11 @@ public abstract class DataStagingTask extends AiravataTask {
                 result.setMessage("Successfully completed the transfer");
 
             } catch (Exception e) {
+                streamProducer.abort(e);
                 result.setMessage("In-bound transfer failed for file " + sourceFile + ". Reason : " + e.getMessage());
                 result.setTransferStatus(TransferResult.TransferStatus.FAILED);
                 result.setError(e);
+                firstFailure.compareAndSet(null, result);
             }
             return result;
         };
@@ -326,47 +433,33 @@ public abstract class DataStagingTask extends AiravataTask {
                 result.setMessage("Successfully completed the transfer");
 
             } catch (Exception e) {
+                streamProducer.abort(e);
                 result.setMessage("Out-bound transfer failed for file " + destFile + ". Reason : " + e.getMessage());
                 result.setTransferStatus(TransferResult.TransferStatus.FAILED);
                 result.setError(e);
+                firstFailure.compareAndSet(null, result);
             }
 
             return result;
         };
 
-        CompletionService<TransferResult> completionService =
-                new ExecutorCompletionService<TransferResult>(PASS_THROUGH_EXECUTOR);
-
-        Map<String, Future<TransferResult>> unResolvedFutures = new HashMap<>();
-
-        unResolvedFutures.put("In", completionService.submit(inCallable));
-        unResolvedFutures.put("Out", completionService.submit(outCallable));
-
-        int completed = 0;
-        int failed = 0;
-        TransferResult failedResult = null;
-
+        // The out-bound half runs on the calling thread, so a transfer never waits for a thread for
+        // its second half while its first one holds the ring.
+        Future<TransferResult> inFuture = PASS_THROUGH_EXECUTOR.submit(inCallable);
         try {
-            while (completed < 2 && failed == 0) {
-                try {
-                    Future<TransferResult> res = completionService.take();
-                    if (res.get().getTransferStatus() == TransferResult.TransferStatus.COMPLETED) {
-                        completed++;
-                        logger.debug("Transfer " + res.get().getTransferId() + " completed");
-                    } else {
-                        failed++;
-                        failedResult = res.get();
-                        logger.warn("Transfer " + res.get().getTransferId() + " failed", failedResult.getError());
-                    }
-                    unResolvedFutures.remove(res.get().getTransferId());
-
-                } catch (Exception e) {
-                    logger.error("Error occurred while monitoring transfers", e);
-                    throw new TaskOnFailException("Error occurred while monitoring transfers", false, e);
+            try {
+                outCallable.call();
+                if (firstFailure.get() == null) {
+                    inFuture.get();
                 }
+            } catch (Exception e) {
+                logger.error("Error occurred while monitoring transfers", e);
+                throw new TaskOnFailException("Error occurred while monitoring transfers", false, e);
             }
 
-            if (failed > 0) {
+            // A failed half aborts the ring, which fails the other half too; report the cause
+            TransferResult failedResult = firstFailure.get();
+            if (failedResult != null) {
                 logger.error(
                         "Transfer from " + sourceFile + " to " + destFile + " failed. " + failedResult.getMessage(),
                         failedResult.getError());
@@ -374,22 +467,15 @@ public abstract class DataStagingTask extends AiravataTask {
                         "Pass through file transfer failed from " + sourceFile + " to " + destFile,
                         false,
                         failedResult.getError());
-            } else {
-                logger.info("Transfer from " + sourceFile + " to " + destFile + " completed");
             }
-
+            logger.info("Transfer from " + sourceFile + " to " + destFile + " completed");
+            transferSizeTaskCounter.inc(fileMetadata.getSize());
+            return fileMetadata.getSize();
         } finally {
-            // Cleaning up unresolved transfers
-            if (unResolvedFutures.size() > 0) {
-                unResolvedFutures.forEach((id, future) -> {
-                    try {
-                        logger.warn("Cancelling transfer " + id);
-                        future.cancel(true);
-                    } catch (Exception e) {
-                        // Ignore
-                        logger.warn(e.getMessage());
-                    }
-                });
+            // Cleaning up an unresolved in-bound transfer
+            if (!inFuture.isDone()) {
+                logger.warn("Cancelling transfer In");
+                inFuture.cancel(true);
             }
         }
     }
@@ -411,11 +497,11 @@ public abstract class DataStagingTask extends AiravataTask {
         }
 
         if (ServerSettings.isSteamingEnabled()) {
-            passThroughTransfer(storageAdaptor, sourcePath, computeAdaptor, destPath);
+            stagedBytes.add(passThroughTransfer(storageAdaptor, sourcePath, computeAdaptor, destPath));
         } else {
             String sourceFileName =
                     sourcePath.substring(sourcePath.lastIndexOf(File.separator) + 1, sourcePath.length());
-            String tempPath = getLocalDataPath(sourceFileName);
+            String tempPath = getLocalDataPath(UUID.randomUUID() + "-" + sourceFileName);
             naiveTransfer(storageAdaptor, sourcePath, computeAdaptor, destPath, tempPath);
         }
     }
@@ -470,9 +556,9 @@ public abstract class DataStagingTask extends AiravataTask {
         }
 
         if (ServerSettings.isSteamingEnabled()) {
-            passThroughTransfer(adaptor, sourcePath, storageResourceAdaptor, destPath);
+            stagedBytes.add(passThroughTransfer(adaptor, sourcePath, storageResourceAdaptor, destPath));
         } else {
-            String tempPath = getLocalDataPath(fileName);
+            String tempPath = getLocalDataPath(UUID.randomUUID() + "-" + fileName);
             naiveTransfer(adaptor, sourcePath, storageResourceAdaptor, destPath, tempPath);
         }
         return true;
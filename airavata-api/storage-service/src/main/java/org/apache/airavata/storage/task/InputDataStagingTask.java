@@ -21,6 +21,9 @@ package org.apache.airavata.storage.task;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
 import org.apache.airavata.interfaces.AgentAdaptor;
 import org.apache.airavata.interfaces.StorageResourceAdaptor;
 import org.apache.airavata.model.application.io.proto.DataType;
@@ -28,11 +31,11 @@ import org.apache.airavata.model.application.io.proto.InputDataObjectType;
 import org.apache.airavata.model.status.proto.ProcessState;
 import org.apache.airavata.model.task.proto.DataStagingTaskModel;
 import org.apache.airavata.server.CountMonitor;
+import org.apache.airavata.task.DbTaskResult;
 import org.apache.airavata.task.TaskContext;
 import org.apache.airavata.task.TaskDef;
 import org.apache.airavata.task.TaskHelper;
 import org.apache.airavata.task.TaskOnFailException;
-import org.apache.airavata.task.DbTaskResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -87,15 +90,21 @@ public class InputDataStagingTask extends DataStagingTask {
                 // Fetch and validate compute resource adaptor
                 AgentAdaptor adaptor = getComputeResourceAdaptor(taskHelper.getAdaptorSupport());
 
+                // Files of a URI collection are independent, so they are staged concurrently
+                List<Callable<Void>> transfers = new ArrayList<>();
                 for (String url : sourceUrls) {
                     URI sourceURI = new URI(url);
                     URI destinationURI = new URI(dataStagingTaskModel.getDestination());
 
                     logger.info("Source file " + sourceURI.getPath() + ", destination uri " + destinationURI.getPath()
                             + " for task " + getTaskId());
-                    transferFileToComputeResource(
-                            sourceURI.getPath(), destinationURI.getPath(), adaptor, storageResourceAdaptor);
+                    transfers.add(() -> {
+                        transferFileToComputeResource(
+                                sourceURI.getPath(), destinationURI.getPath(), adaptor, storageResourceAdaptor);
+                        return null;
+                    });
                 }
+                stageAll(stagingHosts(true), transfers);
 
             } catch (URISyntaxException e) {
                 throw new TaskOnFailException(
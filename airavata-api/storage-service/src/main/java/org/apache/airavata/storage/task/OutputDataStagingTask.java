@@ -24,6 +24,7 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 import org.apache.airavata.interfaces.AgentAdaptor;
 import org.apache.airavata.interfaces.AgentException;
@@ -37,11 +38,11 @@ import org.apache.airavata.model.application.io.proto.OutputDataObjectType;
 import org.apache.airavata.model.status.proto.ProcessState;
 import org.apache.airavata.model.task.proto.DataStagingTaskModel;
 import org.apache.airavata.server.CountMonitor;
+import org.apache.airavata.task.DbTaskResult;
 import org.apache.airavata.task.TaskContext;
 import org.apache.airavata.task.TaskDef;
 import org.apache.airavata.task.TaskHelper;
 import org.apache.airavata.task.TaskOnFailException;
-import org.apache.airavata.task.DbTaskResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -155,39 +156,46 @@ public class OutputDataStagingTask extends DataStagingTask {
                             "Failed to fetch the file list from extension " + sourceFileName, false, e);
                 }
 
+                // Matched files are independent, so they are staged concurrently and collected in match order
+                List<URI> candidateDestinationURIs = new ArrayList<>();
+                List<String> candidateSourcePaths = new ArrayList<>();
+                List<Callable<Boolean>> transfers = new ArrayList<>();
                 for (String subFilePath : filePaths) {
                     if (subFilePath == null || "".equals(subFilePath)) {
                         logger.warn("Ignoring file transfer as filename is empty or null");
                         continue;
                     }
-                    sourceFileName = subFilePath;
+                    String matchedFileName = subFilePath;
+                    URI matchedDestinationURI;
                     if (destParentPath.endsWith(File.separator)) {
-                        destinationURI = new URI(destParentPath + subFilePath);
+                        matchedDestinationURI = new URI(destParentPath + subFilePath);
                     } else {
-                        destinationURI = new URI(destParentPath + File.separator + subFilePath);
+                        matchedDestinationURI = new URI(destParentPath + File.separator + subFilePath);
                     }
 
                     URI newSourceURI = new URI((sourceParentPath.endsWith(File.separator)
                                     ? sourceParentPath
                                     : sourceParentPath + File.separator)
-                            + sourceFileName);
+                            + matchedFileName);
+
+                    candidateDestinationURIs.add(matchedDestinationURI);
+                    candidateSourcePaths.add(newSourceURI.getPath());
+                    transfers.add(() -> {
+                        logger.info("Transferring file " + matchedFileName);
+                        boolean transferred = transferFileToStorage(
+                                newSourceURI.getPath(),
+                                matchedDestinationURI.getPath(),
+                                matchedFileName,
+                                adaptor,
+                                storageResourceAdaptor);
+                        if (!transferred) {
+                            logger.warn("File {} did not transfer", matchedFileName);
+                        }
+                        return transferred;
+                    });
 
                     // Wildcard support is only enabled for output data staging
                     assert processOutput != null;
-                    logger.info("Transferring file " + sourceFileName);
-                    boolean transferred = transferFileToStorage(
-                            newSourceURI.getPath(),
-                            destinationURI.getPath(),
-                            sourceFileName,
-                            adaptor,
-                            storageResourceAdaptor);
-                    if (transferred) {
-                        destinationURIs.add(destinationURI);
-                        successfullyTransferredSourcePaths.add(newSourceURI.getPath());
-                    } else {
-                        logger.warn("File {} did not transfer", sourceFileName);
-                    }
-
                     if (processOutput.getType() == DataType.URI) {
                         if (filePaths.size() > 1) {
                             logger.warn(
@@ -197,6 +205,14 @@ public class OutputDataStagingTask extends DataStagingTask {
                         break;
                     }
                 }
+
+                List<Boolean> transferred = stageAll(stagingHosts(false), transfers);
+                for (int i = 0; i < transferred.size(); i++) {
+                    if (transferred.get(i)) {
+                        destinationURIs.add(candidateDestinationURIs.get(i));
+                        successfullyTransferredSourcePaths.add(candidateSourcePaths.get(i));
+                    }
+                }
                 if (!destinationURIs.isEmpty()) {
                     if (processOutput.getType() == DataType.URI) {
                         saveExperimentOutput(
@@ -252,8 +268,14 @@ public class OutputDataStagingTask extends DataStagingTask {
             } else {
                 // Uploading output file to the storage resource
                 assert processOutput != null;
-                boolean transferred = transferFileToStorage(
-                        sourceURI.getPath(), destinationURI.getPath(), sourceFileName, adaptor, storageResourceAdaptor);
+                String sourcePath = sourceURI.getPath();
+                String destPath = destinationURI.getPath();
+                String fileName = sourceFileName;
+                boolean transferred = stageAll(
+                                stagingHosts(false),
+                                List.<Callable<Boolean>>of(() -> transferFileToStorage(
+                                        sourcePath, destPath, fileName, adaptor, storageResourceAdaptor)))
+                        .get(0);
                 if (transferred) {
                     saveExperimentOutput(processOutput.getName(), escapeSpecialCharacters(destinationURI.toString()));
 
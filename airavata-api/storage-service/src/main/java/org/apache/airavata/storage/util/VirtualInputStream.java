@@ -21,74 +21,38 @@ package org.apache.airavata.storage.util;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.TimeUnit;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import java.util.Objects;
 
 public class VirtualInputStream extends InputStream {
 
-    private static final Logger log = LoggerFactory.getLogger(VirtualInputStream.class);
+    private final VirtualStreamBuffer buffer;
+    private final byte[] single = new byte[1];
 
-    private BlockingQueue<Integer> queue;
-    private long byteCount;
-    private long streamLength;
-
-    public VirtualInputStream(BlockingQueue<Integer> queue, long streamLength) {
-        this.queue = queue;
-        this.streamLength = streamLength;
+    VirtualInputStream(VirtualStreamBuffer buffer) {
+        this.buffer = buffer;
     }
 
-    public int read(byte b[], int off, int len) throws IOException {
-        if (b == null) {
-            throw new NullPointerException();
-        } else if (off < 0 || len < 0 || len > b.length - off) {
-            throw new IndexOutOfBoundsException();
-        } else if (len == 0) {
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        if (len == 0) {
             return 0;
         }
+        return buffer.read(b, off, len);
+    }
 
-        if (byteCount == streamLength) {
-            return -1;
-        }
-
-        int c = read();
-
-        b[off] = (byte) c;
+    @Override
+    public int read() throws IOException {
+        return buffer.read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+    }
 
-        int i = 1;
-        try {
-            for (; i < len; i++) {
-                if (byteCount == streamLength) {
-                    break;
-                }
-                c = read();
-                b[off + i] = (byte) c;
-            }
-        } catch (IOException ee) {
-            // A mid-stream failure (queue timeout / interrupt in read()) must not be masked as a
-            // clean short read — log it so a truncated/stalled upload is traceable.
-            log.warn(
-                    "Partial read of {} of {} bytes from virtual storage stream; producer side may have"
-                            + " stalled or failed",
-                    i,
-                    len,
-                    ee);
-        }
-        return i;
+    @Override
+    public int available() {
+        return buffer.available();
     }
 
     @Override
-    public int read() throws IOException {
-        try {
-            Integer cont = queue.poll(10, TimeUnit.SECONDS);
-            if (cont == null) {
-                throw new IOException("Timed out reading from the queue");
-            }
-            byteCount++;
-            return cont;
-        } catch (InterruptedException e) {
-            throw new IOException("Read was interrupted", e);
-        }
+    public void close() {
+        buffer.closeReader();
     }
 }
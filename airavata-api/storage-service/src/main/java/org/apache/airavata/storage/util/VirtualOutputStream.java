@@ -21,34 +21,31 @@ package org.apache.airavata.storage.util;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.TimeUnit;
+import java.util.Objects;
 
 public class VirtualOutputStream extends OutputStream {
 
-    private BlockingQueue<Integer> queue;
-    private long byteCount;
-    private long streamLength;
+    private final VirtualStreamBuffer buffer;
+    private final byte[] single = new byte[1];
 
-    public VirtualOutputStream(BlockingQueue<Integer> queue, long streamLength) {
-        this.queue = queue;
-        this.streamLength = streamLength;
+    VirtualOutputStream(VirtualStreamBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        buffer.write(b, off, len);
     }
 
     @Override
     public void write(int b) throws IOException {
-        try {
-            if (byteCount == streamLength) {
-                throw new IOException("Can not write more than the stream length " + streamLength);
-            }
-            boolean status = this.queue.offer(b, 10, TimeUnit.SECONDS);
-            if (!status) {
-                throw new IOException("Timed out writing into the queue");
-            }
-            byteCount++;
-            // System.out.println("Writing byte " + byteCount);
-        } catch (InterruptedException e) {
-            throw new IOException("Write was interrupted", e);
-        }
+        single[0] = (byte) b;
+        buffer.write(single, 0, 1);
+    }
+
+    @Override
+    public void close() {
+        buffer.closeWriter();
     }
 }
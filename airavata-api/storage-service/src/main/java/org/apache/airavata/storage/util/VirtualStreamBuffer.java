@@ -0,0 +1,188 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.storage.util;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded single-producer/single-consumer byte ring shared by {@link VirtualOutputStream} and
+ * {@link VirtualInputStream}. Bytes move in bulk {@link System#arraycopy} chunks, so the lock and the
+ * wake-ups are paid per chunk instead of per byte. A side that makes no progress for
+ * {@link #TIMEOUT_SECONDS} fails, and a failure or close on one side is seen by the other side on its
+ * next call instead of after a timeout.
+ */
+final class VirtualStreamBuffer {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private final byte[] ring;
+    private final long streamLength;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    // total bytes ever written / read; ring positions are these modulo ring.length
+    private long written;
+    private long read;
+    private boolean writerClosed;
+    private boolean readerClosed;
+    private Throwable failure;
+
+    VirtualStreamBuffer(int bufferSize, long streamLength) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive: " + bufferSize);
+        }
+        this.ring = new byte[(int) Math.min(bufferSize, Math.max(streamLength, 1))];
+        this.streamLength = streamLength;
+    }
+
+    /** Write all {@code len} bytes, blocking while the ring is full. */
+    void write(byte[] b, int off, int len) throws IOException {
+        lock.lock();
+        try {
+            if (written + len > streamLength) {
+                throw new IOException("Can not write more than the stream length " + streamLength);
+            }
+            while (len > 0) {
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+                while (written - read == ring.length && failure == null && !readerClosed) {
+                    awaitUntil(notFull, deadline, "Timed out writing into the buffer");
+                }
+                checkFailure();
+                if (readerClosed) {
+                    throw new IOException("Reading side of the stream was closed after " + read + " bytes");
+                }
+                int n = (int) Math.min(len, ring.length - (written - read));
+                copy(b, off, n, true);
+                written += n;
+                off += n;
+                len -= n;
+                notEmpty.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Read up to {@code len} bytes, blocking until at least one is available; -1 at stream end. */
+    int read(byte[] b, int off, int len) throws IOException {
+        lock.lock();
+        try {
+            if (read == streamLength) {
+                return -1;
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+            while (written == read && failure == null && !writerClosed) {
+                awaitUntil(notEmpty, deadline, "Timed out reading from the buffer");
+            }
+            checkFailure();
+            if (written == read) {
+                throw new IOException(
+                        "Writing side of the stream was closed after " + written + " of " + streamLength + " bytes");
+            }
+            int n = (int) Math.min(len, written - read);
+            copy(b, off, n, false);
+            read += n;
+            notFull.signal();
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int available() {
+        lock.lock();
+        try {
+            return (int) (written - read);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Abort the pipe; the next (or currently blocked) call on either side throws with this cause. */
+    void fail(Throwable cause) {
+        lock.lock();
+        try {
+            if (failure == null) {
+                failure = cause != null ? cause : new IOException("Stream aborted");
+            }
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void closeWriter() {
+        lock.lock();
+        try {
+            writerClosed = true;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void closeReader() {
+        lock.lock();
+        try {
+            readerClosed = true;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void copy(byte[] b, int off, int n, boolean intoRing) {
+        int pos = (int) ((intoRing ? written : read) % ring.length);
+        int first = Math.min(n, ring.length - pos);
+        if (intoRing) {
+            System.arraycopy(b, off, ring, pos, first);
+            System.arraycopy(b, off + first, ring, 0, n - first);
+        } else {
+            System.arraycopy(ring, pos, b, off, first);
+            System.arraycopy(ring, 0, b, off + first, n - first);
+        }
+    }
+
+    private void checkFailure() throws IOException {
+        if (failure != null) {
+            throw failure instanceof IOException io
+                    ? new IOException(io.getMessage(), io)
+                    : new IOException("Other side of the stream failed: " + failure.getMessage(), failure);
+        }
+    }
+
+    private static void awaitUntil(Condition condition, long deadline, String timeoutMessage) throws IOException {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            throw new IOException(timeoutMessage);
+        }
+        try {
+            condition.awaitNanos(remaining);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Transfer was interrupted", e);
+        }
+    }
+}
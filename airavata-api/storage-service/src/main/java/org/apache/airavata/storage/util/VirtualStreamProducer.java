@@ -21,18 +21,22 @@ package org.apache.airavata.storage.util;
 
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
 
+/**
+ * In-memory pipe for pass-through transfers: one thread downloads into {@link #getOutputStream()}
+ * while another uploads from {@link #getInputStream()}. Backed by a bounded {@link VirtualStreamBuffer}
+ * ring of {@code bufferSize} bytes.
+ */
 public class VirtualStreamProducer {
 
-    private InputStream inputStream;
-    private OutputStream outputStream;
+    private final VirtualStreamBuffer buffer;
+    private final InputStream inputStream;
+    private final OutputStream outputStream;
 
     public VirtualStreamProducer(int bufferSize, long streamLength) {
-        BlockingQueue<Integer> queue = new LinkedBlockingQueue<>(bufferSize);
-        inputStream = new VirtualInputStream(queue, streamLength);
-        outputStream = new VirtualOutputStream(queue, streamLength);
+        buffer = new VirtualStreamBuffer(bufferSize, streamLength);
+        inputStream = new VirtualInputStream(buffer);
+        outputStream = new VirtualOutputStream(buffer);
     }
 
     public InputStream getInputStream() {
@@ -42,4 +46,9 @@ public class VirtualStreamProducer {
     public OutputStream getOutputStream() {
         return outputStream;
     }
+
+    /** Fail both ends of the pipe, so the side still running stops instead of waiting for a timeout. */
+    public void abort(Throwable cause) {
+        buffer.fail(cause);
+    }
 }
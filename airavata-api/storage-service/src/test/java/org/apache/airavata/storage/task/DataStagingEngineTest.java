@@ -0,0 +1,131 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.storage.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.airavata.task.KeyedLimiter;
+import org.junit.jupiter.api.Test;
+
+public class DataStagingEngineTest {
+
+    private static final List<String> HOSTS = List.of("compute:c", "storage:s");
+
+    @Test
+    public void rangeStreamsCountAgainstTheHostLimit() throws Exception {
+        DataStagingEngine engine = new DataStagingEngine(3, 4);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        AtomicLong covered = new AtomicLong();
+        List<Callable<Void>> transfers = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            transfers.add(() -> {
+                engine.runRanges(1000, (offset, length) -> {
+                    peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+                    Thread.sleep(20);
+                    covered.addAndGet(length);
+                    active.decrementAndGet();
+                });
+                return null;
+            });
+        }
+
+        engine.runAll(HOSTS, transfers);
+
+        assertTrue(peak.get() <= 3, "more streams than the per-host limit: " + peak.get());
+        assertEquals(6 * 1000, covered.get());
+    }
+
+    @Test
+    public void idleHostsLetOneFileUseEveryStream() throws Exception {
+        DataStagingEngine engine = new DataStagingEngine(8, 4);
+        AtomicInteger ranges = new AtomicInteger();
+
+        engine.runAll(HOSTS, List.<Callable<Void>>of(() -> {
+            engine.runRanges(1000, (offset, length) -> ranges.incrementAndGet());
+            return null;
+        }));
+
+        assertEquals(4, ranges.get());
+    }
+
+    @Test
+    public void transfersWaitingForASlotHoldNoThread() throws Exception {
+        DataStagingEngine engine = new DataStagingEngine(2, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger started = new AtomicInteger();
+        List<Callable<Void>> transfers = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            transfers.add(() -> {
+                started.incrementAndGet();
+                release.await();
+                return null;
+            });
+        }
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<List<Void>> all = caller.submit(() -> engine.runAll(HOSTS, transfers));
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (started.get() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(2, started.get());
+
+            assertEquals(0, transferThreadsWaitingForASlot(), "queued transfers were handed a thread");
+
+            release.countDown();
+            assertEquals(50, all.get(10, TimeUnit.SECONDS).size());
+            assertEquals(50, started.get());
+        } finally {
+            release.countDown();
+            caller.shutdownNow();
+        }
+    }
+
+    @Test
+    public void rangesOutsideAStagingRunUseOneStream() throws Exception {
+        DataStagingEngine engine = new DataStagingEngine(8, 4);
+        AtomicInteger ranges = new AtomicInteger();
+
+        engine.runRanges(1000, (offset, length) -> ranges.incrementAndGet());
+
+        assertEquals(1, ranges.get());
+    }
+
+    private static long transferThreadsWaitingForASlot() {
+        return Thread.getAllStackTraces().entrySet().stream()
+                .filter(e -> e.getKey().getName().startsWith("data-staging-file"))
+                .filter(e -> Arrays.stream(e.getValue())
+                        .anyMatch(frame -> frame.getClassName().equals(KeyedLimiter.class.getName())))
+                .count();
+    }
+}
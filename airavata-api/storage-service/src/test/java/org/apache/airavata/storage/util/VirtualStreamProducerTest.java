@@ -0,0 +1,212 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.storage.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class VirtualStreamProducerTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualStreamProducerTest.class);
+
+    @Test
+    public void transfersEveryByteAcrossRingWraps() throws Exception {
+        byte[] data = new byte[3 * 1024 * 1024 + 17];
+        new Random(42).nextBytes(data);
+        VirtualStreamProducer pipe = new VirtualStreamProducer(64 * 1024, data.length);
+
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+            Random chunks = new Random(7);
+            try (OutputStream os = pipe.getOutputStream()) {
+                int off = 0;
+                while (off < data.length) {
+                    int n = Math.min(data.length - off, 1 + chunks.nextInt(100_000));
+                    if (n == 1) {
+                        os.write(data[off]);
+                    } else {
+                        os.write(data, off, n);
+                    }
+                    off += n;
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        byte[] received = readFully(pipe.getInputStream());
+        writer.get(30, TimeUnit.SECONDS);
+        assertArrayEquals(data, received);
+        assertEquals(-1, pipe.getInputStream().read());
+    }
+
+    @Test
+    public void rejectsWritesBeyondStreamLength() {
+        VirtualStreamProducer pipe = new VirtualStreamProducer(1024, 4);
+        assertThrows(IOException.class, () -> pipe.getOutputStream().write(new byte[5]));
+    }
+
+    @Test
+    public void abortWakesBlockedReaderWithCause() throws Exception {
+        VirtualStreamProducer pipe = new VirtualStreamProducer(1024, 100);
+        CompletableFuture<Throwable> reader = CompletableFuture.supplyAsync(() -> {
+            try {
+                pipe.getInputStream().read(new byte[10]);
+                return null;
+            } catch (IOException e) {
+                return e;
+            }
+        });
+        Thread.sleep(100);
+        IllegalStateException cause = new IllegalStateException("download failed");
+        pipe.abort(cause);
+
+        Throwable thrown = reader.get(5, TimeUnit.SECONDS);
+        assertSame(cause, thrown.getCause());
+    }
+
+    @Test
+    public void closedReaderFailsBlockedWriter() throws Exception {
+        VirtualStreamProducer pipe = new VirtualStreamProducer(16, 100);
+        CompletableFuture<Throwable> writer = CompletableFuture.supplyAsync(() -> {
+            try {
+                pipe.getOutputStream().write(new byte[100]);
+                return null;
+            } catch (IOException e) {
+                return e;
+            }
+        });
+        Thread.sleep(100);
+        pipe.getInputStream().close();
+
+        assertEquals(IOException.class, writer.get(5, TimeUnit.SECONDS).getClass());
+    }
+
+    @Test
+    public void prematureWriterCloseFailsReader() throws Exception {
+        VirtualStreamProducer pipe = new VirtualStreamProducer(1024, 100);
+        pipe.getOutputStream().write(new byte[10]);
+        pipe.getOutputStream().close();
+
+        InputStream is = pipe.getInputStream();
+        assertEquals(10, is.read(new byte[64]));
+        assertThrows(IOException.class, () -> is.read(new byte[64]));
+    }
+
+    /**
+     * Throughput of the chunked ring against the previous design, which handed one boxed Integer per
+     * byte through a {@code LinkedBlockingQueue} of capacity 1024. Logged only; not asserted.
+     */
+    @Test
+    public void throughputAgainstPerByteQueue() throws Exception {
+        int chunked = 256 * 1024 * 1024;
+        VirtualStreamProducer pipe = new VirtualStreamProducer(1024 * 1024, chunked);
+        double chunkedMbps = pump(pipe.getOutputStream(), pipe.getInputStream(), chunked);
+
+        int perByte = 16 * 1024 * 1024;
+        BlockingQueue<Integer> queue = new LinkedBlockingQueue<>(1024);
+        double perByteMbps = pump(queueOutput(queue), queueInput(queue, perByte), perByte);
+
+        logger.info(
+                "pass-through pipe throughput: chunked ring {} MB/s, per-byte queue {} MB/s ({}x)",
+                String.format("%.1f", chunkedMbps),
+                String.format("%.1f", perByteMbps),
+                String.format("%.1f", chunkedMbps / perByteMbps));
+    }
+
+    private static double pump(OutputStream os, InputStream is, int length) throws Exception {
+        long start = System.nanoTime();
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+            byte[] chunk = new byte[32 * 1024];
+            try {
+                for (int off = 0; off < length; off += chunk.length) {
+                    os.write(chunk, 0, Math.min(chunk.length, length - off));
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        byte[] buf = new byte[32 * 1024];
+        long total = 0;
+        int n;
+        while (total < length && (n = is.read(buf, 0, buf.length)) != -1) {
+            total += n;
+        }
+        writer.get(120, TimeUnit.SECONDS);
+        assertEquals(length, total);
+        return length / 1e6 / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private static byte[] readFully(InputStream is) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buf = new byte[8192];
+        int n;
+        while ((n = is.read(buf)) != -1) {
+            out.write(buf, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    private static OutputStream queueOutput(BlockingQueue<Integer> queue) {
+        return new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                try {
+                    queue.put(b);
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+        };
+    }
+
+    private static InputStream queueInput(BlockingQueue<Integer> queue, long length) {
+        return new InputStream() {
+            private long count;
+
+            @Override
+            public int read() throws IOException {
+                if (count == length) {
+                    return -1;
+                }
+                try {
+                    count++;
+                    return queue.take();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,71 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.server.file;
+
+/**
+ * A single {@code Range: bytes=...} request resolved against a file size (RFC 9110, section 14).
+ */
+record ByteRange(long offset, long length) {
+
+    /** Marks a syntactically valid range that lies entirely past the end of the file. */
+    static final ByteRange UNSATISFIABLE = new ByteRange(-1, 0);
+
+    long last() {
+        return offset + length - 1;
+    }
+
+    /**
+     * Parses a {@code Range} header value. Returns {@code null} when the whole file should be sent: the
+     * header is absent or malformed, uses a unit other than bytes, or asks for several ranges (which a
+     * server may ignore).
+     */
+    static ByteRange parse(String header, long size) {
+        if (header == null || !header.regionMatches(true, 0, "bytes=", 0, 6)) {
+            return null;
+        }
+        String spec = header.substring(6).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0 || spec.indexOf(',') >= 0) {
+            return null;
+        }
+        try {
+            if (dash == 0) {
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0 || size == 0) {
+                    return UNSATISFIABLE;
+                }
+                long length = Math.min(suffix, size);
+                return new ByteRange(size - length, length);
+            }
+            long first = Long.parseLong(spec.substring(0, dash));
+            String lastSpec = spec.substring(dash + 1);
+            long last = lastSpec.isEmpty() ? size - 1 : Long.parseLong(lastSpec);
+            if (first < 0 || last < first) {
+                return null;
+            }
+            if (first >= size) {
+                return UNSATISFIABLE;
+            }
+            return new ByteRange(first, Math.min(last, size - 1) - first + 1);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -19,21 +19,37 @@
 */
 package org.apache.airavata.server.file;
 
+import com.google.protobuf.util.JsonFormat;
+import com.linecorp.armeria.common.HttpHeaderNames;
+import com.linecorp.armeria.common.HttpRequest;
 import com.linecorp.armeria.common.HttpResponse;
 import com.linecorp.armeria.common.HttpStatus;
 import com.linecorp.armeria.common.MediaType;
 import com.linecorp.armeria.common.MediaTypeNames;
-import com.linecorp.armeria.common.multipart.MultipartFile;
+import com.linecorp.armeria.common.RequestHeaders;
+import com.linecorp.armeria.common.ResponseHeaders;
+import com.linecorp.armeria.common.ResponseHeadersBuilder;
+import com.linecorp.armeria.common.multipart.BodyPart;
+import com.linecorp.armeria.common.multipart.Multipart;
+import com.linecorp.armeria.common.stream.StreamMessage;
+import com.linecorp.armeria.common.util.Exceptions;
+import com.linecorp.armeria.server.ServiceRequestContext;
+import com.linecorp.armeria.server.annotation.Blocking;
 import com.linecorp.armeria.server.annotation.Consumes;
 import com.linecorp.armeria.server.annotation.Get;
 import com.linecorp.armeria.server.annotation.Param;
 import com.linecorp.armeria.server.annotation.Post;
 import com.linecorp.armeria.server.annotation.ProducesJson;
 import java.io.File;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
 import org.apache.airavata.api.file.FileUploadResponse;
 import org.apache.airavata.orchestration.service.AirvataFileService;
+import org.apache.airavata.orchestration.service.AirvataFileService.RemoteFileDownload;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -44,6 +60,9 @@ public class FileController {
 
     private static final Logger logger = LoggerFactory.getLogger(FileController.class);
 
+    private static final String UPLOAD_PART_NAME = "file";
+    private static final int DOWNLOAD_BUFFER_SIZE = 64 * 1024;
+
     @Autowired
     private AirvataFileService fileService;
 
@@ -77,17 +96,47 @@ public class FileController {
     }
 
     @Get("regex:^/download/(?<live>[^/]+)/(?<processId>[^/]+)/(?<subPath>.+)$")
-    public HttpResponse downloadFile(@Param String live, @Param String processId, @Param String subPath) {
+    @Blocking
+    public HttpResponse downloadFile(
+            ServiceRequestContext ctx,
+            RequestHeaders headers,
+            @Param String live,
+            @Param String processId,
+            @Param String subPath) {
         String relPath = subPath.startsWith("/") ? subPath : "/" + subPath;
         String fileName = new File(relPath).getName();
         try {
-            Path localPath = fileService.downloadFile(processId, relPath);
-            byte[] fileBytes = Files.readAllBytes(localPath);
-            return HttpResponse.builder()
-                    .ok()
-                    .header("Content-Disposition", String.format("attachment; filename=\"%s\"", fileName))
-                    .content(MediaType.OCTET_STREAM, fileBytes)
-                    .build();
+            RemoteFileDownload download = fileService.openDownload(processId, relPath);
+            long size = download.getMetadata().getSize();
+            ByteRange range = ByteRange.parse(headers.get(HttpHeaderNames.RANGE), size);
+            if (range == ByteRange.UNSATISFIABLE) {
+                return HttpResponse.of(ResponseHeaders.builder(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                        .add(HttpHeaderNames.CONTENT_RANGE, "bytes */" + size)
+                        .build());
+            }
+
+            ResponseHeadersBuilder responseHeaders = ResponseHeaders.builder(
+                            range == null ? HttpStatus.OK : HttpStatus.PARTIAL_CONTENT)
+                    .contentType(MediaType.OCTET_STREAM)
+                    .add(HttpHeaderNames.CONTENT_DISPOSITION, String.format("attachment; filename=\"%s\"", fileName))
+                    .add(HttpHeaderNames.ACCEPT_RANGES, "bytes");
+            if (range == null) {
+                range = new ByteRange(0, size);
+            } else {
+                responseHeaders.add(
+                        HttpHeaderNames.CONTENT_RANGE, "bytes " + range.offset() + "-" + range.last() + "/" + size);
+            }
+            responseHeaders.contentLength(range.length());
+
+            // Pulled from the remote end only as the client reads, so memory stays at one buffer per
+            // download however large the file is; the stream is closed when the response completes or aborts.
+            InputStream content = download.open(range.offset(), range.length());
+            return HttpResponse.of(
+                    responseHeaders.build(),
+                    StreamMessage.builder(content)
+                            .executor(ctx.blockingTaskExecutor())
+                            .bufferSize(DOWNLOAD_BUFFER_SIZE)
+                            .build());
         } catch (Exception e) {
             logger.error("Failed to download file {} from process {}", relPath, processId, e);
             return HttpResponse.of(
@@ -101,27 +150,56 @@ public class FileController {
     @Consumes(MediaTypeNames.MULTIPART_FORM_DATA)
     @ProducesJson
     public HttpResponse uploadFile(
-            @Param String live, @Param String processId, @Param String subPath, @Param MultipartFile file) {
+            ServiceRequestContext ctx,
+            HttpRequest request,
+            @Param String live,
+            @Param String processId,
+            @Param String subPath) {
         String relPath = subPath.startsWith("/") ? subPath : "/" + subPath;
-        try {
-            String name = file.filename();
-            long size = Files.size(file.path());
-            fileService.uploadFile(processId, relPath, Files.newInputStream(file.path()), name, size);
-            String contentType = file.headers().contentType() != null
-                    ? file.headers().contentType().toString()
-                    : "";
-            return HttpResponse.ofJson(FileUploadResponse.newBuilder()
-                    .setName(name)
-                    .setUri(relPath)
-                    .setType(contentType)
-                    .setSize(size)
-                    .build());
+        // The "file" part is written to the remote path as its bytes arrive; other parts are drained.
+        CompletableFuture<List<Optional<String>>> uploads = Multipart.from(request)
+                .collect(part -> {
+                    if (!UPLOAD_PART_NAME.equals(part.name()) || part.filename() == null) {
+                        return part.aggregate().thenApply(ignored -> Optional.empty());
+                    }
+                    return CompletableFuture.supplyAsync(
+                            () -> Optional.of(uploadPart(processId, relPath, part)), ctx.blockingTaskExecutor());
+                });
+        return HttpResponse.of(uploads.handle((responses, cause) -> {
+            if (cause != null) {
+                Throwable e = Exceptions.peel(cause);
+                logger.error("Failed to upload file {} to process {}", relPath, processId, e);
+                return HttpResponse.of(
+                        HttpStatus.INTERNAL_SERVER_ERROR,
+                        MediaType.PLAIN_TEXT_UTF_8,
+                        "An internal server error occurred: " + e.getMessage());
+            }
+            return responses.stream()
+                    .flatMap(Optional::stream)
+                    .findFirst()
+                    .map(json -> HttpResponse.of(HttpStatus.OK, MediaType.JSON_UTF_8, json))
+                    .orElseGet(() -> HttpResponse.of(
+                            HttpStatus.BAD_REQUEST,
+                            MediaType.PLAIN_TEXT_UTF_8,
+                            "Missing multipart file part '" + UPLOAD_PART_NAME + "'"));
+        }));
+    }
+
+    /** Streams the part to the process directory and returns the {@link FileUploadResponse} as JSON. */
+    private String uploadPart(String processId, String relPath, BodyPart part) {
+        String name = part.filename();
+        try (InputStream content = part.content().toInputStream(Function.identity())) {
+            long size = fileService.uploadFile(processId, relPath, content, name);
+            MediaType contentType = part.headers().contentType();
+            return JsonFormat.printer()
+                    .print(FileUploadResponse.newBuilder()
+                            .setName(name)
+                            .setUri(relPath)
+                            .setType(contentType != null ? contentType.toString() : "")
+                            .setSize(size)
+                            .build());
         } catch (Exception e) {
-            logger.error("Failed to upload file {} to process {}", relPath, processId, e);
-            return HttpResponse.of(
-                    HttpStatus.INTERNAL_SERVER_ERROR,
-                    MediaType.PLAIN_TEXT_UTF_8,
-                    "An internal server error occurred: " + e.getMessage());
+            throw new CompletionException(e);
         }
     }
 }
@@ -24,19 +24,25 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.BadJOSEException;
 import com.nimbusds.jose.proc.JWSVerificationKeySelector;
 import com.nimbusds.jose.proc.SecurityContext;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.proc.ConfigurableJWTProcessor;
 import com.nimbusds.jwt.proc.DefaultJWTClaimsVerifier;
 import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.Metrics;
 import java.net.URI;
+import java.text.ParseException;
 import java.util.Base64;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import org.apache.airavata.server.CountMonitor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -48,12 +54,27 @@ import org.slf4j.LoggerFactory;
  * <p>Verification is fail-closed: any missing, malformed, expired, or unverifiable token throws
  * {@link TokenVerificationException}, and the caller rejects the request. Identity (user + gateway) and roles
  * are taken solely from the verified token; client-asserted headers are never trusted.
+ *
+ * <p>A portal page load reuses one token across hundreds of calls, so verification outcomes are cached by token
+ * hash: a verified token until its {@code exp}, a rejected one briefly. Failures that say nothing about the token
+ * itself, such as an unreachable JWKS endpoint or a signing key the cached JWKS does not have yet (the realm may just
+ * have rotated its keys), are not cached.
  */
 public final class JwtVerifier {
 
     private static final Logger log = LoggerFactory.getLogger(JwtVerifier.class);
     private static final ObjectMapper objectMapper = new ObjectMapper();
-    private static final Map<String, ConfigurableJWTProcessor<SecurityContext>> PROCESSORS = new ConcurrentHashMap<>();
+    // Package-private so tests can install a processor for a locally signed issuer
+    static final Map<String, ConfigurableJWTProcessor<SecurityContext>> PROCESSORS = new ConcurrentHashMap<>();
+
+    private static final int MAX_CACHED_TOKENS = 10_000;
+    private static final int MAX_REJECTED_TOKENS = 1_000;
+    private static final long REJECTED_TOKEN_TTL_MS = 10_000;
+    private static final VerifiedTokenCache CACHE =
+            new VerifiedTokenCache(MAX_CACHED_TOKENS, MAX_REJECTED_TOKENS, REJECTED_TOKEN_TTL_MS);
+    // Message of the BadJOSEException nimbus throws when no JWKS key matches the token's kid/alg
+    private static final String NO_MATCHING_KEY = "no matching key";
+    private static final CountMonitor cacheLookupCounter = new CountMonitor("jwt_verify_cache_lookup_count", "result");
 
     private JwtVerifier() {}
 
@@ -66,21 +87,68 @@ public final class JwtVerifier {
         if (accessToken == null || accessToken.isBlank()) {
             throw new TokenVerificationException("Missing access token");
         }
+        String key = VerifiedTokenCache.key(accessToken);
+        long now = System.currentTimeMillis();
+        VerifiedToken cached;
+        try {
+            cached = CACHE.get(key, now);
+        } catch (TokenVerificationException e) {
+            cacheLookupCounter.inc("rejected");
+            throw e;
+        }
+        if (cached != null) {
+            cacheLookupCounter.inc("hit");
+            return cached;
+        }
+
+        cacheLookupCounter.inc("miss");
+        long start = System.nanoTime();
+        try {
+            return verifyAndCache(accessToken, key, now);
+        } finally {
+            Metrics.timer("jwt_verify_latency").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static VerifiedToken verifyAndCache(String accessToken, String key, long now) {
         String issuer;
         try {
             issuer = unverifiedIssuer(accessToken);
         } catch (Exception e) {
-            throw new TokenVerificationException("Malformed access token", e);
+            throw rejected(key, now, "Malformed access token", e);
         }
         if (issuer == null) {
-            throw new TokenVerificationException("Access token has no issuer claim");
+            throw rejected(key, now, "Access token has no issuer claim", null);
         }
+        JWTClaimsSet claims;
         try {
-            JWTClaimsSet claims = processorFor(issuer).process(accessToken, null);
-            return toVerifiedToken(claims);
+            claims = processorFor(issuer).process(accessToken, null);
+        } catch (BadJOSEException e) {
+            if (e.getMessage() != null && e.getMessage().contains(NO_MATCHING_KEY)) {
+                // The next lookup retries once the JWKS source has refreshed, e.g. after a key rotation
+                throw new TokenVerificationException("Access token verification failed: " + e.getMessage(), e);
+            }
+            throw rejected(key, now, "Access token verification failed: " + e.getMessage(), e);
+        } catch (ParseException e) {
+            throw rejected(key, now, "Access token verification failed: " + e.getMessage(), e);
         } catch (Exception e) {
             throw new TokenVerificationException("Access token verification failed: " + e.getMessage(), e);
         }
+        try {
+            VerifiedToken verified = toVerifiedToken(claims);
+            Date expiration = claims.getExpirationTime();
+            if (expiration != null) {
+                CACHE.putVerified(key, verified, expiration.getTime(), now);
+            }
+            return verified;
+        } catch (Exception e) {
+            throw new TokenVerificationException("Access token verification failed: " + e.getMessage(), e);
+        }
+    }
+
+    private static TokenVerificationException rejected(String key, long now, String message, Exception cause) {
+        CACHE.putRejected(key, message, now);
+        return cause == null ? new TokenVerificationException(message) : new TokenVerificationException(message, cause);
     }
 
     /** Pure mapping of a signature-verified claims set to identity + roles (no signature work). */
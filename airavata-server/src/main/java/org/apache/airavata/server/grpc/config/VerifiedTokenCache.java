@@ -0,0 +1,101 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.server.grpc.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import org.apache.airavata.util.BoundedLruCache;
+
+/**
+ * Outcomes of recent token verifications, keyed by the SHA-256 of the token so raw tokens are not retained. A
+ * verified token is remembered until its {@code exp}, a rejected one for a short negative TTL. Verified and rejected
+ * tokens are held apart, in LRUs of at most {@code maxEntries} and {@code maxRejected} entries, so a flood of garbage
+ * tokens can only evict other garbage. Both are {@link BoundedLruCache}s, which drop an entry on the first lookup at
+ * or after its expiry.
+ */
+final class VerifiedTokenCache {
+
+    private static final class Entry {
+        private final VerifiedToken token; // null for a rejected token
+        private final String failure;
+        private final long expiresAt;
+
+        private Entry(VerifiedToken token, String failure, long expiresAt) {
+            this.token = token;
+            this.failure = failure;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final BoundedLruCache<String, Entry> verified;
+    private final BoundedLruCache<String, Entry> rejected;
+    private final long negativeTtlMillis;
+
+    VerifiedTokenCache(int maxEntries, int maxRejected, long negativeTtlMillis) {
+        this.verified = new BoundedLruCache<>(maxEntries, entry -> entry.expiresAt);
+        this.rejected = new BoundedLruCache<>(maxRejected, entry -> entry.expiresAt);
+        this.negativeTtlMillis = negativeTtlMillis;
+    }
+
+    static String key(String accessToken) {
+        try {
+            byte[] digest =
+                    MessageDigest.getInstance("SHA-256").digest(accessToken.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * The verified token cached under {@code key}, or {@code null} on a miss.
+     *
+     * @throws TokenVerificationException if the token was rejected within the negative TTL
+     */
+    VerifiedToken get(String key, long now) {
+        Entry entry = verified.get(key, now);
+        if (entry != null) {
+            return entry.token;
+        }
+        entry = rejected.get(key, now);
+        if (entry != null) {
+            throw new TokenVerificationException(entry.failure);
+        }
+        return null;
+    }
+
+    void putVerified(String key, VerifiedToken token, long expiresAt, long now) {
+        if (expiresAt > now) {
+            verified.put(key, new Entry(token, null, expiresAt));
+        }
+    }
+
+    void putRejected(String key, String failure, long now) {
+        if (negativeTtlMillis > 0) {
+            rejected.put(key, new Entry(null, failure, now + negativeTtlMillis));
+        }
+    }
+
+    int size() {
+        return verified.size() + rejected.size();
+    }
+}
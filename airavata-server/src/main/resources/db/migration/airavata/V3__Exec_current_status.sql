@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * EXEC_CURRENT_STATUS: the current state of every PROCESS, TASK and JOB, maintained alongside
+ * EXEC_STATUS. Seeded here from the latest EXEC_STATUS row of each entity, so processes that
+ * were in flight before the upgrade are still claimed. On a same-timestamp tie the higher
+ * STATE_RANK wins, as in ExecCurrentStatusRepository.stateRank: terminal states 4, then for
+ * tasks CREATED 3 and EXECUTING 2, everything else 1.
+ *
+ * The projection is scanned by type, state and age, and an entity's EXEC_STATUS history is
+ * looked up by type and id.
+ */
+
+CREATE TABLE IF NOT EXISTS `exec_current_status` (
+  `ENTITY_ID` varchar(255) NOT NULL,
+  `ENTITY_TYPE` varchar(255) NOT NULL,
+  `STATE` varchar(255) DEFAULT NULL,
+  `STATE_RANK` int(11) NOT NULL,
+  `TIME_OF_STATE_CHANGE` datetime(6) DEFAULT NULL,
+  PRIMARY KEY (`ENTITY_ID`,`ENTITY_TYPE`),
+  KEY `IDX_EXEC_CURRENT_STATUS_STATE` (`ENTITY_TYPE`,`STATE`,`TIME_OF_STATE_CHANGE`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_uca1400_ai_ci;
+
+CREATE INDEX IF NOT EXISTS `IDX_EXEC_STATUS_ENTITY` ON `exec_status` (`ENTITY_TYPE`,`ENTITY_ID`);
+
+INSERT IGNORE INTO `exec_current_status` (`ENTITY_ID`, `ENTITY_TYPE`, `STATE`, `STATE_RANK`, `TIME_OF_STATE_CHANGE`)
+SELECT `ENTITY_ID`, `ENTITY_TYPE`, `STATE`, `STATE_RANK`, `TIME_OF_STATE_CHANGE`
+FROM (
+  SELECT r.*, ROW_NUMBER() OVER (
+      PARTITION BY r.`ENTITY_TYPE`, r.`ENTITY_ID`
+      ORDER BY r.`TIME_OF_STATE_CHANGE` DESC, r.`STATE_RANK` DESC) AS `RN`
+  FROM (
+    SELECT s.`ENTITY_ID`, s.`ENTITY_TYPE`, s.`STATE`, s.`TIME_OF_STATE_CHANGE`,
+      CASE
+        WHEN s.`STATE` IN ('PROCESS_STATE_COMPLETED', 'PROCESS_STATE_FAILED', 'PROCESS_STATE_CANCELED',
+                           'TASK_STATE_COMPLETED', 'TASK_STATE_FAILED', 'TASK_STATE_CANCELED',
+                           'COMPLETE', 'FAILED', 'CANCELED') THEN 4
+        WHEN s.`ENTITY_TYPE` = 'TASK' AND s.`STATE` = 'TASK_STATE_CREATED' THEN 3
+        WHEN s.`ENTITY_TYPE` = 'TASK' AND s.`STATE` = 'TASK_STATE_EXECUTING' THEN 2
+        ELSE 1
+      END AS `STATE_RANK`
+    FROM `exec_status` s
+    WHERE s.`ENTITY_ID` IS NOT NULL AND s.`ENTITY_TYPE` IS NOT NULL
+      AND s.`STATE` IS NOT NULL AND s.`TIME_OF_STATE_CHANGE` IS NOT NULL
+  ) r
+) ranked
+WHERE `RN` = 1;
@@ -0,0 +1,27 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Summary columns of a credential, kept in clear next to the encrypted blob so listings need no
+ * decryption. The secrets cannot be read here, so existing rows keep a NULL CREDENTIAL_TYPE until
+ * the credential store fills them on the first listing of their gateway.
+ */
+
+ALTER TABLE `credentials`
+  ADD COLUMN IF NOT EXISTS `CREDENTIAL_TYPE` enum('CERT','PASSWD','SSH','SUMMARY_TYPE_UNKNOWN','UNRECOGNIZED') DEFAULT NULL AFTER `CREDENTIAL`,
+  ADD COLUMN IF NOT EXISTS `PUBLIC_KEY` varchar(4096) DEFAULT NULL AFTER `PORTAL_USER_ID`;
+CREATE INDEX IF NOT EXISTS `IDX_CREDENTIALS_SUMMARY` ON `credentials` (`GATEWAY_ID`,`CREDENTIAL_TYPE`,`PORTAL_USER_ID`);
@@ -21,21 +21,34 @@ package org.apache.airavata.server.file;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.linecorp.armeria.client.WebClient;
 import com.linecorp.armeria.common.AggregatedHttpResponse;
+import com.linecorp.armeria.common.ContentDisposition;
+import com.linecorp.armeria.common.HttpHeaderNames;
+import com.linecorp.armeria.common.HttpMethod;
 import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.MediaType;
+import com.linecorp.armeria.common.RequestHeaders;
+import com.linecorp.armeria.common.multipart.BodyPart;
+import com.linecorp.armeria.common.multipart.Multipart;
 import com.linecorp.armeria.server.ServerBuilder;
 import com.linecorp.armeria.testing.junit5.server.ServerExtension;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import org.apache.airavata.interfaces.FileMetadata;
 import org.apache.airavata.orchestration.service.AirvataFileService;
+import org.apache.airavata.orchestration.service.AirvataFileService.RemoteFileDownload;
 import org.apache.airavata.storage.model.AiravataDirectory;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -77,19 +90,17 @@ class FileControllerTest {
                 client.get("/api/v1/files/list/true/proc-1").aggregate().join();
 
         assertEquals(HttpStatus.OK, response.status());
-        assertTrue(response.contentType().is(com.linecorp.armeria.common.MediaType.JSON));
+        assertTrue(response.contentType().is(MediaType.JSON));
 
         JsonNode json = mapper.readTree(response.contentUtf8());
         assertEquals("root", json.get("directoryName").asText());
     }
 
     @Test
-    void downloadFile_returnsFileBytes() throws Exception {
+    void downloadFile_streamsWholeFile() throws Exception {
         byte[] content = "hello world".getBytes(StandardCharsets.UTF_8);
-        Path tempFile = Files.createTempFile("test-download-", ".txt");
-        Files.write(tempFile, content);
-
-        when(fileService.downloadFile(eq("proc-2"), eq("/data/output.txt"))).thenReturn(tempFile);
+        var download = mockDownload(content);
+        when(fileService.openDownload(eq("proc-2"), eq("/data/output.txt"))).thenReturn(download);
 
         WebClient client = WebClient.of(server.httpUri());
         AggregatedHttpResponse response = client.get("/api/v1/files/download/true/proc-2/data/output.txt")
@@ -98,14 +109,49 @@ class FileControllerTest {
 
         assertEquals(HttpStatus.OK, response.status());
         assertEquals("hello world", response.content().toStringUtf8());
+        assertEquals(content.length, response.headers().contentLength());
+        assertEquals("bytes", response.headers().get(HttpHeaderNames.ACCEPT_RANGES));
         assertTrue(response.headers().get("Content-Disposition").contains("output.txt"));
+    }
+
+    @Test
+    void downloadFile_servesRequestedRange() throws Exception {
+        var download = mockDownload("hello world".getBytes(StandardCharsets.UTF_8));
+        when(fileService.openDownload(eq("proc-4"), eq("/out.log"))).thenReturn(download);
+
+        WebClient client = WebClient.of(server.httpUri());
+        AggregatedHttpResponse response = client.execute(
+                        RequestHeaders.builder(HttpMethod.GET, "/api/v1/files/download/true/proc-4/out.log")
+                                .add(HttpHeaderNames.RANGE, "bytes=6-")
+                                .build())
+                .aggregate()
+                .join();
+
+        assertEquals(HttpStatus.PARTIAL_CONTENT, response.status());
+        assertEquals("world", response.contentUtf8());
+        assertEquals("bytes 6-10/11", response.headers().get(HttpHeaderNames.CONTENT_RANGE));
+    }
+
+    @Test
+    void downloadFile_rejectsRangeBeyondEnd() throws Exception {
+        var download = mockDownload("hello".getBytes(StandardCharsets.UTF_8));
+        when(fileService.openDownload(eq("proc-5"), eq("/out.log"))).thenReturn(download);
 
-        Files.deleteIfExists(tempFile);
+        WebClient client = WebClient.of(server.httpUri());
+        AggregatedHttpResponse response = client.execute(
+                        RequestHeaders.builder(HttpMethod.GET, "/api/v1/files/download/true/proc-5/out.log")
+                                .add(HttpHeaderNames.RANGE, "bytes=10-20")
+                                .build())
+                .aggregate()
+                .join();
+
+        assertEquals(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, response.status());
+        assertEquals("bytes */5", response.headers().get(HttpHeaderNames.CONTENT_RANGE));
     }
 
     @Test
     void downloadFile_returnsErrorOnFailure() throws Exception {
-        when(fileService.downloadFile(anyString(), anyString())).thenThrow(new RuntimeException("not found"));
+        when(fileService.openDownload(anyString(), anyString())).thenThrow(new RuntimeException("not found"));
 
         WebClient client = WebClient.of(server.httpUri());
         AggregatedHttpResponse response = client.get("/api/v1/files/download/true/proc-3/missing/file.txt")
@@ -115,4 +161,59 @@ class FileControllerTest {
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.status());
         assertTrue(response.contentUtf8().contains("not found"));
     }
+
+    @Test
+    void uploadFile_streamsFilePart() throws Exception {
+        var uploaded = new ByteArrayOutputStream();
+        when(fileService.uploadFile(eq("proc-6"), eq("/inputs"), any(InputStream.class), eq("in.txt")))
+                .thenAnswer(invocation -> {
+                    InputStream in = invocation.getArgument(2);
+                    return in.transferTo(uploaded);
+                });
+
+        Multipart multipart = Multipart.of(
+                BodyPart.of(ContentDisposition.of("form-data", "note"), "ignored"),
+                BodyPart.of(
+                        ContentDisposition.of("form-data", "file", "in.txt"),
+                        MediaType.PLAIN_TEXT_UTF_8,
+                        "uploaded content"));
+
+        WebClient client = WebClient.of(server.httpUri());
+        AggregatedHttpResponse response = client.execute(
+                        multipart.toHttpRequest("/api/v1/files/upload/true/proc-6/inputs"))
+                .aggregate()
+                .join();
+
+        assertEquals(HttpStatus.OK, response.status());
+        assertEquals("uploaded content", uploaded.toString(StandardCharsets.UTF_8));
+        JsonNode json = mapper.readTree(response.contentUtf8());
+        assertEquals("in.txt", json.get("name").asText());
+        assertEquals("uploaded content".length(), json.get("size").asLong());
+    }
+
+    @Test
+    void uploadFile_rejectsMissingFilePart() {
+        Multipart multipart = Multipart.of(BodyPart.of(ContentDisposition.of("form-data", "note"), "no file"));
+
+        WebClient client = WebClient.of(server.httpUri());
+        AggregatedHttpResponse response = client.execute(
+                        multipart.toHttpRequest("/api/v1/files/upload/true/proc-7/inputs"))
+                .aggregate()
+                .join();
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.status());
+    }
+
+    private static RemoteFileDownload mockDownload(byte[] content) throws Exception {
+        var metadata = new FileMetadata();
+        metadata.setSize(content.length);
+        var download = Mockito.mock(RemoteFileDownload.class);
+        when(download.getMetadata()).thenReturn(metadata);
+        lenient().when(download.open(anyLong(), anyLong())).thenAnswer(invocation -> {
+            long offset = invocation.getArgument(0);
+            long length = invocation.getArgument(1);
+            return new ByteArrayInputStream(content, (int) offset, (int) length);
+        });
+        return download;
+    }
 }
@@ -21,16 +21,37 @@ package org.apache.airavata.server.grpc.config;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSKeySelector;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
 import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.jwt.proc.ConfigurableJWTProcessor;
+import com.nimbusds.jwt.proc.DefaultJWTClaimsVerifier;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import org.junit.jupiter.api.Test;
 
 /**
- * Unit tests for the pure identity-derivation logic of {@link JwtVerifier} — no signing or live Keycloak.
- * The signature/expiry/issuer verification path is exercised end-to-end by the real-Keycloak integration check.
+ * Unit tests for {@link JwtVerifier} without a live Keycloak: the identity derivation from claims, and the
+ * verification cache against tokens signed with a local key. The JWKS-backed path is exercised end-to-end by the
+ * real-Keycloak integration check.
  */
 class JwtVerifierTest {
 
@@ -71,4 +92,69 @@ class JwtVerifierTest {
         assertEquals("default", v.gatewayId());
         assertTrue(v.roles().isEmpty());
     }
+
+    @Test
+    void verify_reusesTheOutcomeOfEarlierVerifications() throws Exception {
+        String issuer = "https://auth.airavata.host/realms/cachetest";
+        RSAKey key = new RSAKeyGenerator(2048).keyID("k1").generate();
+        AtomicInteger signatureChecks = new AtomicInteger();
+        JWSKeySelector<SecurityContext> keys =
+                new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, new ImmutableJWKSet<>(new JWKSet(key)));
+        ConfigurableJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector((header, context) -> {
+            signatureChecks.incrementAndGet();
+            return keys.selectJWSKeys(header, context);
+        });
+        processor.setJWTClaimsSetVerifier(new DefaultJWTClaimsVerifier<>(
+                new JWTClaimsSet.Builder().issuer(issuer).build(), Set.of("exp")));
+        JwtVerifier.PROCESSORS.put(issuer, processor);
+
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(issuer)
+                .claim("preferred_username", "cache-user")
+                .expirationTime(new Date(System.currentTimeMillis() + 300_000))
+                .build();
+        SignedJWT jwt = new SignedJWT(
+                new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("k1").build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        String token = jwt.serialize();
+
+        assertEquals("cache-user", JwtVerifier.verify(token).userName());
+        assertEquals("cachetest", JwtVerifier.verify(token).gatewayId());
+        assertEquals(1, signatureChecks.get());
+
+        String forged = token.substring(0, token.lastIndexOf('.') + 1) + "AAAA";
+        assertThrows(TokenVerificationException.class, () -> JwtVerifier.verify(forged));
+        assertThrows(TokenVerificationException.class, () -> JwtVerifier.verify(forged));
+        assertEquals(2, signatureChecks.get());
+    }
+
+    @Test
+    void verify_doesNotCacheATokenSignedWithAKeyTheJwksDoesNotHaveYet() throws Exception {
+        String issuer = "https://auth.airavata.host/realms/rotationtest";
+        RSAKey oldKey = new RSAKeyGenerator(2048).keyID("old").generate();
+        RSAKey newKey = new RSAKeyGenerator(2048).keyID("new").generate();
+        AtomicReference<JWKSet> published = new AtomicReference<>(new JWKSet(oldKey));
+        JWKSource<SecurityContext> jwks = (selector, context) -> selector.select(published.get());
+        ConfigurableJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwks));
+        processor.setJWTClaimsSetVerifier(new DefaultJWTClaimsVerifier<>(
+                new JWTClaimsSet.Builder().issuer(issuer).build(), Set.of("exp")));
+        JwtVerifier.PROCESSORS.put(issuer, processor);
+
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(issuer)
+                .claim("preferred_username", "rotated-user")
+                .expirationTime(new Date(System.currentTimeMillis() + 300_000))
+                .build();
+        SignedJWT jwt = new SignedJWT(
+                new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("new").build(), claims);
+        jwt.sign(new RSASSASigner(newKey));
+        String token = jwt.serialize();
+
+        assertThrows(TokenVerificationException.class, () -> JwtVerifier.verify(token));
+        // The realm rotates its keys: the token verifies as soon as the JWKS has the new one
+        published.set(new JWKSet(List.of(oldKey, newKey)));
+        assertEquals("rotated-user", JwtVerifier.verify(token).userName());
+    }
 }
@@ -0,0 +1,129 @@
+/**
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.airavata.server.grpc.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class VerifiedTokenCacheTest {
+
+    private static final VerifiedToken TOKEN = new VerifiedToken("alice", "default", List.of("user"));
+
+    @Test
+    void verifiedTokenIsCachedUntilItExpires() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, 10, 1000);
+        String key = VerifiedTokenCache.key("header.payload.signature");
+
+        cache.putVerified(key, TOKEN, 5000, 0);
+
+        assertSame(TOKEN, cache.get(key, 4999));
+        assertNull(cache.get(key, 5000));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void rejectedTokenFailsFastWithinTheNegativeTtl() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, 10, 1000);
+        String key = VerifiedTokenCache.key("header.payload.forged");
+
+        cache.putRejected(key, "Access token verification failed: Signed JWT rejected", 0);
+
+        TokenVerificationException e = assertThrows(TokenVerificationException.class, () -> cache.get(key, 999));
+        assertEquals("Access token verification failed: Signed JWT rejected", e.getMessage());
+        assertNull(cache.get(key, 1000));
+    }
+
+    @Test
+    void expiredTokensAreNotCached() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, 10, 1000);
+        String key = VerifiedTokenCache.key("header.payload.old");
+
+        cache.putVerified(key, TOKEN, 100, 100);
+
+        assertNull(cache.get(key, 100));
+    }
+
+    @Test
+    void cacheStaysWithinItsBound() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100, 10, 1000);
+        for (int i = 0; i < 1000; i++) {
+            cache.putVerified(VerifiedTokenCache.key("token-" + i), TOKEN, i < 500 ? 10 : 10_000, 0);
+        }
+        assertTrue(cache.size() <= 100, "size " + cache.size());
+
+        cache.putVerified(VerifiedTokenCache.key("late"), TOKEN, 10_000, 20);
+        assertSame(TOKEN, cache.get(VerifiedTokenCache.key("late"), 20));
+    }
+
+    @Test
+    void fullCacheEvictsTheLeastRecentlyUsedToken() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(1, 1, 1000);
+        String first = VerifiedTokenCache.key("first");
+        String second = VerifiedTokenCache.key("second");
+
+        cache.putVerified(first, TOKEN, 10_000, 0);
+        cache.putVerified(second, TOKEN, 10_000, 0);
+
+        assertNull(cache.get(first, 0));
+        assertSame(TOKEN, cache.get(second, 0));
+    }
+
+    @Test
+    void recentlyUsedTokensSurviveAFullCache() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(64, 10, 1000);
+        String hot = VerifiedTokenCache.key("hot");
+        cache.putVerified(hot, TOKEN, 10_000, 0);
+        for (int i = 0; i < 1000; i++) {
+            assertSame(TOKEN, cache.get(hot, 0));
+            cache.putVerified(VerifiedTokenCache.key("cold-" + i), TOKEN, 10_000, 0);
+        }
+        assertSame(TOKEN, cache.get(hot, 0));
+        assertEquals(64, cache.size());
+    }
+
+    @Test
+    void rejectedTokensDoNotEvictVerifiedOnes() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100, 10, 1000);
+        String key = VerifiedTokenCache.key("header.payload.signature");
+        cache.putVerified(key, TOKEN, 10_000, 0);
+
+        for (int i = 0; i < 1000; i++) {
+            cache.putRejected(VerifiedTokenCache.key("garbage-" + i), "Malformed access token", 0);
+        }
+
+        assertSame(TOKEN, cache.get(key, 0));
+        assertTrue(cache.size() <= 11, "size " + cache.size());
+    }
+
+    @Test
+    void keysDoNotContainTheToken() {
+        String key = VerifiedTokenCache.key("eyJhbGciOiJSUzI1NiJ9.eyJzdWIiOiJhbGljZSJ9.c2ln");
+
+        assertEquals(43, key.length());
+        assertNotEquals(key, VerifiedTokenCache.key("eyJhbGciOiJSUzI1NiJ9.eyJzdWIiOiJhbGljZSJ9.c2lo"));
+    }
+}